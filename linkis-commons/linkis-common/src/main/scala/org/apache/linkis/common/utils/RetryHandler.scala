@@ -21,6 +21,9 @@ import org.apache.linkis.common.exception.FatalException
 
 import org.apache.commons.lang3.{ClassUtils => CommonClassUtils}
 
+import java.util.concurrent.{CompletableFuture, CompletionException, TimeUnit}
+import java.util.function.BiConsumer
+
 import scala.collection.mutable.ArrayBuffer
 
 trait RetryHandler extends Logging {
@@ -66,6 +69,47 @@ trait RetryHandler extends Logging {
     result
   }
 
+  /**
+   * Non-blocking form of [[retry]], the next attempt is scheduled on [[Utils.defaultScheduler]]
+   * instead of sleeping in the caller thread
+   */
+  def retryAsync[T](op: => CompletableFuture[T], retryName: String): CompletableFuture[T] = {
+    if (retryExceptions.isEmpty || retryNum <= 1) return op
+    val result = new CompletableFuture[T]
+    def attempt(retry: Int): Unit = Utils
+      .tryCatch(op) { t =>
+        val failed = new CompletableFuture[T]
+        failed.completeExceptionally(t)
+        failed
+      }
+      .whenComplete(new BiConsumer[T, Throwable] {
+        override def accept(value: T, t: Throwable): Unit = if (t == null) {
+          result.complete(value)
+        } else {
+          val cause = t match {
+            case e: CompletionException if e.getCause != null => e.getCause
+            case _ => t
+          }
+          if (retry + 1 >= retryNum || !exceptionCanRetry(cause)) {
+            result.completeExceptionally(cause)
+          } else {
+            val retryInterval = nextInterval(retry + 1)
+            logger.info(retryName + s" failed with ${cause.getClass.getName}, wait ${ByteTimeUtils
+              .msDurationToString(retryInterval)} for next retry. Retried ${retry + 1} ...")
+            Utils.defaultScheduler.schedule(
+              new Runnable {
+                override def run(): Unit = attempt(retry + 1)
+              },
+              retryInterval,
+              TimeUnit.MILLISECONDS
+            )
+          }
+        }
+      })
+    attempt(0)
+    result
+  }
+
 }
 
 class DefaultRetryHandler extends RetryHandler {}
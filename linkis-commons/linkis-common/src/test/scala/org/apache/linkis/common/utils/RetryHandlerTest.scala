@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.common.utils
+
+import java.io.IOException
+import java.util.concurrent.{CompletableFuture, ExecutionException, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.jupiter.api.Assertions._
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.function.Executable
+
+class RetryHandlerTest {
+
+  private def newRetryHandler(): RetryHandler = {
+    val retryHandler = new DefaultRetryHandler
+    retryHandler.setRetryNum(3)
+    retryHandler.setRetryPeriod(10)
+    retryHandler.addRetryException(classOf[IOException])
+    retryHandler
+  }
+
+  private def failedFuture(t: Throwable): CompletableFuture[String] = {
+    val future = new CompletableFuture[String]
+    future.completeExceptionally(t)
+    future
+  }
+
+  private def getResult(result: CompletableFuture[String]): Executable = new Executable {
+    override def execute(): Unit = result.get(10, TimeUnit.SECONDS)
+  }
+
+  @Test private[utils] def testRetryAsyncSucceed() = {
+    val attempts = new AtomicInteger
+    val result = newRetryHandler().retryAsync(
+      if (attempts.incrementAndGet() < 3) failedFuture(new IOException("retry"))
+      else CompletableFuture.completedFuture("ok"),
+      "test"
+    )
+    assertEquals("ok", result.get(10, TimeUnit.SECONDS))
+    assertEquals(3, attempts.get())
+  }
+
+  @Test private[utils] def testRetryAsyncGiveUp() = {
+    val attempts = new AtomicInteger
+    val result = newRetryHandler().retryAsync(
+      {
+        attempts.incrementAndGet()
+        failedFuture(new IOException("retry"))
+      },
+      "test"
+    )
+    val e = assertThrows(classOf[ExecutionException], getResult(result))
+    assertTrue(e.getCause.isInstanceOf[IOException])
+    assertEquals(3, attempts.get())
+  }
+
+  @Test private[utils] def testRetryAsyncNotRetryable() = {
+    val attempts = new AtomicInteger
+    val result = newRetryHandler().retryAsync[String](
+      {
+        attempts.incrementAndGet()
+        throw new IllegalStateException("not retry")
+      },
+      "test"
+    )
+    val e = assertThrows(classOf[ExecutionException], getResult(result))
+    assertTrue(e.getCause.isInstanceOf[IllegalStateException])
+    assertEquals(1, attempts.get())
+  }
+
+}
@@ -30,8 +30,7 @@ import org.apache.linkis.httpclient.discovery.{AbstractDiscovery, Discovery, Hea
 import org.apache.linkis.httpclient.exception.{
   HttpClientResultException,
   HttpClientRetryException,
-  HttpMessageParseException,
-  HttpMethodNotSupportException
+  HttpMessageParseException
 }
 import org.apache.linkis.httpclient.loadbalancer.{
   AbstractLoadBalancer,
@@ -54,6 +53,7 @@ import org.apache.http.client.entity.{
 }
 import org.apache.http.client.methods._
 import org.apache.http.client.utils.URIBuilder
+import org.apache.http.concurrent.FutureCallback
 import org.apache.http.conn.{
   ConnectionPoolTimeoutException,
   ConnectTimeoutException,
@@ -62,13 +62,22 @@ import org.apache.http.conn.{
 import org.apache.http.entity.{ContentType, StringEntity}
 import org.apache.http.entity.mime.MultipartEntityBuilder
 import org.apache.http.impl.client.{BasicCookieStore, CloseableHttpClient, HttpClients}
+import org.apache.http.impl.nio.client.{CloseableHttpAsyncClient, HttpAsyncClients}
 import org.apache.http.message.BasicNameValuePair
 import org.apache.http.util.EntityUtils
 
-import java.net.URI
+import java.net.{ConnectException, SocketTimeoutException, URI}
 import java.nio.charset.Charset
 import java.util
 import java.util.Locale
+import java.util.concurrent.{
+  CompletableFuture,
+  CompletionException,
+  CompletionStage,
+  ExecutorService,
+  TimeoutException
+}
+import java.util.function.{BiConsumer, Function => JFunction, Supplier}
 
 import scala.collection.JavaConverters._
 
@@ -79,6 +88,12 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
   protected val CONNECT_TIME_OUT =
     CommonVars("wds.linkis.httpclient.default.connect.timeOut", 50000).getValue
 
+  protected val ASYNC_CALLBACK_THREAD_MAX =
+    CommonVars("linkis.httpclient.async.callback.thread.max", 10).getValue
+
+  protected val ASYNC_BLOCKING_THREAD_MAX =
+    CommonVars("linkis.httpclient.async.blocking.thread.max", 20).getValue
+
   protected val cookieStore = new BasicCookieStore
 
   protected val httpClient: CloseableHttpClient = HttpClients
@@ -88,6 +103,12 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
     .setMaxConnPerRoute(clientConfig.getMaxConnection / 2)
     .build
 
+  private val asyncClientLock = new Object
+  @volatile private var asyncHttpClient: CloseableHttpAsyncClient = _
+  private var asyncCallbackExecutor: ExecutorService = _
+  // runs the blocking work of async requests, logins and stream bodies, off the callback threads
+  private var asyncBlockingExecutor: ExecutorService = _
+
   if (clientConfig.getAuthenticationStrategy != null) {
     clientConfig.getAuthenticationStrategy match {
       case auth: AbstractAuthenticationStrategy => auth.setClient(this)
@@ -179,6 +200,16 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
           action.getClass.getSimpleName + "HttpRequest"
         )
       }
+    toResult(response, action, prepareReqTime, attempts, startTime)
+  }
+
+  private def toResult(
+      response: HttpResponse,
+      action: HttpAction,
+      prepareReqTime: Long,
+      attempts: util.List[Long],
+      startTime: Long
+  ): Result = {
     val beforeDeserializeTime = System.currentTimeMillis
     responseToResult(response, action) match {
       case metricResult: MetricResult =>
@@ -192,8 +223,176 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
     }
   }
 
-  override def execute(requestAction: Action, resultListener: ResultListener): Unit = {
-    throw new HttpMethodNotSupportException("Not supported client method!")
+  /**
+   * The listener is called in the async callback threads, a socket timeout is reported by
+   * onTimeout
+   */
+  override def execute(requestAction: Action, resultListener: ResultListener): Unit =
+    executeAsync(requestAction).whenCompleteAsync(
+      new BiConsumer[Result, Throwable] {
+        override def accept(result: Result, t: Throwable): Unit = if (t == null) {
+          resultListener.onSuccess(result)
+        } else {
+          unwrapCompletionException(t) match {
+            case _: SocketTimeoutException => resultListener.onTimeout()
+            case cause => resultListener.onFailure(cause)
+          }
+        }
+      },
+      getAsyncCallbackExecutor
+    )
+
+  def executeAsync(requestAction: Action): CompletableFuture[Result] =
+    executeAsync(requestAction, -1)
+
+  /**
+   * Execute the action on the NIO client without holding the caller thread. The response is
+   * deserialized in the async callback threads. Download, upload or streaming actions, whose
+   * bodies are streams, and the logins run on the blocking client in separate threads, so they
+   * cannot starve the callbacks
+   * 在NIO客户端上异步执行请求，不占用调用线程
+   */
+  def executeAsync(requestAction: Action, waitTime: Long): CompletableFuture[Result] = {
+    val action = requestAction match {
+      case _: DownloadAction | _: UploadAction | _: StreamingAction =>
+        return CompletableFuture.supplyAsync(
+          new Supplier[Result] {
+            override def get(): Result = execute(requestAction, waitTime)
+          },
+          getAsyncBlockingExecutor
+        )
+      case httpAction: HttpAction => prepareAction(httpAction)
+      case _ =>
+        return failedFuture(
+          new UnsupportedOperationException(
+            "only HttpAction supported, but the fact is " + requestAction.getClass
+          )
+        )
+    }
+    val startTime = System.currentTimeMillis
+    val prepareReqTime = System.currentTimeMillis - startTime
+    prepareCookie(action)
+    val attempts = new util.Vector[Long]()
+
+    def addAttempt(): CompletableFuture[HttpResponse] = {
+      val req =
+        try prepareReq(action)
+        catch { case t: Throwable => return failedFuture(t) }
+      val attemptStartTime = System.currentTimeMillis
+      executeRequestAsync(req, Some(waitTime).filter(_ > 0)).thenComposeAsync(
+        new JFunction[HttpResponse, CompletionStage[HttpResponse]] {
+          override def apply(response: HttpResponse): CompletionStage[HttpResponse] = {
+            val taken = System.currentTimeMillis - attemptStartTime
+            attempts.add(taken)
+            val costTime = ByteTimeUtils.msDurationToString(taken)
+            logger.info(
+              s"invoke ${req.getURI} get status ${response.getStatusLine.getStatusCode} taken: ${costTime}."
+            )
+            if (response.getStatusLine.getStatusCode == 401) {
+              val msg = Utils.tryFinally {
+                Utils.tryCatch(EntityUtils.toString(response.getEntity)) { t =>
+                  logger.warn("failed to parse entity", t)
+                  ""
+                }
+              }(EntityUtils.consumeQuietly(response.getEntity))
+              // the login blocks on the sync client, keep it off the callback threads
+              val login = CompletableFuture.runAsync(
+                new Runnable {
+                  override def run(): Unit = tryLogin(action, getRequestUrl(action), true)
+                },
+                getAsyncBlockingExecutor
+              )
+              login.thenCompose(new JFunction[Void, CompletionStage[HttpResponse]] {
+                override def apply(v: Void): CompletionStage[HttpResponse] =
+                  if (attempts.size() <= 1) {
+                    logger.info("The user is not logged in, default retry once")
+                    addAttempt()
+                  } else {
+                    logger.info("The user is not logged in, you can set a retry")
+                    failedFuture(
+                      new HttpClientRetryException(
+                        "The user is not logged in, please log in first, you can set a retry, message: " +
+                          msg
+                      )
+                    )
+                  }
+              })
+            } else {
+              CompletableFuture.completedFuture(response)
+            }
+          }
+        },
+        getAsyncCallbackExecutor
+      )
+    }
+
+    val response =
+      if (!clientConfig.isRetryEnabled) {
+        addAttempt()
+      } else {
+        clientConfig.getRetryHandler.retryAsync(
+          addAttempt(),
+          action.getClass.getSimpleName + "HttpRequest"
+        )
+      }
+    response.thenApplyAsync(
+      new JFunction[HttpResponse, Result] {
+        override def apply(response: HttpResponse): Result =
+          toResult(response, action, prepareReqTime, attempts, startTime)
+      },
+      getAsyncCallbackExecutor
+    )
+  }
+
+  private def failedFuture[T](t: Throwable): CompletableFuture[T] = {
+    val future = new CompletableFuture[T]
+    future.completeExceptionally(t)
+    future
+  }
+
+  private def unwrapCompletionException(t: Throwable): Throwable = t match {
+    case e: CompletionException if e.getCause != null => unwrapCompletionException(e.getCause)
+    case _ => t
+  }
+
+  /**
+   * NIO client of the async requests, started by the first one so clients which only block do not
+   * run its io threads
+   */
+  protected def getAsyncHttpClient: CloseableHttpAsyncClient = {
+    if (asyncHttpClient == null) asyncClientLock.synchronized {
+      if (asyncHttpClient == null) {
+        asyncCallbackExecutor = Utils.newFixedThreadPool(
+          ASYNC_CALLBACK_THREAD_MAX,
+          clientName + "-Async-Callback-Thread-",
+          true
+        )
+        val client = HttpAsyncClients
+          .custom()
+          .setDefaultCookieStore(cookieStore)
+          .setMaxConnTotal(clientConfig.getMaxConnection)
+          .setMaxConnPerRoute(clientConfig.getMaxConnection / 2)
+          .build
+        asyncBlockingExecutor = Utils.newFixedThreadPool(
+          ASYNC_BLOCKING_THREAD_MAX,
+          clientName + "-Async-Blocking-Thread-",
+          true
+        )
+        client.start()
+        asyncHttpClient = client
+      }
+    }
+    asyncHttpClient
+  }
+
+  protected def getAsyncCallbackExecutor: ExecutorService = {
+    getAsyncHttpClient
+    asyncCallbackExecutor
+  }
+
+  protected def getAsyncBlockingExecutor: ExecutorService = {
+    getAsyncHttpClient
+    asyncBlockingExecutor
   }
 
   protected def getRequestUrl(suffixUrl: String, requestBody: String): String = {
@@ -415,46 +614,67 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
       req: HttpRequestBase,
       waitTime: Option[Long]
   ): CloseableHttpResponse = {
+    req.setConfig(getRequestConfig(waitTime))
+    val response =
+      try {
+        httpClient.execute(req)
+      } catch {
+        case t: Throwable =>
+          throw toRetryException(req, t)
+      }
+    response
+  }
+
+  protected def executeRequestAsync(
+      req: HttpRequestBase,
+      waitTime: Option[Long]
+  ): CompletableFuture[HttpResponse] = {
+    req.setConfig(getRequestConfig(waitTime))
+    val future = new CompletableFuture[HttpResponse]
+    getAsyncHttpClient.execute(
+      req,
+      new FutureCallback[HttpResponse] {
+        override def completed(response: HttpResponse): Unit = future.complete(response)
+
+        override def failed(e: Exception): Unit =
+          future.completeExceptionally(toRetryException(req, e))
+
+        override def cancelled(): Unit = future.cancel(false)
+      }
+    )
+    future
+  }
+
+  private def getRequestConfig(waitTime: Option[Long]): RequestConfig = {
     val readTimeOut = waitTime.getOrElse(clientConfig.getReadTimeout)
     val connectTimeOut =
       if (clientConfig.getConnectTimeout > 1000 || clientConfig.getConnectTimeout < 0) {
         clientConfig.getConnectTimeout
       } else CONNECT_TIME_OUT
-    val requestConfig = RequestConfig.custom
+    RequestConfig.custom
       .setConnectTimeout(connectTimeOut.toInt)
       .setConnectionRequestTimeout(connectTimeOut.toInt)
       .setSocketTimeout(readTimeOut.toInt)
       .build
-    req.setConfig(requestConfig)
-    val response =
-      try {
-        httpClient.execute(req)
-      } catch {
-        case connectionPoolTimeOutException: ConnectionPoolTimeoutException =>
-          val serverUrl = getServerUrl(req.getURI)
-          addUnHealthyUrlToDiscovery(serverUrl)
-          logger.warn("will be server url add unhealthy for connectionPoolTimeOutException")
-          throw new HttpClientRetryException(
-            "connectionPoolTimeOutException",
-            connectionPoolTimeOutException
-          )
-        case connectionTimeOutException: ConnectTimeoutException =>
-          val serverUrl = getServerUrl(req.getURI)
-          addUnHealthyUrlToDiscovery(serverUrl)
-          logger.warn("will be server url add unhealthy for connectionTimeOutException")
-          throw new HttpClientRetryException(
-            "connectionTimeOutException",
-            connectionTimeOutException
-          )
-        case httpHostConnectException: HttpHostConnectException =>
-          val serverUrl = getServerUrl(req.getURI)
-          addUnHealthyUrlToDiscovery(serverUrl)
-          logger.warn("will be server url add unhealthy for httpHostConnectException")
-          throw new HttpClientRetryException("httpHostConnectException", httpHostConnectException)
-        case t: Throwable =>
-          throw t
-      }
-    response
+  }
+
+  /**
+   * Mark the server unhealthy and make the failure retryable when it cannot be connected, the
+   * async client reports a pool timeout as TimeoutException and a refused connection as
+   * ConnectException
+   */
+  private def toRetryException(req: HttpRequestBase, t: Throwable): Throwable = {
+    val exceptionName = t match {
+      case _: ConnectionPoolTimeoutException | _: TimeoutException =>
+        "connectionPoolTimeOutException"
+      case _: ConnectTimeoutException => "connectionTimeOutException"
+      case _: HttpHostConnectException | _: ConnectException => "httpHostConnectException"
+      case _ => return t
+    }
+    val serverUrl = getServerUrl(req.getURI)
+    addUnHealthyUrlToDiscovery(serverUrl)
+    logger.warn(s"will be server url add unhealthy for $exceptionName")
+    new HttpClientRetryException(exceptionName, t)
   }
 
   private def addUnHealthyUrlToDiscovery(serverUrl: String): Unit = {
@@ -485,7 +705,9 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
     response
   }
 
-  protected def responseToResult(response: HttpResponse, requestAction: Action): Result =
+  protected def responseToResult(response: HttpResponse, requestAction: Action): Result = {
+    // the response is released by the result once it is handed over to a streaming result
+    var streamed = false
     Utils.tryFinally {
       val entity = response.getEntity
       val result = requestAction match {
@@ -539,12 +761,28 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
               )
           }
         case httpAction: HttpAction =>
-          var responseBody: String = null
-          if (entity != null) {
-            responseBody = EntityUtils.toString(entity, "UTF-8")
+          val streamingResult = httpAction match {
+            case streaming: StreamingAction
+                if streaming.isStreaming && entity != null &&
+                  response.getStatusLine.getStatusCode == 200 =>
+              httpResponseToStreamingResult(response, httpAction)
+            case _ => None
           }
-          httpResponseToResult(response, httpAction, responseBody)
-            .getOrElse(throw new HttpMessageParseException("cannot parse message: " + responseBody))
+          streamingResult
+            .map { result =>
+              streamed = true
+              result
+            }
+            .getOrElse {
+              var responseBody: String = null
+              if (entity != null) {
+                responseBody = EntityUtils.toString(entity, "UTF-8")
+              }
+              httpResponseToResult(response, httpAction, responseBody)
+                .getOrElse(
+                  throw new HttpMessageParseException("cannot parse message: " + responseBody)
+                )
+            }
       }
       result match {
         case userAction: UserAction =>
@@ -556,7 +794,7 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
       }
       result
     } {
-      if (!requestAction.isInstanceOf[DownloadAction]) {
+      if (!requestAction.isInstanceOf[DownloadAction] && !streamed) {
         response match {
           case r: CloseableHttpResponse =>
             IOUtils.closeQuietly(r)
@@ -564,6 +802,7 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
         }
       }
     }
+  }
 
   protected def httpResponseToResult(
       response: HttpResponse,
@@ -571,12 +810,27 @@ abstract class AbstractHttpClient(clientConfig: ClientConfig, clientName: String
       responseBody: String
   ): Option[Result]
 
+  /**
+   * Parse the entity of a [[StreamingAction]] while it is read. A returned result takes over the
+   * response and must release it, None falls back to [[httpResponseToResult]] on the buffered body
+   * 边读边解析响应体，返回的结果负责释放响应，返回None时回退为整体读取
+   */
+  protected def httpResponseToStreamingResult(
+      response: HttpResponse,
+      requestAction: HttpAction
+  ): Option[Result] = None
+
   override def close(): Unit = {
     discovery.foreach {
       case d: AbstractDiscovery => IOUtils.closeQuietly(d)
       case _ =>
     }
     httpClient.close()
+    if (asyncHttpClient != null) {
+      asyncHttpClient.close()
+      asyncCallbackExecutor.shutdown()
+      asyncBlockingExecutor.shutdown()
+    }
   }
 
 }
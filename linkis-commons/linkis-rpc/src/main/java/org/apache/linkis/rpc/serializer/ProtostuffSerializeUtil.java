@@ -17,6 +17,9 @@
 
 package org.apache.linkis.rpc.serializer;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -43,6 +46,10 @@ public class ProtostuffSerializeUtil {
   private static Map<Class<?>, Schema<?>> schemaCache = new ConcurrentHashMap<>();
 
   public static <T> String serialize(T obj) {
+    return toHexString(serializeToBytes(obj));
+  }
+
+  public static <T> byte[] serializeToBytes(T obj) {
 
     if (obj == null) {
       throw new NullPointerException();
@@ -56,7 +63,25 @@ public class ProtostuffSerializeUtil {
     } finally {
       buffer.clear();
     }
-    return toHexString(data);
+    return data;
+  }
+
+  /**
+   * Write the raw protostuff bytes of the object, without the hex encoding of {@link
+   * #serialize(Object)}(直接写出protostuff字节，不做十六进制编码)
+   */
+  public static <T> void serialize(T obj, OutputStream outputStream) throws IOException {
+    if (obj == null) {
+      throw new NullPointerException();
+    }
+    Class<T> clazz = (Class<T>) obj.getClass();
+    Schema<T> schema = getSchema(clazz);
+    LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+    try {
+      ProtostuffIOUtil.writeTo(outputStream, obj, schema, buffer);
+    } finally {
+      buffer.clear();
+    }
   }
 
   public static <T> T deserialize(String str, Class<T> clazz) {
@@ -66,6 +91,22 @@ public class ProtostuffSerializeUtil {
     return obj;
   }
 
+  /**
+   * Decode the object while reading the stream, which is read until the end
+   * 边读边解码，输入流会被读取到末尾
+   */
+  public static <T> T deserialize(InputStream inputStream, Class<T> clazz) throws IOException {
+    Schema<T> schema = getSchema(clazz);
+    T obj = schema.newMessage();
+    LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+    try {
+      ProtostuffIOUtil.mergeFrom(inputStream, obj, schema, buffer);
+    } finally {
+      buffer.clear();
+    }
+    return obj;
+  }
+
   private static <T> Schema<T> getSchema(Class<T> clazz) {
     Schema<T> schema = (Schema<T>) schemaCache.get(clazz);
     if (schema == null) {
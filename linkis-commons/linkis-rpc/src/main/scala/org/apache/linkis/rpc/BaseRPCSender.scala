@@ -20,29 +20,39 @@ package org.apache.linkis.rpc
 import org.apache.linkis.DataWorkCloudApplication
 import org.apache.linkis.common.ServiceInstance
 import org.apache.linkis.common.exception.WarnException
-import org.apache.linkis.common.utils.Logging
+import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.protocol.Protocol
 import org.apache.linkis.rpc.conf.RPCConfiguration.{
+  BDP_RPC_BINARY_ENABLE,
+  BDP_RPC_BINARY_SERVICES,
   BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX,
   BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_MAX,
   BDP_RPC_SENDER_ASYN_QUEUE_CAPACITY
 }
+import org.apache.linkis.rpc.exception.DWCURIException
 import org.apache.linkis.rpc.interceptor._
-import org.apache.linkis.rpc.transform.{RPCConsumer, RPCProduct}
+import org.apache.linkis.rpc.transform.{RPCBinaryCodec, RPCConsumer, RPCProduct}
 import org.apache.linkis.server.Message
 import org.apache.linkis.server.conf.ServerConfiguration
 
+import org.apache.commons.io.IOUtils
+
+import org.springframework.http.HttpHeaders
+
 import java.util
+import java.util.concurrent.ConcurrentHashMap
 
+import scala.collection.JavaConverters._
 import scala.concurrent.duration.Duration
 import scala.runtime.BoxedUnit
 
-import feign.{Feign, Retryer}
+import feign.{Feign, Response, Retryer}
 import feign.slf4j.Slf4jLogger
 
 private[rpc] class BaseRPCSender extends Sender with Logging {
   private var name: String = _
   private var rpc: RPCReceiveRemote = _
+  private var binaryRPC: RPCBinaryReceiveRemote = _
 
   protected def getRPCInterceptors: Array[RPCInterceptor] = Array.empty
 
@@ -67,18 +77,82 @@ private[rpc] class BaseRPCSender extends Sender with Logging {
     rpc
   }
 
+  private def getBinaryRPC: RPCBinaryReceiveRemote = {
+    if (binaryRPC == null) this synchronized {
+      if (binaryRPC == null) binaryRPC = newBinaryRPC
+    }
+    binaryRPC
+  }
+
   private[rpc] def getApplicationName = name
 
   protected def doBuilder(builder: Feign.Builder): Unit =
     builder.retryer(Retryer.NEVER_RETRY)
 
+  private def getRPCUrl: String = {
+    var url = if (name.startsWith("http://")) name else "http://" + name
+    if (url.endsWith("/")) url = url.substring(0, url.length - 1)
+    url + ServerConfiguration.BDP_SERVER_RESTFUL_URI.getValue
+  }
+
   protected def newRPC: RPCReceiveRemote = {
     val builder = Feign.builder.logger(new Slf4jLogger()).logLevel(feign.Logger.Level.FULL)
     doBuilder(builder)
-    var url = if (name.startsWith("http://")) name else "http://" + name
-    if (url.endsWith("/")) url = url.substring(0, url.length - 1)
-    url += ServerConfiguration.BDP_SERVER_RESTFUL_URI.getValue
-    builder.target(classOf[RPCReceiveRemote], url)
+    builder.target(classOf[RPCReceiveRemote], getRPCUrl)
+  }
+
+  protected def newBinaryRPC: RPCBinaryReceiveRemote = {
+    // the bodies are binary, so they are not logged like the json ones
+    val builder = Feign.builder.logger(new Slf4jLogger()).logLevel(feign.Logger.Level.HEADERS)
+    doBuilder(builder)
+    builder.target(classOf[RPCBinaryReceiveRemote], getRPCUrl)
+  }
+
+  /** Senders not going through http, such as the local one, keep the json transport */
+  protected def supportBinary: Boolean = true
+
+  private def useBinary: Boolean = supportBinary && BDP_RPC_BINARY_ENABLE.getValue &&
+    (BDP_RPC_BINARY_SERVICES.isEmpty || BDP_RPC_BINARY_SERVICES.exists(_.equalsIgnoreCase(name))) &&
+    !BaseRPCSender.binaryUnsupportedServices.containsKey(name)
+
+  /**
+   * Send the message with the binary transport, None means the service does not support it and
+   * the json transport should be used(使用二进制传输，None表示对方不支持，需回退到json传输)
+   */
+  private def binaryExecute(
+      message: Any,
+      duration: Long,
+      op: (RPCBinaryReceiveRemote, Array[Byte]) => Response
+  ): Option[Any] = {
+    if (!useBinary) return None
+    val response = op(getBinaryRPC, RPCBinaryCodec.encodeRequest(message, duration))
+    Utils.tryFinally {
+      val contentType = response
+        .headers()
+        .asScala
+        .collectFirst {
+          case (key, values) if HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(key) =>
+            values.asScala.mkString
+        }
+        .getOrElse("")
+      if (
+          response.status() / 100 == 2 && response.body() != null &&
+          contentType.startsWith(RPCBinaryCodec.CONTENT_TYPE)
+      ) {
+        Some(RPCBinaryCodec.decodeReply(response.body().asInputStream()))
+      } else if (BaseRPCSender.BINARY_UNSUPPORTED_STATUS.contains(response.status())) {
+        logger.warn(
+          s"$name does not support binary rpc(status: ${response.status()}), use json instead."
+        )
+        BaseRPCSender.binaryUnsupportedServices.put(name, java.lang.Boolean.TRUE)
+        None
+      } else {
+        throw new DWCURIException(
+          10005,
+          s"Binary rpc to $name failed, http status: ${response.status()}"
+        )
+      }
+    }(IOUtils.closeQuietly(response))
   }
 
   private def execute(message: Any)(op: => Any): Any = message match {
@@ -89,24 +163,31 @@ private[rpc] class BaseRPCSender extends Sender with Logging {
   }
 
   override def ask(message: Any): Any = execute(message) {
-    val msg = RPCProduct.getRPCProduct.toMessage(message)
-    BaseRPCSender.addInstanceInfo(msg.getData)
-    val response = getRPC.receiveAndReply(msg)
-    RPCConsumer.getRPCConsumer.toObject(response)
+    binaryExecute(message, -1, _.receiveAndReply(_)).getOrElse {
+      val msg = RPCProduct.getRPCProduct.toMessage(message)
+      BaseRPCSender.addInstanceInfo(msg.getData)
+      val response = getRPC.receiveAndReply(msg)
+      RPCConsumer.getRPCConsumer.toObject(response)
+    }
   }
 
   override def ask(message: Any, timeout: Duration): Any = execute(message) {
-    val msg = RPCProduct.getRPCProduct.toMessage(message)
-    msg.data("duration", timeout.toMillis)
-    BaseRPCSender.addInstanceInfo(msg.getData)
-    val response = getRPC.receiveAndReplyInMills(msg)
-    RPCConsumer.getRPCConsumer.toObject(response)
+    binaryExecute(message, timeout.toMillis, _.receiveAndReplyInMills(_)).getOrElse {
+      val msg = RPCProduct.getRPCProduct.toMessage(message)
+      msg.data("duration", timeout.toMillis)
+      BaseRPCSender.addInstanceInfo(msg.getData)
+      val response = getRPC.receiveAndReplyInMills(msg)
+      RPCConsumer.getRPCConsumer.toObject(response)
+    }
   }
 
   private def sendIt(message: Any, op: Message => Message): Unit = execute(message) {
-    val msg = RPCProduct.getRPCProduct.toMessage(message)
-    BaseRPCSender.addInstanceInfo(msg.getData)
-    RPCConsumer.getRPCConsumer.toObject(op(msg)) match {
+    val reply = binaryExecute(message, -1, _.receive(_)).getOrElse {
+      val msg = RPCProduct.getRPCProduct.toMessage(message)
+      BaseRPCSender.addInstanceInfo(msg.getData)
+      RPCConsumer.getRPCConsumer.toObject(op(msg))
+    }
+    reply match {
       case w: WarnException => logger.warn("RPC requests an alarm!(RPC请求出现告警！)", w)
       case _: BoxedUnit =>
     }
@@ -145,6 +226,12 @@ private[rpc] class BaseRPCSender extends Sender with Logging {
 
 private[rpc] object BaseRPCSender extends Logging {
 
+  /** Statuses replied by a service without the binary endpoints(不支持二进制传输的服务返回的状态码) */
+  private val BINARY_UNSUPPORTED_STATUS = Set(400, 404, 405, 415)
+
+  private val binaryUnsupportedServices =
+    new ConcurrentHashMap[String, java.lang.Boolean]()
+
   private val rpcSenderListenerBus =
     new AsynRPCMessageBus(BDP_RPC_SENDER_ASYN_QUEUE_CAPACITY.getValue, "RPC-Sender-Asyn-Thread")(
       BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_MAX.getValue,
@@ -26,7 +26,7 @@ import org.apache.linkis.rpc.conf.RPCConfiguration.{
 }
 import org.apache.linkis.rpc.errorcode.LinkisRpcErrorCodeSummary.TIMEOUT_PERIOD
 import org.apache.linkis.rpc.exception.DWCURIException
-import org.apache.linkis.rpc.transform.{RPCConsumer, RPCProduct}
+import org.apache.linkis.rpc.transform.{RPCBinaryCodec, RPCConsumer, RPCProduct}
 import org.apache.linkis.server.{catchIt, Message}
 
 import org.apache.commons.lang3.StringUtils
@@ -40,6 +40,7 @@ import org.springframework.web.bind.annotation.{
 }
 
 import javax.annotation.PostConstruct
+import javax.servlet.http.{HttpServletRequest, HttpServletResponse}
 
 import java.util.concurrent.TimeUnit
 
@@ -185,4 +186,81 @@ private[rpc] class RPCReceiveRestful extends RPCReceiveRemote with Logging {
     receiveAndReplyWithMessage(message, _.receiveAndReply(_, timeout, _))
   }
 
+  /**
+   * Handle a binary frame of [[RPCBinaryCodec]], the request is decoded while it is read and an
+   * error is replied as the same json Message of the json transport
+   */
+  private def handleBinary(
+      request: HttpServletRequest,
+      response: HttpServletResponse,
+      op: (RPCBinaryCodec.BinaryRequest, RPCMessageEvent) => Any
+  ): Unit = {
+    var reply: Any = null
+    val message = catchIt {
+      val binaryRequest = RPCBinaryCodec.decodeRequest(request.getInputStream)
+      val event = RPCMessageEvent(binaryRequest.obj, binaryRequest.serviceInstance)
+      reply = op(binaryRequest, event)
+      null
+    }
+    response.setContentType(RPCBinaryCodec.CONTENT_TYPE)
+    val out = response.getOutputStream
+    RPCBinaryCodec.encodeReply(if (message != null) message else reply, out)
+    out.flush()
+  }
+
+  private def replyBinary(
+      binaryRequest: RPCBinaryCodec.BinaryRequest,
+      event: RPCMessageEvent,
+      opEvent: (Receiver, Any, Sender) => Any
+  ): Any = event
+    .map(receiver => opEvent(receiver, binaryRequest.obj, event))
+    .getOrElse(RPCProduct.getRPCProduct.notFound())
+
+  @RequestMapping(
+    path = Array("/rpc/receive"),
+    method = Array(RequestMethod.POST),
+    consumes = Array(RPCBinaryCodec.CONTENT_TYPE)
+  )
+  def receiveBinary(request: HttpServletRequest, response: HttpServletResponse): Unit =
+    handleBinary(
+      request,
+      response,
+      (_, event) => {
+        rpcReceiverListenerBus.post(event)
+        null
+      }
+    )
+
+  @RequestMapping(
+    path = Array("/rpc/receiveAndReply"),
+    method = Array(RequestMethod.POST),
+    consumes = Array(RPCBinaryCodec.CONTENT_TYPE)
+  )
+  def receiveAndReplyBinary(request: HttpServletRequest, response: HttpServletResponse): Unit =
+    handleBinary(
+      request,
+      response,
+      (binaryRequest, event) => replyBinary(binaryRequest, event, _.receiveAndReply(_, _))
+    )
+
+  @RequestMapping(
+    path = Array("/rpc/replyInMills"),
+    method = Array(RequestMethod.POST),
+    consumes = Array(RPCBinaryCodec.CONTENT_TYPE)
+  )
+  def receiveAndReplyInMillsBinary(
+      request: HttpServletRequest,
+      response: HttpServletResponse
+  ): Unit = handleBinary(
+    request,
+    response,
+    (binaryRequest, event) => {
+      if (binaryRequest.duration < 0) {
+        throw new DWCURIException(TIMEOUT_PERIOD.getErrorCode, TIMEOUT_PERIOD.getErrorDesc)
+      }
+      val timeout = Duration(binaryRequest.duration, TimeUnit.MILLISECONDS)
+      replyBinary(binaryRequest, event, _.receiveAndReply(_, timeout, _))
+    }
+  )
+
 }
@@ -111,6 +111,17 @@ object RPCConfiguration {
     new SubTypesScanner()
   )
 
+  /**
+   * Post raw protostuff bodies instead of hex strings inside a json Message. Services that do not
+   * understand it are detected and fall back to the json transport
+   */
+  val BDP_RPC_BINARY_ENABLE: CommonVars[Boolean] =
+    CommonVars("linkis.rpc.binary.enable", false)
+
+  /** Application names using the binary transport, empty means all */
+  val BDP_RPC_BINARY_SERVICES: Array[String] =
+    CommonVars("linkis.rpc.binary.services", "").getValue.split(",").filter(_.nonEmpty)
+
   val BDP_RPC_CACHE_CONF_EXPIRE_TIME: CommonVars[Long] =
     CommonVars("wds.linkis.rpc.cache.expire.time", 120000L)
 
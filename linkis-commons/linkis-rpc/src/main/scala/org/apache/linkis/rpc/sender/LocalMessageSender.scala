@@ -28,4 +28,6 @@ private[rpc] class LocalMessageSender private[rpc] (
     RPCSpringBeanCache.getRPCReceiveRestful
   }
 
+  override protected def supportBinary: Boolean = false
+
 }
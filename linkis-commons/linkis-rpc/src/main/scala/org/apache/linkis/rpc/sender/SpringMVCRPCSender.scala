@@ -28,7 +28,7 @@ import org.apache.linkis.rpc.interceptor.{
   ServiceInstanceRPCInterceptorChain
 }
 import org.apache.linkis.rpc.message.utils.LoadBalancerOptionsUtils
-import org.apache.linkis.rpc.transform.RPCConsumer
+import org.apache.linkis.rpc.transform.{RPCBinaryCodec, RPCConsumer}
 import org.apache.linkis.server.{BDPJettyServerHelper, Message}
 
 import org.apache.commons.lang3.StringUtils
@@ -39,9 +39,13 @@ import org.springframework.cloud.openfeign.ribbon.{
   FeignLoadBalancer,
   LoadBalancerFeignClient
 }
+import org.springframework.http.HttpHeaders
 
+import java.io.ByteArrayInputStream
 import java.lang.reflect.Field
 
+import scala.collection.JavaConverters._
+
 import com.netflix.client.ClientRequest
 import com.netflix.client.config.IClientConfig
 import com.netflix.loadbalancer.reactive.LoadBalancerCommand
@@ -83,11 +87,8 @@ private[rpc] class SpringMVCRPCSender private[rpc] (
               val instance =
                 if (getRPCLoadBalancers.isEmpty) None
                 else {
-                  val requestBody = SpringMVCRPCSender.getRequest(request).body()
-                  val requestStr = new String(requestBody, DWCConfiguration.BDP_ENCODING.getValue)
-                  val obj = RPCConsumer.getRPCConsumer.toObject(
-                    BDPJettyServerHelper.gson.fromJson(requestStr, classOf[Message])
-                  )
+                  val obj =
+                    SpringMVCRPCSender.getRequestObject(SpringMVCRPCSender.getRequest(request))
                   obj match {
                     case protocol: Protocol =>
                       var serviceInstance: Option[ServiceInstance] = None
@@ -174,4 +175,19 @@ private object SpringMVCRPCSender {
     requestField.get(req).asInstanceOf[Request]
   }
 
+  def getRequestObject(request: Request): Any = {
+    val isBinary = request.headers().asScala.exists { case (key, values) =>
+      HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(key) &&
+      values.asScala.exists(_.startsWith(RPCBinaryCodec.CONTENT_TYPE))
+    }
+    if (isBinary) {
+      RPCBinaryCodec.decodeRequest(new ByteArrayInputStream(request.body())).obj
+    } else {
+      val requestStr = new String(request.body(), DWCConfiguration.BDP_ENCODING.getValue)
+      RPCConsumer.getRPCConsumer.toObject(
+        BDPJettyServerHelper.gson.fromJson(requestStr, classOf[Message])
+      )
+    }
+  }
+
 }
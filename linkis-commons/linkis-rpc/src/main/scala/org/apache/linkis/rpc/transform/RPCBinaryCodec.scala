@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.rpc.transform
+
+import org.apache.linkis.DataWorkCloudApplication
+import org.apache.linkis.common.ServiceInstance
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.rpc.errorcode.LinkisRpcErrorCodeSummary.{
+  CORRESPONDING_NOT_FOUND,
+  CORRESPONDING_TO_INITIALIZE,
+  TRANSMITTED_BEAN_IS_NULL
+}
+import org.apache.linkis.rpc.exception.DWCURIException
+import org.apache.linkis.rpc.serializer.ProtostuffSerializeUtil
+import org.apache.linkis.server.{BDPJettyServerHelper, Message}
+
+import java.io.{
+  ByteArrayOutputStream,
+  DataInputStream,
+  DataOutputStream,
+  InputStream,
+  OutputStream
+}
+import java.text.MessageFormat
+
+import scala.runtime.BoxedUnit
+
+/**
+ * Frames of the binary rpc transport, the protocol object is written as raw protostuff bytes at the
+ * end of the frame so it can be decoded while the body is read.
+ *
+ * request: version, sender name, sender instance, duration(-1 if none), class, object
+ *
+ * reply: kind, then the class and object, nothing for a unit reply or the json Message of an error
+ */
+private[rpc] object RPCBinaryCodec extends Logging {
+
+  final val CONTENT_TYPE = "application/x-protostuff"
+
+  private val VERSION: Byte = 1
+
+  private val REPLY_OBJECT: Byte = 0
+  private val REPLY_UNIT: Byte = 1
+  private val REPLY_MESSAGE: Byte = 2
+
+  case class BinaryRequest(obj: Any, serviceInstance: ServiceInstance, duration: Long)
+
+  def encodeRequest(obj: Any, duration: Long): Array[Byte] = {
+    if (obj == null) {
+      throw new DWCURIException(
+        TRANSMITTED_BEAN_IS_NULL.getErrorCode,
+        TRANSMITTED_BEAN_IS_NULL.getErrorDesc
+      )
+    }
+    val bytes = new ByteArrayOutputStream(1024)
+    val out = new DataOutputStream(bytes)
+    out.writeByte(VERSION)
+    out.writeUTF(Option(DataWorkCloudApplication.getApplicationName).getOrElse(""))
+    out.writeUTF(Option(DataWorkCloudApplication.getInstance).getOrElse(""))
+    out.writeLong(duration)
+    writeObject(obj, out)
+    out.flush()
+    bytes.toByteArray
+  }
+
+  def decodeRequest(in: InputStream): BinaryRequest = {
+    val input = new DataInputStream(in)
+    val version = input.readByte()
+    if (version != VERSION) {
+      throw new DWCURIException(10005, s"Unsupported binary rpc version $version")
+    }
+    val serviceInstance = ServiceInstance(input.readUTF(), input.readUTF())
+    val duration = input.readLong()
+    BinaryRequest(readObject(input), serviceInstance, duration)
+  }
+
+  def encodeReply(obj: Any, out: OutputStream): Unit = obj match {
+    case Unit | () | null | _: BoxedUnit =>
+      out.write(REPLY_UNIT)
+    case message: Message =>
+      out.write(REPLY_MESSAGE)
+      BDPJettyServerHelper.jacksonJson.writeValue(out, message)
+    case _ =>
+      out.write(REPLY_OBJECT)
+      writeObject(obj, new DataOutputStream(out))
+  }
+
+  /**
+   * Decode the reply like [[RPCConsumer.toObject]], an error reply is thrown and a warning is
+   * returned(与RPCConsumer.toObject一致，错误抛出异常，告警作为返回值)
+   */
+  def decodeReply(in: InputStream): Any = in.read() match {
+    case REPLY_OBJECT => readObject(new DataInputStream(in))
+    case REPLY_UNIT => BoxedUnit.UNIT
+    case REPLY_MESSAGE =>
+      val message = BDPJettyServerHelper.jacksonJson.readValue(in, classOf[Message])
+      RPCConsumer.getRPCConsumer.toObject(message)
+    case kind =>
+      throw new DWCURIException(10005, s"Unknown binary rpc reply kind $kind")
+  }
+
+  private def writeObject(obj: Any, out: DataOutputStream): Unit = {
+    out.writeUTF(obj.getClass.getName)
+    out.flush()
+    ProtostuffSerializeUtil.serialize(obj, out)
+  }
+
+  private def readObject(in: DataInputStream): Any = {
+    val objectClass = in.readUTF()
+    logger.debug("The corresponding anti-sequence is class {}", objectClass)
+    val clazz = Utils.tryThrow(Class.forName(objectClass)) {
+      case _: ClassNotFoundException =>
+        new DWCURIException(
+          CORRESPONDING_NOT_FOUND.getErrorCode,
+          MessageFormat.format(CORRESPONDING_NOT_FOUND.getErrorDesc, objectClass)
+        )
+      case t: ExceptionInInitializerError =>
+        val exception = new DWCURIException(
+          CORRESPONDING_TO_INITIALIZE.getErrorCode,
+          MessageFormat.format(CORRESPONDING_TO_INITIALIZE.getErrorDesc, objectClass)
+        )
+        exception.initCause(t)
+        exception
+      case t: Throwable => t
+    }
+    ProtostuffSerializeUtil.deserialize(in, clazz)
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.rpc.benchmark;
+
+import org.apache.linkis.protocol.message.RequestProtocol;
+import org.apache.linkis.rpc.transform.RPCBinaryCodec;
+import org.apache.linkis.rpc.transform.RPCConsumer$;
+import org.apache.linkis.rpc.transform.RPCProduct$;
+import org.apache.linkis.server.BDPJettyServerHelper;
+import org.apache.linkis.server.Message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the encode and decode work of one ask/reply round trip, without the network: the json
+ * transport with hex protostuff inside a Message against the raw protostuff frames
+ * 对比一次ask/reply往返的编解码开销：json消息内嵌十六进制protostuff与二进制帧
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RPCTransportBenchmark {
+
+  /** Size of the code carried by the request, most task requests are a few kilobytes */
+  @Param({"512", "8192", "65536"})
+  public int codeSize;
+
+  private ObjectMapper jackson;
+
+  private BenchmarkRequest request;
+
+  private BenchmarkReply reply;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    jackson = BDPJettyServerHelper.jacksonJson();
+    request = new BenchmarkRequest();
+    request.setExecId("exec_id018030linkis-cg-entrance127.0.0.1:9104IDE_hadoop_spark_0");
+    StringBuilder code = new StringBuilder(codeSize);
+    while (code.length() < codeSize) {
+      code.append("select id, name, count(1) from db.table where dt = '20230101' group by id;\n");
+    }
+    request.setCode(code.substring(0, codeSize));
+    Map<String, Object> params = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      params.put("wds.linkis.rm.param." + i, "value-" + i);
+    }
+    request.setParams(params);
+    List<String> labels = new ArrayList<>();
+    labels.add("userCreator=hadoop-IDE");
+    labels.add("engineType=spark-2.4.3");
+    labels.add("codeType=sql");
+    request.setLabels(labels);
+    reply = new BenchmarkReply();
+    reply.setStatus("Running");
+    reply.setInstances(labels);
+  }
+
+  @Benchmark
+  public Object jsonRoundTrip(Blackhole blackhole) throws IOException {
+    Message requestMessage = RPCProduct$.MODULE$.getRPCProduct().toMessage(request);
+    byte[] requestBody = jackson.writeValueAsBytes(requestMessage);
+    Object received =
+        RPCConsumer$.MODULE$
+            .getRPCConsumer()
+            .toObject(jackson.readValue(requestBody, Message.class));
+    blackhole.consume(received);
+    Message replyMessage = RPCProduct$.MODULE$.getRPCProduct().toMessage(reply);
+    byte[] replyBody = jackson.writeValueAsBytes(replyMessage);
+    return RPCConsumer$.MODULE$
+        .getRPCConsumer()
+        .toObject(jackson.readValue(replyBody, Message.class));
+  }
+
+  @Benchmark
+  public Object binaryRoundTrip(Blackhole blackhole) throws IOException {
+    byte[] requestBody = RPCBinaryCodec.encodeRequest(request, -1L);
+    Object received = RPCBinaryCodec.decodeRequest(new ByteArrayInputStream(requestBody));
+    blackhole.consume(received);
+    ByteArrayOutputStream replyBody = new ByteArrayOutputStream(256);
+    RPCBinaryCodec.encodeReply(reply, replyBody);
+    return RPCBinaryCodec.decodeReply(new ByteArrayInputStream(replyBody.toByteArray()));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(RPCTransportBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+
+  public static class BenchmarkRequest implements RequestProtocol {
+
+    private String execId;
+
+    private String code;
+
+    private Map<String, Object> params;
+
+    private List<String> labels;
+
+    public String getExecId() {
+      return execId;
+    }
+
+    public void setExecId(String execId) {
+      this.execId = execId;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public void setCode(String code) {
+      this.code = code;
+    }
+
+    public Map<String, Object> getParams() {
+      return params;
+    }
+
+    public void setParams(Map<String, Object> params) {
+      this.params = params;
+    }
+
+    public List<String> getLabels() {
+      return labels;
+    }
+
+    public void setLabels(List<String> labels) {
+      this.labels = labels;
+    }
+  }
+
+  public static class BenchmarkReply {
+
+    private String status;
+
+    private List<String> instances;
+
+    public String getStatus() {
+      return status;
+    }
+
+    public void setStatus(String status) {
+      this.status = status;
+    }
+
+    public List<String> getInstances() {
+      return instances;
+    }
+
+    public void setInstances(List<String> instances) {
+      this.instances = instances;
+    }
+  }
+}
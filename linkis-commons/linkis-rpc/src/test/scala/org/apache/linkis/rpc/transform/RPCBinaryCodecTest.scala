@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.rpc.transform
+
+import org.apache.linkis.protocol.engine.RequestEngineStatus
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+
+import scala.runtime.BoxedUnit
+
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+
+class RPCBinaryCodecTest {
+
+  @Test
+  @DisplayName("requestTest")
+  def requestTest(): Unit = {
+    val bytes = RPCBinaryCodec.encodeRequest(RequestEngineStatus(2), 3000)
+    val request = RPCBinaryCodec.decodeRequest(new ByteArrayInputStream(bytes))
+    Assertions.assertEquals(RequestEngineStatus(2), request.obj)
+    Assertions.assertEquals(3000L, request.duration)
+  }
+
+  @Test
+  @DisplayName("replyTest")
+  def replyTest(): Unit = {
+    val out = new ByteArrayOutputStream()
+    RPCBinaryCodec.encodeReply(RequestEngineStatus(1), out)
+    Assertions.assertEquals(
+      RequestEngineStatus(1),
+      RPCBinaryCodec.decodeReply(new ByteArrayInputStream(out.toByteArray))
+    )
+
+    val unitOut = new ByteArrayOutputStream()
+    RPCBinaryCodec.encodeReply(null, unitOut)
+    Assertions.assertEquals(
+      BoxedUnit.UNIT,
+      RPCBinaryCodec.decodeReply(new ByteArrayInputStream(unitOut.toByteArray))
+    )
+  }
+
+}
@@ -52,8 +52,13 @@ abstract class AbstractScheduler extends Scheduler {
     val group = getSchedulerContext.getOrCreateGroupFactory.getOrCreateGroup(event)
     val consumer =
       getSchedulerContext.getOrCreateConsumerManager.getOrCreateConsumer(group.getGroupName)
-    val index = consumer.getConsumeQueue.offer(event)
-    index.map(getEventId(_, group.getGroupName)).foreach(event.setId)
+    val consumeQueue = consumer.getConsumeQueue
+    val index = consumeQueue.offer(event)
+    index.foreach { i =>
+      event.setId(getEventId(i, group.getGroupName))
+      consumeQueue.onIdAssigned(i, event)
+    }
+    consumer.wakeUp()
     if (index.isEmpty) {
       throw new SchedulerErrorException(
         JOB_QUEUE_IS_FULL.getErrorCode,
@@ -33,4 +33,14 @@ object SchedulerConfiguration {
   val FIFO_CONSUMER_IDLE_SCAN_INIT_TIME =
     CommonVars("wds.linkis.fifo.consumer.idle.scan.init.time", new TimeType("1s"))
 
+  /**
+   * Upper bound of a FIFO consumer waiting for a free slot or a new event, consumers are woken up
+   * by job state changes and submits, so this only guards against a missed wake up
+   */
+  val FIFO_CONSUMER_MAX_WAIT_TIME =
+    CommonVars("linkis.fifo.consumer.max.wait.time", new TimeType("3s"))
+
+  /** Queue of the waiting events of a group: loop(LoopArrayQueue) or ring(RingBufferConsumeQueue) */
+  val CONSUME_QUEUE_TYPE = CommonVars("linkis.scheduler.consume.queue.type", "loop")
+
 }
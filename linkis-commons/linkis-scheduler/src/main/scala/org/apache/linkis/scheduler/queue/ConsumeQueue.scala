@@ -29,6 +29,12 @@ abstract class ConsumeQueue {
   def getGroup: Group
   def setGroup(group: Group): Unit
 
+  /**
+   * Called once the id of the event offered at the index is assigned, so queues that look events
+   * up by id can index it(事件id分配后回调，便于按id建立索引)
+   */
+  def onIdAssigned(index: Int, event: SchedulerEvent): Unit = {}
+
   /**
    * Add one, if the queue is full, it will block until the queue is
    * available(添加一个，如果队列满了，将会一直阻塞，直到队列可用)
@@ -40,6 +40,11 @@ abstract class Consumer(schedulerContext: SchedulerContext, executeService: Exec
 
   def start(): Unit
 
+  /**
+   * Wake up the consumer waiting for new events or free slots(唤醒等待新事件或空闲槽位的消费者)
+   */
+  def wakeUp(): Unit = {}
+
   def shutdown(): Unit = {
     terminate = true
     logger.info(s"$toString stopped!")
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.scheduler.queue
+
+import java.util
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Time a consumer spends waiting for a free running slot and asking executors for its jobs
+ * 消费者等待空闲运行槽位及为任务请求执行器的耗时统计
+ */
+class ConsumerMetrics {
+
+  private val slotWaitCount = new AtomicLong(0)
+  private val slotWaitTime = new AtomicLong(0)
+  private val slotWaitMaxTime = new AtomicLong(0)
+
+  private val askExecutorCount = new AtomicLong(0)
+  private val askExecutorTime = new AtomicLong(0)
+  private val askExecutorMaxTime = new AtomicLong(0)
+
+  private def updateMax(max: AtomicLong, mills: Long): Unit = {
+    var current = max.get()
+    while (mills > current && !max.compareAndSet(current, mills)) current = max.get()
+  }
+
+  def addSlotWaitTime(mills: Long): Unit = {
+    slotWaitCount.incrementAndGet()
+    slotWaitTime.addAndGet(mills)
+    updateMax(slotWaitMaxTime, mills)
+  }
+
+  def addAskExecutorTime(mills: Long): Unit = {
+    askExecutorCount.incrementAndGet()
+    askExecutorTime.addAndGet(mills)
+    updateMax(askExecutorMaxTime, mills)
+  }
+
+  def getSlotWaitCount: Long = slotWaitCount.get()
+
+  def getSlotWaitTime: Long = slotWaitTime.get()
+
+  def getSlotWaitMaxTime: Long = slotWaitMaxTime.get()
+
+  def getAskExecutorCount: Long = askExecutorCount.get()
+
+  def getAskExecutorTime: Long = askExecutorTime.get()
+
+  def getAskExecutorMaxTime: Long = askExecutorMaxTime.get()
+
+  def toMap: util.Map[String, Any] = {
+    val metrics = new util.HashMap[String, Any]()
+    metrics.put("slotWaitCount", getSlotWaitCount)
+    metrics.put("slotWaitTime", getSlotWaitTime)
+    metrics.put("slotWaitMaxTime", getSlotWaitMaxTime)
+    metrics.put("askExecutorCount", getAskExecutorCount)
+    metrics.put("askExecutorTime", getAskExecutorTime)
+    metrics.put("askExecutorMaxTime", getAskExecutorMaxTime)
+    metrics
+  }
+
+}
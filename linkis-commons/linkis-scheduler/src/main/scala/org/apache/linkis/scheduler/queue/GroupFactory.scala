@@ -17,8 +17,28 @@
 
 package org.apache.linkis.scheduler.queue
 
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
+
 abstract class GroupFactory {
 
+  private var consumeQueueType: String = SchedulerConfiguration.CONSUME_QUEUE_TYPE.getValue
+
+  def setConsumeQueueType(consumeQueueType: String): Unit =
+    this.consumeQueueType = consumeQueueType
+
+  def getConsumeQueueType: String = consumeQueueType
+
+  /**
+   * Create the queue holding the waiting events of a group, see [[GroupFactory.RING_BUFFER_QUEUE]]
+   * 创建保存group等待事件的队列
+   * @param group
+   * @return
+   */
+  def createConsumeQueue(group: Group): ConsumeQueue = consumeQueueType match {
+    case GroupFactory.RING_BUFFER_QUEUE => new RingBufferConsumeQueue(group)
+    case _ => new LoopArrayQueue(group)
+  }
+
   /**
    * Create a Group and set the concurrency limit of the group
    * @param event
@@ -29,3 +49,12 @@ abstract class GroupFactory {
   def getGroup(groupName: String): Group
 
 }
+
+object GroupFactory {
+
+  val LOOP_ARRAY_QUEUE = "loop"
+
+  /** Lock free ring buffer, see [[RingBufferConsumeQueue]](无锁环形队列) */
+  val RING_BUFFER_QUEUE = "ring"
+
+}
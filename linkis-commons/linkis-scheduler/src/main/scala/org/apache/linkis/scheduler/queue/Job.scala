@@ -45,6 +45,11 @@ abstract class Job extends Runnable with SchedulerEvent with Closeable with Logg
    */
   private[queue] var consumerFuture: BDPFuture = _
 
+  /**
+   * the listener of consumer, told when the job releases its running slot or waits for retry
+   */
+  private[queue] var consumerListener: Option[JobListener] = None
+
   protected var jobDaemon: Option[JobDaemon] = None
   private var eventListenerBus: ListenerEventBus[_ <: SchedulerListener, _ <: ScheduleEvent] = _
   private var executor: Executor = _
@@ -124,6 +129,7 @@ abstract class Job extends Runnable with SchedulerEvent with Closeable with Logg
         this.consumerFuture = null
       }
       if (super.isWaiting || super.isScheduled) transitionCompleted(errorExecuteResponse)
+      consumerListener.foreach(_.onJobCompleted(this))
       logger.info(s"$toString execute failed. Reason: $errorMsg.", t)
     }
 
@@ -207,9 +213,11 @@ abstract class Job extends Runnable with SchedulerEvent with Closeable with Logg
     // TODO job start event
     case WaitForRetry =>
       jobListener.foreach(_.onJobWaitForRetry(this))
+      consumerListener.foreach(_.onJobWaitForRetry(this))
     case _ =>
       jobDaemon.foreach(_.kill())
       jobListener.foreach(_.onJobCompleted(this))
+      consumerListener.foreach(_.onJobCompleted(this))
 //      if(getJobInfo != null) logListener.foreach(_.onLogUpdate(this, getJobInfo.getMetric))
       logListener.foreach(_.onLogUpdate(this, LogUtils.generateInfo("job is completed.")))
     // TODO job end event
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.scheduler.queue
+
+import org.apache.linkis.common.utils.Logging
+
+import java.util.concurrent.{ConcurrentHashMap, TimeUnit}
+import java.util.concurrent.atomic.{
+  AtomicInteger,
+  AtomicLong,
+  AtomicLongArray,
+  AtomicReferenceArray
+}
+import java.util.concurrent.locks.{Condition, ReentrantLock}
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * A bounded multi producer multi consumer ring buffer. Producers and consumers claim positions
+ * with a CAS on the tail and head sequence, the per slot sequence tells whether a slot is free,
+ * published or consumed, so offer and poll never lock. Locks are only taken to park and wake up
+ * blocked callers of put and take.
+ *
+ * Like [[LoopArrayQueue]], a consumed event stays in its slot until a producer reuses the slot, so
+ * it can still be found by index or by id. Lookups by id go through an index of event ids, filled
+ * on offer for events that already have an id, or by [[onIdAssigned]] once the id is assigned.
+ * 基于CAS的有界多生产者多消费者环形队列，offer与poll无锁，仅在阻塞等待时加锁；已消费的事件保留至槽位被复用
+ */
+class RingBufferConsumeQueue(var group: Group) extends ConsumeQueue with Logging {
+
+  private class Entry(val index: Long, val event: SchedulerEvent)
+
+  private val capacity: Int = group.getMaximumCapacity
+
+  private val entries = new AtomicReferenceArray[Entry](capacity)
+
+  /**
+   * seq == pos: free for the producer of pos; seq == pos + 1: published; seq == pos + capacity:
+   * consumed, free for the producer of the next lap
+   */
+  private val sequences = new AtomicLongArray(capacity)
+
+  private val tail = new AtomicLong(0)
+  private val head = new AtomicLong(0)
+
+  private val eventIdIndex = new ConcurrentHashMap[String, Entry]()
+
+  private val lock = new ReentrantLock()
+  private val notEmpty = lock.newCondition()
+  private val notFull = lock.newCondition()
+  private val waitingConsumers = new AtomicInteger(0)
+  private val waitingProducers = new AtomicInteger(0)
+
+  (0 until capacity).foreach(i => sequences.set(i, i))
+
+  private def slot(pos: Long): Int = (pos % capacity).toInt
+
+  private def tryOffer(event: SchedulerEvent): Long = {
+    while (true) {
+      val pos = tail.get()
+      val seq = sequences.get(slot(pos))
+      if (seq == pos) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          val entry = new Entry(pos, event)
+          val old = entries.getAndSet(slot(pos), entry)
+          if (old != null && old.event.getId != null) eventIdIndex.remove(old.event.getId, old)
+          if (event.getId != null) eventIdIndex.put(event.getId, entry)
+          sequences.set(slot(pos), pos + 1)
+          return pos
+        }
+      } else if (seq < pos) {
+        // the consumer has not taken the event of the previous lap yet
+        return -1
+      }
+    }
+    -1
+  }
+
+  private def tryPoll(): Option[SchedulerEvent] = {
+    while (true) {
+      val pos = head.get()
+      val seq = sequences.get(slot(pos))
+      if (seq == pos + 1) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          val entry = entries.get(slot(pos))
+          sequences.set(slot(pos), pos + capacity)
+          return Some(entry.event)
+        }
+      } else if (seq < pos + 1) {
+        return None
+      }
+    }
+    None
+  }
+
+  private def signal(waiters: AtomicInteger, condition: Condition): Unit =
+    if (waiters.get() > 0) {
+      lock.lock()
+      try condition.signal()
+      finally lock.unlock()
+    }
+
+  /** Get the live entry of the index, or null if it has been overwritten(获取索引对应的事件，已被覆盖则返回null) */
+  private def entryOf(index: Long): Entry = {
+    val entry = entries.get(slot(index))
+    if (entry != null && entry.index == index) entry else null
+  }
+
+  private def retainedEntries: Iterator[Entry] = {
+    val end = tail.get()
+    val start = math.max(0L, end - capacity)
+    (start until end).iterator.map(entryOf).filter(_ != null)
+  }
+
+  override def remove(event: SchedulerEvent): Unit = get(event).foreach(_.cancel())
+
+  override def getWaitingEvents: Array[SchedulerEvent] = {
+    val waitingEvents = new ArrayBuffer[SchedulerEvent]()
+    retainedEntries.foreach { entry =>
+      val state = entry.event.getState
+      if (state == SchedulerEventState.Inited || state == SchedulerEventState.Scheduled) {
+        waitingEvents += entry.event
+      }
+    }
+    waitingEvents.toArray
+  }
+
+  /** Number of events not taken yet(未被取走的事件数) */
+  override def size: Int = math.max(0L, tail.get() - head.get()).toInt
+
+  override def isEmpty: Boolean = size == 0
+
+  override def isFull: Boolean = size >= capacity
+
+  override def clearAll(): Unit = {
+    while (tryPoll().isDefined) {}
+    (0 until capacity).foreach(entries.set(_, null))
+    eventIdIndex.clear()
+    signal(waitingProducers, notFull)
+  }
+
+  override def onIdAssigned(index: Int, event: SchedulerEvent): Unit = {
+    val entry = entryOf(index)
+    // the slot may already have been reused, then the event can not be found any more
+    if (entry != null && (entry.event eq event) && event.getId != null) {
+      eventIdIndex.put(event.getId, entry)
+      if (entryOf(index) != entry) eventIdIndex.remove(event.getId, entry)
+    }
+  }
+
+  override def get(event: SchedulerEvent): Option[SchedulerEvent] = {
+    val eventId = event.getId
+    if (eventId == null) return None
+    val entry = eventIdIndex.get(eventId)
+    if (entry != null && entryOf(entry.index) == entry) Some(entry.event) else None
+  }
+
+  override def get(index: Int): Option[SchedulerEvent] = {
+    val end = tail.get()
+    if (index >= end) {
+      throw new IllegalArgumentException("The index " + index + " must be less than " + end)
+    }
+    val entry = entryOf(index)
+    if (entry == null && index < end - capacity) {
+      throw new IllegalArgumentException(
+        "The index " + index + " has already been deleted, now index must be better than " +
+          (end - capacity)
+      )
+    }
+    Option(entry).map(_.event)
+  }
+
+  override def getGroup: Group = group
+
+  override def setGroup(group: Group): Unit = {
+    this.group = group
+  }
+
+  override def put(event: SchedulerEvent): Int = {
+    var index = tryOffer(event)
+    if (index < 0) {
+      lock.lock()
+      waitingProducers.incrementAndGet()
+      try {
+        index = tryOffer(event)
+        while (index < 0) {
+          notFull.await()
+          index = tryOffer(event)
+        }
+      } finally {
+        waitingProducers.decrementAndGet()
+        lock.unlock()
+      }
+    }
+    signal(waitingConsumers, notEmpty)
+    index.toInt
+  }
+
+  override def offer(event: SchedulerEvent): Option[Int] = {
+    val index = tryOffer(event)
+    if (index < 0) None
+    else {
+      signal(waitingConsumers, notEmpty)
+      Some(index.toInt)
+    }
+  }
+
+  override def take(): SchedulerEvent = {
+    var event = tryPoll()
+    if (event.isEmpty) {
+      lock.lock()
+      waitingConsumers.incrementAndGet()
+      try {
+        event = tryPoll()
+        while (event.isEmpty) {
+          notEmpty.await()
+          event = tryPoll()
+        }
+      } finally {
+        waitingConsumers.decrementAndGet()
+        lock.unlock()
+      }
+    }
+    signal(waitingProducers, notFull)
+    event.get
+  }
+
+  override def take(mills: Long): Option[SchedulerEvent] = {
+    var event = tryPoll()
+    if (event.isEmpty) {
+      var nanos = TimeUnit.MILLISECONDS.toNanos(mills)
+      lock.lock()
+      waitingConsumers.incrementAndGet()
+      try {
+        event = tryPoll()
+        while (event.isEmpty && nanos > 0) {
+          nanos = notEmpty.awaitNanos(nanos)
+          event = tryPoll()
+        }
+      } finally {
+        waitingConsumers.decrementAndGet()
+        lock.unlock()
+      }
+    }
+    if (event.isDefined) signal(waitingProducers, notFull)
+    event
+  }
+
+  override def poll(): Option[SchedulerEvent] = {
+    val event = tryPoll()
+    if (event.isDefined) signal(waitingProducers, notFull)
+    event
+  }
+
+  override def peek(): Option[SchedulerEvent] = {
+    val pos = head.get()
+    if (sequences.get(slot(pos)) != pos + 1) None
+    else Option(entryOf(pos)).map(_.event)
+  }
+
+  override def peek(op: SchedulerEvent => Boolean): Option[SchedulerEvent] = peek().filter(op)
+
+}
@@ -21,14 +21,17 @@ import org.apache.linkis.common.exception.{ErrorException, WarnException}
 import org.apache.linkis.common.log.LogUtils
 import org.apache.linkis.common.utils.Utils
 import org.apache.linkis.scheduler.SchedulerContext
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
 import org.apache.linkis.scheduler.errorcode.LinkisSchedulerErrorCodeSummary._
 import org.apache.linkis.scheduler.exception.SchedulerErrorException
 import org.apache.linkis.scheduler.executer.Executor
 import org.apache.linkis.scheduler.future.{BDPFuture, BDPFutureTask}
+import org.apache.linkis.scheduler.listener.JobListener
 import org.apache.linkis.scheduler.queue._
 
 import java.util
-import java.util.concurrent.{ExecutorService, Future}
+import java.util.concurrent.{ExecutorService, Future, TimeUnit}
+import java.util.concurrent.locks.ReentrantLock
 
 import scala.beans.BeanProperty
 import scala.collection.mutable.ArrayBuffer
@@ -47,6 +50,27 @@ class FIFOUserConsumer(
 
   private var bdpFutureTask: BDPFuture = _
 
+  private val wakeUpLock = new ReentrantLock()
+  private val wakeUpCondition = wakeUpLock.newCondition()
+  private var wakeUpSignalled = false
+
+  private val maxWaitTime = SchedulerConfiguration.FIFO_CONSUMER_MAX_WAIT_TIME.getValue.toLong
+
+  private val metrics = new ConsumerMetrics
+
+  private var slotWaitStartTime = 0L
+
+  /**
+   * Wakes up the consumer once a running job releases its slot or waits for retry
+   */
+  private val slotListener = new JobListener {
+    override def onJobScheduled(job: Job): Unit = {}
+    override def onJobInited(job: Job): Unit = {}
+    override def onJobWaitForRetry(job: Job): Unit = wakeUp()
+    override def onJobRunning(job: Job): Unit = {}
+    override def onJobCompleted(job: Job): Unit = wakeUp()
+  }
+
   @BeanProperty
   var lastTime: Long = _
 
@@ -71,6 +95,8 @@ class FIFOUserConsumer(
     this.fifoGroup = group.asInstanceOf[FIFOGroup]
   }
 
+  def getMetrics: ConsumerMetrics = metrics
+
   override def getRunningEvents: Array[SchedulerEvent] =
     getEvents(e => e.isRunning || e.isWaitForRetry)
 
@@ -85,13 +111,31 @@ class FIFOUserConsumer(
   override def run(): Unit = {
     Thread.currentThread().setName(s"${toString}Thread")
     logger.info(s"$toString thread started!")
-    while (!terminate) Utils.tryAndError {
-      loop()
-      Thread.sleep(10)
-    }
+    while (!terminate) Utils.tryAndError(loop())
     logger.info(s"$toString thread stopped!")
   }
 
+  override def wakeUp(): Unit = {
+    wakeUpLock.lock()
+    try {
+      wakeUpSignalled = true
+      wakeUpCondition.signalAll()
+    } finally wakeUpLock.unlock()
+  }
+
+  /**
+   * Wait until woken up by a submit or a job state change, or at most mills
+   * 等待新任务提交或任务状态变化唤醒，最多等待mills毫秒
+   * @param mills
+   */
+  protected def waitForWakeUp(mills: Long): Unit = {
+    wakeUpLock.lock()
+    try {
+      if (!wakeUpSignalled) wakeUpCondition.await(mills, TimeUnit.MILLISECONDS)
+      wakeUpSignalled = false
+    } finally wakeUpLock.unlock()
+  }
+
   protected def askExecutorGap(): Unit = {}
 
   /**
@@ -104,7 +148,8 @@ class FIFOUserConsumer(
 
   protected def loop(): Unit = {
     if (!runScheduleIntercept()) {
-      Utils.tryQuietly(Thread.sleep(1000))
+      // the interception may depend on the jobs of other groups, so recheck it periodically
+      waitForWakeUp(1000)
       return
     }
     var isRetryJob = false
@@ -126,30 +171,39 @@ class FIFOUserConsumer(
       val maxAllowRunningJobs = fifoGroup.getMaxAllowRunningJobs
       val currentRunningJobs = runningJobs.count(e => e != null && !e.isCompleted)
       if (maxAllowRunningJobs <= currentRunningJobs) {
-        Utils.tryQuietly(Thread.sleep(1000)) // TODO 还可以优化，通过实现JobListener进行优化
+        if (slotWaitStartTime <= 0) slotWaitStartTime = System.currentTimeMillis
+        waitForWakeUp(maxWaitTime)
         return
       }
-      while (event.isEmpty) {
-        val takeEvent = if (getRunningEvents.isEmpty) Option(queue.take()) else queue.take(3000)
-        event =
-          if (
-              takeEvent.exists(e =>
-                Utils.tryCatch(e.turnToScheduled()) { t =>
-                  takeEvent.get
-                    .asInstanceOf[Job]
-                    .onFailure(
-                      "Failed to change the job status to Scheduled(Job状态翻转为Scheduled失败)",
-                      t
-                    )
-                  false
-                }
-              )
-          ) {
-            takeEvent
-          } else getWaitForRetryEvent
+      if (slotWaitStartTime > 0) {
+        metrics.addSlotWaitTime(System.currentTimeMillis - slotWaitStartTime)
+        slotWaitStartTime = 0
+      }
+      val takeEvent = queue.poll()
+      event =
+        if (
+            takeEvent.exists(e =>
+              Utils.tryCatch(e.turnToScheduled()) { t =>
+                takeEvent.get
+                  .asInstanceOf[Job]
+                  .onFailure(
+                    "Failed to change the job status to Scheduled(Job状态翻转为Scheduled失败)",
+                    t
+                  )
+                false
+              }
+            )
+        ) {
+          takeEvent
+        } else getWaitForRetryEvent
+      if (event.isEmpty) {
+        if (takeEvent.isEmpty) waitForWakeUp(maxWaitTime)
+        return
       }
     }
     event.foreach { case job: Job =>
+      val askStartTime = System.currentTimeMillis
+      job.consumerListener = Some(slotListener)
       Utils.tryCatch {
         val (totalDuration, askDuration) =
           (fifoGroup.getMaxAskExecutorDuration, fifoGroup.getAskExecutorInterval)
@@ -201,6 +255,7 @@ class FIFOUserConsumer(
             if (!isRetryJob) putToRunningJobs(job)
           } else logger.warn(s"Ask executor for Job $job failed!", error)
       }
+      metrics.addAskExecutorTime(System.currentTimeMillis - askStartTime)
     }
   }
 
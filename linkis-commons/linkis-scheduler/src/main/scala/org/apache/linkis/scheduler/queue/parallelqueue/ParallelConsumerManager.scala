@@ -104,9 +104,10 @@ class ParallelConsumerManager(maxParallelismUsers: Int, schedulerName: String)
             consumerGroupMap.getOrElseUpdate(
               groupName, {
                 val newConsumer = createConsumer(groupName)
-                val group = getSchedulerContext.getOrCreateGroupFactory.getGroup(groupName)
+                val groupFactory = getSchedulerContext.getOrCreateGroupFactory
+                val group = groupFactory.getGroup(groupName)
                 newConsumer.setGroup(group)
-                newConsumer.setConsumeQueue(new LoopArrayQueue(group))
+                newConsumer.setConsumeQueue(groupFactory.createConsumeQueue(group))
                 consumerListener.foreach(_.onConsumerCreated(newConsumer))
                 newConsumer.start()
                 newConsumer
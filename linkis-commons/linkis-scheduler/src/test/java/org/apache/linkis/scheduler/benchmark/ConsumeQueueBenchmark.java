@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.scheduler.benchmark;
+
+import org.apache.linkis.scheduler.queue.ConsumeQueue;
+import org.apache.linkis.scheduler.queue.GroupFactory$;
+import org.apache.linkis.scheduler.queue.LoopArrayQueue;
+import org.apache.linkis.scheduler.queue.RingBufferConsumeQueue;
+import org.apache.linkis.scheduler.queue.SchedulerEvent;
+import org.apache.linkis.scheduler.queue.TestSchedulerEvent;
+import org.apache.linkis.scheduler.queue.fifoqueue.FIFOGroup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import scala.Option;
+
+/**
+ * Compares the {@link LoopArrayQueue} with the {@link RingBufferConsumeQueue}: producers offering
+ * against consumers polling the same queue, and the lookup of a waiting event by its id
+ * 对比LoopArrayQueue与RingBufferConsumeQueue的生产消费吞吐及按id查找事件的开销
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class ConsumeQueueBenchmark {
+
+  private static final int EVENT_NUM = 1024;
+
+  @Param({"loop", "ring"})
+  public String queueType;
+
+  @Param({"1000"})
+  public int capacity;
+
+  private ConsumeQueue queue;
+
+  private SchedulerEvent[] events;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    FIFOGroup group = new FIFOGroup("benchmark", capacity, capacity);
+    if (GroupFactory$.MODULE$.RING_BUFFER_QUEUE().equals(queueType)) {
+      queue = new RingBufferConsumeQueue(group);
+    } else {
+      queue = new LoopArrayQueue(group);
+    }
+    events = new SchedulerEvent[EVENT_NUM];
+    for (int i = 0; i < EVENT_NUM; i++) {
+      events[i] = new TestSchedulerEvent("event-" + i);
+    }
+    // half full, so both producers and consumers mostly succeed
+    for (int i = 0; i < capacity / 2; i++) {
+      queue.offer(events[i % EVENT_NUM]);
+    }
+  }
+
+  @Benchmark
+  @Group("offerPoll")
+  @GroupThreads(4)
+  public Option<Object> offer() {
+    return queue.offer(events[ThreadLocalRandom.current().nextInt(EVENT_NUM)]);
+  }
+
+  @Benchmark
+  @Group("offerPoll")
+  @GroupThreads(4)
+  public Option<SchedulerEvent> poll() {
+    return queue.poll();
+  }
+
+  @Benchmark
+  @Group("lookup")
+  @GroupThreads(2)
+  public void getById(Blackhole blackhole) {
+    blackhole.consume(queue.get(events[ThreadLocalRandom.current().nextInt(capacity / 2)]));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(ConsumeQueueBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.scheduler.queue
+
+import org.apache.linkis.scheduler.queue.fifoqueue.{FIFOGroup, FIFOGroupFactory}
+
+import java.util.concurrent.{CountDownLatch, Executors, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.jupiter.api.Assertions._
+import org.junit.jupiter.api.Test
+
+class RingBufferConsumeQueueTest {
+
+  private def newQueue(capacity: Int): RingBufferConsumeQueue =
+    new RingBufferConsumeQueue(new FIFOGroup("test", capacity, capacity))
+
+  @Test
+  def testOfferAndPoll: Unit = {
+    val queue = newQueue(4)
+    assertTrue(queue.isEmpty)
+    (0 until 4).foreach(i => assertEquals(Some(i), queue.offer(new TestSchedulerEvent("e" + i))))
+    assertTrue(queue.isFull)
+    assertEquals(None, queue.offer(new TestSchedulerEvent("e4")))
+    assertEquals("e0", queue.peek().get.getId)
+    assertEquals("e0", queue.poll().get.getId)
+    assertEquals("e1", queue.take().getId)
+    assertEquals(2, queue.size)
+    assertEquals(Some(4), queue.offer(new TestSchedulerEvent("e4")))
+    assertEquals("e2", queue.take(10).get.getId)
+    assertEquals("e3", queue.take(10).get.getId)
+    assertEquals("e4", queue.take(10).get.getId)
+    assertEquals(None, queue.take(10))
+    assertEquals(None, queue.poll())
+  }
+
+  @Test
+  def testGetConsumedEvent: Unit = {
+    val queue = newQueue(4)
+    (0 until 6).foreach { i =>
+      queue.put(new TestSchedulerEvent("e" + i))
+      queue.take()
+    }
+    // consumed events stay until their slot is reused
+    assertEquals("e5", queue.get(5).get.getId)
+    assertEquals("e2", queue.get(2).get.getId)
+    assertEquals("e3", queue.get(new TestSchedulerEvent("e3")).get.getId)
+    assertEquals(None, queue.get(new TestSchedulerEvent("e1")))
+    assertThrows(classOf[IllegalArgumentException], () => queue.get(1))
+    assertThrows(classOf[IllegalArgumentException], () => queue.get(6))
+  }
+
+  @Test
+  def testGetEventWithIdAssignedAfterOffer: Unit = {
+    val queue = newQueue(4)
+    val event = new TestSchedulerEvent(null)
+    val index = queue.offer(event).get
+    event.setId("late" + index)
+    // lookups only go through the index, so the event is not found until the id is reported
+    assertEquals(None, queue.get(new TestSchedulerEvent("late0")))
+    queue.onIdAssigned(index, event)
+    assertEquals(Some(event), queue.get(new TestSchedulerEvent("late0")))
+    assertEquals(1, queue.getWaitingEvents.length)
+    // a reused slot drops the id of the overwritten event
+    (1 until 4).foreach(i => queue.offer(new TestSchedulerEvent("e" + i)))
+    (0 until 4).foreach(_ => queue.take())
+    queue.offer(new TestSchedulerEvent("e4"))
+    assertEquals(None, queue.get(new TestSchedulerEvent("late0")))
+    assertEquals("e4", queue.get(new TestSchedulerEvent("e4")).get.getId)
+  }
+
+  @Test
+  def testBlockedConsumersAreWokenUp: Unit = {
+    val queue = newQueue(8)
+    val consumers = 4
+    val producers = 4
+    val perProducer = 1000
+    val consumed = new AtomicInteger(0)
+    val done = new CountDownLatch(consumers)
+    val executor = Executors.newFixedThreadPool(consumers + producers)
+    (0 until consumers).foreach { _ =>
+      executor.submit(new Runnable {
+        override def run(): Unit = {
+          (0 until producers * perProducer / consumers).foreach { _ =>
+            queue.take()
+            consumed.incrementAndGet()
+          }
+          done.countDown()
+        }
+      })
+    }
+    (0 until producers).foreach { p =>
+      executor.submit(new Runnable {
+        override def run(): Unit =
+          (0 until perProducer).foreach(i => queue.put(new TestSchedulerEvent(p + "-" + i)))
+      })
+    }
+    assertTrue(done.await(30, TimeUnit.SECONDS))
+    executor.shutdownNow()
+    assertEquals(producers * perProducer, consumed.get())
+    assertTrue(queue.isEmpty)
+  }
+
+  @Test
+  def testCreateConsumeQueue: Unit = {
+    val groupFactory = new FIFOGroupFactory
+    val group = groupFactory.getOrCreateGroup(new TestSchedulerEvent("e0"))
+    assertTrue(groupFactory.createConsumeQueue(group).isInstanceOf[LoopArrayQueue])
+    groupFactory.setConsumeQueueType(GroupFactory.RING_BUFFER_QUEUE)
+    assertTrue(groupFactory.createConsumeQueue(group).isInstanceOf[RingBufferConsumeQueue])
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import java.io.IOException;
+
+/** Compress and decompress independent blocks of a result set file(压缩及解压结果集文件的数据块) */
+public interface BlockCodec {
+
+  String getName();
+
+  /** Codec id written after the block compressed flag(写在块压缩标识后的编码id) */
+  byte getId();
+
+  int maxCompressedLength(int length);
+
+  /**
+   * @return the compressed length
+   * @throws IOException
+   */
+  int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int maxDestLen)
+      throws IOException;
+
+  void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int rawLen)
+      throws IOException;
+}
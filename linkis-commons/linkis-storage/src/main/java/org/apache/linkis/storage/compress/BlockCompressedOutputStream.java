@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import org.apache.linkis.storage.domain.Dolphin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compress everything after the dolphin file header in blocks. The header stays raw so the type
+ * of the file can still be detected, then the flag, the codec id and the blocks follow. Block
+ * format: raw length (4 bytes) stored length (4 bytes) data, a block whose stored length equals
+ * its raw length is not compressed
+ * 将dolphin文件头之后的内容分块压缩，文件头保持原样以便识别类型，其后是压缩标识、编码id及数据块。块格式：原始长度(4字节) 存储长度(4字节) 数据，存储长度等于原始长度的块未压缩
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+
+  public static final int BLOCK_HEADER_LEN = 8;
+
+  private final OutputStream out;
+
+  private final BlockCodec codec;
+
+  private final byte[] block;
+
+  private final byte[] compressed;
+
+  private final byte[] blockHeader = new byte[BLOCK_HEADER_LEN];
+
+  private int count = 0;
+
+  private long rawPrefixLen;
+
+  private boolean flagWritten = false;
+
+  private boolean closed = false;
+
+  public BlockCompressedOutputStream(OutputStream out, BlockCodec codec, int blockSize) {
+    this(out, codec, blockSize, Dolphin.MAGIC_LEN + Dolphin.INT_LEN);
+  }
+
+  /**
+   * @param out
+   * @param codec
+   * @param blockSize
+   * @param rawPrefixLen leading bytes written as is, the dolphin header by default
+   */
+  public BlockCompressedOutputStream(
+      OutputStream out, BlockCodec codec, int blockSize, long rawPrefixLen) {
+    this.out = out;
+    this.codec = codec;
+    this.block = new byte[blockSize];
+    this.compressed = new byte[codec.maxCompressedLength(blockSize)];
+    this.rawPrefixLen = rawPrefixLen;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] bytes, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Block compressed stream is closed");
+    }
+    if (rawPrefixLen > 0) {
+      int n = (int) Math.min(len, rawPrefixLen);
+      out.write(bytes, off, n);
+      rawPrefixLen -= n;
+      off += n;
+      len -= n;
+    }
+    while (len > 0) {
+      int n = Math.min(len, block.length - count);
+      System.arraycopy(bytes, off, block, count, n);
+      count += n;
+      off += n;
+      len -= n;
+      if (count == block.length) {
+        writeBlock();
+      }
+    }
+  }
+
+  private void writeBlock() throws IOException {
+    if (count == 0) {
+      return;
+    }
+    if (!flagWritten) {
+      out.write(Dolphin.BLOCK_COMPRESSED_FLAG);
+      out.write(codec.getId());
+      flagWritten = true;
+    }
+    int len = codec.compress(block, 0, count, compressed, 0, compressed.length);
+    boolean stored = len >= count;
+    setInt(blockHeader, 0, count);
+    setInt(blockHeader, 4, stored ? count : len);
+    out.write(blockHeader);
+    if (stored) {
+      out.write(block, 0, count);
+    } else {
+      out.write(compressed, 0, len);
+    }
+    count = 0;
+  }
+
+  /**
+   * Only flush the blocks already written. The pending block is kept until it is full or the
+   * stream is closed, so frequent flushes do not shrink the blocks
+   * 只刷新已写出的数据块，未写满的块保留至写满或关闭，避免频繁flush导致块过小
+   */
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      writeBlock();
+      out.flush();
+    } finally {
+      closed = true;
+      out.close();
+    }
+  }
+
+  static void setInt(byte[] bytes, int pos, int value) {
+    bytes[pos] = (byte) (value >>> 24);
+    bytes[pos + 1] = (byte) (value >>> 16);
+    bytes[pos + 2] = (byte) (value >>> 8);
+    bytes[pos + 3] = (byte) value;
+  }
+
+  static int getInt(byte[] bytes, int pos) {
+    return ((bytes[pos] & 0xFF) << 24)
+        | ((bytes[pos + 1] & 0xFF) << 16)
+        | ((bytes[pos + 2] & 0xFF) << 8)
+        | (bytes[pos + 3] & 0xFF);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+import org.apache.linkis.storage.domain.Dolphin;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class BlockCompressionUtils {
+
+  private static final Logger logger = LoggerFactory.getLogger(BlockCompressionUtils.class);
+
+  public static final String NONE = "none";
+
+  /**
+   * Get the codec by the configured name, an unknown or unavailable codec falls back to no
+   * compression(根据配置名称获取压缩方式，未知或不可用时不压缩)
+   *
+   * @param name
+   * @return null if not compressed
+   */
+  public static BlockCodec getCodec(String name) {
+    if (StringUtils.isBlank(name) || NONE.equalsIgnoreCase(name.trim())) {
+      return null;
+    }
+    String codecName = name.trim().toLowerCase();
+    try {
+      switch (codecName) {
+        case Lz4BlockCodec.NAME:
+          return new Lz4BlockCodec();
+        case ZstdBlockCodec.NAME:
+          return new ZstdBlockCodec(LinkisStorageConf.RESULT_SET_COMPRESS_ZSTD_LEVEL);
+        default:
+          logger.warn("Unknown result set compress codec {}, write without compression", name);
+          return null;
+      }
+    } catch (LinkageError e) {
+      logger.warn("Compress codec {} is not available, write without compression", name, e);
+      return null;
+    }
+  }
+
+  public static BlockCodec getCodec(byte id) throws IOException {
+    try {
+      switch (id) {
+        case Lz4BlockCodec.ID:
+          return new Lz4BlockCodec();
+        case ZstdBlockCodec.ID:
+          return new ZstdBlockCodec(LinkisStorageConf.RESULT_SET_COMPRESS_ZSTD_LEVEL);
+        default:
+          throw new IOException("Unknown result set compress codec id: " + id);
+      }
+    } catch (LinkageError e) {
+      throw new IOException("Compress codec id " + id + " is not available", e);
+    }
+  }
+
+  /**
+   * Wrap the file output stream, the dolphin header is still written raw(包装文件输出流，文件头仍不压缩)
+   *
+   * @param outputStream
+   * @param codec null means not compressed
+   * @return
+   */
+  public static OutputStream compress(OutputStream outputStream, BlockCodec codec) {
+    if (codec == null) {
+      return outputStream;
+    }
+    return new BlockCompressedOutputStream(
+        outputStream, codec, LinkisStorageConf.RESULT_SET_COMPRESS_BLOCK_SIZE);
+  }
+
+  /**
+   * Wrap a stream positioned right after the dolphin header, a compressed file is detected by
+   * {@link Dolphin#BLOCK_COMPRESSED_FLAG} and others are returned as they are
+   * 包装已读取文件头的输入流，通过压缩标识识别压缩文件，未压缩文件原样返回
+   *
+   * @param inputStream
+   * @return
+   * @throws IOException
+   */
+  public static InputStream decompress(InputStream inputStream) throws IOException {
+    PushbackInputStream pushback = new PushbackInputStream(inputStream, 1);
+    int flag = pushback.read();
+    if (flag == Dolphin.BLOCK_COMPRESSED_FLAG) {
+      int id = pushback.read();
+      if (id < 0) {
+        throw new IOException("Compressed result set is truncated");
+      }
+      return new BlockDecompressedInputStream(pushback, getCodec((byte) id));
+    }
+    if (flag >= 0) {
+      pushback.unread(flag);
+    }
+    return pushback;
+  }
+
+  public static boolean isCompressed(InputStream inputStream) {
+    return inputStream instanceof BlockDecompressedInputStream;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming reader of {@link BlockCompressedOutputStream}, only one block is held in memory at a
+ * time(流式解压，内存中同时只保留一个数据块)
+ */
+public class BlockDecompressedInputStream extends InputStream {
+
+  /** Guard against reading garbage as a block length(防止将损坏数据当作块长度) */
+  private static final int MAX_BLOCK_LEN = 64 * 1024 * 1024;
+
+  private final InputStream in;
+
+  private final BlockCodec codec;
+
+  private final byte[] blockHeader = new byte[BlockCompressedOutputStream.BLOCK_HEADER_LEN];
+
+  private byte[] buffer = new byte[0];
+
+  private byte[] compressed = new byte[0];
+
+  private int pos = 0;
+
+  private int limit = 0;
+
+  private boolean eof = false;
+
+  /**
+   * @param in positioned after the flag and codec id
+   * @param codec
+   */
+  public BlockDecompressedInputStream(InputStream in, BlockCodec codec) {
+    this.in = in;
+    this.codec = codec;
+  }
+
+  private boolean fill() throws IOException {
+    while (pos >= limit) {
+      if (eof) {
+        return false;
+      }
+      int first = in.read();
+      if (first < 0) {
+        eof = true;
+        return false;
+      }
+      blockHeader[0] = (byte) first;
+      IOUtils.readFully(in, blockHeader, 1, blockHeader.length - 1);
+      int rawLen = BlockCompressedOutputStream.getInt(blockHeader, 0);
+      int storedLen = BlockCompressedOutputStream.getInt(blockHeader, 4);
+      if (rawLen < 0 || rawLen > MAX_BLOCK_LEN || storedLen < 0 || storedLen > MAX_BLOCK_LEN) {
+        throw new IOException("Corrupted compressed block, raw length: " + rawLen);
+      }
+      if (buffer.length < rawLen) {
+        buffer = new byte[rawLen];
+      }
+      if (storedLen == rawLen) {
+        IOUtils.readFully(in, buffer, 0, rawLen);
+      } else {
+        if (compressed.length < storedLen) {
+          compressed = new byte[storedLen];
+        }
+        IOUtils.readFully(in, compressed, 0, storedLen);
+        codec.decompress(compressed, 0, storedLen, buffer, 0, rawLen);
+      }
+      pos = 0;
+      limit = rawLen;
+    }
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    return buffer[pos++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] bytes, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int n = Math.min(len, limit - pos);
+    System.arraycopy(buffer, pos, bytes, off, n);
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    try {
+      while (skipped < n && fill()) {
+        int k = (int) Math.min(n - skipped, limit - pos);
+        pos += k;
+        skipped += k;
+      }
+    } catch (EOFException e) {
+      // a truncated block ends the stream like a short skip would
+      eof = true;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    if (pos < limit) {
+      return limit - pos;
+    }
+    return eof ? 0 : in.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
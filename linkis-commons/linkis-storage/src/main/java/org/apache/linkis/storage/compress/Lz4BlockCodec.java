@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import java.io.IOException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+public class Lz4BlockCodec implements BlockCodec {
+
+  public static final String NAME = "lz4";
+
+  public static final byte ID = 1;
+
+  private final LZ4Compressor compressor;
+
+  private final LZ4SafeDecompressor decompressor;
+
+  public Lz4BlockCodec() {
+    LZ4Factory factory = LZ4Factory.fastestInstance();
+    this.compressor = factory.fastCompressor();
+    this.decompressor = factory.safeDecompressor();
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return compressor.maxCompressedLength(length);
+  }
+
+  @Override
+  public int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int maxDestLen)
+      throws IOException {
+    try {
+      return compressor.compress(src, srcOff, srcLen, dest, destOff, maxDestLen);
+    } catch (LZ4Exception e) {
+      throw new IOException("lz4 compress failed", e);
+    }
+  }
+
+  @Override
+  public void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int rawLen)
+      throws IOException {
+    try {
+      int len = decompressor.decompress(src, srcOff, srcLen, dest, destOff, rawLen);
+      if (len != rawLen) {
+        throw new IOException("lz4 block is corrupted, expect " + rawLen + " bytes but got " + len);
+      }
+    } catch (LZ4Exception e) {
+      throw new IOException("lz4 decompress failed", e);
+    }
+  }
+}
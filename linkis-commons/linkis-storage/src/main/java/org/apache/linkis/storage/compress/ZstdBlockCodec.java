@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import java.io.IOException;
+
+import com.github.luben.zstd.Zstd;
+
+/** Needs zstd-jni on the classpath, which is not bundled with linkis-storage */
+public class ZstdBlockCodec implements BlockCodec {
+
+  public static final String NAME = "zstd";
+
+  public static final byte ID = 2;
+
+  private final int level;
+
+  public ZstdBlockCodec(int level) {
+    this.level = level;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return (int) Zstd.compressBound(length);
+  }
+
+  @Override
+  public int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int maxDestLen)
+      throws IOException {
+    long len = Zstd.compressByteArray(dest, destOff, maxDestLen, src, srcOff, srcLen, level);
+    if (Zstd.isError(len)) {
+      throw new IOException("zstd compress failed: " + Zstd.getErrorName(len));
+    }
+    return (int) len;
+  }
+
+  @Override
+  public void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int rawLen)
+      throws IOException {
+    long len = Zstd.decompressByteArray(dest, destOff, rawLen, src, srcOff, srcLen);
+    if (Zstd.isError(len)) {
+      throw new IOException("zstd decompress failed: " + Zstd.getErrorName(len));
+    }
+    if (len != rawLen) {
+      throw new IOException("zstd block is corrupted, expect " + rawLen + " bytes but got " + len);
+    }
+  }
+}
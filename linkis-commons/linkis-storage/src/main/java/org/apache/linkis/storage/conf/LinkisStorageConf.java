@@ -22,6 +22,9 @@ import org.apache.linkis.common.utils.ByteTimeUtils;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class LinkisStorageConf {
   private static final Object CONF_LOCK = new Object();
 
@@ -36,6 +39,83 @@ public class LinkisStorageConf {
 
   public static final long ROW_BYTE_MAX_LEN = ByteTimeUtils.byteStringAsBytes(ROW_BYTE_MAX_LEN_STR);
 
+  /**
+   * Encoding version of table result set rows: 1 is the legacy ascii column lengths, 2 is the
+   * binary var int column lengths. Readers understand both, keep 1 until every reader is upgraded
+   */
+  public static final int TABLE_RESULT_ENCODING_VERSION =
+      CommonVars.apply("linkis.resultset.table.encoding.version", 1).getValue();
+
+  public static final boolean RESULT_SET_ROW_INDEX_ENABLE =
+      CommonVars.apply("linkis.resultset.row.index.enable", false).getValue();
+
+  public static final int RESULT_SET_ROW_INDEX_INTERVAL =
+      CommonVars.apply("linkis.resultset.row.index.interval", 1000).getValue();
+
+  public static final boolean RESULT_SET_ROW_INDEX_READ_ENABLE =
+      CommonVars.apply("linkis.resultset.row.index.read.enable", true).getValue();
+
+  public static final int COLUMNAR_ROW_GROUP_SIZE =
+      CommonVars.apply("linkis.resultset.columnar.row.group.size", 4096).getValue();
+
+  public static final String COLUMNAR_ROW_GROUP_MAX_STR =
+      CommonVars.apply("linkis.resultset.columnar.row.group.max.str", "4m").getValue();
+
+  public static final long COLUMNAR_ROW_GROUP_MAX_LEN =
+      ByteTimeUtils.byteStringAsBytes(COLUMNAR_ROW_GROUP_MAX_STR);
+
+  /** Write table result sets in the columnar layout, readers must be upgraded before enabling */
+  public static final boolean TABLE_RESULT_COLUMNAR_ENABLE =
+      CommonVars.apply("linkis.resultset.table.columnar.enable", false).getValue();
+
+  /**
+   * Block compression of result set files: none, lz4 or zstd. Readers detect compressed files, so
+   * they must be upgraded before enabling
+   */
+  public static final String RESULT_SET_COMPRESS_CODEC =
+      CommonVars.apply("linkis.resultset.compress.codec", "none").getValue();
+
+  /** Per engine type codec overriding the default one, such as spark=lz4,hive=zstd */
+  public static final String RESULT_SET_COMPRESS_ENGINE_CODECS =
+      CommonVars.apply("linkis.resultset.compress.engine.codecs", "").getValue();
+
+  public static final String RESULT_SET_COMPRESS_BLOCK_SIZE_STR =
+      CommonVars.apply("linkis.resultset.compress.block.size", "256k").getValue();
+
+  public static final int RESULT_SET_COMPRESS_BLOCK_SIZE =
+      (int) ByteTimeUtils.byteStringAsBytes(RESULT_SET_COMPRESS_BLOCK_SIZE_STR);
+
+  public static final int RESULT_SET_COMPRESS_ZSTD_LEVEL =
+      CommonVars.apply("linkis.resultset.compress.zstd.level", 3).getValue();
+
+  /**
+   * Buffer result set files in off-heap pages uploaded to the store by a background thread,
+   * spilling to local disk when the upload falls behind. Rows are not readable from the store
+   * until the task finishes
+   */
+  public static final boolean RESULT_SET_SPILL_ENABLE =
+      CommonVars.apply("linkis.resultset.spill.enable", false).getValue();
+
+  public static final String RESULT_SET_SPILL_PAGE_SIZE_STR =
+      CommonVars.apply("linkis.resultset.spill.page.size", "4m").getValue();
+
+  public static final int RESULT_SET_SPILL_PAGE_SIZE =
+      (int) ByteTimeUtils.byteStringAsBytes(RESULT_SET_SPILL_PAGE_SIZE_STR);
+
+  /** Off-heap bytes of the pages shared by all the result sets being written in the process */
+  public static final String RESULT_SET_SPILL_MEMORY_MAX_STR =
+      CommonVars.apply("linkis.resultset.spill.memory.max", "32m").getValue();
+
+  public static final long RESULT_SET_SPILL_MEMORY_MAX =
+      ByteTimeUtils.byteStringAsBytes(RESULT_SET_SPILL_MEMORY_MAX_STR);
+
+  public static final String RESULT_SET_SPILL_DIR =
+      CommonVars.apply("linkis.resultset.spill.dir", System.getProperty("java.io.tmpdir"))
+          .getValue();
+
+  public static final int RESULT_SET_SPILL_UPLOAD_THREAD_MAX =
+      CommonVars.apply("linkis.resultset.spill.upload.thread.max", 10).getValue();
+
   public static final String FILE_TYPE =
       CommonVars.apply(
               "wds.linkis.storage.file.type",
@@ -44,6 +124,8 @@ public class LinkisStorageConf {
 
   private static volatile String[] fileTypeArr = null;
 
+  private static volatile Map<String, String> engineCompressCodecs = null;
+
   private static String[] fileTypeArrParser(String fileType) {
     if (StringUtils.isBlank(fileType)) {
       return new String[0];
@@ -62,4 +144,40 @@ public class LinkisStorageConf {
     }
     return fileTypeArr;
   }
+
+  private static Map<String, String> engineCompressCodecsParser(String engineCodecs) {
+    Map<String, String> codecs = new HashMap<>();
+    if (StringUtils.isNotBlank(engineCodecs)) {
+      for (String pair : engineCodecs.split(",")) {
+        String[] kv = pair.split("=");
+        if (kv.length == 2 && StringUtils.isNotBlank(kv[0])) {
+          codecs.put(kv[0].trim().toLowerCase(), kv[1].trim().toLowerCase());
+        }
+      }
+    }
+    return codecs;
+  }
+
+  /**
+   * Codec name used to compress the result sets of the engine type(获取引擎类型对应的结果集压缩方式)
+   *
+   * @param engineType such as spark, may be null
+   * @return
+   */
+  public static String getCompressCodec(String engineType) {
+    if (engineCompressCodecs == null) {
+      synchronized (CONF_LOCK) {
+        if (engineCompressCodecs == null) {
+          engineCompressCodecs = engineCompressCodecsParser(RESULT_SET_COMPRESS_ENGINE_CODECS);
+        }
+      }
+    }
+    if (StringUtils.isNotBlank(engineType)) {
+      String codec = engineCompressCodecs.get(engineType.toLowerCase());
+      if (codec != null) {
+        return codec;
+      }
+    }
+    return RESULT_SET_COMPRESS_CODEC;
+  }
 }
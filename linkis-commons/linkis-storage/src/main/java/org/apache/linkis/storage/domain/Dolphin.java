@@ -66,6 +66,55 @@ public class Dolphin {
 
   public static final int FILE_EMPTY = 31;
 
+  /**
+   * Leading byte of a table row serialized with binary column lengths. Legacy rows always start
+   * with an ascii digit, so both encodings can live in the same file
+   * 二进制列长编码的表格行首字节，旧格式行首总是ascii数字，两种编码可共存于同一文件
+   */
+  public static final byte TABLE_ENCODING_V2 = 0x02;
+
+  public static final int TABLE_ENCODING_VERSION_LEGACY = 1;
+
+  public static final int TABLE_ENCODING_VERSION_BINARY = 2;
+
+  /**
+   * Leading byte of a columnar row group, see {@link
+   * org.apache.linkis.storage.resultset.columnar.ColumnarResultSerializer}(列式结果集行组的首字节)
+   */
+  public static final byte COLUMNAR_ROW_GROUP = 0x03;
+
+  /**
+   * Byte following the file header of a block compressed file, never a digit so uncompressed
+   * files are told apart, see {@link
+   * org.apache.linkis.storage.compress.BlockCompressedOutputStream}(块压缩文件头后的标识字节)
+   */
+  public static final byte BLOCK_COMPRESSED_FLAG = 0x01;
+
+  public static final int COLUMN_ENCODING_PLAIN = 0;
+
+  public static final int COLUMN_ENCODING_DICT = 1;
+
+  /**
+   * Column chunk of typed values formatted only on read, see {@link
+   * org.apache.linkis.storage.resultset.columnar.TypedColumnCodec}(按类型存储、读取时才格式化的列块)
+   */
+  public static final int COLUMN_ENCODING_TYPED = 2;
+
+  /**
+   * Var ints carry 6 bits per byte and flag continuation with 0x40, so every encoded byte stays
+   * below 0x80 and survives the in-memory String form of a result set
+   * 变长整数每字节保存6位，0x40表示后续还有字节，保证所有字节小于0x80，可安全转换为字符串
+   */
+  public static final int VAR_INT_SHIFT = 6;
+
+  public static final int VAR_INT_MASK = 0x3F;
+
+  public static final int VAR_INT_CONTINUE = 0x40;
+
+  public static final int VAR_INT_MAX_LEN = 6;
+
+  public static final int VAR_LONG_MAX_LEN = 11;
+
   public static byte[] getBytes(Object value) {
     return value.toString().getBytes(CHAR_SET);
   }
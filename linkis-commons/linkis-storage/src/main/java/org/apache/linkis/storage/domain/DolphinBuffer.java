@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.domain;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer used to assemble dolphin rows without boxing. The buffer is meant to be
+ * reset and reused, so the backing array only grows to the largest row seen
+ * 可复用的字节缓冲区，用于在不装箱的情况下拼接dolphin行数据
+ */
+public class DolphinBuffer {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private byte[] buf;
+
+  private int count = 0;
+
+  public DolphinBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public DolphinBuffer(int initialCapacity) {
+    this.buf = new byte[Math.max(initialCapacity, 16)];
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+      throw new OutOfMemoryError("Dolphin buffer exceeds max capacity: " + minCapacity);
+    }
+    if (minCapacity > buf.length) {
+      int newCapacity = buf.length << 1;
+      if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) {
+        newCapacity = minCapacity;
+      }
+      buf = Arrays.copyOf(buf, newCapacity);
+    }
+  }
+
+  public void write(byte b) {
+    ensureCapacity(count + 1);
+    buf[count++] = b;
+  }
+
+  public void write(byte[] bytes) {
+    write(bytes, 0, bytes.length);
+  }
+
+  public void write(byte[] bytes, int off, int len) {
+    ensureCapacity(count + len);
+    System.arraycopy(bytes, off, buf, count, len);
+    count += len;
+  }
+
+  public void write(DolphinBuffer other) {
+    write(other.buf, 0, other.count);
+  }
+
+  /**
+   * Write an integer with the fixed length ascii format of {@link Dolphin#getIntBytes(int)}
+   * 以固定长度的ascii格式写入整数
+   *
+   * @param value
+   */
+  public void writeIntBytes(int value) {
+    ensureCapacity(count + Dolphin.INT_LEN);
+    setIntBytes(count, value);
+    count += Dolphin.INT_LEN;
+  }
+
+  /**
+   * Overwrite the fixed length integer at the position, used to back-fill the row length
+   * 覆盖指定位置的固定长度整数，用于回填行长
+   *
+   * @param pos
+   * @param value
+   */
+  public void setIntBytes(int pos, int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Dolphin int must not be negative: " + value);
+    }
+    for (int i = pos + Dolphin.INT_LEN - 1; i >= pos; i--) {
+      buf[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+  /**
+   * Write an unsigned var int, see {@link Dolphin#VAR_INT_CONTINUE}(写入变长整数)
+   *
+   * @param value
+   */
+  public void writeVarInt(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Dolphin var int must not be negative: " + value);
+    }
+    ensureCapacity(count + Dolphin.VAR_INT_MAX_LEN);
+    while ((value & ~Dolphin.VAR_INT_MASK) != 0) {
+      buf[count++] = (byte) ((value & Dolphin.VAR_INT_MASK) | Dolphin.VAR_INT_CONTINUE);
+      value >>>= Dolphin.VAR_INT_SHIFT;
+    }
+    buf[count++] = (byte) value;
+  }
+
+  /**
+   * Write a long as an unsigned var int, negative values take {@link Dolphin#VAR_LONG_MAX_LEN}
+   * bytes(将long按无符号变长整数写入)
+   *
+   * @param value
+   */
+  public void writeVarLong(long value) {
+    ensureCapacity(count + Dolphin.VAR_LONG_MAX_LEN);
+    while ((value & ~Dolphin.VAR_INT_MASK) != 0) {
+      buf[count++] = (byte) ((value & Dolphin.VAR_INT_MASK) | Dolphin.VAR_INT_CONTINUE);
+      value >>>= Dolphin.VAR_INT_SHIFT;
+    }
+    buf[count++] = (byte) value;
+  }
+
+  public int size() {
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  public void reset() {
+    count = 0;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buf, count);
+  }
+
+  public void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(buf, 0, count);
+  }
+}
@@ -31,6 +31,8 @@ public enum LinkisStorageErrorCodeSummary implements LinkisErrorCode {
   FSN_NOT_INIT_EXCEPTION(52000, "FSNotInitException"),
   PARSING_METADATA_FAILED(52001, "Parsing metadata failed(解析元数据失败)"),
   TABLE_ARE_NOT_SUPPORTED(52002, "Result sets that are not tables are not supported(不支持不是表格的结果集)"),
+  INVALID_RESULT_SET_COLUMN(52003, "Column:{0} does not exist in the result set(结果集中不存在列:{0})"),
+  INVALID_COLUMN_FILTER(52003, "Invalid column filter:{0}(不合法的列过滤条件:{0})"),
   MUST_REGISTER_TOC(
       52004, "You must register IOClient before you can use proxy mode.(必须先注册IOClient,才能使用代理模式)"),
   MUST_REGISTER_TOM(
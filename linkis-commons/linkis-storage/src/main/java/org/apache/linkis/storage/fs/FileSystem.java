@@ -21,8 +21,11 @@ import org.apache.linkis.common.io.Fs;
 import org.apache.linkis.common.io.FsPath;
 import org.apache.linkis.storage.domain.FsPathListWithError;
 
+import org.apache.commons.io.IOUtils;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +76,26 @@ public abstract class FileSystem implements Fs {
     return copy(origin.getPath(), dest.getPath());
   }
 
+  /**
+   * Open the file and position the stream at the offset(打开文件并定位到指定偏移量). File systems that
+   * can seek should override it, the default implementation skips the leading bytes
+   *
+   * @param dest path(路径)
+   * @param position byte offset to start reading from(开始读取的字节偏移量)
+   * @return
+   * @throws IOException
+   */
+  public InputStream read(FsPath dest, long position) throws IOException {
+    InputStream inputStream = read(dest);
+    try {
+      IOUtils.skipFully(inputStream, position);
+    } catch (IOException e) {
+      IOUtils.closeQuietly(inputStream);
+      throw e;
+    }
+    return inputStream;
+  }
+
   /**
    * Set permissions for a path(设置某个路径的权限)
    *
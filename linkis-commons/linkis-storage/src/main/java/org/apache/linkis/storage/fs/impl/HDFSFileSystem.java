@@ -28,9 +28,11 @@ import org.apache.linkis.storage.utils.StorageConfiguration;
 import org.apache.linkis.storage.utils.StorageUtils;
 
 import org.apache.commons.collections.MapUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.Path;
@@ -232,6 +234,21 @@ public class HDFSFileSystem extends FileSystem {
     return fs.open(new Path(dest.getPath()));
   }
 
+  @Override
+  public InputStream read(FsPath dest, long position) throws IOException {
+    if (!canRead(dest)) {
+      throw new IOException("You have not permission to access path " + dest.getPath());
+    }
+    FSDataInputStream inputStream = fs.open(new Path(dest.getPath()));
+    try {
+      inputStream.seek(position);
+    } catch (IOException e) {
+      IOUtils.closeQuietly(inputStream);
+      throw e;
+    }
+    return inputStream;
+  }
+
   @Override
   public OutputStream write(FsPath dest, boolean overwrite) throws IOException {
     String path = checkHDFSPath(dest.getPath());
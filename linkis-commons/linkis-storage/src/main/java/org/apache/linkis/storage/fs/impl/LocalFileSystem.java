@@ -359,6 +359,16 @@ public class LocalFileSystem extends FileSystem {
     throw new IOException("you have no permission to read path " + dest.getPath());
   }
 
+  @Override
+  public InputStream read(FsPath dest, long position) throws IOException {
+    if (canRead(dest)) {
+      FileInputStream inputStream = new FileInputStream(dest.getPath());
+      inputStream.getChannel().position(position);
+      return inputStream;
+    }
+    throw new IOException("you have no permission to read path " + dest.getPath());
+  }
+
   @Override
   public OutputStream write(FsPath dest, boolean overwrite) throws IOException {
     String path = dest.getPath();
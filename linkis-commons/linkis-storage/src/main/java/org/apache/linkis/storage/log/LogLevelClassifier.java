@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.log;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Level of a log line by its header, such as "2022-01-01 12:00:00.000 ERROR". A line without a
+ * header, such as a line of a stack trace, is {@link LogLineIndex#CONTINUED} and keeps the level of
+ * the lines before. Logs are indexed and searched with it in every service, so a line has the same
+ * level whether the log is indexed or not
+ * 按日志头判断日志行级别，无日志头的行(如异常堆栈)沿用前面行的级别；各服务建索引及搜索时均使用该分类器
+ */
+public class LogLevelClassifier implements ToIntFunction<String> {
+
+  public static final LogLevelClassifier INSTANCE = new LogLevelClassifier();
+
+  private static final Pattern LEVEL_HEADER =
+      Pattern.compile("[0-9\\-/]{10} [0-9:]{8}.?\\d{0,3}\\s*(SYSTEM-)?(ERROR|WARN|INFO)\\b");
+
+  @Override
+  public int applyAsInt(String log) {
+    if (StringUtils.isBlank(log)) {
+      return LogLineIndex.SKIPPED;
+    }
+    Matcher matcher = LEVEL_HEADER.matcher(log);
+    if (!matcher.find()) {
+      return LogLineIndex.CONTINUED;
+    }
+    switch (matcher.group(2)) {
+      case "ERROR":
+        return LogLineIndex.ERROR;
+      case "WARN":
+        return LogLineIndex.WARN;
+      default:
+        return LogLineIndex.INFO;
+    }
+  }
+}
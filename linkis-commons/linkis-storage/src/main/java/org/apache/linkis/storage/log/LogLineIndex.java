@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Sparse line index of a log, built while the log is written. It keeps the byte offset of every
+ * {@code interval}th line, so readers seek close to the line they need instead of scanning from
+ * line 0, and the level of every line packed in 2 bits, with a mask of the levels present in each
+ * segment of {@code interval} lines, so level filtered reads skip whole segments. Lines are split
+ * like {@link org.apache.commons.io.LineIterator}, by \n, \r or \r\n.
+ * 日志稀疏行索引：每interval行记录一次字节偏移量用于定位，以2位记录每行日志级别，并记录每段包含的级别用于跳过整段
+ */
+public class LogLineIndex {
+
+  public static final String INDEX_FILE_SUFFIX = ".idx";
+
+  public static final int ERROR = 0;
+
+  public static final int WARN = 1;
+
+  public static final int INFO = 2;
+
+  /** Blank or excluded lines, which are not shown by level(空行或被排除的日志) */
+  public static final int SKIPPED = 3;
+
+  /**
+   * Returned by a level classifier for a line without a level of its own, such as a line of a
+   * stack trace, it gets the level of the last line not skipped(无自身级别的行，沿用上一条非空行的级别)
+   */
+  public static final int CONTINUED = -1;
+
+  public static final int ALL_LEVELS =
+      (1 << ERROR) | (1 << WARN) | (1 << INFO) | (1 << SKIPPED);
+
+  private static final String[] LEVEL_NAMES = {"ERROR", "WARN", "INFO", "SKIPPED"};
+
+  private static final int MAGIC = 0x4c4c4958; // LLIX
+
+  private static final int VERSION = 1;
+
+  private static final int LEVEL_MASK = 3;
+
+  private final int interval;
+
+  private final String charset;
+
+  private final ToIntFunction<String> levelClassifier;
+
+  private long[] offsets = new long[16];
+
+  private int offsetNum = 1;
+
+  private byte[] levels = new byte[64];
+
+  private byte[] segmentLevels = new byte[16];
+
+  /** Number of lines ended by a line separator(已结束的行数) */
+  private int lineNum = 0;
+
+  /** Number of bytes indexed(已索引的字节数) */
+  private long length = 0L;
+
+  private final ByteArrayOutputStream pendingLine = new ByteArrayOutputStream();
+
+  private boolean lastIsCR = false;
+
+  /** Level given to the next {@link #CONTINUED} line(下一条无级别行沿用的级别) */
+  private int continuedLevel = INFO;
+
+  /**
+   * @param interval lines of a segment
+   * @param charset charset of the log
+   * @param levelClassifier level of a line, such as {@link #ERROR}, or {@link #CONTINUED}
+   */
+  public LogLineIndex(int interval, String charset, ToIntFunction<String> levelClassifier) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("The interval of log line index must be positive");
+    }
+    this.interval = interval;
+    this.charset = charset;
+    this.levelClassifier = levelClassifier;
+  }
+
+  /**
+   * Name of the level, such as ERROR(获取级别名称)
+   *
+   * @param level
+   * @return
+   */
+  public static String getLevelName(int level) {
+    return level >= 0 && level < LEVEL_NAMES.length ? LEVEL_NAMES[level] : null;
+  }
+
+  /**
+   * Parse the level mask of comma separated level names, such as ERROR,WARN. Blank levels mean all
+   * the levels(解析逗号分隔的级别名称为级别掩码)
+   *
+   * @param levels
+   * @return
+   */
+  public static int parseLevelMask(String levels) {
+    if (levels == null || levels.trim().isEmpty()) {
+      return ALL_LEVELS;
+    }
+    int mask = 0;
+    for (String name : levels.split(",")) {
+      String level = name.trim().toUpperCase();
+      if (level.isEmpty()) {
+        continue;
+      }
+      int index = Arrays.asList(LEVEL_NAMES).indexOf(level);
+      if (index < 0) {
+        throw new IllegalArgumentException("Unknown log level: " + name);
+      }
+      mask |= 1 << index;
+    }
+    return mask;
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+  private void setLevel(int line, int level) {
+    int i = line >>> 2;
+    if (i >= levels.length) {
+      levels = Arrays.copyOf(levels, levels.length << 1);
+    }
+    int shift = (line & 3) << 1;
+    levels[i] = (byte) ((levels[i] & ~(LEVEL_MASK << shift)) | (level << shift));
+    int segment = line / interval;
+    if (segment >= segmentLevels.length) {
+      segmentLevels =
+          Arrays.copyOf(segmentLevels, Math.max(segmentLevels.length << 1, segment + 1));
+    }
+    segmentLevels[segment] |= (byte) (1 << level);
+  }
+
+  private void endLine(long nextLineOffset) throws UnsupportedEncodingException {
+    int level = levelClassifier.applyAsInt(pendingLine.toString(charset));
+    if (level == CONTINUED) {
+      level = continuedLevel;
+    } else if (level != SKIPPED) {
+      continuedLevel = level & LEVEL_MASK;
+    }
+    setLevel(lineNum, level & LEVEL_MASK);
+    pendingLine.reset();
+    lineNum++;
+    if (lineNum % interval == 0) {
+      if (offsetNum >= offsets.length) {
+        offsets = Arrays.copyOf(offsets, offsets.length << 1);
+      }
+      offsets[offsetNum++] = nextLineOffset;
+    }
+  }
+
+  /**
+   * Index the bytes just appended to the log(索引刚写入日志的字节)
+   *
+   * @param bytes
+   * @throws UnsupportedEncodingException
+   */
+  public synchronized void append(byte[] bytes) throws UnsupportedEncodingException {
+    int start = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      byte b = bytes[i];
+      if (b == '\n' && lastIsCR) {
+        // the second byte of \r\n, the line was already ended by \r
+        lastIsCR = false;
+        start = i + 1;
+        if (lineNum % interval == 0) {
+          offsets[offsetNum - 1] = length + i + 1;
+        }
+      } else if (b == '\n' || b == '\r') {
+        pendingLine.write(bytes, start, i - start);
+        endLine(length + i + 1);
+        lastIsCR = b == '\r';
+        start = i + 1;
+      } else {
+        lastIsCR = false;
+      }
+    }
+    pendingLine.write(bytes, start, bytes.length - start);
+    length += bytes.length;
+  }
+
+  public synchronized long getLength() {
+    return length;
+  }
+
+  /** Number of lines, including a last line not ended yet(总行数，包含未结束的最后一行) */
+  public synchronized int getLineNum() {
+    return pendingLine.size() > 0 ? lineNum + 1 : lineNum;
+  }
+
+  /**
+   * The nearest indexed line not after the line(不超过该行的最近索引行)
+   *
+   * @param line
+   * @return
+   */
+  public synchronized int seekLine(int line) {
+    return Math.min(Math.max(line, 0) / interval, offsetNum - 1) * interval;
+  }
+
+  /**
+   * Byte offset of an indexed line returned by {@link #seekLine(int)}(索引行的字节偏移量)
+   *
+   * @param indexedLine
+   * @return
+   */
+  public synchronized long getOffset(int indexedLine) {
+    return offsets[indexedLine / interval];
+  }
+
+  /**
+   * Level of an ended line, or -1 if it is not indexed(获取已结束行的日志级别，未索引时返回-1)
+   *
+   * @param line
+   * @return
+   */
+  public synchronized int getLevel(int line) {
+    if (line < 0 || line >= lineNum) {
+      return -1;
+    }
+    return (levels[line >>> 2] >>> ((line & 3) << 1)) & LEVEL_MASK;
+  }
+
+  /**
+   * Level a {@link #CONTINUED} line gets after the ended lines before the line, that is the level
+   * of the last of them not skipped(该行之前最后一条非空行的级别)
+   *
+   * @param line
+   * @return
+   */
+  public synchronized int getContinuedLevel(int line) {
+    if (line >= lineNum) {
+      return continuedLevel;
+    }
+    for (int i = line - 1; i >= 0; i--) {
+      int level = getLevel(i);
+      if (level != SKIPPED) {
+        return level;
+      }
+    }
+    return INFO;
+  }
+
+  /**
+   * Whether all the lines of the segment are indexed and one of them has a level of the mask, a
+   * segment not fully indexed may contain any level(判断该段是否包含指定级别的日志)
+   *
+   * @param segment line / interval
+   * @param levelMask bits of levels, such as 1 << {@link #ERROR}
+   * @return
+   */
+  public synchronized boolean mayContain(int segment, int levelMask) {
+    if (segment < 0 || (long) (segment + 1) * interval > lineNum) {
+      return true;
+    }
+    return (segmentLevels[segment] & levelMask) != 0;
+  }
+
+  public synchronized void write(OutputStream outputStream) throws IOException {
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(interval);
+    out.writeLong(length);
+    out.writeInt(lineNum);
+    out.writeInt(offsetNum);
+    for (int i = 0; i < offsetNum; i++) {
+      out.writeLong(offsets[i]);
+    }
+    out.write(levels, 0, (lineNum + 3) >>> 2);
+    out.flush();
+  }
+
+  /**
+   * Read an index written by {@link #write(OutputStream)}, the lines appended to the index later
+   * are classified by the level classifier(读取持久化的行索引)
+   *
+   * @param inputStream
+   * @param charset
+   * @param levelClassifier
+   * @return null if it is not a log line index
+   * @throws IOException
+   */
+  public static LogLineIndex read(
+      InputStream inputStream, String charset, ToIntFunction<String> levelClassifier)
+      throws IOException {
+    DataInputStream in = new DataInputStream(inputStream);
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      return null;
+    }
+    LogLineIndex index = new LogLineIndex(in.readInt(), charset, levelClassifier);
+    index.length = in.readLong();
+    int lineNum = in.readInt();
+    index.offsetNum = in.readInt();
+    index.offsets = new long[Math.max(index.offsetNum, 1)];
+    for (int i = 0; i < index.offsetNum; i++) {
+      index.offsets[i] = in.readLong();
+    }
+    byte[] levels = new byte[(lineNum + 3) >>> 2];
+    in.readFully(levels);
+    index.levels = Arrays.copyOf(levels, Math.max(levels.length, 1));
+    index.segmentLevels = new byte[lineNum / index.interval + 1];
+    for (int line = 0; line < lineNum; line++) {
+      int level = (levels[line >>> 2] >>> ((line & 3) << 1)) & LEVEL_MASK;
+      index.segmentLevels[line / index.interval] |= (byte) (1 << level);
+      if (level != SKIPPED) {
+        index.continuedLevel = level;
+      }
+    }
+    index.lineNum = lineNum;
+    return index;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.log;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.LineIterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Search the lines of a log by pattern, level and line range. With a {@link LogLineIndex} the
+ * search seeks to the first line and skips the segments without the wanted levels, instead of
+ * scanning them(按正则、级别及行范围搜索日志，有行索引时跳过不含目标级别的段)
+ */
+public class LogSearcher {
+
+  /** Open the log positioned at the byte offset(打开日志并定位到指定字节偏移量) */
+  public interface LogOpener {
+    InputStream open(long position) throws IOException;
+  }
+
+  /** Receive the matched lines(接收匹配的行) */
+  public interface MatchHandler {
+    void onMatch(int line, int level, String log) throws IOException;
+  }
+
+  private final LogOpener logOpener;
+
+  private final String charset;
+
+  private final LogLineIndex lineIndex;
+
+  private final ToIntFunction<String> levelClassifier;
+
+  /**
+   * @param logOpener
+   * @param charset
+   * @param lineIndex may be null
+   * @param levelClassifier level of the lines not indexed, the one the index was built with
+   */
+  public LogSearcher(
+      LogOpener logOpener,
+      String charset,
+      LogLineIndex lineIndex,
+      ToIntFunction<String> levelClassifier) {
+    this.logOpener = logOpener;
+    this.charset = charset;
+    this.lineIndex = lineIndex;
+    this.levelClassifier = levelClassifier;
+  }
+
+  private boolean skipSegment(int line, int levelMask) {
+    return lineIndex != null
+        && line % lineIndex.getInterval() == 0
+        && !lineIndex.mayContain(line / lineIndex.getInterval(), levelMask);
+  }
+
+  /**
+   * Search the log(搜索日志)
+   *
+   * @param pattern null matches all the lines
+   * @param levelMask bits of the wanted levels, such as 1 << {@link LogLineIndex#ERROR}
+   * @param fromLine first line to search
+   * @param toLine line to stop at, exclusive, negative for the end of the log
+   * @param maxMatches negative for no limit
+   * @param handler
+   * @return the number of matched lines
+   * @throws IOException
+   */
+  public int search(
+      Pattern pattern,
+      int levelMask,
+      int fromLine,
+      int toLine,
+      int maxMatches,
+      MatchHandler handler)
+      throws IOException {
+    int line = Math.max(fromLine, 0);
+    int matches = 0;
+    boolean end = false;
+    while (!end) {
+      int startLine = 0;
+      long offset = 0L;
+      if (lineIndex != null) {
+        int interval = lineIndex.getInterval();
+        // jump over the segments without the wanted levels
+        while (!lineIndex.mayContain(line / interval, levelMask)) {
+          line = (line / interval + 1) * interval;
+        }
+        startLine = lineIndex.seekLine(line);
+        offset = lineIndex.getOffset(startLine);
+      }
+      if (toLine >= 0 && line >= toLine) {
+        break;
+      }
+      // every line read is classified, so a continued line gets the level of the lines before it
+      // even if they are before the first line to search
+      int continuedLevel =
+          startLine > 0 ? lineIndex.getContinuedLevel(startLine) : LogLineIndex.INFO;
+      InputStream inputStream = logOpener.open(offset);
+      LineIterator lineIterator = IOUtils.lineIterator(inputStream, charset);
+      try {
+        int current = startLine;
+        end = true;
+        while (lineIterator.hasNext()) {
+          // the limit is checked before a line is matched, so no match is added past it
+          if ((toLine >= 0 && current >= toLine) || (maxMatches >= 0 && matches >= maxMatches)) {
+            break;
+          }
+          if (current > line && skipSegment(current, levelMask)) {
+            // reopen the log at the next segment to search
+            line = current;
+            end = false;
+            break;
+          }
+          String log = lineIterator.next();
+          int level = lineIndex == null ? -1 : lineIndex.getLevel(current);
+          if (level < 0) {
+            level = levelClassifier.applyAsInt(log);
+            if (level == LogLineIndex.CONTINUED) {
+              level = continuedLevel;
+            }
+          }
+          if (level != LogLineIndex.SKIPPED) {
+            continuedLevel = level;
+          }
+          if (current >= line
+              && (levelMask & (1 << level)) != 0
+              && (pattern == null || pattern.matcher(log).find())) {
+            handler.onMatch(current, level, log);
+            matches++;
+          }
+          current++;
+        }
+      } finally {
+        LineIterator.closeQuietly(lineIterator);
+        IOUtils.closeQuietly(inputStream);
+      }
+    }
+    return matches;
+  }
+}
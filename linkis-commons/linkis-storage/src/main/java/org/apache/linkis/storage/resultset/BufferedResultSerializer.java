@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset;
+
+import org.apache.linkis.common.io.Record;
+
+import java.io.IOException;
+
+/**
+ * Serializer that holds records back and writes them in batches, such as the row groups of a
+ * columnar result set. The writer drains it before the content is read or the file is closed
+ * 缓存记录并批量输出的序列化器，写入器在读取内容或关闭文件前会取出剩余数据
+ */
+public interface BufferedResultSerializer {
+
+  /**
+   * Buffer the record and return the bytes ready to be written, an empty array while the batch is
+   * not full. A row longer than the row limit is rejected like the rows of the other serializers
+   * 缓存记录并返回可写出的数据，超过单行上限的行与其他序列化器一样被拒绝
+   *
+   * @param record
+   * @return
+   * @throws IOException
+   */
+  byte[] bufferRecord(Record record) throws IOException;
+
+  /**
+   * Serialize the records held back so far, returns an empty array when nothing is buffered
+   * 序列化已缓存的记录，没有缓存时返回空数组
+   *
+   * @return
+   */
+  byte[] flushBuffered();
+}
@@ -30,6 +30,7 @@ public interface ResultSetFactory {
   String IO_TYPE = "3";
   String PICTURE_TYPE = "4";
   String HTML_TYPE = "5";
+  String COLUMNAR_TYPE = "6";
 
   /** TODO 修改为注册形式，并修改ResultSet的getResultType逻辑 Result set corresponding type record(结果集对应类型记录) */
   Map<String, String> resultSetType =
@@ -40,6 +41,7 @@ public interface ResultSetFactory {
           put(IO_TYPE, "IO");
           put(PICTURE_TYPE, "PICTURE");
           put(HTML_TYPE, "HTML");
+          put(COLUMNAR_TYPE, "COLUMNAR");
         }
       };
 
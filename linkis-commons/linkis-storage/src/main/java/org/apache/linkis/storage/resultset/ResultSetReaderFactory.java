@@ -24,11 +24,15 @@ import org.apache.linkis.common.io.Record;
 import org.apache.linkis.common.io.resultset.ResultSet;
 import org.apache.linkis.common.io.resultset.ResultSetReader;
 import org.apache.linkis.storage.FSFactory;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
 import org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary;
 import org.apache.linkis.storage.exception.StorageWarnException;
+import org.apache.linkis.storage.fs.FileSystem;
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSet;
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSetReader;
 import org.apache.linkis.storage.resultset.table.TableMetaData;
 import org.apache.linkis.storage.resultset.table.TableRecord;
-import org.apache.linkis.storage.resultset.table.TableResultSet;
+import org.apache.linkis.storage.utils.StorageUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,14 +45,54 @@ public class ResultSetReaderFactory {
 
   public static <K extends MetaData, V extends Record> ResultSetReader getResultSetReader(
       ResultSet<K, V> resultSet, InputStream inputStream) {
+    if (resultSet instanceof ColumnarResultSet) {
+      return new ColumnarResultSetReader((ColumnarResultSet) resultSet, inputStream);
+    }
     return new StorageResultSetReader<>(resultSet, inputStream);
   }
 
   public static <K extends MetaData, V extends Record> ResultSetReader getResultSetReader(
       ResultSet<K, V> resultSet, String value) {
+    if (resultSet instanceof ColumnarResultSet) {
+      return new ColumnarResultSetReader((ColumnarResultSet) resultSet, value);
+    }
     return new StorageResultSetReader<>(resultSet, value);
   }
 
+  /** Whether the result set holds table records, row based or columnar(是否为表格结果集) */
+  public static boolean isTableResultSet(String resultSetType) {
+    return ResultSetFactory.TABLE_TYPE.equals(resultSetType)
+        || ResultSetFactory.COLUMNAR_TYPE.equals(resultSetType);
+  }
+
+  /**
+   * Open the result set file with the fs, when a row index sidecar exists the reader seeks
+   * through it on skip. The fs is not closed by the reader
+   *
+   * @param resultSet
+   * @param fs
+   * @param fsPath
+   * @return
+   * @throws IOException
+   */
+  public static <K extends MetaData, V extends Record> ResultSetReader getResultSetReader(
+      ResultSet<K, V> resultSet, Fs fs, FsPath fsPath) throws IOException {
+    if (resultSet instanceof ColumnarResultSet) {
+      return new ColumnarResultSetReader((ColumnarResultSet) resultSet, fs.read(fsPath));
+    }
+    StorageResultSetReader<K, V> reader =
+        new StorageResultSetReader<>(resultSet, fs.read(fsPath));
+    if (LinkisStorageConf.RESULT_SET_ROW_INDEX_READ_ENABLE
+        && fs instanceof FileSystem
+        && !StorageUtils.isIOProxy()) {
+      ResultSetRowIndex rowIndex = ResultSetRowIndex.load((FileSystem) fs, fsPath);
+      if (rowIndex != null) {
+        reader.setRowIndex(rowIndex, (FileSystem) fs, fsPath);
+      }
+    }
+    return reader;
+  }
+
   public static ResultSetReader getResultSetReader(String res) throws IOException {
     ResultSetFactory rsFactory = ResultSetFactory.getInstance();
     if (rsFactory.isResultSet(res)) {
@@ -60,30 +104,32 @@ public class ResultSetReaderFactory {
           rsFactory.getResultSetByPath(resPath);
       Fs fs = FSFactory.getFs(resPath);
       fs.init(null);
-      ResultSetReader reader =
-          ResultSetReaderFactory.getResultSetReader(resultSet, fs.read(resPath));
+      ResultSetReader reader = ResultSetReaderFactory.getResultSetReader(resultSet, fs, resPath);
       if (reader instanceof StorageResultSetReader) {
         ((StorageResultSetReader<?, ?>) reader).setFs(fs);
+      } else if (reader instanceof ColumnarResultSetReader) {
+        ((ColumnarResultSetReader) reader).setFs(fs);
       }
-      return (StorageResultSetReader<?, ?>) reader;
+      return reader;
     }
   }
 
+  @SuppressWarnings("unchecked")
   public static ResultSetReader getTableResultReader(String res) {
     ResultSetFactory rsFactory = ResultSetFactory.getInstance();
     if (rsFactory.isResultSet(res)) {
       ResultSet<?, ?> resultSet = rsFactory.getResultSet(res);
-      if (!ResultSetFactory.TABLE_TYPE.equals(resultSet.resultSetType())) {
+      if (!isTableResultSet(resultSet.resultSetType())) {
         throw new StorageWarnException(
             LinkisStorageErrorCodeSummary.TABLE_ARE_NOT_SUPPORTED.getErrorCode(),
             LinkisStorageErrorCodeSummary.TABLE_ARE_NOT_SUPPORTED.getErrorDesc());
       }
       return ResultSetReaderFactory.<TableMetaData, TableRecord>getResultSetReader(
-          (TableResultSet) resultSet, res);
+          (ResultSet<TableMetaData, TableRecord>) resultSet, res);
     } else {
       FsPath resPath = new FsPath(res);
       ResultSet<?, ?> resultSet = rsFactory.getResultSetByPath(resPath);
-      if (!ResultSetFactory.TABLE_TYPE.equals(resultSet.resultSetType())) {
+      if (!isTableResultSet(resultSet.resultSetType())) {
         throw new StorageWarnException(
             LinkisStorageErrorCodeSummary.TABLE_ARE_NOT_SUPPORTED.getErrorCode(),
             LinkisStorageErrorCodeSummary.TABLE_ARE_NOT_SUPPORTED.getErrorDesc());
@@ -96,7 +142,7 @@ public class ResultSetReaderFactory {
         InputStream read = fs.read(resPath);
 
         return ResultSetReaderFactory.<TableMetaData, TableRecord>getResultSetReader(
-            (TableResultSet) resultSet, read);
+            (ResultSet<TableMetaData, TableRecord>) resultSet, read);
       } catch (IOException e) {
         throw new StorageWarnException(
             LinkisStorageErrorCodeSummary.TABLE_ARE_NOT_SUPPORTED.getErrorCode(),
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset;
+
+import org.apache.linkis.common.io.FsPath;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.fs.FileSystem;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sparse row offset index of a dolphin result set, persisted as a sidecar file beside it. It holds
+ * the byte offset of every interval-th row, so a reader can seek to any page instead of walking
+ * the rows before it. 结果集的稀疏行偏移索引，保存每隔interval行的字节偏移量，读取时可直接定位到任意页
+ *
+ * <p>Sidecar format: magic(dolphin) version interval rowCount dataLength size offsets[size]
+ */
+public class ResultSetRowIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResultSetRowIndex.class);
+
+  public static final String INDEX_FILE_SUFFIX = ".idx";
+
+  private static final int INDEX_VERSION = 1;
+
+  private final int interval;
+
+  private long[] offsets;
+
+  private int size = 0;
+
+  private long rowCount = 0;
+
+  private long dataLength = 0;
+
+  public ResultSetRowIndex(int interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Row index interval must be positive: " + interval);
+    }
+    this.interval = interval;
+    this.offsets = new long[16];
+  }
+
+  private ResultSetRowIndex(int interval, long[] offsets, long rowCount, long dataLength) {
+    this.interval = interval;
+    this.offsets = offsets;
+    this.size = offsets.length;
+    this.rowCount = rowCount;
+    this.dataLength = dataLength;
+  }
+
+  /**
+   * Record the offset of a row, only every interval-th row is kept(记录行偏移量)
+   *
+   * @param rowNum row number starting from 0
+   * @param offset byte offset of the row length prefix in the file
+   */
+  public void addRow(long rowNum, long offset) {
+    if (rowNum % interval == 0) {
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size << 1);
+      }
+      offsets[size++] = offset;
+    }
+    rowCount = rowNum + 1;
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public long getDataLength() {
+    return dataLength;
+  }
+
+  public void setDataLength(long dataLength) {
+    this.dataLength = dataLength;
+  }
+
+  /**
+   * The number of the last indexed row that is not after the target row, -1 if none
+   * 返回不超过目标行的最近索引行号，不存在时返回-1
+   *
+   * @param rowNum
+   * @return
+   */
+  public long floorRow(long rowNum) {
+    if (size == 0 || rowNum < 0) {
+      return -1;
+    }
+    long entry = Math.min(rowNum / interval, size - 1);
+    return entry * interval;
+  }
+
+  /**
+   * Byte offset of an indexed row returned by {@link #floorRow(long)}(索引行的字节偏移量)
+   *
+   * @param indexedRow
+   * @return
+   */
+  public long offsetOf(long indexedRow) {
+    return offsets[(int) (indexedRow / interval)];
+  }
+
+  public static FsPath getIndexPath(FsPath resultSetPath) {
+    return new FsPath(resultSetPath.getUriString() + INDEX_FILE_SUFFIX);
+  }
+
+  public static boolean isIndexPath(String path) {
+    return path.endsWith(Dolphin.DOLPHIN_FILE_SUFFIX + INDEX_FILE_SUFFIX);
+  }
+
+  public void store(FileSystem fs, FsPath resultSetPath) throws IOException {
+    FsPath indexPath = getIndexPath(resultSetPath);
+    OutputStream outputStream = fs.write(indexPath, true);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+      out.write(Dolphin.MAGIC_BYTES);
+      out.writeInt(INDEX_VERSION);
+      out.writeInt(interval);
+      out.writeLong(rowCount);
+      out.writeLong(dataLength);
+      out.writeInt(size);
+      for (int i = 0; i < size; i++) {
+        out.writeLong(offsets[i]);
+      }
+    }
+    logger.info("Stored row index of {} rows to {}", rowCount, indexPath.getPath());
+  }
+
+  /**
+   * Load the sidecar index of a result set, returns null if it does not exist, is broken or is
+   * stale(加载结果集的索引文件，不存在、损坏或过期时返回null)
+   *
+   * @param fs
+   * @param resultSetPath
+   * @return
+   */
+  public static ResultSetRowIndex load(FileSystem fs, FsPath resultSetPath) {
+    FsPath indexPath = getIndexPath(resultSetPath);
+    InputStream inputStream = null;
+    try {
+      if (!fs.exists(indexPath)) {
+        return null;
+      }
+      inputStream = fs.read(indexPath);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+      byte[] magic = new byte[Dolphin.MAGIC_LEN];
+      in.readFully(magic);
+      if (!Arrays.equals(magic, Dolphin.MAGIC_BYTES) || in.readInt() != INDEX_VERSION) {
+        logger.warn("Ignore row index {} with unknown format", indexPath.getPath());
+        return null;
+      }
+      int interval = in.readInt();
+      long rowCount = in.readLong();
+      long dataLength = in.readLong();
+      int size = in.readInt();
+      if (interval <= 0 || size < 0 || size > rowCount / interval + 1) {
+        logger.warn("Ignore broken row index {}", indexPath.getPath());
+        return null;
+      }
+      long[] offsets = new long[size];
+      for (int i = 0; i < size; i++) {
+        offsets[i] = in.readLong();
+      }
+      long resultSetLength = fs.get(resultSetPath.getPath()).getLength();
+      if (resultSetLength != dataLength) {
+        logger.warn(
+            "Ignore stale row index {}, indexed length {} but file length {}",
+            indexPath.getPath(),
+            dataLength,
+            resultSetLength);
+        return null;
+      }
+      return new ResultSetRowIndex(interval, offsets, rowCount, dataLength);
+    } catch (Exception e) {
+      logger.warn("Failed to load row index {}", indexPath.getPath(), e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+}
@@ -22,6 +22,9 @@ import org.apache.linkis.common.io.MetaData;
 import org.apache.linkis.common.io.Record;
 import org.apache.linkis.common.io.resultset.ResultSet;
 import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSet;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -36,18 +39,35 @@ public class ResultSetWriterFactory {
   public static <K extends MetaData, V extends Record>
       org.apache.linkis.common.io.resultset.ResultSetWriter<K, V> getResultSetWriter(
           ResultSet<K, V> resultSet, long maxCacheSize, FsPath storePath) {
-    return new StorageResultSetWriter<>(resultSet, maxCacheSize, storePath);
+    return new StorageResultSetWriter<>(
+        toStoredResultSet(resultSet, storePath), maxCacheSize, storePath);
   }
 
   public static <K extends MetaData, V extends Record>
       org.apache.linkis.common.io.resultset.ResultSetWriter<K, V> getResultSetWriter(
           ResultSet<K, V> resultSet, long maxCacheSize, FsPath storePath, String proxyUser) {
     StorageResultSetWriter<K, V> writer =
-        new StorageResultSetWriter<>(resultSet, maxCacheSize, storePath);
+        new StorageResultSetWriter<>(
+            toStoredResultSet(resultSet, storePath), maxCacheSize, storePath);
     writer.setProxyUser(proxyUser);
     return writer;
   }
 
+  /**
+   * Table results stored to files are written in the columnar layout when it is enabled
+   * 开启列式存储时，落盘的表格结果集以列式格式写入
+   */
+  @SuppressWarnings("unchecked")
+  private static <K extends MetaData, V extends Record> ResultSet<K, V> toStoredResultSet(
+      ResultSet<K, V> resultSet, FsPath storePath) {
+    if (LinkisStorageConf.TABLE_RESULT_COLUMNAR_ENABLE
+        && storePath != null
+        && resultSet instanceof TableResultSet) {
+      return (ResultSet<K, V>) new ColumnarResultSet();
+    }
+    return resultSet;
+  }
+
   public static Record[] getRecordByWriter(
       org.apache.linkis.common.io.resultset.ResultSetWriter<? extends MetaData, ? extends Record>
           writer,
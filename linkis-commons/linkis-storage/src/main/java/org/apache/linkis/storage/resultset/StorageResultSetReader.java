@@ -18,13 +18,16 @@
 package org.apache.linkis.storage.resultset;
 
 import org.apache.linkis.common.io.Fs;
+import org.apache.linkis.common.io.FsPath;
 import org.apache.linkis.common.io.MetaData;
 import org.apache.linkis.common.io.Record;
 import org.apache.linkis.common.io.resultset.ResultDeserializer;
 import org.apache.linkis.common.io.resultset.ResultSet;
 import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.compress.BlockCompressionUtils;
 import org.apache.linkis.storage.domain.Dolphin;
 import org.apache.linkis.storage.exception.StorageWarnException;
+import org.apache.linkis.storage.fs.FileSystem;
 import org.apache.linkis.storage.utils.StorageUtils;
 
 import org.apache.commons.io.IOUtils;
@@ -43,13 +46,17 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
   private static final Logger logger = LoggerFactory.getLogger(StorageResultSetReader.class);
 
   private final ResultSet<K, V> resultSet;
-  private final InputStream inputStream;
+  private InputStream inputStream;
   private final ResultDeserializer<K, V> deserializer;
   private K metaData;
   private Record row;
   private int colCount = 0;
   private int rowCount = 0;
   private Fs fs;
+  private long readRows = 0L;
+  private ResultSetRowIndex rowIndex;
+  private FileSystem indexFs;
+  private FsPath indexedPath;
 
   private final int READ_CACHE = 1024;
 
@@ -71,6 +78,11 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
           "File type does not match(文件类型不匹配): "
               + ResultSetFactory.resultSetType.getOrDefault(resType, "TABLE"));
     }
+    inputStream = BlockCompressionUtils.decompress(inputStream);
+    if (BlockCompressionUtils.isCompressed(inputStream)) {
+      // offsets of the row index point into the raw file, useless for a compressed one
+      rowIndex = null;
+    }
   }
 
   public byte[] readLine() {
@@ -117,6 +129,42 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     return fs;
   }
 
+  /**
+   * Let skip seek through the row index of the file instead of walking the rows
+   * 设置行索引，skip时直接定位而非逐行跳过
+   *
+   * @param rowIndex
+   * @param indexFs file system used to reopen the file at an offset, not closed by the reader
+   * @param indexedPath
+   */
+  public void setRowIndex(ResultSetRowIndex rowIndex, FileSystem indexFs, FsPath indexedPath) {
+    this.rowIndex = rowIndex;
+    this.indexFs = indexFs;
+    this.indexedPath = indexedPath;
+  }
+
+  /**
+   * Reopen the stream at the nearest indexed row before the target row, returns the number of
+   * rows jumped over(定位到目标行之前最近的索引行，返回跳过的行数)
+   */
+  private long seekByIndex(long targetRow) {
+    if (rowIndex == null) return 0;
+    long indexedRow = rowIndex.floorRow(targetRow);
+    if (indexedRow <= readRows) return 0;
+    try {
+      InputStream seekStream = indexFs.read(indexedPath, rowIndex.offsetOf(indexedRow));
+      IOUtils.closeQuietly(inputStream);
+      inputStream = seekStream;
+      long jumped = indexedRow - readRows;
+      readRows = indexedRow;
+      return jumped;
+    } catch (IOException e) {
+      logger.warn("Failed to seek {} by row index, fall back to scan", indexedPath, e);
+      rowIndex = null;
+      return 0;
+    }
+  }
+
   @Override
   public MetaData getMetaData() {
     if (metaData == null) {
@@ -135,9 +183,11 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     if (recordNum < 0) return -1;
 
     if (metaData == null) getMetaData();
-    for (int i = recordNum; i > 0; i--) {
+    int jumped = (int) seekByIndex(readRows + recordNum);
+    for (int i = recordNum - jumped; i > 0; i--) {
       try {
         inputStream.skip(Dolphin.readInt(inputStream));
+        readRows++;
       } catch (Throwable t) {
         return recordNum - i;
       }
@@ -157,6 +207,7 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     if (line == null) return false;
     row = deserializer.createRecord(line);
     if (row == null) return false;
+    readRows++;
     return true;
   }
 
@@ -22,18 +22,27 @@ import org.apache.linkis.common.io.resultset.*;
 import org.apache.linkis.common.io.resultset.ResultSetWriter;
 import org.apache.linkis.common.utils.*;
 import org.apache.linkis.storage.*;
+import org.apache.linkis.storage.compress.BlockCodec;
+import org.apache.linkis.storage.compress.BlockCompressionUtils;
 import org.apache.linkis.storage.conf.*;
 import org.apache.linkis.storage.domain.*;
 import org.apache.linkis.storage.exception.StorageErrorException;
+import org.apache.linkis.storage.fs.FileSystem;
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSerializer;
+import org.apache.linkis.storage.resultset.columnar.TypedColumn;
+import org.apache.linkis.storage.resultset.columnar.TypedColumnCodec;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.spill.SpillPagePool;
+import org.apache.linkis.storage.spill.SpillingOutputStream;
 import org.apache.linkis.storage.utils.*;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.hdfs.client.HdfsDataOutputStream;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,8 +60,12 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
   private final ResultSerializer serializer;
   private boolean moveToWriteRow = false;
   private OutputStream outputStream = null;
+  private OutputStream fileOutputStream = null;
+  private SpillingOutputStream spillingOutputStream = null;
+  private volatile CompletableFuture<Void> uploadFuture = null;
+  private String compressCodec = LinkisStorageConf.RESULT_SET_COMPRESS_CODEC;
   private int rowCount = 0;
-  private final List<Byte> buffer = new ArrayList<Byte>();
+  private final DolphinBuffer buffer = new DolphinBuffer();
   private Fs fs = null;
   private MetaData rMetaData = null;
   private String proxyUser = StorageUtils.getJvmUser();
@@ -60,6 +73,9 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
   private boolean closed = false;
   private final Object WRITER_LOCK_CREATE = new Object();
   private final Object WRITER_LOCK_CLOSE = new Object();
+  private long writtenBytes = 0L;
+  private long indexedRows = 0L;
+  private ResultSetRowIndex rowIndex = null;
 
   public StorageResultSetWriter(ResultSet<K, V> resultSet, long maxCacheSize, FsPath storePath) {
     super(resultSet, maxCacheSize, storePath);
@@ -68,6 +84,11 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     this.storePath = storePath;
 
     this.serializer = resultSet.createResultSetSerializer();
+    if (storePath != null
+        && LinkisStorageConf.RESULT_SET_ROW_INDEX_ENABLE
+        && !(serializer instanceof BufferedResultSerializer)) {
+      this.rowIndex = new ResultSetRowIndex(LinkisStorageConf.RESULT_SET_ROW_INDEX_INTERVAL);
+    }
   }
 
   public MetaData getMetaData() {
@@ -78,6 +99,16 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     this.proxyUser = proxyUser;
   }
 
+  /**
+   * Codec used to block compress the file, must be set before the file is created. Content kept
+   * in memory is never compressed(设置文件块压缩方式，需在创建文件前设置，内存中的内容不压缩)
+   *
+   * @param compressCodec none, lz4 or zstd
+   */
+  public void setCompressCodec(String compressCodec) {
+    this.compressCodec = compressCodec;
+  }
+
   public boolean isEmpty() {
     return rMetaData == null && buffer.size() <= Dolphin.FILE_EMPTY;
   }
@@ -100,7 +131,13 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
             try {
               fs.init(null);
               FileSystemUtils.createNewFile(storePath, proxyUser, true);
-              outputStream = fs.write(storePath, true);
+              fileOutputStream = fs.write(storePath, true);
+              BlockCodec codec = BlockCompressionUtils.getCodec(compressCodec);
+              outputStream = BlockCompressionUtils.compress(createSpillingStream(), codec);
+              if (codec != null) {
+                // offsets of the row index point into the raw file
+                rowIndex = null;
+              }
             } catch (Exception e) {
               throw new StorageErrorException(
                   FS_ERROR.getCode(), "StorageResultSetWriter createNewFile failed", e);
@@ -115,12 +152,43 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     }
   }
 
+  private OutputStream createSpillingStream() {
+    if (!LinkisStorageConf.RESULT_SET_SPILL_ENABLE) {
+      return fileOutputStream;
+    }
+    spillingOutputStream =
+        new SpillingOutputStream(
+            fileOutputStream,
+            SpillPagePool.getDefault(),
+            new File(LinkisStorageConf.RESULT_SET_SPILL_DIR));
+    return spillingOutputStream;
+  }
+
+  /**
+   * Completes once the file is fully written to the store path, its row index stored and the fs
+   * closed, which happens after close when the file is spilled. Completes exceptionally if any of
+   * them failed(文件完整写入存储路径、行索引保存且fs关闭后完成，溢写时在关闭之后异步完成，任一步失败则异常完成)
+   *
+   * @return
+   */
+  public CompletableFuture<Void> getUploadFuture() {
+    if (uploadFuture != null) {
+      return uploadFuture;
+    }
+    if (spillingOutputStream == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return spillingOutputStream.getUploadFuture();
+  }
+
   public void writeLine(byte[] bytes, boolean cache) throws IOException {
     if (closed) {
       logger.warn("the writer had been closed, but writeLine() was still called.");
       return;
     }
-    if (bytes.length > LinkisStorageConf.ROW_BYTE_MAX_LEN) {
+    // buffered serializers write batches of rows, the size of each row is checked by bufferRecord
+    if (bytes.length > LinkisStorageConf.ROW_BYTE_MAX_LEN
+        && !(serializer instanceof BufferedResultSerializer)) {
       throw new IOException(
           String.format(
               "A single row of data cannot exceed %s", LinkisStorageConf.ROW_BYTE_MAX_LEN_STR));
@@ -132,14 +200,14 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
       flush();
       outputStream.write(bytes);
     } else {
-      for (byte b : bytes) {
-        buffer.add(b);
-      }
+      buffer.write(bytes);
     }
+    writtenBytes += bytes.length;
   }
 
   @Override
   public String toString() {
+    flushBufferedRecords();
     if (outputStream == null) {
       if (isEmpty()) {
         return "";
@@ -152,11 +220,7 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
   }
 
   private byte[] getBytes() {
-    byte[] byteArray = new byte[buffer.size()];
-    for (int i = 0; i < buffer.size(); i++) {
-      byteArray[i] = buffer.get(i);
-    }
-    return byteArray;
+    return buffer.toByteArray();
   }
 
   @Override
@@ -173,6 +237,8 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
       } catch (IOException e) {
         logger.warn("addMetaDataAndRecordString failed", e);
       }
+      // rows of raw content are unknown, so they can not be indexed
+      rowIndex = null;
     }
     moveToWriteRow = true;
   }
@@ -180,6 +246,21 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
   @Override
   public void addRecordString(String content) {}
 
+  /** Write out the records held back by a buffered serializer(写出序列化器中缓存的记录) */
+  private void flushBufferedRecords() {
+    if (!(serializer instanceof BufferedResultSerializer) || closed) {
+      return;
+    }
+    byte[] bytes = ((BufferedResultSerializer) serializer).flushBuffered();
+    if (bytes.length > 0) {
+      try {
+        writeLine(bytes, false);
+      } catch (IOException e) {
+        logger.warn("flushBufferedRecords failed", e);
+      }
+    }
+  }
+
   @Override
   public void addMetaData(MetaData metaData) throws IOException {
     if (!moveToWriteRow) {
@@ -199,13 +280,50 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     if (moveToWriteRow) {
       rowCount++;
       try {
-        writeLine(serializer.recordToBytes(record), false);
+        long offset = writtenBytes;
+        byte[] bytes =
+            serializer instanceof BufferedResultSerializer
+                ? ((BufferedResultSerializer) serializer).bufferRecord(record)
+                : serializer.recordToBytes(record);
+        writeLine(bytes, false);
+        if (rowIndex != null && writtenBytes > offset) {
+          rowIndex.addRow(indexedRows++, offset);
+        }
       } catch (IOException e) {
         logger.warn("addMetaDataAndRecordString failed", e);
       }
     }
   }
 
+  /**
+   * Add rows given column by column. Columnar result sets keep the values typed and format them
+   * on read, the others get the rows formatted here(按列添加行，列式结果集按类型保存、读取时格式化，其他结果集在此格式化)
+   *
+   * @param columns
+   * @param numRows
+   */
+  public void addColumns(TypedColumn[] columns, int numRows) {
+    if (!moveToWriteRow || numRows <= 0) {
+      return;
+    }
+    if (serializer instanceof ColumnarResultSerializer) {
+      rowCount += numRows;
+      try {
+        writeLine(((ColumnarResultSerializer) serializer).columnsToBytes(columns, numRows), false);
+      } catch (IOException e) {
+        logger.warn("addColumns failed", e);
+      }
+      return;
+    }
+    for (int row = 0; row < numRows; row++) {
+      Object[] data = new Object[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        data[i] = TypedColumnCodec.format(columns[i], row);
+      }
+      addRecord(new TableRecord(data));
+    }
+  }
+
   public void closeFs() {
     if (fs != null) {
       IOUtils.closeQuietly(fs);
@@ -221,6 +339,7 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     }
     synchronized (WRITER_LOCK_CLOSE) {
       if (!closed) {
+        flushBufferedRecords();
         closed = true;
       } else {
         return;
@@ -231,11 +350,40 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
         flush();
       }
     } finally {
-      if (outputStream != null) {
+      boolean fileWritten = outputStream != null;
+      if (fileWritten) {
         IOUtils.closeQuietly(outputStream);
         outputStream = null;
+        fileOutputStream = null;
       }
-      closeFs();
+      // the row index and the fs wait for the spilled pages to be uploaded
+      uploadFuture =
+          getUploadFuture()
+              .whenComplete(
+                  (v, t) -> {
+                    try {
+                      if (fileWritten && t == null) {
+                        storeRowIndex();
+                      }
+                    } finally {
+                      closeFs();
+                    }
+                  });
+    }
+  }
+
+  /** Persist the row index sidecar once all rows are on disk(所有行落盘后保存行索引文件) */
+  private void storeRowIndex() {
+    if (rowIndex == null
+        || !(fs instanceof FileSystem)
+        || rowIndex.getRowCount() <= rowIndex.getInterval()) {
+      return;
+    }
+    try {
+      rowIndex.setDataLength(writtenBytes);
+      rowIndex.store((FileSystem) fs, storePath);
+    } catch (Exception e) {
+      logger.warn("Failed to store row index of {}, readers will scan rows", storePath, e);
     }
   }
 
@@ -245,11 +393,13 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     if (outputStream != null) {
       try {
         if (!buffer.isEmpty()) {
-          outputStream.write(getBytes());
-          buffer.clear();
+          buffer.writeTo(outputStream);
+          buffer.reset();
         }
-        if (outputStream instanceof HdfsDataOutputStream) {
-          ((HdfsDataOutputStream) outputStream).hflush();
+        // a compressed stream keeps its pending block, only the written blocks are flushed,
+        // a spilling stream owns the file stream and only uploads full pages
+        if (spillingOutputStream == null && fileOutputStream instanceof HdfsDataOutputStream) {
+          ((HdfsDataOutputStream) fileOutputStream).hflush();
         } else {
           outputStream.flush();
         }
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.exception.StorageWarnException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary.INVALID_COLUMN_FILTER;
+
+/**
+ * A comparison between a column and a constant, such as {@code age >= 18}. Numeric columns are
+ * compared as decimals, the others by their string form. Null values never match
+ * 列与常量的比较条件，数值列按数值比较，其余按字符串比较，空值不匹配任何条件
+ */
+public class ColumnPredicate {
+
+  public static final String AND = "&&";
+
+  /** Two char operators first, so that >= is not parsed as > */
+  private static final String[] OPERATORS = {">=", "<=", "!=", "=", ">", "<"};
+
+  private final String columnName;
+
+  private final String operator;
+
+  private final String value;
+
+  private int columnIndex = -1;
+
+  private DataType dataType = DataType.StringType;
+
+  private BigDecimal decimalValue;
+
+  public ColumnPredicate(String columnName, String operator, String value) {
+    this.columnName = columnName;
+    this.operator = operator;
+    this.value = value;
+  }
+
+  /**
+   * Parse predicates joined by &&, e.g. {@code age >= 18 && name = 'linkis'}
+   * 解析以&&连接的过滤条件
+   *
+   * @param filter
+   * @return empty list when the filter is blank
+   */
+  public static List<ColumnPredicate> parse(String filter) {
+    List<ColumnPredicate> predicates = new ArrayList<>();
+    if (StringUtils.isBlank(filter)) {
+      return predicates;
+    }
+    for (String expr : StringUtils.splitByWholeSeparator(filter, AND)) {
+      predicates.add(parseExpr(expr, filter));
+    }
+    return predicates;
+  }
+
+  private static ColumnPredicate parseExpr(String expr, String filter) {
+    for (int i = 0; i < expr.length(); i++) {
+      for (String op : OPERATORS) {
+        if (expr.startsWith(op, i)) {
+          String column = expr.substring(0, i).trim();
+          String constant = unquote(expr.substring(i + op.length()).trim());
+          if (column.isEmpty() || constant.isEmpty()) {
+            throw invalidFilter(filter);
+          }
+          return new ColumnPredicate(column, op, constant);
+        }
+      }
+    }
+    throw invalidFilter(filter);
+  }
+
+  private static String unquote(String value) {
+    if (value.length() >= 2
+        && (value.startsWith("'") && value.endsWith("'")
+            || value.startsWith("\"") && value.endsWith("\""))) {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+
+  private static StorageWarnException invalidFilter(String filter) {
+    return new StorageWarnException(
+        INVALID_COLUMN_FILTER.getErrorCode(),
+        MessageFormat.format(INVALID_COLUMN_FILTER.getErrorDesc(), filter));
+  }
+
+  /**
+   * Resolve the column of the predicate against the metadata(根据元数据解析条件对应的列)
+   *
+   * @param columns
+   */
+  public void bind(Column[] columns) {
+    columnIndex = ColumnProjection.indexOf(columns, columnName);
+    dataType = columns[columnIndex].getDataType();
+    if (isNumeric(dataType)) {
+      try {
+        decimalValue = new BigDecimal(value);
+      } catch (NumberFormatException e) {
+        throw invalidFilter(columnName + operator + value);
+      }
+    }
+  }
+
+  public String getColumnName() {
+    return columnName;
+  }
+
+  public int getColumnIndex() {
+    return columnIndex;
+  }
+
+  /**
+   * Test a raw value as stored in the result set(判断结果集中的原始值是否满足条件)
+   *
+   * @param raw null means a null value
+   * @return
+   */
+  public boolean test(String raw) {
+    if (raw == null) {
+      return false;
+    }
+    if (decimalValue != null) {
+      BigDecimal decimal = toDecimal(raw);
+      return decimal != null && matches(decimal.compareTo(decimalValue));
+    }
+    return matches(raw.compareTo(value));
+  }
+
+  /**
+   * Test a value of a deserialized record(判断已反序列化记录中的值是否满足条件)
+   *
+   * @param obj
+   * @return
+   */
+  public boolean testValue(Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    return test(obj instanceof BigDecimal ? ((BigDecimal) obj).toPlainString() : obj.toString());
+  }
+
+  /**
+   * Whether any value between min and max may satisfy the predicate, used to skip row groups
+   * 判断[min, max]区间内是否可能存在满足条件的值，用于跳过行组
+   *
+   * @param min
+   * @param max
+   * @return true when unsure
+   */
+  public boolean mayMatch(String min, String max) {
+    if (min == null || max == null) {
+      return true;
+    }
+    int minCmp;
+    int maxCmp;
+    if (decimalValue != null) {
+      BigDecimal minDecimal = toDecimal(min);
+      BigDecimal maxDecimal = toDecimal(max);
+      if (minDecimal == null || maxDecimal == null) {
+        return true;
+      }
+      minCmp = minDecimal.compareTo(decimalValue);
+      maxCmp = maxDecimal.compareTo(decimalValue);
+    } else {
+      minCmp = min.compareTo(value);
+      maxCmp = max.compareTo(value);
+    }
+    switch (operator) {
+      case "=":
+        return minCmp <= 0 && maxCmp >= 0;
+      case "!=":
+        return minCmp != 0 || maxCmp != 0;
+      case ">":
+        return maxCmp > 0;
+      case ">=":
+        return maxCmp >= 0;
+      case "<":
+        return minCmp < 0;
+      case "<=":
+        return minCmp <= 0;
+      default:
+        return true;
+    }
+  }
+
+  private boolean matches(int cmp) {
+    switch (operator) {
+      case "=":
+        return cmp == 0;
+      case "!=":
+        return cmp != 0;
+      case ">":
+        return cmp > 0;
+      case ">=":
+        return cmp >= 0;
+      case "<":
+        return cmp < 0;
+      case "<=":
+        return cmp <= 0;
+      default:
+        return false;
+    }
+  }
+
+  static BigDecimal toDecimal(String raw) {
+    if (DataType.isNumberNull(raw)) {
+      return null;
+    }
+    try {
+      return new BigDecimal(raw.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public static boolean isNumeric(DataType dataType) {
+    switch (dataType) {
+      case TinyIntType:
+      case ShortIntType:
+      case IntType:
+      case LongType:
+      case BigIntType:
+      case FloatType:
+      case DoubleType:
+      case DecimalType:
+      case BigDecimalType:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Whether min/max statistics are meaningful for the type(该类型是否可记录最值统计) */
+  public static boolean hasStatistics(DataType dataType) {
+    switch (dataType) {
+      case NullType:
+      case BinaryType:
+      case ArrayType:
+      case MapType:
+      case ListType:
+      case StructType:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return columnName + " " + operator + " " + value;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.exception.StorageWarnException;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+
+import java.text.MessageFormat;
+
+import static org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary.INVALID_RESULT_SET_COLUMN;
+
+/** Resolve and apply a column projection on table result sets(解析并应用表格结果集的列投影) */
+public class ColumnProjection {
+
+  private ColumnProjection() {}
+
+  public static int indexOf(Column[] columns, String columnName) {
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].getColumnName().equals(columnName)) {
+        return i;
+      }
+    }
+    throw new StorageWarnException(
+        INVALID_RESULT_SET_COLUMN.getErrorCode(),
+        MessageFormat.format(INVALID_RESULT_SET_COLUMN.getErrorDesc(), columnName));
+  }
+
+  /**
+   * Resolve the projected column names to their indexes in the metadata
+   * 将投影列名解析为元数据中的下标
+   *
+   * @param columns
+   * @param columnNames
+   * @return null when no projection is requested
+   */
+  public static int[] resolve(Column[] columns, String[] columnNames) {
+    if (columnNames == null || columnNames.length == 0) {
+      return null;
+    }
+    int[] projection = new int[columnNames.length];
+    for (int i = 0; i < columnNames.length; i++) {
+      projection[i] = indexOf(columns, columnNames[i].trim());
+    }
+    return projection;
+  }
+
+  public static TableMetaData project(TableMetaData metaData, int[] projection) {
+    if (projection == null) {
+      return metaData;
+    }
+    Column[] columns = new Column[projection.length];
+    for (int i = 0; i < projection.length; i++) {
+      columns[i] = metaData.columns[projection[i]];
+    }
+    return new TableMetaData(columns);
+  }
+
+  public static Object[] project(Object[] row, int[] projection) {
+    if (projection == null) {
+      return row;
+    }
+    Object[] projected = new Object[projection.length];
+    for (int i = 0; i < projection.length; i++) {
+      projected[i] = projection[i] < row.length ? row[projection[i]] : null;
+    }
+    return projected;
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.common.io.resultset.ResultDeserializer;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.exception.StorageWarnException;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultDeserializer;
+
+import static org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary.PARSING_METADATA_FAILED;
+
+/**
+ * Decode the header and the column chunks of row groups written by {@link
+ * ColumnarResultSerializer}. Rows are assembled by {@link ColumnarResultSetReader}, which reads
+ * only the chunks it needs(解析行组头部及列块，由ColumnarResultSetReader按需组装行)
+ */
+public class ColumnarResultDeserializer extends ResultDeserializer<TableMetaData, TableRecord> {
+
+  private final TableResultDeserializer metaDataDeserializer = new TableResultDeserializer();
+
+  private int cursor;
+
+  @Override
+  public TableMetaData createMetaData(byte[] bytes) {
+    return metaDataDeserializer.createMetaData(bytes);
+  }
+
+  @Override
+  public TableRecord createRecord(byte[] bytes) {
+    throw new UnsupportedOperationException(
+        "Columnar row groups must be read by ColumnarResultSetReader");
+  }
+
+  public ColumnarRowGroup createRowGroup(byte[] header) {
+    cursor = 0;
+    int rowCount = readVarInt(header);
+    int columnCount = readVarInt(header);
+    ColumnarRowGroup rowGroup = new ColumnarRowGroup(rowCount, columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      int encoding = readVarInt(header);
+      if (encoding != Dolphin.COLUMN_ENCODING_PLAIN
+          && encoding != Dolphin.COLUMN_ENCODING_DICT
+          && encoding != Dolphin.COLUMN_ENCODING_TYPED) {
+        throw parsingFailed();
+      }
+      int chunkLength = readVarInt(header);
+      int nullCount = readVarInt(header);
+      String min = readString(header);
+      String max = readString(header);
+      rowGroup.setColumn(i, encoding, chunkLength, nullCount, min, max);
+    }
+    return rowGroup;
+  }
+
+  /**
+   * Decode the raw values of a column chunk, null stands for a null value. Typed values are
+   * formatted to their string form here(解析列块的原始值，null表示空值，类型化的值在此格式化为字符串)
+   *
+   * @param rowGroup
+   * @param column
+   * @param chunk
+   * @return
+   */
+  public String[] createColumn(ColumnarRowGroup rowGroup, int column, byte[] chunk) {
+    cursor = 0;
+    String[] values = new String[rowGroup.getRowCount()];
+    if (rowGroup.getEncoding(column) == Dolphin.COLUMN_ENCODING_TYPED) {
+      int kind = readVarInt(chunk);
+      int scale = readVarInt(chunk);
+      int bitmapStart = cursor;
+      cursor += (values.length + TypedColumnCodec.NULL_BITMAP_ROWS_PER_BYTE - 1)
+          / TypedColumnCodec.NULL_BITMAP_ROWS_PER_BYTE;
+      if (!TypedColumnCodec.isTypedKind(kind) || cursor > chunk.length) {
+        throw parsingFailed();
+      }
+      for (int i = 0; i < values.length; i++) {
+        int bits = chunk[bitmapStart + i / TypedColumnCodec.NULL_BITMAP_ROWS_PER_BYTE];
+        if ((bits & (1 << (i % TypedColumnCodec.NULL_BITMAP_ROWS_PER_BYTE))) == 0) {
+          values[i] = TypedColumnCodec.decode(kind, scale, readVarLong(chunk));
+        }
+      }
+    } else if (rowGroup.getEncoding(column) == Dolphin.COLUMN_ENCODING_DICT) {
+      String[] dictionary = new String[readVarInt(chunk)];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = readString(chunk);
+      }
+      for (int i = 0; i < values.length; i++) {
+        int index = readVarInt(chunk);
+        if (index > dictionary.length) {
+          throw parsingFailed();
+        }
+        values[i] = index == 0 ? null : dictionary[index - 1];
+      }
+    } else {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = readString(chunk);
+      }
+    }
+    return values;
+  }
+
+  private String readString(byte[] bytes) {
+    int len = readVarInt(bytes);
+    if (len == 0) {
+      return null;
+    }
+    len -= 1;
+    if (cursor + len > bytes.length) {
+      throw parsingFailed();
+    }
+    String value = Dolphin.getString(bytes, cursor, len);
+    cursor += len;
+    return value;
+  }
+
+  private int readVarInt(byte[] bytes) {
+    int value = 0;
+    int shift = 0;
+    while (cursor < bytes.length && shift < Dolphin.VAR_INT_MAX_LEN * Dolphin.VAR_INT_SHIFT) {
+      int b = bytes[cursor++];
+      value |= (b & Dolphin.VAR_INT_MASK) << shift;
+      if ((b & Dolphin.VAR_INT_CONTINUE) == 0) {
+        return value;
+      }
+      shift += Dolphin.VAR_INT_SHIFT;
+    }
+    throw parsingFailed();
+  }
+
+  private long readVarLong(byte[] bytes) {
+    long value = 0;
+    int shift = 0;
+    while (cursor < bytes.length && shift < Dolphin.VAR_LONG_MAX_LEN * Dolphin.VAR_INT_SHIFT) {
+      int b = bytes[cursor++];
+      value |= (long) (b & Dolphin.VAR_INT_MASK) << shift;
+      if ((b & Dolphin.VAR_INT_CONTINUE) == 0) {
+        return value;
+      }
+      shift += Dolphin.VAR_INT_SHIFT;
+    }
+    throw parsingFailed();
+  }
+
+  private StorageWarnException parsingFailed() {
+    return new StorageWarnException(
+        PARSING_METADATA_FAILED.getErrorCode(), PARSING_METADATA_FAILED.getErrorDesc());
+  }
+}
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.common.io.MetaData;
+import org.apache.linkis.common.io.Record;
+import org.apache.linkis.common.io.resultset.ResultSerializer;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.domain.DolphinBuffer;
+import org.apache.linkis.storage.resultset.BufferedResultSerializer;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffer records into row groups and write each group column by column. Row group format: line
+ * length (fixed length) flag, header length (var int), header, then the column chunks. The header
+ * holds the row count, the column count and for each column its encoding, chunk length, null
+ * count, min and max. A chunk is either plain values, a dictionary followed by the value indexes
+ * or typed values of {@link TypedColumnCodec}. Strings are written as length plus one (var int, 0
+ * means null) and real data
+ * 将记录缓存为行组并按列写出。行组格式：行长(固定长度) 标识 头部长度(变长整数) 头部 列块。头部记录行数、列数及每列的编码、列块长度、空值数、最小值和最大值
+ */
+public class ColumnarResultSerializer extends ResultSerializer implements BufferedResultSerializer {
+
+  private static final byte[] EMPTY_BYTES = new byte[0];
+
+  /** Longer values disable the statistics of the chunk to keep headers small */
+  private static final int MAX_STATISTICS_LEN = 64;
+
+  private final int rowGroupSize;
+
+  private final long rowGroupMaxLen;
+
+  private final TableResultSerializer metaDataSerializer = new TableResultSerializer();
+
+  private DataType[] dataTypes = new DataType[0];
+
+  private ColumnBuffer[] columns;
+
+  private int bufferedRows = 0;
+
+  private long bufferedLen = 0;
+
+  private final DolphinBuffer headerBuffer = new DolphinBuffer();
+
+  private final DolphinBuffer chunkBuffer = new DolphinBuffer();
+
+  private final DolphinBuffer groupBuffer = new DolphinBuffer();
+
+  public ColumnarResultSerializer() {
+    this(
+        LinkisStorageConf.COLUMNAR_ROW_GROUP_SIZE, LinkisStorageConf.COLUMNAR_ROW_GROUP_MAX_LEN);
+  }
+
+  public ColumnarResultSerializer(int rowGroupSize, long rowGroupMaxLen) {
+    this.rowGroupSize = Math.max(rowGroupSize, 1);
+    this.rowGroupMaxLen = rowGroupMaxLen;
+  }
+
+  @Override
+  public byte[] metaDataToBytes(MetaData metaData) {
+    TableMetaData tableMetaData = (TableMetaData) metaData;
+    Column[] metaColumns = tableMetaData.columns;
+    dataTypes = new DataType[metaColumns.length];
+    for (int i = 0; i < metaColumns.length; i++) {
+      dataTypes[i] = metaColumns[i].getDataType();
+    }
+    return metaDataSerializer.metaDataToBytes(metaData);
+  }
+
+  /**
+   * Buffer the record, returns the encoded row group when it is full, otherwise an empty array
+   * 缓存记录，行组写满时返回编码后的行组，否则返回空数组
+   *
+   * @param record
+   * @return
+   */
+  @Override
+  public byte[] recordToBytes(Record record) {
+    String[] values = toValues(((TableRecord) record).row);
+    return bufferValues(values, rowLength(values));
+  }
+
+  @Override
+  public byte[] bufferRecord(Record record) throws IOException {
+    String[] values = toValues(((TableRecord) record).row);
+    long rowLen = rowLength(values);
+    if (rowLen > LinkisStorageConf.ROW_BYTE_MAX_LEN) {
+      throw new IOException(
+          String.format(
+              "A single row of data cannot exceed %s", LinkisStorageConf.ROW_BYTE_MAX_LEN_STR));
+    }
+    return bufferValues(values, rowLen);
+  }
+
+  private byte[] bufferValues(String[] values, long rowLen) {
+    byte[] pending = EMPTY_BYTES;
+    if (columns == null || columns.length != values.length) {
+      // a row group has a fixed column count, rows of another width start a new group
+      pending = flushBuffered();
+      resetColumns(values.length);
+    }
+    for (int i = 0; i < values.length; i++) {
+      columns[i].add(values[i]);
+    }
+    bufferedRows++;
+    bufferedLen += rowLen;
+    if (bufferedRows >= rowGroupSize || bufferedLen >= rowGroupMaxLen) {
+      return concat(pending, flushBuffered());
+    }
+    return pending;
+  }
+
+  private static String[] toValues(Object[] row) {
+    String[] values = new String[row.length];
+    for (int i = 0; i < row.length; i++) {
+      values[i] = row[i] == null ? null : row[i].toString();
+    }
+    return values;
+  }
+
+  /** Encoded length of the values in bytes, one length byte per value is counted as well */
+  private static long rowLength(String[] values) {
+    long rowLen = 0;
+    for (String value : values) {
+      rowLen += value == null ? 1 : utf8Length(value) + 1;
+    }
+    return rowLen;
+  }
+
+  private static long utf8Length(String value) {
+    long len = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        len++;
+      } else if (c < 0x800) {
+        len += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+        len += 4;
+        i++;
+      } else {
+        len += 3;
+      }
+    }
+    return len;
+  }
+
+  @Override
+  public byte[] flushBuffered() {
+    if (bufferedRows == 0) {
+      return EMPTY_BYTES;
+    }
+    headerBuffer.reset();
+    chunkBuffer.reset();
+    headerBuffer.writeVarInt(bufferedRows);
+    headerBuffer.writeVarInt(columns.length);
+    for (ColumnBuffer column : columns) {
+      int start = chunkBuffer.size();
+      int encoding = column.writeChunk(chunkBuffer, bufferedRows);
+      headerBuffer.writeVarInt(encoding);
+      headerBuffer.writeVarInt(chunkBuffer.size() - start);
+      headerBuffer.writeVarInt(column.nullCount);
+      writeString(headerBuffer, column.statistics ? column.min : null);
+      writeString(headerBuffer, column.statistics ? column.max : null);
+      column.reset();
+    }
+    groupBuffer.reset();
+    writeRowGroup();
+    bufferedRows = 0;
+    bufferedLen = 0;
+    return groupBuffer.toByteArray();
+  }
+
+  /**
+   * Encode rows given column by column into row groups, string columns are written as the rows of
+   * {@link #recordToBytes(Record)} and the other kinds as typed chunks. Buffered records are
+   * written first to keep the order of rows
+   * 将按列给出的行编码为行组，字符串列与逐行写入时相同，其他类型写为类型化列块，已缓存的记录先写出以保持行序
+   *
+   * @param typedColumns
+   * @param rowCount
+   * @return
+   */
+  public byte[] columnsToBytes(TypedColumn[] typedColumns, int rowCount) {
+    byte[] pending = flushBuffered();
+    groupBuffer.reset();
+    groupBuffer.write(pending);
+    for (int from = 0; from < rowCount; from += rowGroupSize) {
+      int count = Math.min(rowGroupSize, rowCount - from);
+      headerBuffer.reset();
+      chunkBuffer.reset();
+      headerBuffer.writeVarInt(count);
+      headerBuffer.writeVarInt(typedColumns.length);
+      for (int i = 0; i < typedColumns.length; i++) {
+        DataType dataType = i < dataTypes.length ? dataTypes[i] : DataType.StringType;
+        if (typedColumns[i].getKind() == TypedColumn.KIND_STRING) {
+          int start = chunkBuffer.size();
+          ColumnBuffer column = new ColumnBuffer(dataType, Math.max(count / 2, 1));
+          for (int row = from; row < from + count; row++) {
+            column.add(typedColumns[i].getString(row));
+          }
+          headerBuffer.writeVarInt(column.writeChunk(chunkBuffer, count));
+          headerBuffer.writeVarInt(chunkBuffer.size() - start);
+          headerBuffer.writeVarInt(column.nullCount);
+          writeString(headerBuffer, column.statistics ? column.min : null);
+          writeString(headerBuffer, column.statistics ? column.max : null);
+        } else {
+          writeTypedChunk(typedColumns[i], from, count, ColumnPredicate.hasStatistics(dataType));
+        }
+      }
+      writeRowGroup();
+    }
+    return groupBuffer.toByteArray();
+  }
+
+  /** Write a typed chunk into the chunk buffer and its entry into the header(写入类型化列块及其头部信息) */
+  private void writeTypedChunk(TypedColumn column, int from, int count, boolean statistics) {
+    int start = chunkBuffer.size();
+    int kind = column.getKind();
+    boolean floating = kind == TypedColumn.KIND_DOUBLE || kind == TypedColumn.KIND_FLOAT;
+    chunkBuffer.writeVarInt(kind);
+    chunkBuffer.writeVarInt(column.getScale());
+    int nullCount = 0;
+    int bits = 0;
+    for (int i = 0; i < count; i++) {
+      if (column.isNull(from + i)) {
+        bits |= 1 << (i % TypedColumnCodec.NULL_BITMAP_ROWS_PER_BYTE);
+        nullCount++;
+      }
+      if ((i + 1) % TypedColumnCodec.NULL_BITMAP_ROWS_PER_BYTE == 0 || i == count - 1) {
+        chunkBuffer.write((byte) bits);
+        bits = 0;
+      }
+    }
+    int minRow = -1;
+    int maxRow = -1;
+    for (int row = from; row < from + count; row++) {
+      if (column.isNull(row)) {
+        continue;
+      }
+      chunkBuffer.writeVarLong(TypedColumnCodec.encode(column, row));
+      if (!statistics) {
+        continue;
+      }
+      if (floating) {
+        double value = column.getDouble(row);
+        // NaN and infinity are not numbers to the predicates, leave them out
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+          continue;
+        }
+        if (minRow < 0 || value < column.getDouble(minRow)) minRow = row;
+        if (maxRow < 0 || value > column.getDouble(maxRow)) maxRow = row;
+      } else {
+        long value = column.getLong(row);
+        if (minRow < 0 || value < column.getLong(minRow)) minRow = row;
+        if (maxRow < 0 || value > column.getLong(maxRow)) maxRow = row;
+      }
+    }
+    headerBuffer.writeVarInt(Dolphin.COLUMN_ENCODING_TYPED);
+    headerBuffer.writeVarInt(chunkBuffer.size() - start);
+    headerBuffer.writeVarInt(nullCount);
+    writeString(headerBuffer, minRow < 0 ? null : TypedColumnCodec.format(column, minRow));
+    writeString(headerBuffer, maxRow < 0 ? null : TypedColumnCodec.format(column, maxRow));
+  }
+
+  /** Append the header buffer and the chunk buffer as a row group to the group buffer */
+  private void writeRowGroup() {
+    int start = groupBuffer.size();
+    groupBuffer.writeIntBytes(0);
+    groupBuffer.write(Dolphin.COLUMNAR_ROW_GROUP);
+    groupBuffer.writeVarInt(headerBuffer.size());
+    groupBuffer.write(headerBuffer);
+    groupBuffer.write(chunkBuffer);
+    groupBuffer.setIntBytes(start, groupBuffer.size() - start - Dolphin.INT_LEN);
+  }
+
+  private void resetColumns(int columnCount) {
+    columns = new ColumnBuffer[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      DataType dataType = i < dataTypes.length ? dataTypes[i] : DataType.StringType;
+      columns[i] = new ColumnBuffer(dataType, Math.max(rowGroupSize / 2, 1));
+    }
+  }
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    if (first.length == 0) {
+      return second;
+    }
+    byte[] result = new byte[first.length + second.length];
+    System.arraycopy(first, 0, result, 0, first.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  static void writeString(DolphinBuffer buffer, String value) {
+    if (value == null) {
+      buffer.writeVarInt(0);
+    } else {
+      byte[] bytes = Dolphin.getBytes(value);
+      buffer.writeVarInt(bytes.length + 1);
+      buffer.write(bytes);
+    }
+  }
+
+  /** Values and statistics of one column in the current row group(当前行组中一列的值及统计信息) */
+  private static class ColumnBuffer {
+
+    private final DataType dataType;
+
+    private final boolean numeric;
+
+    private final int maxDictionarySize;
+
+    private final List<String> values = new ArrayList<>();
+
+    /** Value to dictionary index, null once the column has too many distinct values */
+    private Map<String, Integer> dictionary = new HashMap<>();
+
+    private final List<String> dictionaryValues = new ArrayList<>();
+
+    private int nullCount = 0;
+
+    private boolean statistics;
+
+    private String min;
+
+    private String max;
+
+    private BigDecimal minDecimal;
+
+    private BigDecimal maxDecimal;
+
+    ColumnBuffer(DataType dataType, int maxDictionarySize) {
+      this.dataType = dataType;
+      this.numeric = ColumnPredicate.isNumeric(dataType);
+      this.maxDictionarySize = maxDictionarySize;
+      this.statistics = ColumnPredicate.hasStatistics(dataType);
+    }
+
+    void add(String value) {
+      values.add(value);
+      if (value == null) {
+        nullCount++;
+        return;
+      }
+      if (dictionary != null && !dictionary.containsKey(value)) {
+        if (dictionary.size() >= maxDictionarySize) {
+          dictionary = null;
+          dictionaryValues.clear();
+        } else {
+          dictionary.put(value, dictionary.size());
+          dictionaryValues.add(value);
+        }
+      }
+      if (statistics) {
+        updateStatistics(value);
+      }
+    }
+
+    private void updateStatistics(String value) {
+      if (value.length() > MAX_STATISTICS_LEN) {
+        statistics = false;
+        return;
+      }
+      if (numeric) {
+        // values that are not numbers never match a numeric predicate, leave them out
+        BigDecimal decimal = ColumnPredicate.toDecimal(value);
+        if (decimal == null) {
+          return;
+        }
+        if (minDecimal == null || decimal.compareTo(minDecimal) < 0) {
+          minDecimal = decimal;
+          min = value;
+        }
+        if (maxDecimal == null || decimal.compareTo(maxDecimal) > 0) {
+          maxDecimal = decimal;
+          max = value;
+        }
+      } else {
+        if (min == null || value.compareTo(min) < 0) {
+          min = value;
+        }
+        if (max == null || value.compareTo(max) > 0) {
+          max = value;
+        }
+      }
+    }
+
+    /**
+     * Write the chunk with the dictionary encoding when it halves the distinct values, otherwise
+     * plain(重复值较多时使用字典编码，否则使用原值编码)
+     */
+    int writeChunk(DolphinBuffer buffer, int rowCount) {
+      if (dictionary != null && dictionary.size() * 2 <= rowCount) {
+        buffer.writeVarInt(dictionaryValues.size());
+        for (String value : dictionaryValues) {
+          writeString(buffer, value);
+        }
+        for (String value : values) {
+          buffer.writeVarInt(value == null ? 0 : dictionary.get(value) + 1);
+        }
+        return Dolphin.COLUMN_ENCODING_DICT;
+      }
+      for (String value : values) {
+        writeString(buffer, value);
+      }
+      return Dolphin.COLUMN_ENCODING_PLAIN;
+    }
+
+    void reset() {
+      values.clear();
+      dictionary = new HashMap<>();
+      dictionaryValues.clear();
+      nullCount = 0;
+      statistics = ColumnPredicate.hasStatistics(dataType);
+      min = null;
+      max = null;
+      minDecimal = null;
+      maxDecimal = null;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.common.io.resultset.ResultDeserializer;
+import org.apache.linkis.common.io.resultset.ResultSerializer;
+import org.apache.linkis.storage.resultset.ResultSetFactory;
+import org.apache.linkis.storage.resultset.StorageResultSet;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+
+import java.io.Serializable;
+
+/**
+ * Table result set stored as row groups of per column chunks, so readers can load only the
+ * projected columns and skip row groups by the chunk statistics
+ * 按行组和列块存储的表格结果集，读取时只加载投影列，并可根据列块统计信息跳过行组
+ */
+public class ColumnarResultSet extends StorageResultSet<TableMetaData, TableRecord>
+    implements Serializable {
+
+  @Override
+  public String resultSetType() {
+    return ResultSetFactory.COLUMNAR_TYPE;
+  }
+
+  @Override
+  public ResultSerializer createResultSetSerializer() {
+    return new ColumnarResultSerializer();
+  }
+
+  @Override
+  public ResultDeserializer<TableMetaData, TableRecord> createResultSetDeserializer() {
+    return new ColumnarResultDeserializer();
+  }
+}
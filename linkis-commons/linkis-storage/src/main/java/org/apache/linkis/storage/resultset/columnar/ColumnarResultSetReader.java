@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.common.io.Fs;
+import org.apache.linkis.common.io.MetaData;
+import org.apache.linkis.common.io.Record;
+import org.apache.linkis.common.io.resultset.ResultSet;
+import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.compress.BlockCompressionUtils;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.exception.StorageWarnException;
+import org.apache.linkis.storage.resultset.ResultSetFactory;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.utils.StorageUtils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary.PARSING_METADATA_FAILED;
+
+/**
+ * Reader of columnar result sets. Only the chunks of the projected and filtered columns are
+ * decoded, the others are skipped in the stream, and row groups whose statistics rule out the
+ * filter are skipped as a whole. Projection and filter must be set before the first record is read
+ * 列式结果集读取器，只解析投影列及过滤列的列块，其余列块直接跳过，统计信息不满足过滤条件的行组整体跳过
+ */
+public class ColumnarResultSetReader extends ResultSetReader<TableMetaData, TableRecord> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ColumnarResultSetReader.class);
+
+  private final ResultSet<TableMetaData, TableRecord> resultSet;
+  private InputStream inputStream;
+  private final ColumnarResultDeserializer deserializer;
+  private TableMetaData metaData;
+  private TableMetaData projectedMetaData;
+  private String[] columnNames;
+  private String filter;
+  private int[] projection;
+  private List<ColumnPredicate> predicates = Collections.emptyList();
+  private String[][] columnValues;
+  private int groupRows = 0;
+  private int groupCursor = 0;
+  private boolean groupSkipped = false;
+  private Record row;
+  private int rowCount = 0;
+  private Fs fs;
+
+  public ColumnarResultSetReader(
+      ResultSet<TableMetaData, TableRecord> resultSet, InputStream inputStream) {
+    super(resultSet, inputStream);
+    this.resultSet = resultSet;
+    this.inputStream = inputStream;
+    this.deserializer = (ColumnarResultDeserializer) resultSet.createResultSetDeserializer();
+  }
+
+  public ColumnarResultSetReader(ResultSet<TableMetaData, TableRecord> resultSet, String value) {
+    this(resultSet, new ByteArrayInputStream(value.getBytes(Dolphin.CHAR_SET)));
+  }
+
+  /**
+   * Only read the given columns, in the given order(只读取指定的列，并按指定顺序输出)
+   *
+   * @param columnNames null or empty for all columns
+   */
+  public void setProjection(String[] columnNames) {
+    this.columnNames = columnNames;
+    if (metaData != null) {
+      bindColumns();
+    }
+  }
+
+  /**
+   * Only return the rows matching the filter, see {@link ColumnPredicate#parse(String)}
+   * 只返回满足过滤条件的行
+   *
+   * @param filter
+   */
+  public void setFilter(String filter) {
+    this.filter = filter;
+    if (metaData != null) {
+      bindColumns();
+    }
+  }
+
+  public void setFs(Fs fs) {
+    this.fs = fs;
+  }
+
+  public Fs getFs() {
+    return fs;
+  }
+
+  private void init() throws IOException {
+    String resType = Dolphin.getType(inputStream);
+    if (!StringUtils.equals(resultSet.resultSetType(), resType)) {
+      throw new RuntimeException(
+          "File type does not match(文件类型不匹配): "
+              + ResultSetFactory.resultSetType.getOrDefault(resType, "TABLE"));
+    }
+    inputStream = BlockCompressionUtils.decompress(inputStream);
+  }
+
+  private void bindColumns() {
+    projection = ColumnProjection.resolve(metaData.columns, columnNames);
+    projectedMetaData = ColumnProjection.project(metaData, projection);
+    predicates = ColumnPredicate.parse(filter);
+    for (ColumnPredicate predicate : predicates) {
+      predicate.bind(metaData.columns);
+    }
+  }
+
+  private boolean isNeeded(int column) {
+    if (projection == null) {
+      return true;
+    }
+    for (int index : projection) {
+      if (index == column) return true;
+    }
+    for (ColumnPredicate predicate : predicates) {
+      if (predicate.getColumnIndex() == column) return true;
+    }
+    return false;
+  }
+
+  private boolean mayMatch(ColumnarRowGroup rowGroup) {
+    for (ColumnPredicate predicate : predicates) {
+      if (!rowGroup.mayMatch(predicate)) return false;
+    }
+    return true;
+  }
+
+  private boolean matches(int index) {
+    for (ColumnPredicate predicate : predicates) {
+      if (!predicate.test(columnValues[predicate.getColumnIndex()][index])) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Load the next row group that may match the filter. Without a filter, a group that is
+   * entirely skipped is not decoded and marked by groupSkipped
+   * 加载下一个可能满足过滤条件的行组，无过滤条件时整组跳过的行组不做解析
+   *
+   * @param skipRows rows the caller is going to skip
+   * @return false at the end of the result set
+   */
+  private boolean nextGroup(long skipRows) throws IOException {
+    while (true) {
+      try {
+        // the frame length is implied by the header, the chunks are read one by one
+        Dolphin.readInt(inputStream);
+      } catch (StorageWarnException e) {
+        logger.info("Read finished(读取完毕)");
+        return false;
+      }
+      if (inputStream.read() != Dolphin.COLUMNAR_ROW_GROUP) {
+        throw parsingFailed();
+      }
+      ColumnarRowGroup rowGroup = deserializer.createRowGroup(readFully(readVarInt()));
+      boolean pruned = !mayMatch(rowGroup);
+      boolean skipped = !pruned && predicates.isEmpty() && rowGroup.getRowCount() <= skipRows;
+      if (pruned || skipped) {
+        long dataLength = 0;
+        for (int i = 0; i < rowGroup.getColumnCount(); i++) {
+          dataLength += rowGroup.getChunkLength(i);
+        }
+        IOUtils.skipFully(inputStream, dataLength);
+        if (pruned) continue;
+      }
+      groupRows = rowGroup.getRowCount();
+      groupSkipped = skipped;
+      if (skipped) {
+        groupCursor = groupRows;
+        columnValues = null;
+        return true;
+      }
+      columnValues = new String[rowGroup.getColumnCount()][];
+      for (int i = 0; i < columnValues.length; i++) {
+        if (isNeeded(i)) {
+          columnValues[i] =
+              deserializer.createColumn(rowGroup, i, readFully(rowGroup.getChunkLength(i)));
+        } else {
+          IOUtils.skipFully(inputStream, rowGroup.getChunkLength(i));
+        }
+      }
+      groupCursor = 0;
+      return true;
+    }
+  }
+
+  private TableRecord createRecord(int index) {
+    int columnCount = projection == null ? columnValues.length : projection.length;
+    Object[] data = new Object[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      int column = projection == null ? i : projection[i];
+      if (column >= columnValues.length) {
+        continue;
+      }
+      String value = columnValues[column][index];
+      if (column >= metaData.columns.length) {
+        data[i] = value;
+      } else {
+        data[i] = DataType.toValue(metaData.columns[column].getDataType(), value);
+      }
+    }
+    return new TableRecord(data);
+  }
+
+  private byte[] readFully(int len) {
+    byte[] bytes = new byte[len];
+    if (StorageUtils.readBytes(inputStream, bytes, len) != len) {
+      throw new RuntimeException(
+          "Can't get the value of the field, maybe the IO stream has been read or has been closed!(拿不到字段的值，也许IO流已读取完毕或已被关闭！)");
+    }
+    return bytes;
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    int shift = 0;
+    for (int i = 0; i < Dolphin.VAR_INT_MAX_LEN; i++) {
+      int b = inputStream.read();
+      if (b < 0) {
+        break;
+      }
+      value |= (b & Dolphin.VAR_INT_MASK) << shift;
+      if ((b & Dolphin.VAR_INT_CONTINUE) == 0) {
+        return value;
+      }
+      shift += Dolphin.VAR_INT_SHIFT;
+    }
+    throw parsingFailed();
+  }
+
+  private StorageWarnException parsingFailed() {
+    return new StorageWarnException(
+        PARSING_METADATA_FAILED.getErrorCode(), PARSING_METADATA_FAILED.getErrorDesc());
+  }
+
+  @Override
+  public Record getRecord() {
+    if (metaData == null) throw new RuntimeException("Must read metadata first(必须先读取metadata)");
+    if (row == null) {
+      throw new RuntimeException(
+          "Can't get the value of the field, maybe the IO stream has been read or has been closed!(拿不到字段的值，也许IO流已读取完毕或已被关闭！)");
+    }
+    return row;
+  }
+
+  @Override
+  public MetaData getMetaData() {
+    if (metaData == null) {
+      try {
+        init();
+        int len = Dolphin.readInt(inputStream);
+        metaData = deserializer.createMetaData(readFully(len));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      bindColumns();
+    }
+    return projectedMetaData;
+  }
+
+  /**
+   * Skip matching rows, row groups entirely skipped without a filter are not decoded
+   * 跳过满足条件的行，无过滤条件时整组跳过的行组不做解析
+   */
+  @Override
+  public int skip(int recordNum) throws IOException {
+    if (recordNum < 0) return -1;
+    if (metaData == null) getMetaData();
+    long remaining = recordNum;
+    while (remaining > 0) {
+      if (groupCursor >= groupRows) {
+        if (!nextGroup(remaining)) break;
+        if (groupSkipped) {
+          remaining -= groupRows;
+          continue;
+        }
+      }
+      if (predicates.isEmpty()) {
+        int skipped = (int) Math.min(remaining, groupRows - groupCursor);
+        groupCursor += skipped;
+        remaining -= skipped;
+      } else if (matches(groupCursor++)) {
+        remaining--;
+      }
+    }
+    return (int) (recordNum - remaining);
+  }
+
+  @Override
+  public long getPosition() throws IOException {
+    return rowCount;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (metaData == null) getMetaData();
+    while (true) {
+      while (groupCursor < groupRows) {
+        int index = groupCursor++;
+        if (matches(index)) {
+          row = createRecord(index);
+          rowCount++;
+          return true;
+        }
+      }
+      if (!nextGroup(0)) return false;
+    }
+  }
+
+  @Override
+  public long available() throws IOException {
+    return inputStream.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOUtils.closeQuietly(inputStream);
+    if (this.fs != null) {
+      this.fs.close();
+    }
+  }
+}
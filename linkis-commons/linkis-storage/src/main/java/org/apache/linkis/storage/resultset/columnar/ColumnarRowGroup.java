@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+/** Header of a columnar row group(列式结果集行组的头部信息) */
+public class ColumnarRowGroup {
+
+  private final int rowCount;
+
+  private final int[] encodings;
+
+  private final int[] chunkLengths;
+
+  private final int[] nullCounts;
+
+  private final String[] minValues;
+
+  private final String[] maxValues;
+
+  public ColumnarRowGroup(int rowCount, int columnCount) {
+    this.rowCount = rowCount;
+    this.encodings = new int[columnCount];
+    this.chunkLengths = new int[columnCount];
+    this.nullCounts = new int[columnCount];
+    this.minValues = new String[columnCount];
+    this.maxValues = new String[columnCount];
+  }
+
+  void setColumn(int column, int encoding, int chunkLength, int nullCount, String min, String max) {
+    encodings[column] = encoding;
+    chunkLengths[column] = chunkLength;
+    nullCounts[column] = nullCount;
+    minValues[column] = min;
+    maxValues[column] = max;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public int getColumnCount() {
+    return encodings.length;
+  }
+
+  public int getEncoding(int column) {
+    return encodings[column];
+  }
+
+  public int getChunkLength(int column) {
+    return chunkLengths[column];
+  }
+
+  public int getNullCount(int column) {
+    return nullCounts[column];
+  }
+
+  /** @return null when the chunk has no statistics */
+  public String getMin(int column) {
+    return minValues[column];
+  }
+
+  /** @return null when the chunk has no statistics */
+  public String getMax(int column) {
+    return maxValues[column];
+  }
+
+  /**
+   * Whether some row of the group may satisfy the predicate, judged by the chunk statistics
+   * 根据列块统计信息判断行组中是否可能有满足条件的行
+   *
+   * @param predicate
+   * @return
+   */
+  public boolean mayMatch(ColumnPredicate predicate) {
+    int column = predicate.getColumnIndex();
+    if (column >= getColumnCount() || nullCounts[column] >= rowCount) {
+      // missing or all null columns never match
+      return false;
+    }
+    return predicate.mayMatch(minValues[column], maxValues[column]);
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+/**
+ * A column of typed values handed to the result set writer as a whole, such as a vector of an
+ * engine's columnar batch. Values are kept typed in columnar result sets and only formatted to
+ * strings on read, see {@link TypedColumnCodec}
+ * 整列交给结果集写入器的类型化列，例如引擎列式批次中的一个向量，列式结果集按类型保存，读取时才格式化为字符串
+ */
+public interface TypedColumn {
+
+  int KIND_STRING = 0;
+
+  /** Integral values of any width, read by {@link #getLong(int)} */
+  int KIND_LONG = 1;
+
+  /** Read by {@link #getDouble(int)}, formatted with at most {@link #getScale()} fraction digits */
+  int KIND_DOUBLE = 2;
+
+  /** Read by {@link #getDouble(int)} */
+  int KIND_FLOAT = 3;
+
+  /** 1 for true and 0 for false, read by {@link #getLong(int)} */
+  int KIND_BOOLEAN = 4;
+
+  /** Days since 1970-01-01, read by {@link #getLong(int)} */
+  int KIND_DATE = 5;
+
+  /** Local wall clock microseconds since 1970-01-01 00:00:00, read by {@link #getLong(int)} */
+  int KIND_TIMESTAMP = 6;
+
+  /** Unscaled value of a decimal with {@link #getScale()}, read by {@link #getLong(int)} */
+  int KIND_DECIMAL = 7;
+
+  int getKind();
+
+  /** Scale of decimals, max fraction digits of doubles, ignored by the other kinds */
+  int getScale();
+
+  boolean isNull(int row);
+
+  long getLong(int row);
+
+  double getDouble(int row);
+
+  String getString(int row);
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.apache.linkis.storage.resultset.columnar.TypedColumn.*;
+
+/**
+ * Stored form and string form of typed column values. A typed chunk is the kind and the scale (var
+ * int), a null bitmap of 6 rows per byte, then the stored values of the non null rows (var long).
+ * Signed values are zig zag encoded, floating points store the reversed bytes of their bits so the
+ * zero low mantissa bits of common values end up in the short high part. The string form matches
+ * what engines used to write, such as java.sql.Timestamp#toString for timestamps
+ * 类型化列值的存储形式及字符串形式。类型化列块依次为类型和精度(变长整数)、每字节6行的空值位图、非空行的存储值(变长长整数)
+ */
+public class TypedColumnCodec {
+
+  public static final int NULL_BITMAP_ROWS_PER_BYTE = 6;
+
+  private static final ThreadLocal<NumberFormat> DOUBLE_FORMAT =
+      ThreadLocal.withInitial(
+          () -> {
+            NumberFormat nf = NumberFormat.getInstance();
+            nf.setGroupingUsed(false);
+            return nf;
+          });
+
+  public static boolean isTypedKind(int kind) {
+    return kind >= KIND_LONG && kind <= KIND_DECIMAL;
+  }
+
+  /**
+   * Stored form of a non null value of a typed column(类型化列中非空值的存储形式)
+   *
+   * @param column
+   * @param row
+   * @return
+   */
+  public static long encode(TypedColumn column, int row) {
+    switch (column.getKind()) {
+      case KIND_DOUBLE:
+        return Long.reverseBytes(Double.doubleToRawLongBits(column.getDouble(row)));
+      case KIND_FLOAT:
+        return Integer.reverseBytes(Float.floatToRawIntBits((float) column.getDouble(row)))
+            & 0xFFFFFFFFL;
+      default:
+        long value = column.getLong(row);
+        return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  /**
+   * String form of a stored value(将存储值格式化为字符串)
+   *
+   * @param kind
+   * @param scale
+   * @param stored
+   * @return
+   */
+  public static String decode(int kind, int scale, long stored) {
+    if (kind == KIND_DOUBLE) {
+      return formatDouble(Double.longBitsToDouble(Long.reverseBytes(stored)), scale);
+    } else if (kind == KIND_FLOAT) {
+      return Float.toString(Float.intBitsToFloat(Integer.reverseBytes((int) stored)));
+    }
+    long value = (stored >>> 1) ^ -(stored & 1);
+    switch (kind) {
+      case KIND_BOOLEAN:
+        return value != 0 ? "true" : "false";
+      case KIND_DATE:
+        return LocalDate.ofEpochDay(value).toString();
+      case KIND_TIMESTAMP:
+        return formatTimestamp(value);
+      case KIND_DECIMAL:
+        return value == 0
+            ? "0"
+            : BigDecimal.valueOf(value, scale).stripTrailingZeros().toPlainString();
+      default:
+        return Long.toString(value);
+    }
+  }
+
+  /**
+   * String form of a value, null for null values(值的字符串形式，空值返回null)
+   *
+   * @param column
+   * @param row
+   * @return
+   */
+  public static String format(TypedColumn column, int row) {
+    if (column.isNull(row)) {
+      return null;
+    } else if (column.getKind() == KIND_STRING) {
+      return column.getString(row);
+    }
+    return decode(column.getKind(), column.getScale(), encode(column, row));
+  }
+
+  private static String formatDouble(double value, int maxFractionDigits) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    NumberFormat nf = DOUBLE_FORMAT.get();
+    nf.setMaximumFractionDigits(maxFractionDigits);
+    return nf.format(value);
+  }
+
+  /** Same as java.sql.Timestamp#toString of the wall clock time */
+  private static String formatTimestamp(long micros) {
+    long seconds = Math.floorDiv(micros, 1000000L);
+    int nanos = (int) Math.floorMod(micros, 1000000L) * 1000;
+    LocalDateTime time = LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    StringBuilder sb = new StringBuilder(29);
+    appendPadded(sb, time.getYear(), 4).append('-');
+    appendPadded(sb, time.getMonthValue(), 2).append('-');
+    appendPadded(sb, time.getDayOfMonth(), 2).append(' ');
+    appendPadded(sb, time.getHour(), 2).append(':');
+    appendPadded(sb, time.getMinute(), 2).append(':');
+    appendPadded(sb, time.getSecond(), 2).append('.');
+    if (nanos == 0) {
+      return sb.append('0').toString();
+    }
+    int start = sb.length();
+    appendPadded(sb, nanos, 9);
+    int end = sb.length();
+    while (sb.charAt(end - 1) == '0') {
+      end--;
+    }
+    sb.setLength(Math.max(end, start + 1));
+    return sb.toString();
+  }
+
+  private static StringBuilder appendPadded(StringBuilder sb, int value, int width) {
+    String digits = Integer.toString(value);
+    for (int i = digits.length(); i < width; i++) {
+      sb.append('0');
+    }
+    return sb.append(digits);
+  }
+}
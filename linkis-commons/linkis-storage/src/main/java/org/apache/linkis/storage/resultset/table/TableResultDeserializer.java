@@ -36,8 +36,14 @@ public class TableResultDeserializer extends ResultDeserializer<TableMetaData, T
 
   private TableMetaData metaData;
 
+  /** Read cursor of the binary encoded row being decoded(二进制编码行的读取位置) */
+  private int cursor;
+
   @Override
   public TableMetaData createMetaData(byte[] bytes) {
+    if (isBinaryEncoded(bytes)) {
+      return createBinaryMetaData(bytes);
+    }
     int colByteLen = Integer.parseInt(Dolphin.getString(bytes, 0, Dolphin.INT_LEN));
     String colString = Dolphin.getString(bytes, Dolphin.INT_LEN, colByteLen);
     String[] colArray =
@@ -75,6 +81,9 @@ public class TableResultDeserializer extends ResultDeserializer<TableMetaData, T
    */
   @Override
   public TableRecord createRecord(byte[] bytes) {
+    if (isBinaryEncoded(bytes)) {
+      return createBinaryRecord(bytes);
+    }
     int colByteLen = Integer.parseInt(Dolphin.getString(bytes, 0, Dolphin.INT_LEN));
     String colString = Dolphin.getString(bytes, Dolphin.INT_LEN, colByteLen);
     String[] colArray;
@@ -97,4 +106,83 @@ public class TableResultDeserializer extends ResultDeserializer<TableMetaData, T
     }
     return new TableRecord(data);
   }
+
+  private boolean isBinaryEncoded(byte[] bytes) {
+    return bytes.length > 0 && bytes[0] == Dolphin.TABLE_ENCODING_V2;
+  }
+
+  private TableMetaData createBinaryMetaData(byte[] bytes) {
+    cursor = 1;
+    int colCount = readVarInt(bytes);
+    if (colCount % 3 != 0) {
+      throw new StorageWarnException(
+          PARSING_METADATA_FAILED.getErrorCode(), PARSING_METADATA_FAILED.getErrorDesc());
+    }
+    Column[] columns = new Column[colCount / 3];
+    for (int i = 0; i < columns.length; i++) {
+      String colName = readMetaString(bytes);
+      String colType = readMetaString(bytes);
+      String colComment = readMetaString(bytes);
+      columns[i] = new Column(colName, DataType.toDataType(colType), colComment);
+    }
+    metaData = new TableMetaData(columns);
+    return metaData;
+  }
+
+  /**
+   * Decode a row written by the binary encoding in place, the column lengths are var ints so no
+   * intermediate strings are created except the values themselves(原地解析二进制编码的行)
+   *
+   * @param bytes
+   * @return
+   */
+  private TableRecord createBinaryRecord(byte[] bytes) {
+    cursor = 1;
+    int colCount = readVarInt(bytes);
+    Object[] data = new Object[colCount];
+    for (int i = 0; i < colCount; i++) {
+      String res = readString(bytes);
+      if (i >= metaData.columns.length) {
+        data[i] = res;
+      } else {
+        data[i] = DataType.toValue(metaData.columns[i].getDataType(), res);
+      }
+    }
+    return new TableRecord(data);
+  }
+
+  private String readMetaString(byte[] bytes) {
+    String value = readString(bytes);
+    return value == null ? Dolphin.NULL : value;
+  }
+
+  private String readString(byte[] bytes) {
+    int len = readVarInt(bytes);
+    if (len == 0) {
+      return null;
+    }
+    len -= 1;
+    if (cursor + len > bytes.length) {
+      throw new StorageWarnException(
+          PARSING_METADATA_FAILED.getErrorCode(), PARSING_METADATA_FAILED.getErrorDesc());
+    }
+    String value = Dolphin.getString(bytes, cursor, len);
+    cursor += len;
+    return value;
+  }
+
+  private int readVarInt(byte[] bytes) {
+    int value = 0;
+    int shift = 0;
+    while (cursor < bytes.length && shift < Dolphin.VAR_INT_MAX_LEN * Dolphin.VAR_INT_SHIFT) {
+      int b = bytes[cursor++];
+      value |= (b & Dolphin.VAR_INT_MASK) << shift;
+      if ((b & Dolphin.VAR_INT_CONTINUE) == 0) {
+        return value;
+      }
+      shift += Dolphin.VAR_INT_SHIFT;
+    }
+    throw new StorageWarnException(
+        PARSING_METADATA_FAILED.getErrorCode(), PARSING_METADATA_FAILED.getErrorDesc());
+  }
 }
@@ -20,8 +20,10 @@ package org.apache.linkis.storage.resultset.table;
 import org.apache.linkis.common.io.MetaData;
 import org.apache.linkis.common.io.Record;
 import org.apache.linkis.common.io.resultset.ResultSerializer;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
 import org.apache.linkis.storage.domain.Column;
 import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.domain.DolphinBuffer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,6 +31,18 @@ import java.util.List;
 
 public class TableResultSerializer extends ResultSerializer {
 
+  private final int encodingVersion;
+
+  private DolphinBuffer rowBuffer;
+
+  public TableResultSerializer() {
+    this(LinkisStorageConf.TABLE_RESULT_ENCODING_VERSION);
+  }
+
+  public TableResultSerializer(int encodingVersion) {
+    this.encodingVersion = encodingVersion;
+  }
+
   @Override
   public byte[] metaDataToBytes(MetaData metaData) {
     TableMetaData tableMetaData = (TableMetaData) metaData;
@@ -54,6 +68,9 @@ public class TableResultSerializer extends ResultSerializer {
    * @param line
    */
   private byte[] lineToBytes(Object[] line) {
+    if (encodingVersion >= Dolphin.TABLE_ENCODING_VERSION_BINARY) {
+      return lineToBinaryBytes(line);
+    }
     // Data cache(数据缓存)
     List<byte[]> dataBytes = new ArrayList<>();
     // Column cache(列缓存)
@@ -73,6 +90,36 @@ public class TableResultSerializer extends ResultSerializer {
     return toByteArray(length, colByteLen, colIndex, dataBytes);
   }
 
+  /**
+   * Binary row format: line length (fixed length) version flag, column count (var int), then for
+   * each column its length plus one (var int, 0 means null) followed by the real data. The row is
+   * assembled in a reusable buffer, so only the returned array is allocated per row
+   * 二进制行格式：行长(固定长度) 版本标识 列数(变长整数) 每列的长度加一(变长整数，0表示null)及真实数据
+   *
+   * @param line
+   */
+  private byte[] lineToBinaryBytes(Object[] line) {
+    if (rowBuffer == null) {
+      rowBuffer = new DolphinBuffer();
+    }
+    DolphinBuffer buffer = rowBuffer;
+    buffer.reset();
+    buffer.writeIntBytes(0);
+    buffer.write(Dolphin.TABLE_ENCODING_V2);
+    buffer.writeVarInt(line.length);
+    for (Object data : line) {
+      if (data == null) {
+        buffer.writeVarInt(0);
+      } else {
+        byte[] bytes = Dolphin.getBytes(data);
+        buffer.writeVarInt(bytes.length + 1);
+        buffer.write(bytes);
+      }
+    }
+    buffer.setIntBytes(0, buffer.size() - Dolphin.INT_LEN);
+    return buffer.toByteArray();
+  }
+
   /**
    * Splice a row of data into a byte array(将一行的数据拼接成byte数组)
    *
@@ -85,26 +132,18 @@ public class TableResultSerializer extends ResultSerializer {
    */
   public static byte[] toByteArray(
       int length, int colByteLen, List<byte[]> colIndex, List<byte[]> dataBytes) {
-    List<Byte> row = new ArrayList<>();
     colIndex.addAll(dataBytes);
-
-    for (byte intByte : Dolphin.getIntBytes(length)) {
-      row.add(intByte);
-    }
-
-    for (byte colByte : Dolphin.getIntBytes(colByteLen)) {
-      row.add(colByte);
-    }
-
-    colIndex.forEach(
-        bytes -> {
-          for (byte b : bytes) {
-            row.add(b);
-          }
-        });
-    byte[] result = new byte[row.size()];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = row.get(i);
+    byte[] result = new byte[length + Dolphin.INT_LEN];
+    int pos = 0;
+    byte[] lengthBytes = Dolphin.getIntBytes(length);
+    System.arraycopy(lengthBytes, 0, result, pos, lengthBytes.length);
+    pos += lengthBytes.length;
+    byte[] colByteLenBytes = Dolphin.getIntBytes(colByteLen);
+    System.arraycopy(colByteLenBytes, 0, result, pos, colByteLenBytes.length);
+    pos += colByteLenBytes.length;
+    for (byte[] bytes : colIndex) {
+      System.arraycopy(bytes, 0, result, pos, bytes.length);
+      pos += bytes.length;
     }
     return result;
   }
@@ -121,4 +121,16 @@ public abstract class AbstractFileSource implements FileSource {
         .forEach(fileSplit -> fileSplit.setLimitColumnLength(limitColumnLength));
     return this;
   }
+
+  @Override
+  public FileSource project(String[] columns) {
+    Arrays.stream(fileSplits).forEach(fileSplit -> fileSplit.setColumns(columns));
+    return this;
+  }
+
+  @Override
+  public FileSource filter(String filter) {
+    Arrays.stream(fileSplits).forEach(fileSplit -> fileSplit.setFilter(filter));
+    return this;
+  }
 }
@@ -24,6 +24,7 @@ import org.apache.linkis.storage.conf.LinkisStorageConf;
 import org.apache.linkis.storage.exception.StorageWarnException;
 import org.apache.linkis.storage.resultset.ResultSetFactory;
 import org.apache.linkis.storage.resultset.ResultSetReaderFactory;
+import org.apache.linkis.storage.resultset.ResultSetRowIndex;
 import org.apache.linkis.storage.script.ScriptFsReader;
 import org.apache.linkis.storage.utils.StorageConfiguration;
 
@@ -84,6 +85,25 @@ public interface FileSource extends Closeable {
 
   FileSource limitColumnLength(int limitColumnLength);
 
+  /**
+   * Only read the given columns of table result sets, columnar result sets skip the chunks of the
+   * other columns(只读取表格结果集的指定列，列式结果集会跳过其余列的数据块)
+   *
+   * @param columns
+   * @return
+   */
+  FileSource project(String[] columns);
+
+  /**
+   * Only read the rows of table result sets matching the filter, e.g. {@code age >= 18 && name =
+   * 'linkis'}, columnar result sets skip row groups by the column statistics
+   * 只读取表格结果集中满足过滤条件的行，列式结果集会根据列统计信息跳过行组
+   *
+   * @param filter
+   * @return
+   */
+  FileSource filter(String filter);
+
   /**
    * Currently only supports table multi-result sets
    *
@@ -92,9 +112,10 @@ public interface FileSource extends Closeable {
    * @return
    */
   static FileSource create(FsPath[] fsPaths, Fs fs) {
-    // Filter non-table result sets
+    // Filter row index sidecars and non-table result sets
     FileSplit[] fileSplits =
         Arrays.stream(fsPaths)
+            .filter(fsPath -> !ResultSetRowIndex.isIndexPath(fsPath.getPath()))
             .map(fsPath -> createResultSetFileSplit(fsPath, fs))
             .filter(FileSource::isTableResultSet)
             .toArray(FileSplit[]::new);
@@ -102,7 +123,7 @@ public interface FileSource extends Closeable {
   }
 
   static boolean isTableResultSet(FileSplit fileSplit) {
-    return fileSplit.type.equals(ResultSetFactory.TABLE_TYPE);
+    return ResultSetReaderFactory.isTableResultSet(fileSplit.type);
   }
 
   static boolean isTableResultSet(FileSource fileSource) {
@@ -145,7 +166,7 @@ public interface FileSource extends Closeable {
     ResultSet resultset = ResultSetFactory.getInstance().getResultSetByPath(fsPath, fs);
     ResultSetReader resultsetReader = null;
     try {
-      resultsetReader = ResultSetReaderFactory.getResultSetReader(resultset, fs.read(fsPath));
+      resultsetReader = ResultSetReaderFactory.getResultSetReader(resultset, fs, fsPath);
     } catch (IOException e) {
       logger.warn("FileSource createResultSetFileSplit failed", e);
     }
@@ -27,6 +27,9 @@ import org.apache.linkis.storage.domain.Column;
 import org.apache.linkis.storage.domain.DataType;
 import org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary;
 import org.apache.linkis.storage.exception.StorageWarnException;
+import org.apache.linkis.storage.resultset.columnar.ColumnPredicate;
+import org.apache.linkis.storage.resultset.columnar.ColumnProjection;
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSetReader;
 import org.apache.linkis.storage.resultset.table.TableMetaData;
 import org.apache.linkis.storage.resultset.table.TableRecord;
 import org.apache.linkis.storage.script.Parser;
@@ -64,6 +67,10 @@ public class FileSplit implements Closeable {
   protected Map<String, String> params = new HashMap<>();
   private long limitBytes = 0L;
   private int limitColumnLength = 0;
+  private String[] columns;
+  private String filter;
+  private int[] projection;
+  private List<ColumnPredicate> predicates = Collections.emptyList();
 
   public FileSplit(FsReader<? extends MetaData, ? extends Record> fsReader) {
     this.fsReader = fsReader;
@@ -110,18 +117,86 @@ public class FileSplit implements Closeable {
     this.limitColumnLength = limitColumnLength;
   }
 
+  public void setColumns(String[] columns) {
+    this.columns = columns;
+  }
+
+  public void setFilter(String filter) {
+    this.filter = filter;
+  }
+
+  /**
+   * Push the projection and filter down to columnar readers, other table readers get them applied
+   * on each record(列式读取器下推投影和过滤条件，其他表格读取器逐行应用)
+   */
+  private MetaData readMetaData() throws IOException {
+    if (fsReader instanceof ColumnarResultSetReader) {
+      ColumnarResultSetReader columnarReader = (ColumnarResultSetReader) fsReader;
+      columnarReader.setProjection(columns);
+      columnarReader.setFilter(filter);
+      return columnarReader.getMetaData();
+    }
+    MetaData metaData = fsReader.getMetaData();
+    if (metaData instanceof TableMetaData) {
+      TableMetaData tableMetaData = (TableMetaData) metaData;
+      projection = ColumnProjection.resolve(tableMetaData.columns, columns);
+      predicates = ColumnPredicate.parse(filter);
+      predicates.forEach(predicate -> predicate.bind(tableMetaData.columns));
+      return ColumnProjection.project(tableMetaData, projection);
+    }
+    return metaData;
+  }
+
+  private int skipRecords(int recordNum) throws IOException {
+    if (predicates.isEmpty()) {
+      return fsReader.skip(recordNum);
+    }
+    int skipped = 0;
+    while (skipped < recordNum && fsReader.hasNext()) {
+      if (acceptRecord(fsReader.getRecord())) {
+        skipped++;
+      }
+    }
+    return skipped;
+  }
+
+  private boolean acceptRecord(Record record) {
+    if (predicates.isEmpty() || !(record instanceof TableRecord)) {
+      return true;
+    }
+    Object[] row = ((TableRecord) record).row;
+    for (ColumnPredicate predicate : predicates) {
+      int index = predicate.getColumnIndex();
+      if (index >= row.length || !predicate.testValue(row[index])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Record projectRecord(Record record) {
+    if (projection == null || !(record instanceof TableRecord)) {
+      return record;
+    }
+    return new TableRecord(ColumnProjection.project(((TableRecord) record).row, projection));
+  }
+
   public <M> M whileLoop(Function<MetaData, M> metaDataFunction, Consumer<Record> recordConsumer) {
     M m = null;
     try {
-      MetaData metaData = fsReader.getMetaData();
+      MetaData metaData = readMetaData();
       m = metaDataFunction.apply(metaData);
       if (pageTrigger) {
-        fsReader.skip(start);
+        skipRecords(start);
       }
       count = start;
       boolean hasRemovedFlag = false;
       while (fsReader.hasNext() && ifContinueRead()) {
         Record record = fsReader.getRecord();
+        if (!acceptRecord(record)) {
+          continue;
+        }
+        record = projectRecord(record);
         boolean needRemoveFlag = false;
         if (!hasRemovedFlag && fsReader instanceof StorageScriptFsReader) {
           Parser parser = ((StorageScriptFsReader) fsReader).getScriptParser();
@@ -152,15 +227,19 @@ public class FileSplit implements Closeable {
   public void biConsumerWhileLoop(
       Consumer<MetaData> metaDataFunction, Consumer<Record> recordConsumer) {
     try {
-      MetaData metaData = fsReader.getMetaData();
+      MetaData metaData = readMetaData();
       metaDataFunction.accept(metaData);
       if (pageTrigger) {
-        fsReader.skip(start);
+        skipRecords(start);
       }
       count = start;
       boolean hasRemovedFlag = false;
       while (fsReader.hasNext() && ifContinueRead()) {
         Record record = fsReader.getRecord();
+        if (!acceptRecord(record)) {
+          continue;
+        }
+        record = projectRecord(record);
         boolean needRemoveFlag = false;
         if (!hasRemovedFlag && fsReader instanceof StorageScriptFsReader) {
           Parser parser = ((StorageScriptFsReader) fsReader).getScriptParser();
@@ -192,13 +271,13 @@ public class FileSplit implements Closeable {
     int rowNumber = 0;
     MetaData metaData = null;
     try {
-      metaData = fsReader.getMetaData();
+      metaData = readMetaData();
       colNumber =
           metaData instanceof TableMetaData ? ((TableMetaData) metaData).getColumns().length : 1;
       rowNumber =
           needToCountRowNumber == -1
-              ? fsReader.skip(Integer.MAX_VALUE)
-              : fsReader.skip(needToCountRowNumber);
+              ? skipRecords(Integer.MAX_VALUE)
+              : skipRecords(needToCountRowNumber);
     } catch (IOException e) {
       logger.warn("FileSplit getFileInfo failed", e);
       throw new StorageWarnException(
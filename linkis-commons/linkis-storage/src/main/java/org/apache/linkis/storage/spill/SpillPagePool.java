@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.spill;
+
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Off-heap pages shared by all spilling streams of the process, so that memoryMax bounds the
+ * pages of every result set being written rather than of each one. Released pages are reused
+ * 所有溢写流共享的堆外内存页，内存上限作用于进程内全部结果集而非单个结果集，释放的页会被复用
+ */
+public class SpillPagePool {
+
+  private final int pageSize;
+
+  private final int maxPages;
+
+  private final Queue<ByteBuffer> freePages = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger allocatedPages = new AtomicInteger(0);
+
+  /** Uploads copy the pages into a chunk of the upload thread, at most one per thread */
+  private final ThreadLocal<byte[]> chunks;
+
+  /**
+   * @param pageSize bytes of a page
+   * @param memoryMax off-heap bytes of all the pages, at least one page is used
+   */
+  public SpillPagePool(int pageSize, long memoryMax) {
+    this.pageSize = pageSize;
+    this.maxPages = (int) Math.max(1, memoryMax / pageSize);
+    this.chunks = ThreadLocal.withInitial(() -> new byte[pageSize]);
+  }
+
+  public static SpillPagePool getDefault() {
+    return DefaultHolder.POOL;
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public int getMaxPages() {
+    return maxPages;
+  }
+
+  public int getAllocatedPages() {
+    return allocatedPages.get();
+  }
+
+  /**
+   * Take a free page or allocate one within the budget
+   *
+   * @return the page, or null when all the pages of the budget are taken
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer page = freePages.poll();
+    if (page != null) {
+      return page;
+    }
+    int allocated = allocatedPages.get();
+    while (allocated < maxPages) {
+      if (allocatedPages.compareAndSet(allocated, allocated + 1)) {
+        return ByteBuffer.allocateDirect(pageSize);
+      }
+      allocated = allocatedPages.get();
+    }
+    // a page may have been released while the budget was checked
+    return freePages.poll();
+  }
+
+  public void release(ByteBuffer page) {
+    page.clear();
+    freePages.offer(page);
+  }
+
+  byte[] chunk() {
+    return chunks.get();
+  }
+
+  private static final class DefaultHolder {
+
+    private static final SpillPagePool POOL =
+        new SpillPagePool(
+            LinkisStorageConf.RESULT_SET_SPILL_PAGE_SIZE,
+            LinkisStorageConf.RESULT_SET_SPILL_MEMORY_MAX);
+  }
+}
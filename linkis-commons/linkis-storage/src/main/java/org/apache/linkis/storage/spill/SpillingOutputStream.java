@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.spill;
+
+import org.apache.linkis.common.utils.Utils;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collect the bytes of a result set file in off-heap pages of a {@link SpillPagePool} and upload
+ * each full page to the store in one sequential write. An upload task is only scheduled when a
+ * page is ready and runs until the ready pages are drained, so the upload threads are shared by
+ * all the streams. When the pages of the pool are all taken, the bytes are spilled to a local file
+ * and uploaded from there a page at a time in order, so the writer never waits for the store.
+ * Flush does nothing, the file is only complete once {@link #getUploadFuture()} completes after
+ * close
+ * 将结果集文件内容缓存在共享的堆外内存页中，页写满时才调度上传任务按序写入存储；内存页用尽时溢写到本地文件并按序上传，写入方无需等待存储。flush不生效，关闭后需等待上传完成
+ */
+public class SpillingOutputStream extends OutputStream {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpillingOutputStream.class);
+
+  private static final ExecutorService UPLOAD_EXECUTOR =
+      Utils.newCachedThreadPool(
+          LinkisStorageConf.RESULT_SET_SPILL_UPLOAD_THREAD_MAX,
+          "ResultSet-Spill-Upload-Thread-",
+          true);
+
+  private static final Segment END = new Segment(null, -1L, 0);
+
+  private final OutputStream out;
+
+  private final SpillPagePool pagePool;
+
+  private final int pageSize;
+
+  private final File spillDir;
+
+  private final Queue<Segment> segments = new ConcurrentLinkedQueue<>();
+
+  /** Set while an upload task is scheduled, at most one task of a stream runs at a time */
+  private final AtomicBoolean uploading = new AtomicBoolean(false);
+
+  private final CompletableFuture<Void> uploadFuture = new CompletableFuture<>();
+
+  private ByteBuffer page = null;
+
+  private File spillFile = null;
+
+  private FileChannel spillChannel = null;
+
+  private long spillLength = 0L;
+
+  /** Start of the spilled bytes not handed off to the upload yet */
+  private long spillStart = 0L;
+
+  private volatile Throwable uploadError = null;
+
+  private boolean closed = false;
+
+  /**
+   * @param out the stream of the store path, only written by the upload task
+   * @param pagePool pages of the stream, each one uploaded in one write
+   * @param spillDir local directory of the spill file
+   */
+  public SpillingOutputStream(OutputStream out, SpillPagePool pagePool, File spillDir) {
+    this.out = out;
+    this.pagePool = pagePool;
+    this.pageSize = pagePool.getPageSize();
+    this.spillDir = spillDir;
+  }
+
+  /**
+   * Completes once every byte is written to the store and the stream of the store is closed,
+   * completes exceptionally if the upload failed(所有内容写入存储并关闭后完成，上传失败则异常完成)
+   *
+   * @return
+   */
+  public CompletableFuture<Void> getUploadFuture() {
+    return uploadFuture;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] bytes, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Spilling stream is closed");
+    }
+    if (uploadError != null) {
+      throw new IOException("Failed to upload the result set", uploadError);
+    }
+    while (len > 0) {
+      // the spilled bytes are handed off a page at a time, a page is only taken between them
+      if (page == null && spillLength == spillStart) {
+        page = pagePool.acquire();
+      }
+      int n;
+      if (page != null) {
+        n = Math.min(len, page.remaining());
+        page.put(bytes, off, n);
+        if (!page.hasRemaining()) {
+          handOffPage();
+        }
+      } else {
+        n = (int) Math.min(len, pageSize - (spillLength - spillStart));
+        spill(bytes, off, n);
+        if (spillLength - spillStart == pageSize) {
+          handOffSpill();
+        }
+      }
+      off += n;
+      len -= n;
+    }
+  }
+
+  private void handOffPage() {
+    page.flip();
+    ByteBuffer full = page;
+    page = null;
+    handOff(new Segment(full, 0L, full.remaining()));
+  }
+
+  private void spill(byte[] bytes, int off, int len) throws IOException {
+    if (spillChannel == null) {
+      spillFile = File.createTempFile("linkis-resultset-", ".spill", spillDir);
+      spillChannel =
+          FileChannel.open(spillFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      logger.info("Pages of the result sets are all taken, spill to {}", spillFile);
+    }
+    ByteBuffer source = ByteBuffer.wrap(bytes, off, len);
+    while (source.hasRemaining()) {
+      spillLength += spillChannel.write(source, spillLength);
+    }
+  }
+
+  private void handOffSpill() {
+    handOff(new Segment(null, spillStart, (int) (spillLength - spillStart)));
+    spillStart = spillLength;
+  }
+
+  private void handOff(Segment segment) {
+    segments.add(segment);
+    if (uploading.compareAndSet(false, true)) {
+      try {
+        UPLOAD_EXECUTOR.execute(this::upload);
+      } catch (RejectedExecutionException e) {
+        // the upload threads and their queue are full, upload in the writer thread instead
+        upload();
+      }
+    }
+  }
+
+  /** Pages are only uploaded once full, so that each write to the store is a whole page */
+  @Override
+  public void flush() {}
+
+  /**
+   * Hand off the last page and return without waiting for the upload, see {@link
+   * #getUploadFuture()}(交出最后一页后立即返回，不等待上传完成)
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (page != null) {
+      if (page.position() > 0) {
+        handOffPage();
+      } else {
+        pagePool.release(page);
+        page = null;
+      }
+    }
+    if (spillLength > spillStart) {
+      handOffSpill();
+    }
+    handOff(END);
+  }
+
+  /** Upload the ready segments until none is left, then give up the upload thread */
+  private void upload() {
+    do {
+      Segment segment = segments.poll();
+      while (segment != null) {
+        if (segment == END) {
+          finishUpload();
+          return;
+        }
+        // after a failure the segments are only released until the end
+        if (uploadError == null) {
+          try {
+            uploadSegment(segment);
+          } catch (Throwable t) {
+            logger.warn("Failed to upload the result set", t);
+            uploadError = t;
+          }
+        }
+        if (segment.page != null) {
+          pagePool.release(segment.page);
+        }
+        segment = segments.poll();
+      }
+      uploading.set(false);
+      // a segment handed off after the last poll may have seen the task still scheduled
+    } while (!segments.isEmpty() && uploading.compareAndSet(false, true));
+  }
+
+  private void uploadSegment(Segment segment) throws IOException {
+    byte[] chunk = pagePool.chunk();
+    if (segment.page != null) {
+      segment.page.get(chunk, 0, segment.length);
+    } else {
+      ByteBuffer target = ByteBuffer.wrap(chunk, 0, segment.length);
+      long position = segment.offset;
+      while (target.hasRemaining()) {
+        int n = spillChannel.read(target, position);
+        if (n < 0) {
+          throw new EOFException("Spill file " + spillFile + " is truncated");
+        }
+        position += n;
+      }
+    }
+    out.write(chunk, 0, segment.length);
+  }
+
+  private void finishUpload() {
+    try {
+      out.close();
+    } catch (Throwable t) {
+      logger.warn("Failed to close the stream of the result set", t);
+      if (uploadError == null) {
+        uploadError = t;
+      }
+    }
+    if (spillChannel != null) {
+      IOUtils.closeQuietly(spillChannel);
+      if (!spillFile.delete()) {
+        logger.warn("Failed to delete the spill file {}", spillFile);
+      }
+    }
+    if (uploadError == null) {
+      uploadFuture.complete(null);
+    } else {
+      uploadFuture.completeExceptionally(uploadError);
+    }
+  }
+
+  /** A page in memory, or a range of the spill file when page is null */
+  private static final class Segment {
+
+    private final ByteBuffer page;
+
+    private final long offset;
+
+    private final int length;
+
+    private Segment(ByteBuffer page, long offset, int length) {
+      this.page = page;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
@@ -63,7 +63,7 @@ public class StorageConfiguration {
   public static CommonVars<String> STORAGE_RESULT_SET_CLASSES =
       new CommonVars<>(
           "wds.linkis.storage.result.set.classes",
-          "txt.TextResultSet,table.TableResultSet,io.IOResultSet,html.HtmlResultSet,picture.PictureResultSet",
+          "txt.TextResultSet,table.TableResultSet,io.IOResultSet,html.HtmlResultSet,picture.PictureResultSet,columnar.ColumnarResultSet",
           null,
           null);
 
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.benchmark;
+
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultDeserializer;
+import org.apache.linkis.storage.resultset.table.TableResultSerializer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the legacy ascii column length encoding of table rows with the binary var int one. Run
+ * it with the main method, or with `-prof gc` to compare allocation rates
+ * 对比表格结果集旧的ascii列长编码与二进制变长编码的性能
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TableResultCodecBenchmark {
+
+  @Param({"10", "50"})
+  public int columnCount;
+
+  @Param({"1", "2"})
+  public int encodingVersion;
+
+  private TableResultSerializer serializer;
+
+  private TableResultDeserializer deserializer;
+
+  private TableRecord record;
+
+  private byte[] rowBytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Column[] columns = new Column[columnCount];
+    Object[] row = new Object[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      switch (i % 4) {
+        case 0:
+          columns[i] = new Column("id_" + i, DataType.LongType, "");
+          row[i] = 1234567890L + i;
+          break;
+        case 1:
+          columns[i] = new Column("name_" + i, DataType.StringType, "");
+          row[i] = "linkis-user-name-" + i;
+          break;
+        case 2:
+          columns[i] = new Column("score_" + i, DataType.DoubleType, "");
+          row[i] = 3.1415926d * i;
+          break;
+        default:
+          columns[i] = new Column("comment_" + i, DataType.StringType, null);
+          row[i] = i % 8 == 3 ? null : "a longer text column value that makes rows wider " + i;
+      }
+    }
+    TableMetaData metaData = new TableMetaData(columns);
+    record = new TableRecord(row);
+    serializer = new TableResultSerializer(encodingVersion);
+    deserializer = new TableResultDeserializer();
+    deserializer.createMetaData(stripRowLength(serializer.metaDataToBytes(metaData)));
+    rowBytes = stripRowLength(serializer.recordToBytes(record));
+  }
+
+  /** The reader hands the deserializer a row without its fixed length prefix */
+  private static byte[] stripRowLength(byte[] bytes) {
+    return Arrays.copyOfRange(bytes, Dolphin.INT_LEN, bytes.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.recordToBytes(record);
+  }
+
+  @Benchmark
+  public void deserialize(Blackhole blackhole) {
+    blackhole.consume(deserializer.createRecord(rowBytes));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(TableResultCodecBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
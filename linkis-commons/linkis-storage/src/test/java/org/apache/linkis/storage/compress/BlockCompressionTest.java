@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.compress;
+
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.resultset.StorageResultSetReader;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSerializer;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BlockCompressionTest {
+
+  private static final int ROWS = 2000;
+
+  private byte[] writeResultSet(BlockCodec codec, int blockSize) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TableResultSerializer serializer = new TableResultSerializer();
+    OutputStream out =
+        codec == null ? bytes : new BlockCompressedOutputStream(bytes, codec, blockSize);
+    out.write(new TableResultSet().getResultSetHeader());
+    out.write(
+        serializer.metaDataToBytes(
+            new TableMetaData(
+                new Column[] {
+                  new Column("id", DataType.IntType, ""), new Column("name", DataType.StringType, "")
+                })));
+    for (int i = 0; i < ROWS; i++) {
+      out.write(serializer.recordToBytes(new TableRecord(new Object[] {i, "name_" + (i % 10)})));
+      // flushes must not cut the pending block
+      out.flush();
+    }
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  private void assertReadable(byte[] bytes) throws IOException {
+    StorageResultSetReader<TableMetaData, TableRecord> reader =
+        new StorageResultSetReader<>(new TableResultSet(), new ByteArrayInputStream(bytes));
+    TableMetaData metaData = (TableMetaData) reader.getMetaData();
+    Assertions.assertEquals(2, metaData.columns.length);
+    Assertions.assertEquals(100, reader.skip(100));
+    int rows = 100;
+    while (reader.hasNext()) {
+      Object[] row = ((TableRecord) reader.getRecord()).row;
+      Assertions.assertEquals(String.valueOf(rows), String.valueOf(row[0]));
+      Assertions.assertEquals("name_" + (rows % 10), String.valueOf(row[1]));
+      rows++;
+    }
+    reader.close();
+    Assertions.assertEquals(ROWS, rows);
+  }
+
+  @Test
+  void testLz4RoundTrip() throws IOException {
+    byte[] raw = writeResultSet(null, 0);
+    byte[] compressed = writeResultSet(new Lz4BlockCodec(), 4096);
+    Assertions.assertTrue(compressed.length < raw.length);
+    assertReadable(compressed);
+    assertReadable(raw);
+  }
+
+  @Test
+  void testHeaderIsNotCompressed() throws IOException {
+    byte[] raw = writeResultSet(null, 0);
+    byte[] compressed = writeResultSet(new Lz4BlockCodec(), 4096);
+    byte[] header = new TableResultSet().getResultSetHeader();
+    for (int i = 0; i < header.length; i++) {
+      Assertions.assertEquals(raw[i], compressed[i]);
+    }
+    Assertions.assertEquals(Dolphin.BLOCK_COMPRESSED_FLAG, compressed[header.length]);
+    Assertions.assertEquals(Lz4BlockCodec.ID, compressed[header.length + 1]);
+  }
+
+  @Test
+  void testStreamingDecompress() throws IOException {
+    byte[] raw = writeResultSet(null, 0);
+    byte[] compressed = writeResultSet(new Lz4BlockCodec(), 512);
+    int headerLen = new TableResultSet().getResultSetHeader().length;
+    InputStream in = new ByteArrayInputStream(compressed);
+    IOUtils.skipFully(in, headerLen);
+    InputStream decompressed = BlockCompressionUtils.decompress(in);
+    Assertions.assertTrue(BlockCompressionUtils.isCompressed(decompressed));
+    byte[] body = IOUtils.toByteArray(decompressed);
+    Assertions.assertEquals(raw.length - headerLen, body.length);
+    for (int i = 0; i < body.length; i++) {
+      Assertions.assertEquals(raw[headerLen + i], body[i]);
+    }
+  }
+
+  @Test
+  void testCodecByName() {
+    Assertions.assertNull(BlockCompressionUtils.getCodec("none"));
+    Assertions.assertNull(BlockCompressionUtils.getCodec(""));
+    Assertions.assertNull(BlockCompressionUtils.getCodec("unknown"));
+    Assertions.assertEquals(Lz4BlockCodec.NAME, BlockCompressionUtils.getCodec("LZ4").getName());
+  }
+}
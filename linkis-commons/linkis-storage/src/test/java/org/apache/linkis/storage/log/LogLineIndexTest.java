@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LogLineIndexTest {
+
+  private static final int LINES = 1000;
+
+  private static final int INTERVAL = 10;
+
+  private byte[] log;
+
+  private int opens;
+
+  private static int classify(String line) {
+    if (line.trim().isEmpty()) {
+      return LogLineIndex.SKIPPED;
+    } else if (line.contains("ERROR")) {
+      return LogLineIndex.ERROR;
+    } else if (line.contains("WARN")) {
+      return LogLineIndex.WARN;
+    }
+    return LogLineIndex.INFO;
+  }
+
+  @BeforeEach
+  void buildLog() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < LINES; i++) {
+      sb.append(i % 250 == 7 ? "ERROR boom " + i : "INFO line " + i);
+      sb.append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    sb.append("WARN tail");
+    log = sb.toString().getBytes(StandardCharsets.UTF_8);
+    opens = 0;
+  }
+
+  private LogLineIndex buildIndex() throws IOException {
+    LogLineIndex index = new LogLineIndex(INTERVAL, "utf-8", LogLineIndexTest::classify);
+    // appends cut the lines and the \r\n separators at random places
+    Random random = new Random(1);
+    int pos = 0;
+    while (pos < log.length) {
+      int len = Math.min(log.length - pos, random.nextInt(50) + 1);
+      index.append(Arrays.copyOfRange(log, pos, pos + len));
+      pos += len;
+    }
+    return index;
+  }
+
+  private LogSearcher searcher(LogLineIndex index) {
+    return searcher(index, LogLineIndexTest::classify);
+  }
+
+  private LogSearcher searcher(LogLineIndex index, ToIntFunction<String> levelClassifier) {
+    return new LogSearcher(
+        position -> {
+          opens++;
+          InputStream in = new ByteArrayInputStream(log);
+          Assertions.assertEquals(position, in.skip(position));
+          return in;
+        },
+        "utf-8",
+        index,
+        levelClassifier);
+  }
+
+  @Test
+  void testIndexOffsetsAndLevels() throws IOException {
+    LogLineIndex index = buildIndex();
+    // the tail line is counted before its separator is written
+    Assertions.assertEquals(LINES + 1, index.getLineNum());
+    Assertions.assertEquals(log.length, index.getLength());
+    Assertions.assertEquals(500, index.seekLine(507));
+    String line500 = new String(log, (int) index.getOffset(500), 14, StandardCharsets.UTF_8);
+    Assertions.assertEquals("INFO line 500\n", line500);
+    Assertions.assertEquals(LogLineIndex.ERROR, index.getLevel(507));
+    Assertions.assertEquals(LogLineIndex.INFO, index.getLevel(508));
+    Assertions.assertFalse(index.mayContain(1, 1 << LogLineIndex.ERROR));
+    Assertions.assertTrue(index.mayContain(50, 1 << LogLineIndex.ERROR));
+  }
+
+  @Test
+  void testSearchSkipsSegments() throws IOException {
+    List<Integer> lines = new ArrayList<>();
+    int matches =
+        searcher(buildIndex())
+            .search(
+                null,
+                1 << LogLineIndex.ERROR,
+                0,
+                -1,
+                -1,
+                (line, level, log) -> {
+                  Assertions.assertEquals("ERROR boom " + line, log);
+                  lines.add(line);
+                });
+    Assertions.assertEquals(Arrays.asList(7, 257, 507, 757), lines);
+    Assertions.assertEquals(4, matches);
+    int indexedOpens = opens;
+
+    opens = 0;
+    List<Integer> scanned = new ArrayList<>();
+    searcher(null)
+        .search(null, 1 << LogLineIndex.ERROR, 0, -1, -1, (line, level, log) -> scanned.add(line));
+    Assertions.assertEquals(lines, scanned);
+    Assertions.assertEquals(1, opens);
+    // the indexed search reopens the log once per segment holding an error, and once for the
+    // tail segment which is not fully indexed
+    Assertions.assertEquals(5, indexedOpens);
+  }
+
+  @Test
+  void testSearchPatternAndRange() throws IOException {
+    List<String> logs = new ArrayList<>();
+    int matches =
+        searcher(buildIndex())
+            .search(
+                Pattern.compile("line 99"),
+                LogLineIndex.ALL_LEVELS,
+                995,
+                -1,
+                3,
+                (line, level, log) -> logs.add(line + ":" + log));
+    Assertions.assertEquals(3, matches);
+    Assertions.assertEquals(
+        Arrays.asList("995:INFO line 995", "996:INFO line 996", "997:INFO line 997"), logs);
+
+    logs.clear();
+    searcher(buildIndex())
+        .search(
+            null,
+            1 << LogLineIndex.WARN,
+            0,
+            -1,
+            -1,
+            (line, level, log) -> logs.add(line + ":" + log));
+    // the last line without a separator is not indexed yet, but still searched
+    Assertions.assertEquals(Arrays.asList(LINES + ":WARN tail"), logs);
+  }
+
+  @Test
+  void testWriteAndRead() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    buildIndex().write(bytes);
+    LogLineIndex index =
+        LogLineIndex.read(
+            new ByteArrayInputStream(bytes.toByteArray()), "utf-8", LogLineIndexTest::classify);
+    Assertions.assertNotNull(index);
+    // only the ended lines are persisted
+    Assertions.assertEquals(LINES, index.getLineNum());
+    List<Integer> lines = new ArrayList<>();
+    searcher(index)
+        .search(null, 1 << LogLineIndex.ERROR, 300, 800, -1, (line, level, log) -> lines.add(line));
+    Assertions.assertEquals(Arrays.asList(507, 757), lines);
+    Assertions.assertNull(
+        LogLineIndex.read(
+            new ByteArrayInputStream("not an index".getBytes(StandardCharsets.UTF_8)),
+            "utf-8",
+            LogLineIndexTest::classify));
+  }
+
+  @Test
+  void testContinuedLinesAndLimit() throws IOException {
+    String text =
+        "2022-01-01 12:00:00.000 INFO start\n"
+            + "2022-01-01 12:00:01.000 ERROR job failed\n"
+            + "java.lang.RuntimeException: boom\n"
+            + "\tat a.b.C.d(C.java:1)\n"
+            + "\n"
+            + "\tat a.b.C.e(C.java:2)\n"
+            + "2022-01-01 12:00:02.000 INFO retry\n"
+            + "plain output\n";
+    log = text.getBytes(StandardCharsets.UTF_8);
+    LogLineIndex index = new LogLineIndex(2, "utf-8", LogLevelClassifier.INSTANCE);
+    index.append(log);
+    Assertions.assertEquals(LogLineIndex.ERROR, index.getLevel(3));
+    Assertions.assertEquals(LogLineIndex.SKIPPED, index.getLevel(4));
+    Assertions.assertEquals(LogLineIndex.ERROR, index.getLevel(5));
+    Assertions.assertEquals(LogLineIndex.INFO, index.getLevel(7));
+    for (int fromLine : new int[] {0, 3}) {
+      List<Integer> indexed = new ArrayList<>();
+      List<Integer> scanned = new ArrayList<>();
+      searcher(index, LogLevelClassifier.INSTANCE)
+          .search(
+              null, 1 << LogLineIndex.ERROR, fromLine, -1, -1, (l, level, s) -> indexed.add(l));
+      searcher(null, LogLevelClassifier.INSTANCE)
+          .search(
+              null, 1 << LogLineIndex.ERROR, fromLine, -1, -1, (l, level, s) -> scanned.add(l));
+      // the stack trace keeps the level of its error, with or without the index
+      List<Integer> expected = fromLine == 0 ? Arrays.asList(1, 2, 3, 5) : Arrays.asList(3, 5);
+      Assertions.assertEquals(expected, indexed);
+      Assertions.assertEquals(indexed, scanned);
+    }
+    Assertions.assertEquals(
+        0,
+        searcher(index, LogLevelClassifier.INSTANCE)
+            .search(
+                null,
+                LogLineIndex.ALL_LEVELS,
+                0,
+                -1,
+                0,
+                (l, level, s) -> Assertions.fail("no match is expected")));
+  }
+
+  @Test
+  void testParseLevelMask() {
+    Assertions.assertEquals(LogLineIndex.ALL_LEVELS, LogLineIndex.parseLevelMask(" "));
+    Assertions.assertEquals(
+        (1 << LogLineIndex.ERROR) | (1 << LogLineIndex.WARN),
+        LogLineIndex.parseLevelMask("error, WARN"));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> LogLineIndex.parseLevelMask("DEBUG"));
+    Assertions.assertEquals("INFO", LogLineIndex.getLevelName(LogLineIndex.INFO));
+  }
+}
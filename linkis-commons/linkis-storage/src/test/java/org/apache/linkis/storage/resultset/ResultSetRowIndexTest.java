@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset;
+
+import org.apache.linkis.common.io.FsPath;
+import org.apache.linkis.storage.FSFactory;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.fs.FileSystem;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSerializer;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultSetRowIndexTest {
+
+  private static final int ROWS = 1050;
+
+  private static final int INTERVAL = 100;
+
+  @TempDir File tempDir;
+
+  private FsPath writeResultSet(ResultSetRowIndex rowIndex) throws IOException {
+    File file = new File(tempDir, "_0.dolphin");
+    TableResultSerializer serializer = new TableResultSerializer();
+    try (OutputStream out = new FileOutputStream(file)) {
+      byte[] header = new TableResultSet().getResultSetHeader();
+      byte[] meta =
+          serializer.metaDataToBytes(
+              new TableMetaData(new Column[] {new Column("id", DataType.IntType, "")}));
+      out.write(header);
+      out.write(meta);
+      long offset = header.length + meta.length;
+      for (int i = 0; i < ROWS; i++) {
+        byte[] row = serializer.recordToBytes(new TableRecord(new Object[] {i}));
+        rowIndex.addRow(i, offset);
+        out.write(row);
+        offset += row.length;
+      }
+      rowIndex.setDataLength(offset);
+    }
+    return new FsPath("file://" + file.getAbsolutePath());
+  }
+
+  @Test
+  void testFloorRow() {
+    ResultSetRowIndex rowIndex = new ResultSetRowIndex(INTERVAL);
+    for (int i = 0; i < 250; i++) {
+      rowIndex.addRow(i, i * 10L);
+    }
+    Assertions.assertEquals(250, rowIndex.getRowCount());
+    Assertions.assertEquals(0, rowIndex.floorRow(99));
+    Assertions.assertEquals(100, rowIndex.floorRow(150));
+    Assertions.assertEquals(200, rowIndex.floorRow(Integer.MAX_VALUE));
+    Assertions.assertEquals(2000, rowIndex.offsetOf(200));
+  }
+
+  @Test
+  void testSkipWithRowIndex() throws IOException {
+    ResultSetRowIndex rowIndex = new ResultSetRowIndex(INTERVAL);
+    FsPath fsPath = writeResultSet(rowIndex);
+    FileSystem fs = (FileSystem) FSFactory.getFs(fsPath);
+    fs.init(null);
+    rowIndex.store(fs, fsPath);
+    Assertions.assertTrue(
+        ResultSetRowIndex.isIndexPath(ResultSetRowIndex.getIndexPath(fsPath).getPath()));
+
+    StorageResultSetReader<?, ?> reader =
+        (StorageResultSetReader<?, ?>)
+            ResultSetReaderFactory.getResultSetReader(new TableResultSet(), fs, fsPath);
+    reader.getMetaData();
+    Assertions.assertEquals(1001, reader.skip(1001));
+    Assertions.assertTrue(reader.hasNext());
+    Assertions.assertEquals(1001, ((TableRecord) reader.getRecord()).row[0]);
+    Assertions.assertEquals(ROWS - 1002, reader.skip(Integer.MAX_VALUE));
+    reader.close();
+    fs.close();
+  }
+
+  @Test
+  void testStaleRowIndexIsIgnored() throws IOException {
+    ResultSetRowIndex rowIndex = new ResultSetRowIndex(INTERVAL);
+    FsPath fsPath = writeResultSet(rowIndex);
+    FileSystem fs = (FileSystem) FSFactory.getFs(fsPath);
+    fs.init(null);
+    rowIndex.setDataLength(rowIndex.getDataLength() + 1);
+    rowIndex.store(fs, fsPath);
+    Assertions.assertNull(ResultSetRowIndex.load(fs, fsPath));
+    fs.close();
+  }
+}
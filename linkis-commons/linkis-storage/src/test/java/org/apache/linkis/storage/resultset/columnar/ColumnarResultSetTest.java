@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.resultset.ResultSetFactory;
+import org.apache.linkis.storage.resultset.ResultSetReaderFactory;
+import org.apache.linkis.storage.resultset.StorageResultSetWriter;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+import org.apache.linkis.storage.source.FileSplit;
+import org.apache.linkis.storage.source.ResultsetFileSource;
+
+import org.apache.commons.math3.util.Pair;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultSetTest {
+
+  private static final int ROWS = 20;
+
+  private static final TableMetaData META_DATA =
+      new TableMetaData(
+          new Column[] {
+            new Column("id", DataType.IntType, ""),
+            new Column("name", DataType.StringType, ""),
+            new Column("city", DataType.StringType, "")
+          });
+
+  private static Object[] row(int i) {
+    return new Object[] {i, i % 5 == 0 ? null : "name" + i, i % 2 == 0 ? "beijing" : "shenzhen"};
+  }
+
+  private ColumnarResultSetReader newReader(int rowGroupSize) throws IOException {
+    ColumnarResultSet resultSet = new ColumnarResultSet();
+    ColumnarResultSerializer serializer = new ColumnarResultSerializer(rowGroupSize, 1024 * 1024);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(resultSet.getResultSetHeader());
+    out.write(serializer.metaDataToBytes(META_DATA));
+    for (int i = 0; i < ROWS; i++) {
+      out.write(serializer.recordToBytes(new TableRecord(row(i))));
+    }
+    out.write(serializer.flushBuffered());
+    return new ColumnarResultSetReader(resultSet, new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private List<Object[]> readAll(ResultSetReader reader) throws IOException {
+    List<Object[]> rows = new ArrayList<>();
+    while (reader.hasNext()) {
+      rows.add(((TableRecord) reader.getRecord()).row);
+    }
+    return rows;
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    ColumnarResultSetReader reader = newReader(6);
+    TableMetaData metaData = (TableMetaData) reader.getMetaData();
+    Assertions.assertEquals(3, metaData.columns.length);
+    List<Object[]> rows = readAll(reader);
+    Assertions.assertEquals(ROWS, rows.size());
+    for (int i = 0; i < ROWS; i++) {
+      Assertions.assertArrayEquals(row(i), rows.get(i));
+    }
+  }
+
+  @Test
+  void testProjection() throws IOException {
+    ColumnarResultSetReader reader = newReader(6);
+    reader.setProjection(new String[] {"city", "id"});
+    TableMetaData metaData = (TableMetaData) reader.getMetaData();
+    Assertions.assertEquals("city", metaData.columns[0].getColumnName());
+    Assertions.assertEquals("id", metaData.columns[1].getColumnName());
+    List<Object[]> rows = readAll(reader);
+    Assertions.assertEquals(ROWS, rows.size());
+    Assertions.assertArrayEquals(new Object[] {"shenzhen", 3}, rows.get(3));
+  }
+
+  @Test
+  void testFilterAndSkip() throws IOException {
+    ColumnarResultSetReader reader = newReader(4);
+    reader.setFilter("id >= 9 && city = 'shenzhen'");
+    reader.getMetaData();
+    Assertions.assertEquals(1, reader.skip(1));
+    List<Object[]> rows = readAll(reader);
+    Assertions.assertEquals(5, rows.size());
+    Assertions.assertEquals(11, rows.get(0)[0]);
+
+    reader = newReader(4);
+    reader.getMetaData();
+    Assertions.assertEquals(9, reader.skip(9));
+    Assertions.assertTrue(reader.hasNext());
+    Assertions.assertEquals(9, ((TableRecord) reader.getRecord()).row[0]);
+  }
+
+  @Test
+  void testOversizedRow() throws IOException {
+    ColumnarResultSerializer serializer = new ColumnarResultSerializer(6, 1024 * 1024);
+    serializer.metaDataToBytes(META_DATA);
+    // fewer chars than the limit, but more bytes once encoded
+    char[] chars = new char[(int) (LinkisStorageConf.ROW_BYTE_MAX_LEN / 3) + 1];
+    Arrays.fill(chars, '\u4e2d');
+    TableRecord oversized = new TableRecord(new Object[] {1, new String(chars), "beijing"});
+    Assertions.assertThrows(IOException.class, () -> serializer.bufferRecord(oversized));
+
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        new StorageResultSetWriter<>(new ColumnarResultSet(), Long.MAX_VALUE, null);
+    writer.addMetaData(META_DATA);
+    writer.addRecord(new TableRecord(row(0)));
+    writer.addRecord(oversized);
+    writer.addRecord(new TableRecord(row(2)));
+    List<Object[]> rows = readAll(ResultSetReaderFactory.getResultSetReader(writer.toString()));
+    Assertions.assertEquals(2, rows.size());
+    Assertions.assertArrayEquals(row(0), rows.get(0));
+    Assertions.assertArrayEquals(row(2), rows.get(1));
+  }
+
+  @Test
+  void testRowGroupStatistics() {
+    ColumnPredicate predicate = ColumnPredicate.parse("id > 10").get(0);
+    predicate.bind(META_DATA.columns);
+    Assertions.assertFalse(predicate.mayMatch("2", "9"));
+    Assertions.assertTrue(predicate.mayMatch("9", "11"));
+    Assertions.assertFalse(predicate.test("9"));
+    Assertions.assertTrue(predicate.test("100"));
+    Assertions.assertFalse(predicate.test(null));
+  }
+
+  @Test
+  void testWriterAndFileSource() throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> columnarWriter =
+        new StorageResultSetWriter<>(new ColumnarResultSet(), Long.MAX_VALUE, null);
+    StorageResultSetWriter<TableMetaData, TableRecord> tableWriter =
+        new StorageResultSetWriter<>(new TableResultSet(), Long.MAX_VALUE, null);
+    columnarWriter.addMetaData(META_DATA);
+    tableWriter.addMetaData(META_DATA);
+    for (int i = 0; i < ROWS; i++) {
+      columnarWriter.addRecord(new TableRecord(row(i)));
+      tableWriter.addRecord(new TableRecord(row(i)));
+    }
+    String columnar = columnarWriter.toString();
+    String table = tableWriter.toString();
+    Assertions.assertTrue(
+        ResultSetReaderFactory.getResultSetReader(columnar) instanceof ColumnarResultSetReader);
+
+    List<String[]> expected = collect(table, ResultSetFactory.TABLE_TYPE);
+    List<String[]> actual = collect(columnar, ResultSetFactory.COLUMNAR_TYPE);
+    Assertions.assertEquals(5, actual.size());
+    Assertions.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assertions.assertArrayEquals(expected.get(i), actual.get(i));
+    }
+  }
+
+  private List<String[]> collect(String content, String type) throws IOException {
+    ResultSetReader reader = ResultSetReaderFactory.getResultSetReader(content);
+    ResultsetFileSource fileSource =
+        new ResultsetFileSource(new FileSplit[] {new FileSplit(reader, type)});
+    fileSource.project(new String[] {"name"}).filter("id < 10 && city = beijing");
+    Pair<Object, List<String[]>> result = fileSource.collect()[0];
+    fileSource.close();
+    return result.getSecond();
+  }
+}
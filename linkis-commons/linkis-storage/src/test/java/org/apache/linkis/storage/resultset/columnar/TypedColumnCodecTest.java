@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.columnar;
+
+import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.resultset.ResultSetFactory;
+import org.apache.linkis.storage.resultset.ResultSetReaderFactory;
+import org.apache.linkis.storage.resultset.StorageResultSetWriter;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+import org.apache.linkis.storage.source.FileSplit;
+import org.apache.linkis.storage.source.ResultsetFileSource;
+
+import org.apache.commons.math3.util.Pair;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TypedColumnCodecTest {
+
+  private static final int ROWS = 50;
+
+  private static final TableMetaData META_DATA =
+      new TableMetaData(
+          new Column[] {
+            new Column("id", DataType.LongType, ""),
+            new Column("price", DataType.DoubleType, ""),
+            new Column("amount", DataType.DecimalType, ""),
+            new Column("day", DataType.DateType, ""),
+            new Column("name", DataType.StringType, "")
+          });
+
+  /** Array backed column, null values are the nulls of the column */
+  private static class ArrayColumn implements TypedColumn {
+
+    private final int kind;
+
+    private final int scale;
+
+    private final Object[] values;
+
+    ArrayColumn(int kind, int scale, Object[] values) {
+      this.kind = kind;
+      this.scale = scale;
+      this.values = values;
+    }
+
+    @Override
+    public int getKind() {
+      return kind;
+    }
+
+    @Override
+    public int getScale() {
+      return scale;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+      return values[row] == null;
+    }
+
+    @Override
+    public long getLong(int row) {
+      return ((Number) values[row]).longValue();
+    }
+
+    @Override
+    public double getDouble(int row) {
+      return ((Number) values[row]).doubleValue();
+    }
+
+    @Override
+    public String getString(int row) {
+      return (String) values[row];
+    }
+  }
+
+  private static String format(int kind, int scale, Object value) {
+    return TypedColumnCodec.format(new ArrayColumn(kind, scale, new Object[] {value}), 0);
+  }
+
+  private static TypedColumn[] columns() {
+    Object[] ids = new Object[ROWS];
+    Object[] prices = new Object[ROWS];
+    Object[] amounts = new Object[ROWS];
+    Object[] days = new Object[ROWS];
+    Object[] names = new Object[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      ids[i] = (long) i - 10;
+      prices[i] = i % 7 == 0 ? null : i * 1.25;
+      amounts[i] = (long) i * 150;
+      days[i] = i % 3 == 0 ? null : 19000L + i;
+      names[i] = i % 5 == 0 ? null : "name" + i % 4;
+    }
+    return new TypedColumn[] {
+      new ArrayColumn(TypedColumn.KIND_LONG, 0, ids),
+      new ArrayColumn(TypedColumn.KIND_DOUBLE, 30, prices),
+      new ArrayColumn(TypedColumn.KIND_DECIMAL, 2, amounts),
+      new ArrayColumn(TypedColumn.KIND_DATE, 0, days),
+      new ArrayColumn(TypedColumn.KIND_STRING, 0, names)
+    };
+  }
+
+  @Test
+  void testFormat() {
+    Assertions.assertEquals("-42", format(TypedColumn.KIND_LONG, 0, -42L));
+    Assertions.assertEquals(
+        "9223372036854775807", format(TypedColumn.KIND_LONG, 0, Long.MAX_VALUE));
+    Assertions.assertEquals("true", format(TypedColumn.KIND_BOOLEAN, 0, 1L));
+    Assertions.assertEquals("0.1", format(TypedColumn.KIND_DOUBLE, 30, 0.1));
+    Assertions.assertEquals(
+        "12345678901234", format(TypedColumn.KIND_DOUBLE, 30, 12345678901234.0));
+    Assertions.assertEquals("0.33", format(TypedColumn.KIND_DOUBLE, 2, 1.0 / 3));
+    Assertions.assertEquals("NaN", format(TypedColumn.KIND_DOUBLE, 30, Double.NaN));
+    Assertions.assertEquals("1.5", format(TypedColumn.KIND_FLOAT, 0, 1.5f));
+    Assertions.assertEquals("-12.5", format(TypedColumn.KIND_DECIMAL, 2, -1250L));
+    Assertions.assertEquals("0", format(TypedColumn.KIND_DECIMAL, 4, 0L));
+    Assertions.assertEquals("1970-01-02", format(TypedColumn.KIND_DATE, 0, 1L));
+    Assertions.assertEquals("1969-12-31", format(TypedColumn.KIND_DATE, 0, -1L));
+    Assertions.assertEquals(
+        "1970-01-01 00:00:01.0", format(TypedColumn.KIND_TIMESTAMP, 0, 1000000L));
+    Assertions.assertEquals(
+        "1970-01-01 00:00:00.00015", format(TypedColumn.KIND_TIMESTAMP, 0, 150L));
+    Assertions.assertEquals(
+        "1969-12-31 23:59:59.9", format(TypedColumn.KIND_TIMESTAMP, 0, -100000L));
+    Assertions.assertNull(format(TypedColumn.KIND_LONG, 0, null));
+  }
+
+  @Test
+  void testTypedColumnsMatchFormattedRows() throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> columnarWriter =
+        new StorageResultSetWriter<>(new ColumnarResultSet(), Long.MAX_VALUE, null);
+    StorageResultSetWriter<TableMetaData, TableRecord> tableWriter =
+        new StorageResultSetWriter<>(new TableResultSet(), Long.MAX_VALUE, null);
+    columnarWriter.addMetaData(META_DATA);
+    tableWriter.addMetaData(META_DATA);
+    columnarWriter.addColumns(columns(), ROWS);
+    tableWriter.addColumns(columns(), ROWS);
+
+    String filter = "amount >= 1500 && price > 20";
+    List<String[]> expected = collect(tableWriter.toString(), ResultSetFactory.TABLE_TYPE, filter);
+    List<String[]> actual =
+        collect(columnarWriter.toString(), ResultSetFactory.COLUMNAR_TYPE, filter);
+    Assertions.assertFalse(actual.isEmpty());
+    Assertions.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assertions.assertArrayEquals(expected.get(i), actual.get(i));
+    }
+  }
+
+  @Test
+  void testRowGroupStatistics() throws IOException {
+    ColumnarResultSet resultSet = new ColumnarResultSet();
+    ColumnarResultSerializer serializer = new ColumnarResultSerializer(16, 1024 * 1024);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(resultSet.getResultSetHeader());
+    out.write(serializer.metaDataToBytes(META_DATA));
+    out.write(serializer.columnsToBytes(columns(), ROWS));
+    ColumnarResultSetReader reader =
+        new ColumnarResultSetReader(resultSet, new ByteArrayInputStream(out.toByteArray()));
+    reader.setFilter("id > 35");
+    reader.getMetaData();
+    int rows = 0;
+    while (reader.hasNext()) {
+      rows++;
+    }
+    Assertions.assertEquals(ROWS - 46, rows);
+  }
+
+  private List<String[]> collect(String content, String type, String filter) throws IOException {
+    ResultSetReader reader = ResultSetReaderFactory.getResultSetReader(content);
+    ResultsetFileSource fileSource =
+        new ResultsetFileSource(new FileSplit[] {new FileSplit(reader, type)});
+    fileSource.filter(filter);
+    Pair<Object, List<String[]>> result = fileSource.collect()[0];
+    fileSource.close();
+    return result.getSecond();
+  }
+}
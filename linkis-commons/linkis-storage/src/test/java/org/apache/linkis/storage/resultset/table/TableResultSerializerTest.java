@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.table;
+
+import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.resultset.StorageResultSetReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TableResultSerializerTest {
+
+  private static final TableMetaData META_DATA =
+      new TableMetaData(
+          new Column[] {
+            new Column("id", DataType.IntType, null),
+            new Column("name", DataType.StringType, "名字"),
+            new Column("score", DataType.DoubleType, "")
+          });
+
+  private String longValue() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      sb.append("linkis-中文-").append(i);
+    }
+    return sb.toString();
+  }
+
+  private String writeRows(TableResultSerializer serializer, Object[]... rows) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new TableResultSet().getResultSetHeader());
+    out.write(serializer.metaDataToBytes(META_DATA));
+    for (Object[] row : rows) {
+      out.write(serializer.recordToBytes(new TableRecord(row)));
+    }
+    return new String(out.toByteArray(), Dolphin.CHAR_SET);
+  }
+
+  @Test
+  void testLegacyEncodingIsUnchanged() {
+    byte[] bytes =
+        new TableResultSerializer(Dolphin.TABLE_ENCODING_VERSION_LEGACY)
+            .recordToBytes(new TableRecord(new Object[] {1, null, "a"}));
+    Assertions.assertEquals(
+        "000000003000000000071,11,1,1LINKIS_NULLa", new String(bytes, Dolphin.CHAR_SET));
+  }
+
+  @Test
+  void testBinaryEncodingRoundTrip() throws IOException {
+    String longValue = longValue();
+    String content =
+        writeRows(
+            new TableResultSerializer(Dolphin.TABLE_ENCODING_VERSION_BINARY),
+            new Object[] {1, longValue, 1.5d},
+            new Object[] {2, null, null});
+
+    ResultSetReader reader = new StorageResultSetReader<>(new TableResultSet(), content);
+    TableMetaData metaData = (TableMetaData) reader.getMetaData();
+    Assertions.assertEquals(3, metaData.columns.length);
+    Assertions.assertEquals("NULL", metaData.columns[0].getComment());
+    Assertions.assertEquals("名字", metaData.columns[1].getComment());
+    Assertions.assertEquals(DataType.DoubleType, metaData.columns[2].getDataType());
+
+    Assertions.assertTrue(reader.hasNext());
+    Object[] row = ((TableRecord) reader.getRecord()).row;
+    Assertions.assertArrayEquals(new Object[] {1, longValue, 1.5d}, row);
+    Assertions.assertTrue(reader.hasNext());
+    row = ((TableRecord) reader.getRecord()).row;
+    Assertions.assertArrayEquals(new Object[] {2, null, null}, row);
+    Assertions.assertFalse(reader.hasNext());
+    reader.close();
+  }
+
+  @Test
+  void testReadMixedEncodings() throws IOException {
+    TableResultSerializer legacy = new TableResultSerializer(Dolphin.TABLE_ENCODING_VERSION_LEGACY);
+    TableResultSerializer binary = new TableResultSerializer(Dolphin.TABLE_ENCODING_VERSION_BINARY);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new TableResultSet().getResultSetHeader());
+    out.write(legacy.metaDataToBytes(META_DATA));
+    out.write(binary.recordToBytes(new TableRecord(new Object[] {1, "a", 2.0d})));
+    out.write(legacy.recordToBytes(new TableRecord(new Object[] {2, "b", 3.0d})));
+
+    ResultSetReader reader =
+        new StorageResultSetReader<>(
+            new TableResultSet(), new String(out.toByteArray(), Dolphin.CHAR_SET));
+    reader.getMetaData();
+    Assertions.assertEquals(1, reader.skip(1));
+    Assertions.assertTrue(reader.hasNext());
+    Assertions.assertArrayEquals(
+        new Object[] {2, "b", 3.0d}, ((TableRecord) reader.getRecord()).row);
+    reader.close();
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.spill;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SpillingOutputStreamTest {
+
+  private static final int PAGE_SIZE = 1024;
+
+  private File newSpillDir() throws IOException {
+    File dir = Files.createTempDirectory("spill-test").toFile();
+    dir.deleteOnExit();
+    return dir;
+  }
+
+  private byte[] randomBytes(int len) {
+    byte[] bytes = new byte[len];
+    new Random(len).nextBytes(bytes);
+    return bytes;
+  }
+
+  @Test
+  void testUploadInOrder() throws Exception {
+    ByteArrayOutputStream store = new ByteArrayOutputStream();
+    byte[] content = randomBytes(PAGE_SIZE * 10 + 100);
+    SpillingOutputStream out =
+        new SpillingOutputStream(store, new SpillPagePool(PAGE_SIZE, PAGE_SIZE * 4), newSpillDir());
+    for (int i = 0; i < content.length; i += 333) {
+      out.write(content, i, Math.min(333, content.length - i));
+      out.flush();
+    }
+    out.close();
+    out.getUploadFuture().get(10, TimeUnit.SECONDS);
+    Assertions.assertArrayEquals(content, store.toByteArray());
+  }
+
+  @Test
+  void testSpillWhenUploadFallsBehind() throws Exception {
+    CountDownLatch released = new CountDownLatch(1);
+    ByteArrayOutputStream store = new ByteArrayOutputStream();
+    // the store blocks until every page is written, so the pages beyond the budget are spilled
+    OutputStream slowStore =
+        new OutputStream() {
+          @Override
+          public void write(int b) {
+            store.write(b);
+          }
+
+          @Override
+          public void write(byte[] bytes, int off, int len) throws IOException {
+            try {
+              released.await();
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+            store.write(bytes, off, len);
+          }
+        };
+    File spillDir = newSpillDir();
+    byte[] content = randomBytes(PAGE_SIZE * 20 + 7);
+    SpillingOutputStream out =
+        new SpillingOutputStream(slowStore, new SpillPagePool(PAGE_SIZE, PAGE_SIZE * 2), spillDir);
+    out.write(content);
+    Assertions.assertEquals(1, spillDir.listFiles().length);
+    released.countDown();
+    out.close();
+    out.getUploadFuture().get(10, TimeUnit.SECONDS);
+    Assertions.assertArrayEquals(content, store.toByteArray());
+    Assertions.assertEquals(0, spillDir.listFiles().length);
+  }
+
+  @Test
+  void testPageBudgetAcrossStreams() throws Exception {
+    // more open streams than upload threads, sharing fewer pages than streams
+    int streams = 30;
+    SpillPagePool pagePool = new SpillPagePool(PAGE_SIZE, PAGE_SIZE * 3);
+    File spillDir = newSpillDir();
+    CountDownLatch uploaded = new CountDownLatch(streams);
+    List<ByteArrayOutputStream> stores = new ArrayList<>();
+    List<SpillingOutputStream> outs = new ArrayList<>();
+    for (int i = 0; i < streams; i++) {
+      ByteArrayOutputStream store = new ByteArrayOutputStream();
+      OutputStream countingStore =
+          new OutputStream() {
+            @Override
+            public void write(int b) {
+              store.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+              if (store.size() == 0) {
+                uploaded.countDown();
+              }
+              store.write(bytes, off, len);
+            }
+          };
+      stores.add(store);
+      outs.add(new SpillingOutputStream(countingStore, pagePool, spillDir));
+    }
+    byte[] content = randomBytes(PAGE_SIZE * 3 + 11);
+    for (SpillingOutputStream out : outs) {
+      out.write(content);
+    }
+    // every stream uploads its full pages while all of them are still open
+    Assertions.assertTrue(uploaded.await(10, TimeUnit.SECONDS));
+    for (SpillingOutputStream out : outs) {
+      out.close();
+    }
+    for (int i = 0; i < streams; i++) {
+      outs.get(i).getUploadFuture().get(10, TimeUnit.SECONDS);
+      Assertions.assertArrayEquals(content, stores.get(i).toByteArray());
+    }
+    Assertions.assertTrue(pagePool.getAllocatedPages() <= pagePool.getMaxPages());
+    Assertions.assertEquals(0, spillDir.listFiles().length);
+  }
+
+  @Test
+  void testUploadFailure() throws Exception {
+    OutputStream brokenStore =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("store is broken");
+          }
+        };
+    SpillingOutputStream out =
+        new SpillingOutputStream(
+            brokenStore, new SpillPagePool(PAGE_SIZE, PAGE_SIZE * 2), newSpillDir());
+    out.write(randomBytes(PAGE_SIZE));
+    out.close();
+    Assertions.assertThrows(
+        ExecutionException.class, () -> out.getUploadFuture().get(10, TimeUnit.SECONDS));
+    Assertions.assertThrows(IOException.class, () -> out.write(1));
+  }
+}
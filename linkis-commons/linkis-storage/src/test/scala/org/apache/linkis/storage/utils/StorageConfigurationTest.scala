@@ -58,7 +58,7 @@ class StorageConfigurationTest {
     Assertions.assertTrue(types.size > 0)
     Assertions.assertEquals("org.apache.linkis.storage.resultset", storageresultsetpackage)
     Assertions.assertEquals(
-      "txt.TextResultSet,table.TableResultSet,io.IOResultSet,html.HtmlResultSet,picture.PictureResultSet",
+      "txt.TextResultSet,table.TableResultSet,io.IOResultSet,html.HtmlResultSet,picture.PictureResultSet,columnar.ColumnarResultSet",
       storageresultsetclasses
     )
     Assertions.assertEquals(
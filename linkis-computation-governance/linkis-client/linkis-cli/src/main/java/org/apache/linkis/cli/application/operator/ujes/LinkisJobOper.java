@@ -631,9 +631,16 @@ public class LinkisJobOper implements JobOper {
                 .setUser(user)
                 .setPage(page)
                 .setPageSize(pageSize)
+                .setStreaming(true)
                 .build();
         result = client.resultSet(action);
-        logger.debug("resultset-result:" + CliUtils.GSON.toJson(result));
+        // the rows are streamed, so the page is not dumped as json here
+        if (result != null) {
+          logger.debug(
+              "resultset-result: status={}, totalLine={}",
+              result.getStatus(),
+              result.getTotalLine());
+        }
         if (result == null || 0 != result.getStatus()) {
           String reason;
           if (result == null) {
@@ -34,16 +34,20 @@ import org.apache.linkis.ujes.client.response.JobInfoResult;
 import org.apache.linkis.ujes.client.response.JobLogResult;
 import org.apache.linkis.ujes.client.response.JobStatusResult;
 import org.apache.linkis.ujes.client.response.JobSubmitResult;
+import org.apache.linkis.ujes.client.response.ResultSetResult;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 
 public class UJESResultAdapter implements LinkisOperResultAdapter {
   private Object result;
   private String[] resultsetArray;
+  private List<Object> streamedResultContent;
 
   public UJESResultAdapter(Object result) {
     if (!(result instanceof DWSResult) && !(result instanceof UJESResult)) {
@@ -323,7 +327,7 @@ public class UJESResultAdapter implements LinkisOperResultAdapter {
     }
     if (result instanceof ResultSetResult2
         && ((ResultSetResult2) result).getResultSetResult() != null
-        && ((ResultSetResult2) result).getResultSetResult().getFileContent() != null
+        && getRawResultContent(((ResultSetResult2) result).getResultSetResult()) != null
         && ((ResultSetResult2) result).getResultSetResult().getMetadata() != null) {
       ResultSet ret = new ResultSet();
       ret.setResultsetIdx(((ResultSetResult2) result).getIdxResultSet());
@@ -331,10 +335,9 @@ public class UJESResultAdapter implements LinkisOperResultAdapter {
         ret.setResultMeta(
             this.convertResultMeta(((ResultSetResult2) result).getResultSetResult().getMetadata()));
       }
-      if (((ResultSetResult2) result).getResultSetResult().getFileContent() != null) {
-        ret.setContent(
-            this.convertRawResultContent(
-                ((ResultSetResult2) result).getResultSetResult().getFileContent()));
+      Object rawContent = getRawResultContent(((ResultSetResult2) result).getResultSetResult());
+      if (rawContent != null) {
+        ret.setContent(this.convertRawResultContent(rawContent));
       }
       // can be null if reaches non-existing page
       return ret;
@@ -348,12 +351,12 @@ public class UJESResultAdapter implements LinkisOperResultAdapter {
       return null;
     }
     if (result instanceof ResultSetResult2) {
-      if (((ResultSetResult2) result).getResultSetResult() == null
-          || ((ResultSetResult2) result).getResultSetResult().getFileContent() == null
-          || (((ResultSetResult2) result).getResultSetResult().getFileContent() instanceof List
-              && ((List<?>) ((ResultSetResult2) result).getResultSetResult().getFileContent())
-                      .size()
-                  == 0)
+      Object rawContent =
+          ((ResultSetResult2) result).getResultSetResult() == null
+              ? null
+              : getRawResultContent(((ResultSetResult2) result).getResultSetResult());
+      if (rawContent == null
+          || (rawContent instanceof List && ((List<?>) rawContent).size() == 0)
           || ((ResultSetResult2) result).getResultSetResult().getTotalLine() == 0) {
         return false;
       } else {
@@ -363,6 +366,25 @@ public class UJESResultAdapter implements LinkisOperResultAdapter {
     return null;
   }
 
+  /**
+   * Rows of the result set page. A streamed page is read from the response into one list the first
+   * time it is asked, instead of holding the response body and its parsed copy
+   */
+  private Object getRawResultContent(ResultSetResult resultSetResult) {
+    if (resultSetResult.getFileContent() != null) {
+      return resultSetResult.getFileContent();
+    }
+    if (streamedResultContent == null && resultSetResult.getRowIterator() != null) {
+      List<Object> rows = new ArrayList<>();
+      Iterator<Object> iterator = resultSetResult.getRowIterator();
+      while (iterator.hasNext()) {
+        rows.add(iterator.next());
+      }
+      streamedResultContent = rows;
+    }
+    return streamedResultContent;
+  }
+
   private String parseUserOutOfStrongerExecId(String strongerExecId, String requestApp) {
     int idx = StringUtils.indexOf(strongerExecId, requestApp) + StringUtils.length(requestApp) + 1;
     int idx2 = StringUtils.indexOf(strongerExecId, '_', idx);
@@ -21,12 +21,17 @@ import org.apache.linkis.httpclient.authentication.AuthenticationStrategy
 import org.apache.linkis.httpclient.dws.authentication.StaticAuthenticationStrategy
 import org.apache.linkis.httpclient.dws.config.{DWSClientConfig, DWSClientConfigBuilder}
 import org.apache.linkis.httpclient.response.Result
+import org.apache.linkis.protocol.utils.ZuulEntranceUtils
 import org.apache.linkis.ujes.client.request._
 import org.apache.linkis.ujes.client.request.JobExecIdAction.JobServiceType
 import org.apache.linkis.ujes.client.response._
 
 import java.io.Closeable
-import java.util.concurrent.TimeUnit
+import java.util
+import java.util.concurrent.{CompletableFuture, TimeUnit}
+import java.util.function.{Function => JFunction}
+
+import scala.collection.JavaConverters._
 
 abstract class UJESClient extends Closeable {
 
@@ -39,36 +44,151 @@ abstract class UJESClient extends Closeable {
 
   protected[client] def executeUJESJob(ujesJobAction: UJESJobAction): Result
 
+  /** Execute the action whose response may be held by the server up to waitMills */
+  protected[client] def executeUJESJob(ujesJobAction: UJESJobAction, waitMills: Long): Result =
+    executeUJESJob(ujesJobAction)
+
+  /**
+   * Execute the action without blocking the caller thread, the future is completed in the
+   * callback threads of the http client
+   */
+  protected[client] def executeUJESJobAsync(ujesJobAction: UJESJobAction): CompletableFuture[Result]
+
+  private def executeUJESJobAsync[T <: Result](
+      ujesJobAction: UJESJobAction,
+      resultClass: Class[T]
+  ): CompletableFuture[T] = executeUJESJobAsync(ujesJobAction).thenApply(
+    new JFunction[Result, T] {
+      override def apply(result: Result): T = resultClass.cast(result)
+    }
+  )
+
+  private def jobExecIdAction(
+      jobExecuteResult: JobExecuteResult,
+      jobServiceType: JobServiceType.JobServiceType
+  ): JobExecIdAction = JobExecIdAction
+    .builder()
+    .setJobServiceType(jobServiceType)
+    .setExecId(jobExecuteResult.getExecID)
+    .setUser(jobExecuteResult.getUser)
+    .build()
+
   private def executeJobExecIdAction[T](
       jobExecuteResult: JobExecuteResult,
       jobServiceType: JobServiceType.JobServiceType
-  ): T = {
-    val jobExecIdAction = JobExecIdAction
-      .builder()
-      .setJobServiceType(jobServiceType)
-      .setExecId(jobExecuteResult.getExecID)
-      .setUser(jobExecuteResult.getUser)
-      .build()
-    executeUJESJob(jobExecIdAction).asInstanceOf[T]
+  ): T = executeUJESJob(jobExecIdAction(jobExecuteResult, jobServiceType)).asInstanceOf[T]
+
+  def executeAsync(jobExecuteAction: JobExecuteAction): CompletableFuture[JobExecuteResult] =
+    executeUJESJobAsync(jobExecuteAction, classOf[JobExecuteResult])
+
+  def submitAsync(jobSubmitAction: JobSubmitAction): CompletableFuture[JobSubmitResult] =
+    executeUJESJobAsync(jobSubmitAction, classOf[JobSubmitResult])
+
+  def statusAsync(jobExecuteResult: JobExecuteResult): CompletableFuture[JobStatusResult] =
+    executeUJESJobAsync(
+      jobExecIdAction(jobExecuteResult, JobServiceType.JobStatus),
+      classOf[JobStatusResult]
+    )
+
+  def progressAsync(jobExecuteResult: JobExecuteResult): CompletableFuture[JobProgressResult] =
+    executeUJESJobAsync(
+      jobExecIdAction(jobExecuteResult, JobServiceType.JobProgress),
+      classOf[JobProgressResult]
+    )
+
+  def logAsync(
+      jobExecuteResult: JobExecuteResult,
+      fromLine: Int,
+      size: Int
+  ): CompletableFuture[JobLogResult] =
+    executeUJESJobAsync(jobLogAction(jobExecuteResult, fromLine, size), classOf[JobLogResult])
+
+  def resultSetAsync(resultSetAction: ResultSetAction): CompletableFuture[ResultSetResult] =
+    executeUJESJobAsync(resultSetAction, classOf[ResultSetResult])
+
+  /**
+   * Jobs are grouped by their entrance and user, so one request is sent for each group
+   * (按entrance与用户分组，每组只发送一个请求)
+   */
+  private def batchStatusActions(
+      jobExecuteResults: util.List[JobExecuteResult]
+  ): Iterable[JobBatchStatusAction] = jobExecuteResults.asScala
+    .groupBy { jobExecuteResult =>
+      val serviceInstance =
+        ZuulEntranceUtils.parseServiceInstanceByExecID(jobExecuteResult.getExecID)(0)
+      (serviceInstance.getInstance, jobExecuteResult.getUser)
+    }
+    .values
+    .map { jobs =>
+      val builder = JobBatchStatusAction.builder().setUser(jobs.head.getUser)
+      jobs.foreach(builder.addJob)
+      builder.build()
+    }
+
+  /**
+   * Status of many jobs, a map of exec id to status, the status is null if the job is unknown
+   */
+  def batchStatus(jobExecuteResults: util.List[JobExecuteResult]): util.Map[String, String] = {
+    val jobStatuses = new util.HashMap[String, String]
+    batchStatusActions(jobExecuteResults).foreach { action =>
+      jobStatuses.putAll(executeUJESJob(action).asInstanceOf[JobBatchStatusResult].getJobStatuses)
+    }
+    jobStatuses
+  }
+
+  def batchStatusAsync(
+      jobExecuteResults: util.List[JobExecuteResult]
+  ): CompletableFuture[util.Map[String, String]] = {
+    val futures = batchStatusActions(jobExecuteResults)
+      .map(executeUJESJobAsync(_, classOf[JobBatchStatusResult]))
+      .toList
+    CompletableFuture
+      .allOf(futures: _*)
+      .thenApply(new JFunction[Void, util.Map[String, String]] {
+        override def apply(v: Void): util.Map[String, String] = {
+          val jobStatuses = new util.HashMap[String, String]
+          futures.foreach(future => jobStatuses.putAll(future.join().getJobStatuses))
+          jobStatuses
+        }
+      })
   }
 
   def status(jobExecuteResult: JobExecuteResult): JobStatusResult =
     executeJobExecIdAction(jobExecuteResult, JobServiceType.JobStatus)
 
-  def progress(jobExecuteResult: JobExecuteResult): JobProgressResult =
-    executeJobExecIdAction(jobExecuteResult, JobServiceType.JobProgress)
-
-  def log(jobExecuteResult: JobExecuteResult, fromLine: Int, size: Int): JobLogResult = {
-    val jobLogAction = JobLogAction
+  /**
+   * Long poll the status of the job, the entrance answers once the job completes or waitMills
+   * elapses, so callers waiting for the end of a job need not poll
+   */
+  def status(jobExecuteResult: JobExecuteResult, waitMills: Long): JobStatusResult = {
+    val jobStatusAction = JobExecIdAction
       .builder()
+      .setJobServiceType(JobServiceType.JobStatus)
       .setExecId(jobExecuteResult.getExecID)
       .setUser(jobExecuteResult.getUser)
-      .setFromLine(fromLine)
-      .setSize(size)
+      .setWaitMills(waitMills)
       .build()
-    executeUJESJob(jobLogAction).asInstanceOf[JobLogResult]
+    executeUJESJob(jobStatusAction, waitMills).asInstanceOf[JobStatusResult]
   }
 
+  def progress(jobExecuteResult: JobExecuteResult): JobProgressResult =
+    executeJobExecIdAction(jobExecuteResult, JobServiceType.JobProgress)
+
+  private def jobLogAction(
+      jobExecuteResult: JobExecuteResult,
+      fromLine: Int,
+      size: Int
+  ): JobLogAction = JobLogAction
+    .builder()
+    .setExecId(jobExecuteResult.getExecID)
+    .setUser(jobExecuteResult.getUser)
+    .setFromLine(fromLine)
+    .setSize(size)
+    .build()
+
+  def log(jobExecuteResult: JobExecuteResult, fromLine: Int, size: Int): JobLogResult =
+    executeUJESJob(jobLogAction(jobExecuteResult, fromLine, size)).asInstanceOf[JobLogResult]
+
   def list(jobListAction: JobListAction): JobListResult = {
     executeUJESJob(jobListAction).asInstanceOf[JobListResult]
   }
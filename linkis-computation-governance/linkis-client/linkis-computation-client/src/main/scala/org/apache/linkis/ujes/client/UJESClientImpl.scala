@@ -23,6 +23,8 @@ import org.apache.linkis.httpclient.request.Action
 import org.apache.linkis.httpclient.response.Result
 import org.apache.linkis.ujes.client.request.UJESJobAction
 
+import java.util.concurrent.CompletableFuture
+
 class UJESClientImpl(clientConfig: DWSClientConfig) extends UJESClient {
   private val dwsHttpClient = new DWSHttpClient(clientConfig, "Linkis-Job-Execution-Thread")
 
@@ -31,5 +33,20 @@ class UJESClientImpl(clientConfig: DWSClientConfig) extends UJESClient {
       case action: Action => dwsHttpClient.execute(action)
     }
 
+  override protected[client] def executeUJESJob(
+      ujesJobAction: UJESJobAction,
+      waitMills: Long
+  ): Result =
+    ujesJobAction match {
+      case action: Action => dwsHttpClient.execute(action, clientConfig.getReadTimeout + waitMills)
+    }
+
+  override protected[client] def executeUJESJobAsync(
+      ujesJobAction: UJESJobAction
+  ): CompletableFuture[Result] =
+    ujesJobAction match {
+      case action: Action => dwsHttpClient.executeAsync(action)
+    }
+
   override def close(): Unit = dwsHttpClient.close()
 }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.request
+
+import org.apache.linkis.httpclient.dws.DWSHttpClient
+import org.apache.linkis.httpclient.request.POSTAction
+import org.apache.linkis.ujes.client.exception.UJESClientBuilderException
+import org.apache.linkis.ujes.client.response.JobExecuteResult
+
+import java.util
+
+/**
+ * Status of many jobs in one request, all of them must be executed by the same entrance, see
+ * UJESClient.batchStatus which groups the jobs by their entrance
+ */
+class JobBatchStatusAction private () extends POSTAction with UJESJobAction {
+
+  private var execId: String = _
+
+  override def suffixURLs: Array[String] = Array("entrance", execId, "batchStatus")
+
+  override def getRequestPayload: String =
+    DWSHttpClient.jacksonJson.writeValueAsString(getRequestPayloads)
+
+}
+
+object JobBatchStatusAction {
+  def builder(): Builder = new Builder
+
+  class Builder private[JobBatchStatusAction] () {
+    private var user: String = _
+    private val execIds = new util.ArrayList[String]
+    private val taskIds = new util.ArrayList[String]
+
+    def setUser(user: String): Builder = {
+      this.user = user
+      this
+    }
+
+    def addJob(jobExecuteResult: JobExecuteResult): Builder = {
+      execIds.add(jobExecuteResult.getExecID)
+      taskIds.add(jobExecuteResult.getTaskID)
+      this
+    }
+
+    def build(): JobBatchStatusAction = {
+      if (user == null) throw new UJESClientBuilderException("user is needed!")
+      if (execIds.isEmpty) throw new UJESClientBuilderException("jobs are needed!")
+      val jobBatchStatusAction = new JobBatchStatusAction
+      jobBatchStatusAction.execId = execIds.get(0)
+      jobBatchStatusAction.addRequestPayload("idList", execIds)
+      if (!taskIds.contains(null)) {
+        jobBatchStatusAction.addRequestPayload("taskIDList", taskIds)
+      }
+      jobBatchStatusAction.setUser(user)
+      jobBatchStatusAction
+    }
+
+  }
+
+}
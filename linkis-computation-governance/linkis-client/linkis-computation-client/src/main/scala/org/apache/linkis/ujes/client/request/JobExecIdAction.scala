@@ -34,6 +34,7 @@ object JobExecIdAction {
   class Builder private[JobExecIdAction] () {
     private var user: String = _
     private var execId: String = _
+    private var waitMills: Long = 0
     private var jobServiceType: JobServiceType.JobServiceType = _
 
     def setJobServiceType(jobServiceType: JobServiceType.JobServiceType): Builder = {
@@ -51,6 +52,15 @@ object JobExecIdAction {
       this
     }
 
+    /**
+     * Ask the entrance to hold a status request until the job completes or waitMills elapses,
+     * entrances not supporting it answer at once
+     */
+    def setWaitMills(waitMills: Long): Builder = {
+      this.waitMills = waitMills
+      this
+    }
+
     def build(): JobExecIdAction = {
       val jobStatusAction = new JobExecIdAction
       if (execId == null) throw new UJESClientBuilderException("execId is needed!")
@@ -61,6 +71,7 @@ object JobExecIdAction {
       jobStatusAction.execId = execId
       jobStatusAction.setUser(user)
       jobStatusAction.jobServiceType = jobServiceType
+      if (waitMills > 0) jobStatusAction.setParameter("waitMills", waitMills)
       jobStatusAction
     }
 
@@ -18,11 +18,15 @@
 package org.apache.linkis.ujes.client.request
 
 import org.apache.linkis.common.conf.Configuration
-import org.apache.linkis.httpclient.request.GetAction
+import org.apache.linkis.httpclient.request.{GetAction, StreamingAction}
 import org.apache.linkis.ujes.client.exception.UJESClientBuilderException
 
-class ResultSetAction private () extends GetAction with UJESJobAction {
+class ResultSetAction private () extends GetAction with UJESJobAction with StreamingAction {
+  private var streaming: Boolean = false
+
   override def suffixURLs: Array[String] = Array("filesystem", "openFile")
+
+  override def isStreaming: Boolean = streaming
 }
 
 object ResultSetAction {
@@ -38,6 +42,8 @@ object ResultSetAction {
     // default value is :org.apache.linkis.storage.domain.Dolphin.LINKIS_NULL
     private var nullValue: String = "LINKIS_NULL"
 
+    private var streaming: Boolean = false
+
     def setUser(user: String): Builder = {
       this.user = user
       this
@@ -68,6 +74,16 @@ object ResultSetAction {
       this
     }
 
+    /**
+     * Read the rows of the page from the response while iterating them instead of buffering the
+     * whole page, see ResultSetResult.getRowIterator. The result must be iterated to the end or
+     * closed to release the connection
+     */
+    def setStreaming(streaming: Boolean): Builder = {
+      this.streaming = streaming
+      this
+    }
+
     def build(): ResultSetAction = {
       if (user == null) throw new UJESClientBuilderException("user is needed!")
       if (path == null) throw new UJESClientBuilderException("path is needed!")
@@ -78,6 +94,7 @@ object ResultSetAction {
       resultSetAction.setParameter("charset", charset)
       resultSetAction.setParameter("nullValue", nullValue)
       resultSetAction.setUser(user)
+      resultSetAction.streaming = streaming
       resultSetAction
     }
 
@@ -18,13 +18,21 @@
 package org.apache.linkis.ujes.client.response
 
 import org.apache.linkis.httpclient.dws.annotation.DWSHttpMessageResult
-import org.apache.linkis.httpclient.dws.response.DWSResult
+import org.apache.linkis.httpclient.dws.response.{DWSResult, DWSStreamingResult}
 import org.apache.linkis.ujes.client.request.UserAction
 
 import scala.beans.BeanProperty
 
+/**
+ * Page of a result set. When it is fetched by a streaming ResultSetAction, fileContent stays null
+ * and the rows are read from getRowIterator
+ */
 @DWSHttpMessageResult("/api/rest_j/v\\d+/filesystem/openFile")
-class ResultSetResult extends DWSResult with UserAction {
+class ResultSetResult extends DWSResult with DWSStreamingResult with UserAction {
+
+  override protected def streamingField: String = "fileContent"
+
+  override protected def headerFields: Array[String] = Array("metadata", "totalLine")
 
   private var `type`: String = _
 
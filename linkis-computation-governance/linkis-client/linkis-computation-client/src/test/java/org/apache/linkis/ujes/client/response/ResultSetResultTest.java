@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.response;
+
+import org.apache.linkis.httpclient.exception.HttpClientResultException;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ResultSetResultTest {
+
+  private static final String URL = "/api/rest_j/v1/filesystem/openFile";
+
+  private static final String METADATA = "[{\"columnName\":\"id\",\"dataType\":\"int\"}]";
+
+  private static InputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testStreamRows() {
+    String json =
+        "{\"method\":\"/api/filesystem/openFile\",\"status\":0,\"message\":\"OK\",\"data\":{"
+            + "\"metadata\":"
+            + METADATA
+            + ",\"type\":\"2\",\"totalLine\":2,"
+            + "\"fileContent\":[[\"1\"],[\"2\"]],\"page\":1,\"totalPage\":0}}";
+    AtomicBoolean closed = new AtomicBoolean(false);
+    Closeable response = () -> closed.set(true);
+    ResultSetResult result = new ResultSetResult();
+    result.setStream(toStream(json), response, 200, URL, "application/json");
+
+    Assertions.assertTrue(result.isStreamed());
+    Assertions.assertEquals(2, result.getTotalLine());
+    Assertions.assertNotNull(result.getMetadata());
+    Assertions.assertNull(result.getFileContent());
+    Assertions.assertFalse(closed.get());
+
+    Iterator<Object> rows = result.getRowIterator();
+    Assertions.assertEquals(Arrays.asList("1"), rows.next());
+    Assertions.assertEquals(Arrays.asList("2"), rows.next());
+    Assertions.assertFalse(rows.hasNext());
+    // fields sent after the rows are filled in once the rows are exhausted
+    Assertions.assertEquals(1, result.getPage());
+    Assertions.assertTrue(closed.get());
+  }
+
+  @Test
+  public void testBufferRowsWhenHeaderComesLate() {
+    String json =
+        "{\"status\":0,\"message\":\"OK\",\"data\":{\"fileContent\":[[\"1\"]],"
+            + "\"metadata\":"
+            + METADATA
+            + ",\"totalLine\":1}}";
+    AtomicBoolean closed = new AtomicBoolean(false);
+    ResultSetResult result = new ResultSetResult();
+    result.setStream(toStream(json), () -> closed.set(true), 200, URL, "application/json");
+
+    Assertions.assertFalse(result.isStreamed());
+    Assertions.assertTrue(closed.get());
+    Assertions.assertEquals(1, result.getTotalLine());
+    Assertions.assertEquals(1, ((List<?>) result.getFileContent()).size());
+    Assertions.assertEquals(Arrays.asList("1"), result.getRowIterator().next());
+  }
+
+  @Test
+  public void testFailedStatus() {
+    String json = "{\"status\":1,\"message\":\"file not found\",\"data\":{}}";
+    AtomicBoolean closed = new AtomicBoolean(false);
+    ResultSetResult result = new ResultSetResult();
+    Assertions.assertThrows(
+        HttpClientResultException.class,
+        () -> result.setStream(toStream(json), () -> closed.set(true), 200, URL, null));
+    Assertions.assertTrue(closed.get());
+  }
+}
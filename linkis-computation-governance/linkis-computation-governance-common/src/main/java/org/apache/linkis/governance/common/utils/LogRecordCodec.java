@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.governance.common.utils;
+
+import org.apache.linkis.common.log.LogUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Binary log records sent from EngineConn to Entrance in batches. A record is a level byte, the
+ * var int length of the line and the utf-8 bytes of the line, records are simply concatenated
+ * EngineConn批量发送到Entrance的二进制日志记录：级别字节、变长行长度、utf-8行内容，多条记录直接拼接
+ */
+public class LogRecordCodec {
+
+  public static final byte LEVEL_OTHER = 0;
+
+  public static final byte LEVEL_DEBUG = 1;
+
+  public static final byte LEVEL_INFO = 2;
+
+  public static final byte LEVEL_WARN = 3;
+
+  public static final byte LEVEL_ERROR = 4;
+
+  private static final int VAR_INT_MAX_LEN = 5;
+
+  /** Level header Entrance classifies the log lines by, such as "2022-01-01 12:00:00.000 ERROR" */
+  private static final Pattern LEVEL_HEADER =
+      Pattern.compile("[0-9\\-/]{10} [0-9:]{8}.?\\d{0,3}\\s*(SYSTEM-)?(ERROR|WARN|INFO)\\b");
+
+  /** Receives the records of a batch, the bytes are only valid during the call */
+  public interface RecordConsumer {
+    void accept(byte level, byte[] bytes, int offset, int length);
+  }
+
+  /**
+   * Max encoded size of a record with a line of the length(指定行长度的记录最大编码长度)
+   *
+   * @param length
+   * @return
+   */
+  public static int maxRecordSize(int length) {
+    return 1 + VAR_INT_MAX_LEN + length;
+  }
+
+  /**
+   * Write a record into dest, which must have {@link #maxRecordSize(int)} bytes left
+   * (写入一条记录，dest需剩余足够空间)
+   *
+   * @return the position after the record
+   */
+  public static int write(byte[] dest, int pos, byte level, byte[] line, int offset, int length) {
+    dest[pos++] = level;
+    int value = length;
+    while ((value & ~0x7F) != 0) {
+      dest[pos++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    dest[pos++] = (byte) value;
+    System.arraycopy(line, offset, dest, pos, length);
+    return pos + length;
+  }
+
+  /**
+   * Visit every record of a batch(遍历批次中的每条记录)
+   *
+   * @param records
+   * @param offset
+   * @param length
+   * @param consumer
+   * @return the number of records
+   */
+  public static int forEach(byte[] records, int offset, int length, RecordConsumer consumer) {
+    int pos = offset;
+    int end = offset + length;
+    int count = 0;
+    while (pos < end) {
+      byte level = records[pos++];
+      int lineLength = 0;
+      int shift = 0;
+      while (true) {
+        if (pos >= end || shift > 28) {
+          throw new IllegalArgumentException("Corrupted log record at " + (pos - offset));
+        }
+        byte b = records[pos++];
+        lineLength |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          break;
+        }
+        shift += 7;
+      }
+      if (lineLength < 0 || lineLength > end - pos) {
+        throw new IllegalArgumentException("Truncated log record at " + (pos - offset));
+      }
+      if (consumer != null) {
+        consumer.accept(level, records, pos, lineLength);
+      }
+      pos += lineLength;
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Text of a record. The level of the record is kept in the text for Entrance, which classifies
+   * the lines by their level header: an error or warn line without one gets it
+   * (记录的文本，无级别头的ERROR/WARN记录补充级别头，使Entrance仍能识别其级别)
+   *
+   * @param level
+   * @param line
+   * @return
+   */
+  public static String toLogLine(byte level, String line) {
+    if ((level != LEVEL_ERROR && level != LEVEL_WARN) || LEVEL_HEADER.matcher(line).find()) {
+      return line;
+    }
+    return level == LEVEL_ERROR ? LogUtils.generateERROR(line) : LogUtils.generateWarn(line);
+  }
+
+  /**
+   * Text of the records, one line per record as the text log protocol carries it, see {@link
+   * #toLogLine(byte, String)}(将记录转换为文本日志，每条记录一行)
+   *
+   * @param records
+   * @param offset
+   * @param length
+   * @return
+   */
+  public static String toLogString(byte[] records, int offset, int length) {
+    StringBuilder sb = new StringBuilder(length + length / 8);
+    forEach(
+        records,
+        offset,
+        length,
+        (level, bytes, off, len) ->
+            sb.append(toLogLine(level, new String(bytes, off, len, StandardCharsets.UTF_8)))
+                .append("\n"));
+    return sb.toString();
+  }
+
+  /**
+   * Text of a whole batch, followed by a warn line when lines were dropped
+   * (整个批次的文本日志，有丢弃的行时追加一行告警)
+   *
+   * @param records
+   * @param dropped the number of lines dropped before the batch
+   * @return
+   */
+  public static String toLogString(byte[] records, int dropped) {
+    String log = toLogString(records, 0, records.length);
+    if (dropped <= 0) {
+      return log;
+    }
+    return log
+        + LogUtils.generateWarn(
+            dropped + " log lines were dropped because the log buffer of EngineConn was full")
+        + "\n";
+  }
+}
@@ -71,6 +71,15 @@ case class ResponseTaskLog(execId: String, log: String)
     extends RetryableProtocol
     with RequestProtocol
 
+/**
+ * Log lines of a task as binary records of
+ * [[org.apache.linkis.governance.common.utils.LogRecordCodec]], dropped is the number of lines
+ * the EngineConn had to drop since the previous batch
+ */
+case class ResponseTaskLogBatch(execId: String, records: Array[Byte], dropped: Int)
+    extends RetryableProtocol
+    with RequestProtocol
+
 case class ResponseTaskError(execId: String, errorMsg: String)
     extends RetryableProtocol
     with RequestProtocol
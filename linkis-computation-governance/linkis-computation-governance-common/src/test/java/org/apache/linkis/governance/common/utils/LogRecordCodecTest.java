@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.governance.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LogRecordCodecTest {
+
+  private static int append(byte[] dest, int pos, byte level, String line) {
+    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+    return LogRecordCodec.write(dest, pos, level, bytes, 0, bytes.length);
+  }
+
+  @Test
+  @DisplayName("roundTripTest")
+  public void roundTripTest() {
+    char[] chars = new char[300];
+    Arrays.fill(chars, 'x');
+    String longLine = new String(chars);
+    byte[] records = new byte[LogRecordCodec.maxRecordSize(1024) * 3];
+    int pos = append(records, 0, LogRecordCodec.LEVEL_INFO, "job started");
+    pos = append(records, pos, LogRecordCodec.LEVEL_ERROR, "任务失败");
+    pos = append(records, pos, LogRecordCodec.LEVEL_WARN, longLine);
+
+    List<String> lines = new ArrayList<>();
+    List<Byte> levels = new ArrayList<>();
+    int count =
+        LogRecordCodec.forEach(
+            records,
+            0,
+            pos,
+            (level, bytes, off, len) -> {
+              levels.add(level);
+              lines.add(new String(bytes, off, len, StandardCharsets.UTF_8));
+            });
+
+    Assertions.assertEquals(3, count);
+    Assertions.assertEquals(Arrays.asList("job started", "任务失败", longLine), lines);
+    Assertions.assertEquals(
+        Arrays.asList(
+            LogRecordCodec.LEVEL_INFO, LogRecordCodec.LEVEL_ERROR, LogRecordCodec.LEVEL_WARN),
+        levels);
+  }
+
+  @Test
+  @DisplayName("toLogStringTest")
+  public void toLogStringTest() {
+    byte[] records = new byte[128];
+    int pos = append(records, 0, LogRecordCodec.LEVEL_INFO, "a");
+    pos = append(records, pos, LogRecordCodec.LEVEL_OTHER, "");
+    pos = append(records, pos, LogRecordCodec.LEVEL_DEBUG, "b");
+
+    Assertions.assertEquals("a\n\nb\n", LogRecordCodec.toLogString(records, 0, pos));
+    Assertions.assertEquals("", LogRecordCodec.toLogString(records, 0, 0));
+    Assertions.assertEquals(
+        "a\n\nb\n", LogRecordCodec.toLogString(Arrays.copyOf(records, pos), 0));
+  }
+
+  @Test
+  @DisplayName("keepLevelTest")
+  public void keepLevelTest() {
+    String header = "2022-01-01 12:00:00.000 ERROR Task failed";
+    Assertions.assertEquals(header, LogRecordCodec.toLogLine(LogRecordCodec.LEVEL_ERROR, header));
+    Assertions.assertEquals("plain", LogRecordCodec.toLogLine(LogRecordCodec.LEVEL_INFO, "plain"));
+    String error = LogRecordCodec.toLogLine(LogRecordCodec.LEVEL_ERROR, "Task failed");
+    Assertions.assertTrue(error.endsWith(" ERROR Task failed"), error);
+    String warn = LogRecordCodec.toLogLine(LogRecordCodec.LEVEL_WARN, "slow");
+    Assertions.assertTrue(warn.endsWith(" WARN slow"), warn);
+  }
+
+  @Test
+  @DisplayName("corruptedRecordsTest")
+  public void corruptedRecordsTest() {
+    byte[] records = new byte[64];
+    int pos = append(records, 0, LogRecordCodec.LEVEL_INFO, "hello");
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> LogRecordCodec.forEach(records, 0, pos - 1, null));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> LogRecordCodec.forEach(records, 0, 1, null));
+    byte[] endless = {LogRecordCodec.LEVEL_INFO, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> LogRecordCodec.forEach(endless, 0, endless.length, null));
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.linkis.engineconn.acessible.executor.listener.event.{
 }
 import org.apache.linkis.engineconn.computation.executor.conf.ComputationExecutorConf
 import org.apache.linkis.engineconn.computation.executor.cs.CSTableResultSetWriter
+import org.apache.linkis.engineconn.core.EngineConnObject
 import org.apache.linkis.engineconn.executor.ExecutorExecutionContext
 import org.apache.linkis.engineconn.executor.entity.Executor
 import org.apache.linkis.engineconn.executor.listener.{
@@ -37,10 +38,16 @@ import org.apache.linkis.engineconn.executor.listener.{
   ExecutorListenerBusContext
 }
 import org.apache.linkis.governance.common.exception.engineconn.EngineConnExecutorErrorException
+import org.apache.linkis.manager.label.entity.engine.EngineTypeLabel
 import org.apache.linkis.protocol.engine.JobProgressInfo
 import org.apache.linkis.scheduler.executer.{AliasOutputExecuteResponse, OutputExecuteResponse}
 import org.apache.linkis.storage.{LineMetaData, LineRecord}
-import org.apache.linkis.storage.resultset.{ResultSetFactory, ResultSetWriterFactory}
+import org.apache.linkis.storage.conf.LinkisStorageConf
+import org.apache.linkis.storage.resultset.{
+  ResultSetFactory,
+  ResultSetWriterFactory,
+  StorageResultSetWriter
+}
 import org.apache.linkis.storage.resultset.table.TableResultSet
 
 import org.apache.commons.io.IOUtils
@@ -48,6 +55,10 @@ import org.apache.commons.lang3.StringUtils
 
 import java.io.File
 import java.util
+import java.util.concurrent.{CompletableFuture, ExecutionException}
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
 
 class EngineExecutionContext(executor: ComputationExecutor, executorUser: String = Utils.getJvmUser)
     extends ExecutorExecutionContext
@@ -60,9 +71,23 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
 
   private var resultSize = 0
 
+  private val resultSetUploads = new ArrayBuffer[CompletableFuture[Void]]()
+
   private var enableResultsetMetaWithTableName =
     ComputationExecutorConf.HIVE_RESULTSET_USE_TABLE_NAME.getValue
 
+  private lazy val resultSetCompressCodec: String = {
+    val engineType = Utils.tryCatch {
+      EngineConnObject.getEngineCreationContext.getLabels().asScala.collectFirst {
+        case engineTypeLabel: EngineTypeLabel => engineTypeLabel.getEngineType
+      }
+    } { t =>
+      logger.warn("Failed to get engine type for result set compression", t)
+      None
+    }
+    LinkisStorageConf.getCompressCodec(engineType.orNull)
+  }
+
   private val properties: java.util.Map[String, Object] = new util.HashMap[String, Object]()
 
   private var totalParagraph = 0
@@ -104,6 +129,34 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
     Utils.tryFinally(sendResultSet(resultSetWriter.toString(), alias)) {
       IOUtils.closeQuietly(resultSetWriter)
       resultSetWriters synchronized resultSetWriters -= resultSetWriter
+      resultSetWriter match {
+        // taken after close, the future also covers the row index and the fs of the writer
+        case storageWriter: StorageResultSetWriter[_, _] =>
+          resultSetUploads synchronized resultSetUploads += storageWriter.getUploadFuture
+        case _ =>
+      }
+    }
+  }
+
+  /**
+   * Spilled result sets keep uploading after their writers are closed, the task must not succeed
+   * before they are fully written
+   */
+  private def waitResultSetUploads(): Unit = {
+    val uploads = resultSetUploads synchronized {
+      val pending = resultSetUploads.filterNot(_.isDone).toArray
+      resultSetUploads.clear()
+      pending
+    }
+    if (uploads.nonEmpty) {
+      logger.info(s"Wait for ${uploads.length} result sets to be uploaded")
+      uploads.foreach { upload =>
+        Utils.tryThrow(upload.get()) {
+          case e: ExecutionException =>
+            new EngineConnExecutorErrorException(50050, "upload resultSet failed!", e.getCause)
+          case t: Throwable => t
+        }
+      }
     }
   }
 
@@ -156,7 +209,7 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
       alias: String
   ): org.apache.linkis.common.io.resultset.ResultSetWriter[_ <: MetaData, _ <: Record] = {
     // update by 20200402
-    resultSet match {
+    val resultSetWriter = resultSet match {
       case result: TableResultSet =>
         val contextIDStr = ContextServiceUtils.getContextIDStrByMap(getProperties)
         val nodeName = ContextServiceUtils.getNodeNameStrByMap(getProperties)
@@ -188,6 +241,12 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
         )
     }
     // update by 20200402 end
+    resultSetWriter match {
+      case storageWriter: StorageResultSetWriter[_, _] =>
+        storageWriter.setCompressCodec(resultSetCompressCodec)
+      case _ =>
+    }
+    resultSetWriter
   }
 
   def appendStdout(log: String): Unit = if (executor.isInternalExecute) {
@@ -207,6 +266,7 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
 
   override def close(): Unit = {
     resultSetWriters.toArray.foreach(sendResultSet)
+    waitResultSetUploads()
     val listenerBus = getEngineSyncListenerBus
     getJobId.foreach(jId => {
       listenerBus.postToAll(TaskResultSizeCreatedEvent(jId, resultSize))
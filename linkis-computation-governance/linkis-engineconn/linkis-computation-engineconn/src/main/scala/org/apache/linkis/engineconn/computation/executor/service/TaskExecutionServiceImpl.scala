@@ -19,6 +19,7 @@ package org.apache.linkis.engineconn.computation.executor.service
 
 import org.apache.linkis.common.listener.Event
 import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.engineconn.acessible.executor.conf.AccessibleExecutorConfiguration
 import org.apache.linkis.engineconn.acessible.executor.listener.LogListener
 import org.apache.linkis.engineconn.acessible.executor.listener.event._
 import org.apache.linkis.engineconn.acessible.executor.log.LogHelper
@@ -611,6 +612,7 @@ class TaskExecutionServiceImpl
     case taskProgressUpdateEvent: TaskProgressUpdateEvent =>
       onProgressUpdate(taskProgressUpdateEvent)
     case logUpdateEvent: TaskLogUpdateEvent => onLogUpdate(logUpdateEvent)
+    case logBatchEvent: TaskLogBatchEvent => onLogBatch(logBatchEvent)
     case taskResultCreateEvent: TaskResultCreateEvent => onResultSetCreated(taskResultCreateEvent)
     case taskResultSizeCreatedEvent: TaskResultSizeCreatedEvent =>
       onResultSizeCreated(taskResultSizeCreatedEvent)
@@ -625,20 +627,42 @@ class TaskExecutionServiceImpl
   }
 
   override def onLogUpdate(logUpdateEvent: TaskLogUpdateEvent): Unit = Utils.tryAndWarn {
+    if (null != logUpdateEvent) {
+      sendLogToEntrance(logUpdateEvent.taskId, ResponseTaskLog(_, logUpdateEvent.log))
+    }
+  }
+
+  override def onLogBatch(logBatchEvent: TaskLogBatchEvent): Unit =
+    if (AccessibleExecutorConfiguration.ENGINECONN_LOG_BATCH_BINARY_ENABLE.getValue) {
+      Utils.tryAndWarn {
+        sendLogToEntrance(
+          logBatchEvent.taskId,
+          ResponseTaskLogBatch(_, logBatchEvent.records, logBatchEvent.dropped)
+        )
+      }
+    } else {
+      super.onLogBatch(logBatchEvent)
+    }
+
+  /**
+   * Send the log of the task to Entrance, the log of no task goes to the last task while its
+   * executor is busy
+   */
+  private def sendLogToEntrance(taskId: String, buildLog: String => RequestProtocol): Unit = {
     if (EngineConnConf.ENGINE_PUSH_LOG_TO_ENTRANCE.getValue) {
-      if (null != logUpdateEvent && StringUtils.isNotBlank(logUpdateEvent.taskId)) {
-        val task = getTaskByTaskId(logUpdateEvent.taskId)
+      if (StringUtils.isNotBlank(taskId)) {
+        val task = getTaskByTaskId(taskId)
         if (null != task) {
-          sendToEntrance(task, ResponseTaskLog(logUpdateEvent.taskId, logUpdateEvent.log))
+          sendToEntrance(task, buildLog(taskId))
         } else {
-          logger.warn("Task cannot null! logupdateEvent: " + logUpdateEvent.taskId)
+          logger.warn("Task cannot null! logupdateEvent: " + taskId)
         }
       } else if (null != lastTask) {
         val executor = executorManager.getReportExecutor
         executor match {
           case computationExecutor: ComputationExecutor =>
             if (computationExecutor.isBusy) {
-              sendToEntrance(lastTask, ResponseTaskLog(lastTask.getTaskId, logUpdateEvent.log))
+              sendToEntrance(lastTask, buildLog(lastTask.getTaskId))
             }
           case _ =>
             logger.error(
@@ -647,7 +671,7 @@ class TaskExecutionServiceImpl
             )
         }
       } else {
-        logger.info(s"Task not ready, log will be dropped : ${logUpdateEvent.taskId}")
+        logger.info(s"Task not ready, log will be dropped : $taskId")
       }
 
     }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineconn.acessible.executor.log;
+
+import org.apache.linkis.governance.common.utils.LogRecordCodec;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded buffer of binary log records, see {@link LogRecordCodec}. Appenders copy the encoded
+ * line into a reusable byte array and a single sender drains it in size or time bounded batches.
+ * When the buffer is full the appender waits for the sender up to a bounded time, so a slow
+ * Entrance slows down the logging threads instead of losing lines, only lines still not fitting
+ * after the wait are dropped and counted
+ * 有界的二进制日志缓冲区：追加时拷贝到可复用的字节数组，由发送线程按大小或时间批量取出；缓冲区满时追加线程有限等待，
+ * 等待后仍无法写入的日志才会被丢弃并计数
+ */
+public class LogRecordBuffer {
+
+  /** Receives a drained batch, the records are only valid during the call */
+  public interface BatchConsumer {
+    void accept(byte[] records, int length, int recordNum, int dropped);
+  }
+
+  private static final int MIN_CAPACITY = 4096;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition notFull = lock.newCondition();
+
+  private final Condition batchReady = lock.newCondition();
+
+  /** Serializes the drains, so batches are delivered in order and the spare array is free */
+  private final Object drainLock = new Object();
+
+  private final int capacity;
+
+  private final int batchSize;
+
+  private byte[] active;
+
+  private int activeSize = 0;
+
+  private int activeRecords = 0;
+
+  private byte[] spare;
+
+  private int dropped = 0;
+
+  private long firstRecordTime = 0L;
+
+  public LogRecordBuffer(int capacity, int batchSize) {
+    this.capacity = Math.max(capacity, MIN_CAPACITY);
+    this.batchSize = Math.max(Math.min(batchSize, this.capacity), 1);
+    int initialSize = Math.min(this.capacity, Math.max(this.batchSize * 2, MIN_CAPACITY));
+    this.active = new byte[initialSize];
+    this.spare = new byte[initialSize];
+  }
+
+  /**
+   * Append a log line(追加一行日志)
+   *
+   * @param level one of the levels of {@link LogRecordCodec}
+   * @param line
+   * @param offset
+   * @param length
+   * @param maxWaitMills how long to wait for the sender when the buffer is full, 0 drops at once
+   * @return false if the line was dropped
+   */
+  public boolean append(byte level, byte[] line, int offset, int length, long maxWaitMills) {
+    // a line never takes more than the whole buffer
+    int lineLength = Math.min(length, capacity - LogRecordCodec.maxRecordSize(0));
+    int recordSize = LogRecordCodec.maxRecordSize(lineLength);
+    lock.lock();
+    try {
+      if (activeSize + recordSize > capacity && maxWaitMills > 0) {
+        batchReady.signal();
+        long nanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMills);
+        while (activeSize + recordSize > capacity && nanos > 0) {
+          nanos = notFull.awaitNanos(nanos);
+        }
+      }
+      if (activeSize + recordSize > capacity) {
+        dropped++;
+        return false;
+      }
+      if (activeSize + recordSize > active.length) {
+        int newLength = Math.max(active.length * 2, activeSize + recordSize);
+        active = Arrays.copyOf(active, Math.min(capacity, newLength));
+      }
+      boolean first = activeSize == 0;
+      boolean belowBatch = activeSize < batchSize;
+      activeSize = LogRecordCodec.write(active, activeSize, level, line, offset, lineLength);
+      activeRecords++;
+      if (first) {
+        firstRecordTime = System.currentTimeMillis();
+        batchReady.signal();
+      } else if (belowBatch && activeSize >= batchSize) {
+        batchReady.signal();
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      dropped++;
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wait until a batch is due: the batch size is reached or the oldest buffered line waited for
+   * maxDelayMills(等待直到批次达到大小或最早的日志已等待maxDelayMills)
+   *
+   * @param maxDelayMills
+   * @throws InterruptedException
+   */
+  public void awaitBatch(long maxDelayMills) throws InterruptedException {
+    lock.lock();
+    try {
+      while (activeSize < batchSize) {
+        if (activeSize == 0 && dropped == 0) {
+          batchReady.await();
+        } else {
+          long waitMills = firstRecordTime + maxDelayMills - System.currentTimeMillis();
+          if (waitMills <= 0 || activeSize + LogRecordCodec.maxRecordSize(0) >= capacity) {
+            return;
+          }
+          batchReady.await(waitMills, TimeUnit.MILLISECONDS);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Take all buffered records and hand them to the consumer, appenders can go on while the
+   * consumer runs(取出全部记录交给consumer处理，处理期间不阻塞追加)
+   *
+   * @param consumer
+   * @return the number of drained records
+   */
+  public int drainTo(BatchConsumer consumer) {
+    synchronized (drainLock) {
+      byte[] records;
+      int length;
+      int recordNum;
+      int droppedNum;
+      lock.lock();
+      try {
+        records = active;
+        length = activeSize;
+        recordNum = activeRecords;
+        droppedNum = dropped;
+        active = spare;
+        spare = records;
+        activeSize = 0;
+        activeRecords = 0;
+        dropped = 0;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      if (length > 0 || droppedNum > 0) {
+        consumer.accept(records, length, recordNum, droppedNum);
+      }
+      return recordNum;
+    }
+  }
+
+  /** @return number of buffered records */
+  public int size() {
+    lock.lock();
+    try {
+      return activeRecords;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
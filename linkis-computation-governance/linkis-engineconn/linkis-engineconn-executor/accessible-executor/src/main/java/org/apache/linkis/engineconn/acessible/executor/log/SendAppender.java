@@ -20,20 +20,26 @@ package org.apache.linkis.engineconn.acessible.executor.log;
 import org.apache.linkis.engineconn.acessible.executor.conf.AccessibleExecutorConfiguration;
 import org.apache.linkis.engineconn.executor.listener.EngineConnSyncListenerBus;
 import org.apache.linkis.engineconn.executor.listener.ExecutorListenerBusContext;
+import org.apache.linkis.governance.common.utils.LogRecordCodec;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.StringLayout;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +66,19 @@ public class SendAppender extends AbstractAppender {
 
   private static final String[] PASS_WORDS_ARR = PASS_WORDS.split(",");
 
+  private static final boolean LOG_BATCH_ENABLE =
+      (boolean) AccessibleExecutorConfiguration.ENGINECONN_LOG_BATCH_ENABLE().getValue();
+
+  private static final byte[][] IGNORE_WORD_BYTES = toBytes(IGNORE_WORD_ARR);
+
+  private static final byte[][] PASS_WORD_BYTES = toBytes(PASS_WORDS_ARR);
+
+  /** Per thread bytes of the event being appended, reused so appending allocates nothing */
+  private static final ThreadLocal<EventBytes> EVENT_BYTES =
+      ThreadLocal.withInitial(EventBytes::new);
+
+  private final Charset charset;
+
   public SendAppender(
       final String name,
       final Filter filter,
@@ -67,6 +86,10 @@ public class SendAppender extends AbstractAppender {
       final boolean ignoreExceptions) {
     super(name, filter, layout, ignoreExceptions, Property.EMPTY_ARRAY);
     this.logCache = LogHelper.logCache();
+    this.charset =
+        layout instanceof StringLayout
+            ? ((StringLayout) layout).getCharset()
+            : StandardCharsets.UTF_8;
     logger.info("SendAppender init success");
   }
 
@@ -75,6 +98,10 @@ public class SendAppender extends AbstractAppender {
     if (engineConnSyncListenerBus == null) {
       return;
     }
+    if (LOG_BATCH_ENABLE) {
+      appendRecord(event);
+      return;
+    }
     String logStr = new String(getLayout().toByteArray(event));
     if (event.getLevel().intLevel() == Level.INFO.intLevel()) {
       boolean flag = false;
@@ -98,6 +125,148 @@ public class SendAppender extends AbstractAppender {
     }
   }
 
+  /**
+   * Encode the event into the reused bytes of the thread and append it to the log buffer as a
+   * binary record, no String is built for the event(将日志事件编码为二进制记录追加到日志缓冲区)
+   *
+   * @param event
+   */
+  private void appendRecord(LogEvent event) {
+    EventBytes eventBytes = EVENT_BYTES.get();
+    try {
+      getLayout().encode(event, eventBytes);
+      byte[] bytes = eventBytes.array();
+      int length = eventBytes.size();
+      int level = event.getLevel().intLevel();
+      if (level == Level.INFO.intLevel() && isIgnored(bytes, length)) {
+        return;
+      }
+      if (!StandardCharsets.UTF_8.equals(charset)) {
+        bytes = new String(bytes, 0, length, charset).getBytes(StandardCharsets.UTF_8);
+        length = bytes.length;
+      }
+      LogHelper.appendLog(toRecordLevel(level), bytes, 0, length);
+    } finally {
+      eventBytes.reset();
+    }
+  }
+
+  private static byte toRecordLevel(int level) {
+    if (level <= Level.ERROR.intLevel()) {
+      return LogRecordCodec.LEVEL_ERROR;
+    } else if (level <= Level.WARN.intLevel()) {
+      return LogRecordCodec.LEVEL_WARN;
+    } else if (level <= Level.INFO.intLevel()) {
+      return LogRecordCodec.LEVEL_INFO;
+    } else if (level <= Level.TRACE.intLevel()) {
+      return LogRecordCodec.LEVEL_DEBUG;
+    }
+    return LogRecordCodec.LEVEL_OTHER;
+  }
+
+  /** Same as the ignore and pass words check of the text path, on the encoded bytes */
+  private static boolean isIgnored(byte[] bytes, int length) {
+    boolean ignored = false;
+    for (byte[] word : IGNORE_WORD_BYTES) {
+      if (indexOf(bytes, length, word) >= 0) {
+        ignored = true;
+        break;
+      }
+    }
+    if (ignored) {
+      for (byte[] word : PASS_WORD_BYTES) {
+        if (indexOf(bytes, length, word) >= 0) {
+          return false;
+        }
+      }
+    }
+    return ignored;
+  }
+
+  private static int indexOf(byte[] bytes, int length, byte[] word) {
+    if (word.length == 0) {
+      return 0;
+    }
+    outer:
+    for (int i = 0; i <= length - word.length; i++) {
+      for (int j = 0; j < word.length; j++) {
+        if (bytes[i + j] != word[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  private static byte[][] toBytes(String[] words) {
+    byte[][] bytes = new byte[words.length][];
+    for (int i = 0; i < words.length; i++) {
+      bytes[i] = words[i].getBytes(StandardCharsets.UTF_8);
+    }
+    return bytes;
+  }
+
+  /** Growable destination the layout encodes an event into */
+  private static class EventBytes implements ByteBufferDestination {
+
+    private static final int INITIAL_SIZE = 8 * 1024;
+
+    /** A thread keeps a larger buffer only while its events need it */
+    private static final int RETAIN_SIZE = 1024 * 1024;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_SIZE);
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+      return buffer;
+    }
+
+    @Override
+    public ByteBuffer drain(ByteBuffer buf) {
+      ensureRemaining(buf.capacity());
+      return buffer;
+    }
+
+    @Override
+    public void writeBytes(ByteBuffer data) {
+      ensureRemaining(data.remaining());
+      buffer.put(data);
+    }
+
+    @Override
+    public void writeBytes(byte[] data, int offset, int length) {
+      ensureRemaining(length);
+      buffer.put(data, offset, length);
+    }
+
+    private void ensureRemaining(int length) {
+      if (buffer.remaining() < length) {
+        int newSize = Math.max(buffer.capacity() * 2, buffer.position() + length);
+        ByteBuffer bigger = ByteBuffer.allocate(newSize);
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+      }
+    }
+
+    byte[] array() {
+      return buffer.array();
+    }
+
+    int size() {
+      return buffer.position();
+    }
+
+    void reset() {
+      if (buffer.capacity() > RETAIN_SIZE) {
+        buffer = ByteBuffer.allocate(INITIAL_SIZE);
+      } else {
+        buffer.clear();
+      }
+    }
+  }
+
   @PluginFactory
   public static SendAppender createAppender(
       @PluginAttribute("name") String name,
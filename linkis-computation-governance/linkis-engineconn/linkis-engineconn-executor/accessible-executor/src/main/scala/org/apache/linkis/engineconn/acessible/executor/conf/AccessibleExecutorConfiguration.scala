@@ -36,6 +36,31 @@ object AccessibleExecutorConfiguration {
 
   val ENGINECONN_LOG_SEND_SIZE = CommonVars[Int]("wds.linkis.engineconn.log.send.cache.size", 300)
 
+  /**
+   * Send the logs as size and time bounded batches of binary records, waiting for a slow
+   * Entrance instead of dropping lines. Off by default: logging threads may then wait up to
+   * linkis.engineconn.log.block.max.time per line, enable it together with the binary channel
+   */
+  val ENGINECONN_LOG_BATCH_ENABLE = CommonVars("linkis.engineconn.log.batch.enable", false)
+
+  val ENGINECONN_LOG_BATCH_SIZE = CommonVars("linkis.engineconn.log.batch.size", 64 * 1024)
+
+  val ENGINECONN_LOG_BATCH_MAX_DELAY =
+    CommonVars("linkis.engineconn.log.batch.max.delay", new TimeType("1s"))
+
+  val ENGINECONN_LOG_BUFFER_SIZE = CommonVars("linkis.engineconn.log.buffer.size", 4 * 1024 * 1024)
+
+  /** How long a logging thread waits for the sender when the log buffer is full */
+  val ENGINECONN_LOG_BLOCK_MAX_TIME =
+    CommonVars("linkis.engineconn.log.block.max.time", new TimeType("2s"))
+
+  /**
+   * Send the batches as binary ResponseTaskLogBatch, Entrance must be upgraded before enabling.
+   * Otherwise they are sent as text ResponseTaskLog
+   */
+  val ENGINECONN_LOG_BATCH_BINARY_ENABLE =
+    CommonVars("linkis.engineconn.log.batch.binary.enable", false)
+
   val ENGINECONN_MAX_FREE_TIME =
     CommonVars("wds.linkis.engineconn.max.free.time", new TimeType("10m"))
 
@@ -17,11 +17,17 @@
 
 package org.apache.linkis.engineconn.acessible.executor.listener
 
-import org.apache.linkis.engineconn.acessible.executor.listener.event.TaskLogUpdateEvent
+import org.apache.linkis.engineconn.acessible.executor.listener.event.{
+  TaskLogBatchEvent,
+  TaskLogUpdateEvent
+}
 import org.apache.linkis.engineconn.executor.listener.EngineConnSyncListener
 
 trait LogListener extends EngineConnSyncListener {
 
   def onLogUpdate(logUpdateEvent: TaskLogUpdateEvent)
 
+  def onLogBatch(logBatchEvent: TaskLogBatchEvent): Unit =
+    onLogUpdate(TaskLogUpdateEvent(logBatchEvent.taskId, logBatchEvent.toLogString))
+
 }
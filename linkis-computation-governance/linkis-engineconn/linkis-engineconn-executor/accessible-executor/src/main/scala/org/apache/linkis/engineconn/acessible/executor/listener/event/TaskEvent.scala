@@ -19,6 +19,7 @@ package org.apache.linkis.engineconn.acessible.executor.listener.event
 
 import org.apache.linkis.engineconn.executor.listener.event.EngineConnSyncEvent
 import org.apache.linkis.governance.common.entity.ExecutionNodeStatus
+import org.apache.linkis.governance.common.utils.LogRecordCodec
 import org.apache.linkis.protocol.engine.JobProgressInfo
 
 trait TaskEvent extends EngineConnSyncEvent {}
@@ -31,6 +32,17 @@ case class TaskProgressUpdateEvent(
 
 case class TaskLogUpdateEvent(taskId: String, log: String) extends TaskEvent
 
+/**
+ * Log lines as binary records of [[LogRecordCodec]], dropped is the number of lines dropped since
+ * the previous batch
+ */
+case class TaskLogBatchEvent(taskId: String, records: Array[Byte], dropped: Int)
+    extends TaskEvent {
+
+  def toLogString: String = LogRecordCodec.toLogString(records, dropped)
+
+}
+
 case class TaskStatusChangedEvent(
     taskId: String,
     fromStatus: ExecutionNodeStatus,
@@ -20,13 +20,17 @@ package org.apache.linkis.engineconn.acessible.executor.log
 import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.engineconn.acessible.executor.conf.AccessibleExecutorConfiguration
 import org.apache.linkis.engineconn.acessible.executor.listener.LogListener
-import org.apache.linkis.engineconn.acessible.executor.listener.event.TaskLogUpdateEvent
+import org.apache.linkis.engineconn.acessible.executor.listener.event.{
+  TaskLogBatchEvent,
+  TaskLogUpdateEvent
+}
 import org.apache.linkis.engineconn.core.EngineConnObject
 
 import java.util
 import java.util.concurrent.TimeUnit
 
 import scala.collection.JavaConverters._
+import scala.util.control.NonFatal
 
 object LogHelper extends Logging {
 
@@ -42,12 +46,60 @@ object LogHelper extends Logging {
 
   private var lastUpdateTimeMills = System.currentTimeMillis()
 
+  private val LOG_BATCH_ENABLE =
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_BATCH_ENABLE.getValue
+
+  private val LOG_BATCH_MAX_DELAY_MILLS =
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_BATCH_MAX_DELAY.getValue.toLong
+
+  private val LOG_BLOCK_MAX_MILLS =
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_BLOCK_MAX_TIME.getValue.toLong
+
+  /** Binary log records waiting to be sent, used when the log batch is enabled */
+  val logBuffer = new LogRecordBuffer(
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_BUFFER_SIZE.getValue,
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_BATCH_SIZE.getValue
+  )
+
+  @volatile private var logSender: Thread = _
+
   def setLogListener(logListener: LogListener): Unit = this.logListener = logListener
 
+  /**
+   * Append a log line to the log buffer. The logging thread waits for the sender when the buffer
+   * is full, unless no one sends the logs yet, the sender is dead or it is the sender itself
+   */
+  def appendLog(level: Byte, bytes: Array[Byte], offset: Int, length: Int): Boolean = {
+    val waitMills =
+      if (
+          logListener != null && EngineConnObject.isReady && logSender != null &&
+          logSender.isAlive && Thread.currentThread() != logSender
+      ) {
+        LOG_BLOCK_MAX_MILLS
+      } else 0L
+    logBuffer.append(level, bytes, offset, length, waitMills)
+  }
+
+  private def sendLogBatch(): Unit = logBuffer.drainTo(new LogRecordBuffer.BatchConsumer {
+
+    override def accept(records: Array[Byte], length: Int, recordNum: Int, dropped: Int): Unit =
+      if (logListener != null && EngineConnObject.isReady) {
+        if (dropped > 0) {
+          logger.warn(s"$dropped log lines were dropped because the log buffer was full")
+        }
+        logListener.onLogBatch(
+          TaskLogBatchEvent(null, util.Arrays.copyOf(records, length), dropped)
+        )
+      }
+
+  })
+
   def pushAllRemainLogs(): Unit = {
     Thread.sleep(30)
     if (logListener == null) {
       logger.warn("logListener is null, can not push remain logs")
+    } else if (LOG_BATCH_ENABLE) {
+      sendLogBatch()
     } else {
 
       var logs: util.List[String] = null
@@ -64,6 +116,12 @@ object LogHelper extends Logging {
   }
 
   def dropAllRemainLogs(): Unit = {
+    val droppedNum = logBuffer.drainTo(new LogRecordBuffer.BatchConsumer {
+      override def accept(records: Array[Byte], length: Int, num: Int, dropped: Int): Unit = {}
+    })
+    if (droppedNum > 0) {
+      logger.info(s"Dropped $droppedNum remained log records.")
+    }
     var logs: util.List[String] = null
     logCache.synchronized {
       logs = logCache.getRemain
@@ -73,7 +131,37 @@ object LogHelper extends Logging {
     }
   }
 
-  Utils.defaultScheduler.scheduleAtFixedRate(
+  private def startLogSender(): Unit = {
+    val sender = new Thread(
+      new Runnable {
+        // the sender must outlive any failure, logging threads wait for it when the buffer is full
+        override def run(): Unit = while (true) {
+          try {
+            logBuffer.awaitBatch(LOG_BATCH_MAX_DELAY_MILLS)
+            if (logListener == null) {
+              // keep the lines until the listener is set, appenders drop at once meanwhile
+              Thread.sleep(LOG_BATCH_MAX_DELAY_MILLS)
+            } else {
+              sendLogBatch()
+            }
+          } catch {
+            case _: InterruptedException =>
+              logger.warn("EngineConn-Log-Sender is interrupted, it goes on sending the logs")
+            case NonFatal(t) =>
+              logger.warn("Failed to send the log batch", t)
+              Utils.sleepQuietly(LOG_BATCH_MAX_DELAY_MILLS)
+          }
+        }
+      },
+      "EngineConn-Log-Sender"
+    )
+    sender.setDaemon(true)
+    logSender = sender
+    sender.start()
+  }
+
+  if (LOG_BATCH_ENABLE) startLogSender()
+  else Utils.defaultScheduler.scheduleAtFixedRate(
     new Runnable {
 
       override def run(): Unit = Utils.tryAndWarn {
@@ -19,7 +19,9 @@ package org.apache.linkis.entrance.restful;
 
 import org.apache.linkis.common.conf.Configuration;
 import org.apache.linkis.entrance.EntranceServer;
+import org.apache.linkis.scheduler.queue.Consumer;
 import org.apache.linkis.scheduler.queue.ConsumerManager;
+import org.apache.linkis.scheduler.queue.fifoqueue.FIFOUserConsumer;
 import org.apache.linkis.server.Message;
 import org.apache.linkis.server.utils.ModuleUserUtils;
 
@@ -31,6 +33,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.slf4j.Logger;
@@ -85,4 +90,33 @@ public class EntranceConsumerRestfulApi {
             .getOrCreateConsumerManager();
     return Message.ok().data("consumerNum", consumerManager.listConsumers().length);
   }
+
+  @ApiOperation(
+      value = "consumer-metrics",
+      notes = "slot wait and ask executor time of consumers",
+      response = Message.class)
+  @RequestMapping(path = "/metrics", method = RequestMethod.GET)
+  public Message consumerMetrics(
+      HttpServletRequest req,
+      @RequestParam(value = "groupName", required = false) String groupName) {
+    String operationUser = ModuleUserUtils.getOperationUser(req, "consumer metrics");
+    if (Configuration.isNotAdmin(operationUser)) {
+      return Message.error("only admin can do this");
+    }
+    ConsumerManager consumerManager =
+        entranceServer
+            .getEntranceContext()
+            .getOrCreateScheduler()
+            .getSchedulerContext()
+            .getOrCreateConsumerManager();
+    Map<String, Object> metrics = new HashMap<>();
+    for (Consumer consumer : consumerManager.listConsumers()) {
+      String consumerGroup = consumer.getGroup().getGroupName();
+      if (consumer instanceof FIFOUserConsumer
+          && (groupName == null || groupName.equals(consumerGroup))) {
+        metrics.put(consumerGroup, ((FIFOUserConsumer) consumer).getMetrics().toMap());
+      }
+    }
+    return Message.ok().data("metrics", metrics);
+  }
 }
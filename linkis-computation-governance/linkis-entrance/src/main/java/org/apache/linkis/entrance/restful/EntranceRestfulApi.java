@@ -41,6 +41,7 @@ import org.apache.linkis.server.Message;
 import org.apache.linkis.server.conf.ServerConfiguration;
 import org.apache.linkis.server.security.SecurityFilter;
 import org.apache.linkis.server.utils.ModuleUserUtils;
+import org.apache.linkis.storage.log.LogLineIndex;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -61,6 +62,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
 
 import scala.Option;
 
@@ -84,6 +87,10 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
 
   private static final Logger logger = LoggerFactory.getLogger(EntranceRestfulApi.class);
 
+  // request threads parked by status long polls, beyond it the status is answered at once
+  private static final Semaphore statusWaiters =
+      new Semaphore(EntranceConfiguration.JOB_STATUS_WAIT_CONCURRENT_MAX().getValue());
+
   @Autowired
   public void setEntranceServer(EntranceServer entranceServer) {
     this.entranceServer = entranceServer;
@@ -194,14 +201,20 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
   @ApiOperation(value = "status", notes = "get task stats", response = Message.class)
   @ApiImplicitParams({
     @ApiImplicitParam(name = "taskID", required = false, dataType = "String", value = " task id"),
-    @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "execute id ")
+    @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "execute id "),
+    @ApiImplicitParam(
+        name = "waitMills",
+        required = false,
+        dataType = "Long",
+        value = "wait up to this time for the job to complete")
   })
   @Override
   @RequestMapping(path = "/{id}/status", method = RequestMethod.GET)
   public Message status(
       HttpServletRequest req,
       @PathVariable("id") String id,
-      @RequestParam(value = "taskID", required = false) String taskID) {
+      @RequestParam(value = "taskID", required = false) String taskID,
+      @RequestParam(value = "waitMills", required = false) Long waitMills) {
     ModuleUserUtils.getOperationUser(req, "job status");
     Message message = null;
     String realId;
@@ -265,7 +278,20 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
     }
     if (job != null && job.isDefined()) {
       if (job.get() instanceof EntranceJob) {
-        ((EntranceJob) job.get()).updateNewestAccessByClientTimestamp();
+        EntranceJob entranceJob = (EntranceJob) job.get();
+        entranceJob.updateNewestAccessByClientTimestamp();
+        // long poll, hold the request until the job completes instead of letting clients poll
+        if (waitMills != null
+            && waitMills > 0
+            && !entranceJob.isCompleted()
+            && statusWaiters.tryAcquire()) {
+          try {
+            long maxWaitMills = EntranceConfiguration.JOB_STATUS_WAIT_MAX().getValue().toLong();
+            entranceJob.waitForCompleted(Math.min(waitMills, maxWaitMills));
+          } finally {
+            statusWaiters.release();
+          }
+        }
       }
       message = Message.ok();
       message.setMethod("/api/entrance/" + id + "/status");
@@ -278,6 +304,62 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
     return message;
   }
 
+  @ApiOperation(
+      value = "batchStatus",
+      notes = "get the status of jobs in the entrance of strongExecId",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "strongExecId", required = true, dataType = "String"),
+    @ApiImplicitParam(name = "idList", required = true, dataType = "List", value = "exec ids"),
+    @ApiImplicitParam(name = "taskIDList", required = false, dataType = "List", value = "task ids")
+  })
+  @ApiOperationSupport(ignoreParameters = {"jsonNode"})
+  @Override
+  @RequestMapping(path = "/{id}/batchStatus", method = RequestMethod.POST)
+  public Message batchStatus(
+      HttpServletRequest req,
+      @RequestBody JsonNode jsonNode,
+      @PathVariable("id") String strongExecId) {
+    ModuleUserUtils.getOperationUser(req, "job batch status");
+    JsonNode idNode = jsonNode.get("idList");
+    JsonNode taskIDNode = jsonNode.get("taskIDList");
+    if (idNode == null || !idNode.isArray()) {
+      return Message.error("Request parameter error, please use array(请求参数错误，请使用数组)");
+    }
+    if (taskIDNode != null && (!taskIDNode.isArray() || idNode.size() != taskIDNode.size())) {
+      return Message.error(
+          "The length of the ID list does not match the length of the TASKID list(id列表的长度与taskId列表的长度不一致)");
+    }
+    List<Map<String, String>> statuses = new ArrayList<>(idNode.size());
+    for (int i = 0; i < idNode.size(); i++) {
+      String execID = idNode.get(i).asText();
+      String status = null;
+      try {
+        Option<Job> job = entranceServer.getJob(ZuulEntranceUtils.parseExecID(execID)[3]);
+        if (job.isDefined()) {
+          if (job.get() instanceof EntranceJob) {
+            ((EntranceJob) job.get()).updateNewestAccessByClientTimestamp();
+          }
+          status = job.get().getState().toString();
+        }
+      } catch (Exception e) {
+        logger.warn("get {} status error", execID, e);
+      }
+      // jobs no longer in the entrance are looked up in the job history
+      if (status == null && taskIDNode != null) {
+        status = JobHistoryHelper.getStatusByTaskID(taskIDNode.get(i).asLong());
+      }
+      Map<String, String> jobStatus = new HashMap<>(2);
+      jobStatus.put("execID", execID);
+      jobStatus.put("status", status);
+      statuses.add(jobStatus);
+    }
+    Message message = Message.ok();
+    message.setMethod("/api/entrance/" + strongExecId + "/batchStatus");
+    message.data("statuses", statuses);
+    return message;
+  }
+
   @ApiOperation(value = "progress", notes = "get task progress info", response = Message.class)
   @ApiImplicitParams({
     @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "exectue id")
@@ -696,6 +778,117 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
     return message;
   }
 
+  @ApiOperation(
+      value = "searchLog",
+      notes = "search task log by regex or keyword, level and line range",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "execute id"),
+    @ApiImplicitParam(name = "regex", dataType = "String", value = "regex of the lines"),
+    @ApiImplicitParam(name = "keyword", dataType = "String", value = "keyword of the lines"),
+    @ApiImplicitParam(name = "levels", dataType = "String", value = "such as ERROR,WARN"),
+    @ApiImplicitParam(name = "fromLine", dataType = "Integer", value = "first line to search"),
+    @ApiImplicitParam(name = "toLine", dataType = "Integer", value = "exclusive end line"),
+    @ApiImplicitParam(name = "size", dataType = "Integer", value = "max matched lines")
+  })
+  @RequestMapping(path = "/{id}/log/search", method = RequestMethod.GET)
+  public Message searchLog(
+      HttpServletRequest req,
+      @PathVariable("id") String id,
+      @RequestParam(value = "regex", required = false) String regex,
+      @RequestParam(value = "keyword", required = false) String keyword,
+      @RequestParam(value = "levels", required = false) String levels,
+      @RequestParam(value = "fromLine", defaultValue = "0") Integer fromLine,
+      @RequestParam(value = "toLine", defaultValue = "-1") Integer toLine,
+      @RequestParam(value = "size", defaultValue = "1000") Integer size) {
+    String userName = ModuleUserUtils.getOperationUser(req, "search job log");
+    String method = "/api/entrance/" + id + "/log/search";
+    Message message;
+    Pattern pattern;
+    int levelMask;
+    try {
+      if (StringUtils.isNotBlank(regex)) {
+        pattern = Pattern.compile(regex);
+      } else if (StringUtils.isNotEmpty(keyword)) {
+        pattern = Pattern.compile(Pattern.quote(keyword));
+      } else {
+        pattern = null;
+      }
+      levelMask = LogLineIndex.parseLevelMask(levels);
+    } catch (IllegalArgumentException e) {
+      message = Message.error("Illegal search condition(搜索条件不合法): " + e.getMessage());
+      message.setMethod(method);
+      return message;
+    }
+    String realId;
+    if (id.startsWith(ZuulEntranceUtils.EXEC_ID())) {
+      realId = ZuulEntranceUtils.parseExecID(id)[3];
+    } else {
+      realId = id;
+    }
+    Option<Job> job;
+    try {
+      job = entranceServer.getJob(realId);
+    } catch (final Throwable t) {
+      job = Option.empty();
+    }
+    if (job == null || job.isEmpty()) {
+      message =
+          Message.error(
+              "The job you just executed has ended. This interface no longer provides a query. It is recommended that you download the log file for viewing.(您刚刚执行的job已经结束，本接口不再提供查询，建议您下载日志文件进行查看)");
+      message.setMethod(method);
+      return message;
+    }
+    EntranceJob entranceJob = (EntranceJob) job.get();
+    String executeUser = entranceJob.getJobRequest().getExecuteUser();
+    if (!userName.equals(executeUser) && Configuration.isNotJobHistoryAdmin(userName)) {
+      message =
+          Message.error(
+              "You have no permission to search the log of job "
+                  + id
+                  + "(您没有权限搜索该任务的日志)");
+      message.setMethod(method);
+      return message;
+    }
+    LogReader logReader =
+        entranceServer.getEntranceContext().getOrCreateLogManager().getLogReader(realId);
+    List<Map<String, Object>> matches = new ArrayList<>();
+    int[] nextLine = {Math.max(fromLine, 0)};
+    try {
+      logReader.search(
+          pattern,
+          levelMask,
+          fromLine,
+          toLine,
+          size,
+          (line, level, log) -> {
+            Map<String, Object> match = new HashMap<>(4);
+            match.put("line", line);
+            match.put("level", LogLineIndex.getLevelName(level));
+            match.put("log", log);
+            matches.add(match);
+            nextLine[0] = line + 1;
+          });
+    } catch (final Exception e) {
+      logger.warn("Failed to search log of job {}(搜索任务 {} 的日志失败)", realId, realId, e);
+      message = Message.error("Failed to search log information(搜索日志信息失败)");
+      message.setMethod(method);
+      return message;
+    } finally {
+      if (null != logReader && entranceJob.isCompleted()) {
+        IOUtils.closeQuietly(logReader);
+      }
+    }
+    // when the matches are cut by size, the next search goes on from the line after the last match
+    if (size < 0 || matches.size() < size) {
+      nextLine[0] = toLine >= 0 ? toLine : -1;
+    }
+    message = Message.ok();
+    message.setMethod(method);
+    message.data("matches", matches).data("fromLine", nextLine[0]);
+    return message;
+  }
+
   @ApiOperation(value = "killJobs", notes = "kill jobs", response = Message.class)
   @ApiImplicitParams({
     @ApiImplicitParam(name = "strongExecId", required = true, dataType = "String")
@@ -210,6 +210,41 @@ object EntranceConfiguration {
   val LOG_PUSH_INTERVAL_TIME =
     CommonVars("wds.linkis.entrance.log.push.interval.time", 5 * 60 * 1000)
 
+  /**
+   * Keep the hdfs append stream of a job log open between pushes instead of opening and closing it
+   * on every push, the written logs are hflushed in batch by a group commit thread
+   */
+  val HDFS_LOG_STREAM_KEEP_OPEN =
+    CommonVars[Boolean]("linkis.entrance.hdfs.log.stream.keep.open", false).getValue
+
+  val HDFS_LOG_STREAM_IDLE_TIMEOUT =
+    CommonVars("linkis.entrance.hdfs.log.stream.idle.timeout", new TimeType("3m"))
+
+  val HDFS_LOG_GROUP_COMMIT_INTERVAL =
+    CommonVars("linkis.entrance.hdfs.log.group.commit.interval", new TimeType("1s"))
+
+  /**
+   * Longest time a status request asking to wait is held until the job completes, keep it below
+   * the read timeout of the gateway
+   */
+  val JOB_STATUS_WAIT_MAX =
+    CommonVars("linkis.entrance.job.status.wait.max", new TimeType("10s"))
+
+  /**
+   * Status requests waiting at the same time, each holds a request thread, so keep it well below
+   * the thread pool of the server. Beyond it the status is answered at once
+   */
+  val JOB_STATUS_WAIT_CONCURRENT_MAX =
+    CommonVars("linkis.entrance.job.status.wait.concurrent.max", 50)
+
+  /**
+   * Index the lines of job logs while writing them and persist the index beside the log, so reads
+   * seek to fromLine instead of scanning the whole log
+   */
+  val LOG_LINE_INDEX_ENABLE = CommonVars("linkis.entrance.log.line.index.enable", true)
+
+  val LOG_LINE_INDEX_INTERVAL = CommonVars("linkis.entrance.log.line.index.interval", 1000)
+
   val GROUP_CACHE_MAX = CommonVars("wds.linkis.consumer.group.cache.capacity", 5000)
 
   val GROUP_CACHE_EXPIRE_TIME = CommonVars("wds.linkis.consumer.group.expire.time", 50)
@@ -78,6 +78,8 @@ abstract class EntranceJob extends Job {
    */
   private val newestAccessByClientTimestamp: AtomicLong = new AtomicLong(-1L)
 
+  private val completedLock = new Object
+
   def setEntranceListenerBus(
       entranceListenerBus: EntranceEventListenerBus[EntranceEventListener, EntranceEvent]
   ): Unit =
@@ -99,6 +101,22 @@ abstract class EntranceJob extends Job {
     newestAccessByClientTimestamp.set(newTime)
   }
 
+  /**
+   * Block until the job is completed or the timeout elapses, returns whether it is completed. Used
+   * by status requests which wait for the end of the job instead of polling
+   */
+  def waitForCompleted(timeoutMills: Long): Boolean = {
+    val deadline = System.currentTimeMillis + timeoutMills
+    completedLock synchronized {
+      var remaining = timeoutMills
+      while (!isCompleted && remaining > 0) {
+        completedLock.wait(remaining)
+        remaining = deadline - System.currentTimeMillis
+      }
+    }
+    isCompleted
+  }
+
   def setResultSize(resultSize: Int): Unit = {
     if (resultSize >= 0) {
       persistedResultSets.set(resultSize)
@@ -226,6 +244,9 @@ abstract class EntranceJob extends Job {
     }
     super.afterStateChanged(fromState, toState)
     entranceListenerBus.foreach(_.post(EntranceJobEvent(this.getId())))
+    if (SchedulerEventState.isCompleted(toState)) {
+      completedLock synchronized completedLock.notifyAll()
+    }
   }
 
   override def onFailure(errorMsg: String, t: Throwable): Unit = {
@@ -17,8 +17,13 @@
 
 package org.apache.linkis.entrance.log
 
+import org.apache.linkis.storage.log.LogLineIndex
+
 class Cache(maxCapacity: Int) {
   val cachedLogs: LoopArray[String] = LoopArray[String](maxCapacity)
+
+  /** Line index of the log file, maintained by the writer of the log(日志文件的行索引，由日志写入方维护) */
+  @volatile var lineIndex: Option[LogLineIndex] = None
 }
 
 object Cache {
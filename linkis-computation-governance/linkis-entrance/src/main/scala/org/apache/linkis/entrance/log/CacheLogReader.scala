@@ -23,8 +23,11 @@ import org.apache.linkis.entrance.conf.EntranceConfiguration
 import org.apache.linkis.entrance.exception.LogReadFailedException
 import org.apache.linkis.storage.FSFactory
 import org.apache.linkis.storage.fs.FileSystem
+import org.apache.linkis.storage.log.{LogLevelClassifier, LogLineIndex}
 import org.apache.linkis.storage.utils.StorageUtils
 
+import org.apache.commons.io.IOUtils
+
 import java.io.{InputStream, IOException}
 import java.util
 
@@ -39,7 +42,9 @@ class CacheLogReader(logPath: String, charset: String, sharedCache: Cache, user:
 
   var closed = false
 
-  private def createInputStream: InputStream = {
+  private var persistedLineIndex: Option[LogLineIndex] = _
+
+  private def getFileSystem: Fs = {
     if (!logPath.contains(user)) {
       throw new LogReadFailedException(
         s"${user} does not have permission to read the path $logPath"
@@ -59,7 +64,11 @@ class CacheLogReader(logPath: String, charset: String, sharedCache: Cache, user:
         fileSystem.init(new util.HashMap[String, String]())
       }
     }
-    val inputStream: InputStream = fileSystem.read(fsPath)
+    fileSystem
+  }
+
+  private def createInputStream: InputStream = {
+    val inputStream: InputStream = getFileSystem.read(new FsPath(logPath))
     inputStream
   }
 
@@ -67,6 +76,44 @@ class CacheLogReader(logPath: String, charset: String, sharedCache: Cache, user:
     createInputStream
   }
 
+  override def getInputStream(position: Long): InputStream = getFileSystem match {
+    case fs: FileSystem => fs.read(new FsPath(logPath), position)
+    case _ => super.getInputStream(position)
+  }
+
+  /**
+   * The index maintained by the writer of a running job, or else the index persisted beside the
+   * log once the writer is closed
+   */
+  override protected def getLineIndex: Option[LogLineIndex] =
+    sharedCache.lineIndex.orElse {
+      if (persistedLineIndex == null) lock synchronized {
+        if (persistedLineIndex == null) persistedLineIndex = readPersistedLineIndex
+      }
+      persistedLineIndex
+    }
+
+  private def readPersistedLineIndex: Option[LogLineIndex] =
+    if (!EntranceConfiguration.LOG_LINE_INDEX_ENABLE.getValue) None
+    else {
+      Utils.tryCatch {
+        val fs = getFileSystem
+        val indexPath = new FsPath(logPath + LogLineIndex.INDEX_FILE_SUFFIX)
+        if (!fs.exists(indexPath)) None
+        else {
+          val inputStream = fs.read(indexPath)
+          val lineIndex = Utils.tryFinally(
+            Option(LogLineIndex.read(inputStream, charset, LogLevelClassifier.INSTANCE))
+          )(IOUtils.closeQuietly(inputStream))
+          // the index is stale if the log has been written after the index
+          lineIndex.filter(_.getLength == fs.get(logPath).getLength)
+        }
+      } { t =>
+        logger.warn(s"Failed to read the line index of $logPath, scan the log from the start", t)
+        None
+      }
+    }
+
   override protected def readLog(deal: String => Unit, fromLine: Int, size: Int): Int = {
     if (!sharedCache.cachedLogs.nonEmpty) return super.readLog(deal, fromLine, size)
     val min = sharedCache.cachedLogs.min
@@ -32,6 +32,10 @@ class CacheLogWriter(logPath: String, charset: String, sharedCache: Cache, user:
 
   def getCache: Option[Cache] = Some(sharedCache)
 
+  sharedCache.lineIndex = createLineIndex(fileSystem, logPath)
+
+  override protected def getLineIndex: Option[LogLineIndex] = sharedCache.lineIndex
+
   private def cache(msg: String): Unit = {
     this synchronized {
       val removed = sharedCache.cachedLogs.add(msg)
@@ -55,8 +55,20 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
 
   private var firstWrite = true
 
+  private val keepStreamOpen = EntranceConfiguration.HDFS_LOG_STREAM_KEEP_OPEN
+
+  @volatile private var unflushed = false
+
+  @volatile private var lastWriteTime = 0L
+
+  @volatile private var closing = false
+
   init()
 
+  sharedCache.lineIndex = createLineIndex(fileSystem, logPath)
+
+  override protected def getLineIndex: Option[LogLineIndex] = sharedCache.lineIndex
+
   private def init(): Unit = {
     fileSystem.init(new util.HashMap[String, String]())
     FileSystemUtils.createNewFileAndSetOwnerWithFileSystem(
@@ -82,13 +94,17 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
   private def closeOutPutStream: Unit = {
     if (null != outputStream) OUT_LOCKER.synchronized {
       if (null != outputStream) {
-        outputStream match {
-          case hdfs: HdfsDataOutputStream =>
-            hdfs.hflush()
-          case _ =>
+        // the stream is dropped even if hflush fails, so it does not keep holding the hdfs lease
+        Utils.tryFinally {
+          outputStream match {
+            case hdfs: HdfsDataOutputStream =>
+              hdfs.hflush()
+            case _ =>
+          }
+        } {
+          IOUtils.closeStream(outputStream)
+          this.outputStream = null
         }
-        IOUtils.closeStream(outputStream)
-        this.outputStream = null
       }
     }
   }
@@ -127,10 +143,56 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
         firstWrite = false
         msg
       }
-    Utils.tryAndWarnMsg {
-      getOutputStream.write(log.getBytes(charset))
-    }(s"$toString error when write query log to outputStream.")
-    closeOutPutStream
+    val written = OUT_LOCKER.synchronized {
+      Utils.tryCatch {
+        val bytes = log.getBytes(charset)
+        getOutputStream.write(bytes)
+        getLineIndex.foreach(_.append(bytes))
+        true
+      } { t =>
+        logger.warn(s"$toString error when write query log to outputStream.", t)
+        false
+      }
+    }
+    if (keepStreamOpen && written && !closing) {
+      lastWriteTime = System.currentTimeMillis
+      unflushed = true
+      HDFSLogGroupCommitter.register(this)
+    } else closeOutPutStream
+  }
+
+  /**
+   * Called by [[HDFSLogGroupCommitter]], hflush the written logs and close the stream idle for too
+   * long(刷新已写入的日志，并关闭空闲过久的输出流). A stream failing to hflush is closed, the next
+   * write opens a new one
+   * @return
+   *   whether the stream is still open
+   */
+  private[log] def commit(): Boolean = OUT_LOCKER.synchronized {
+    if (null == outputStream) false
+    else if (
+        System.currentTimeMillis - lastWriteTime >
+          EntranceConfiguration.HDFS_LOG_STREAM_IDLE_TIMEOUT.getValue.toLong
+    ) {
+      closeOutPutStream
+      unflushed = false
+      false
+    } else {
+      if (unflushed) {
+        unflushed = false
+        Utils.tryCatch {
+          outputStream match {
+            case hdfs: HdfsDataOutputStream => hdfs.hflush()
+            case out => out.flush()
+          }
+        } { t =>
+          IOUtils.closeStream(outputStream)
+          outputStream = null
+          throw t
+        }
+      }
+      true
+    }
   }
 
   override def write(msg: String): Unit = {
@@ -152,7 +214,16 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
   }
 
   override def close(): Unit = {
-    super.close()
+    logger.info(s" $toString logWriter close")
+    // unregister first, so the committer never hflushes the stream while it is closed. The final
+    // flush then closes the stream under OUT_LOCKER instead of registering the writer again
+    closing = true
+    if (keepStreamOpen) HDFSLogGroupCommitter.unregister(this)
+    flush()
+    closeOutPutStream
+    if (fileSystem != null) {
+      persistLineIndex(fileSystem, logPath, user, EntranceConfiguration.ENABLE_HDFS_JVM_USER)
+    }
     if (fileSystem != null) Utils.tryAndWarnMsg {
       fileSystem.close()
       fileSystem = null
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.entrance.log
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.entrance.conf.EntranceConfiguration
+
+import java.util.concurrent.{ConcurrentHashMap, Executors, TimeUnit}
+
+import scala.collection.JavaConverters._
+
+/**
+ * Flushes the logs written by the [[HDFSCacheLogWriter]]s keeping their append streams open: every
+ * interval all the writers with unflushed logs are hflushed in one batch, and the streams idle for
+ * too long are closed so they do not hold the hdfs lease. The hflushes block, so they run on a
+ * thread of their own instead of the shared scheduler.
+ * 批量hflush保持输出流打开的日志写入器，并关闭空闲过久的输出流
+ */
+object HDFSLogGroupCommitter extends Logging {
+
+  private val writers = new ConcurrentHashMap[HDFSCacheLogWriter, java.lang.Boolean]()
+
+  private lazy val commitFuture = {
+    val interval = EntranceConfiguration.HDFS_LOG_GROUP_COMMIT_INTERVAL.getValue.toLong
+    logger.info(s"start the group commit of hdfs logs with interval ${interval}ms.")
+    val scheduler = Executors.newSingleThreadScheduledExecutor(
+      Utils.threadFactory("Linkis-HDFS-Log-Group-Commit-Thread-", true)
+    )
+    scheduler.scheduleWithFixedDelay(
+      new Runnable {
+        override def run(): Unit = Utils.tryAndWarn(commit())
+      },
+      interval,
+      interval,
+      TimeUnit.MILLISECONDS
+    )
+  }
+
+  def register(writer: HDFSCacheLogWriter): Unit = {
+    commitFuture
+    writers.put(writer, java.lang.Boolean.TRUE)
+  }
+
+  def unregister(writer: HDFSCacheLogWriter): Unit = writers.remove(writer)
+
+  private def commit(): Unit = {
+    val startTime = System.currentTimeMillis
+    var committed = 0
+    writers.keySet().asScala.foreach { writer =>
+      val open = Utils.tryCatch(writer.commit()) { t =>
+        logger.warn(s"$writer failed to commit the written logs.", t)
+        false
+      }
+      if (!open) writers.remove(writer)
+      committed += 1
+    }
+    if (committed > 0 && logger.isDebugEnabled) {
+      logger.debug(
+        s"committed $committed hdfs logs, taken ${System.currentTimeMillis - startTime}ms."
+      )
+    }
+  }
+
+}
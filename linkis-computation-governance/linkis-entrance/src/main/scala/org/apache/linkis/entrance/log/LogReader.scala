@@ -20,11 +20,13 @@ package org.apache.linkis.entrance.log
 import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.entrance.exception.LogReadFailedException
 import org.apache.linkis.entrance.utils.LogHelper
+import org.apache.linkis.storage.log.{LogLevelClassifier, LogLineIndex, LogSearcher}
 
 import org.apache.commons.io.{IOUtils, LineIterator}
 import org.apache.commons.lang3.StringUtils
 
 import java.io.{Closeable, InputStream, IOException}
+import java.util.regex.Pattern
 
 import scala.util.matching.Regex
 
@@ -34,6 +36,27 @@ abstract class LogReader(charset: String) extends Closeable with Logging {
   @throws[IOException]
   def getInputStream: InputStream
 
+  /**
+   * Open the log positioned at the byte offset(打开日志并定位到指定字节偏移量)
+   * @param position
+   * @return
+   */
+  @throws[IOException]
+  def getInputStream(position: Long): InputStream = {
+    val inputStream = getInputStream
+    Utils.tryCatch(IOUtils.skipFully(inputStream, position)) { t =>
+      IOUtils.closeQuietly(inputStream)
+      throw t
+    }
+    inputStream
+  }
+
+  /**
+   * Line index of the log, used to seek to the line to read from and to get the levels of the lines
+   * 日志行索引，用于定位起始行及获取日志级别
+   */
+  protected def getLineIndex: Option[LogLineIndex] = None
+
   def getCharset: String = charset
 
   /**
@@ -55,24 +78,14 @@ abstract class LogReader(charset: String) extends Closeable with Logging {
     val info = new StringBuilder
     val all = new StringBuilder
     val read = readLog(
-      singleLog => {
-        val length = 1
-        if (StringUtils.isNotBlank(singleLog)) {
-          singleLog match {
-            case ERROR_HEADER1() | ERROR_HEADER2() =>
-              concatLog(length, singleLog, error, all)
-            case WARN_HEADER1() | WARN_HEADER2() =>
-              if (!LogHelper.isExcludeLog(singleLog)) {
-                concatLog(length, singleLog, warning, all)
-              }
-            case INFO_HEADER1() | INFO_HEADER2() =>
-              if (!LogHelper.isExcludeLog(singleLog)) {
-                concatLog(length, singleLog, info, all)
-              }
+      new LevelLogDeal {
+        override def apply(singleLog: String, level: Int): Unit = {
+          val length = 1
+          level match {
+            case LogLineIndex.ERROR => concatLog(length, singleLog, error, all)
+            case LogLineIndex.WARN => concatLog(length, singleLog, warning, all)
+            case LogLineIndex.INFO => concatLog(length, singleLog, info, all)
             case _ =>
-              if (!LogHelper.isExcludeLog(singleLog)) {
-                concatLog(length, singleLog, info, all)
-              }
           }
         }
       },
@@ -114,10 +127,46 @@ abstract class LogReader(charset: String) extends Closeable with Logging {
     read
   }
 
+  /**
+   * Search the lines of the log file, the logs cached and not written to the file yet are not
+   * searched(搜索日志文件中的行，尚未写入文件的缓存日志不会被搜索)
+   * @param pattern
+   *   null matches all the lines
+   * @param levelMask
+   *   bits of the wanted levels, such as 1 << LogLineIndex.ERROR
+   * @param fromLine
+   * @param toLine
+   *   exclusive, negative for the end of the log
+   * @param maxMatches
+   *   negative for no limit
+   * @param handler
+   * @return
+   *   the number of matched lines
+   */
+  def search(
+      pattern: Pattern,
+      levelMask: Int,
+      fromLine: Int,
+      toLine: Int,
+      maxMatches: Int,
+      handler: LogSearcher.MatchHandler
+  ): Int = {
+    val logOpener = new LogSearcher.LogOpener {
+      override def open(position: Long): InputStream =
+        if (position > 0) getInputStream(position) else getInputStream
+    }
+    new LogSearcher(logOpener, charset, getLineIndex.orNull, LogLevelClassifier.INSTANCE)
+      .search(pattern, levelMask, fromLine, toLine, maxMatches, handler)
+  }
+
   protected def readLog(deal: String => Unit, fromLine: Int, size: Int = 100): Int = {
     val from = if (fromLine < 0) 0 else fromLine
-    var line, read = 0
-    val inputStream = getInputStream
+    val lineIndex = getLineIndex
+    val indexedLine = lineIndex.map(_.seekLine(from)).getOrElse(0)
+    val offset = lineIndex.map(_.getOffset(indexedLine)).getOrElse(0L)
+    var line = indexedLine
+    var read = 0
+    val inputStream = if (offset > 0) getInputStream(offset) else getInputStream
     val lineIterator = IOUtils.lineIterator(inputStream, charset)
     Utils.tryFinally(while (lineIterator.hasNext && (read < size || size < 0)) {
       val r = lineIterator.next()
@@ -147,4 +196,33 @@ object LogReader {
   val WARN_HEADER2: Regex = "[0-9\\-/]{10} [0-9:]{8}.?\\d{0,3} WARN ".r.unanchored
   val INFO_HEADER1: Regex = "[0-9\\-]{10,10} [0-9:]{8,8}.?\\d{0,3} SYSTEM-INFO ".r.unanchored
   val INFO_HEADER2: Regex = "[0-9\\-/]{10,10} [0-9:]{8,8}.?\\d{0,3} INFO ".r.unanchored
+
+  /**
+   * Level of a log line as classified by readArray, see [[LogLineIndex.ERROR]]
+   * 获取readArray中日志行的分类级别
+   * @param log
+   * @return
+   */
+  def getLogLevel(log: String): Int = if (StringUtils.isBlank(log)) LogLineIndex.SKIPPED
+  else {
+    log match {
+      case ERROR_HEADER1() | ERROR_HEADER2() => LogLineIndex.ERROR
+      case _ if LogHelper.isExcludeLog(log) => LogLineIndex.SKIPPED
+      case WARN_HEADER1() | WARN_HEADER2() => LogLineIndex.WARN
+      case _ => LogLineIndex.INFO
+    }
+  }
+
+  /**
+   * A line handler told the level of every line as classified by [[getLogLevel]], the levels of
+   * the line index are for searching(可获取每行日志级别的行处理器)
+   */
+  private[log] abstract class LevelLogDeal extends (String => Unit) {
+
+    def apply(log: String, level: Int): Unit
+
+    override def apply(log: String): Unit = apply(log, getLogLevel(log))
+
+  }
+
 }
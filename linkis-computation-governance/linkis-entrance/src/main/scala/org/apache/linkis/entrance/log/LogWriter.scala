@@ -19,12 +19,15 @@ package org.apache.linkis.entrance.log
 
 import org.apache.linkis.common.io.FsPath
 import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.entrance.conf.EntranceConfiguration
 import org.apache.linkis.entrance.errorcode.EntranceErrorCodeSummary.LOGPATH_NOT_NULL
 import org.apache.linkis.entrance.exception.EntranceErrorException
 import org.apache.linkis.storage.FSFactory
 import org.apache.linkis.storage.fs.FileSystem
+import org.apache.linkis.storage.log.{LogLevelClassifier, LogLineIndex}
 import org.apache.linkis.storage.utils.FileSystemUtils
 
+import org.apache.commons.io.IOUtils
 import org.apache.commons.lang3.StringUtils
 import org.apache.hadoop.hdfs.client.HdfsDataOutputStream
 
@@ -37,6 +40,54 @@ abstract class LogWriter(charset: String) extends Closeable with Flushable with
 
   protected var outputStream: OutputStream
 
+  /** Line index of the log, appended with every write(日志行索引，每次写入时追加) */
+  protected def getLineIndex: Option[LogLineIndex] = None
+
+  /**
+   * Create the line index of a new log, a log written before can't be indexed from its start
+   * 为新日志创建行索引，已有内容的日志无法从头索引
+   */
+  protected def createLineIndex(fileSystem: FileSystem, logPath: String): Option[LogLineIndex] =
+    if (!EntranceConfiguration.LOG_LINE_INDEX_ENABLE.getValue) None
+    else {
+      Utils.tryCatch {
+        if (fileSystem.get(logPath).getLength > 0) None
+        else {
+          Some(
+            new LogLineIndex(
+              EntranceConfiguration.LOG_LINE_INDEX_INTERVAL.getValue,
+              charset,
+              LogLevelClassifier.INSTANCE
+            )
+          )
+        }
+      } { t =>
+        logger.warn(s"$toString failed to create the line index of log", t)
+        None
+      }
+    }
+
+  /**
+   * Persist the line index beside the log, so the log can still be read by lines once the job is
+   * completed(将行索引持久化到日志旁)
+   */
+  protected def persistLineIndex(
+      fileSystem: FileSystem,
+      logPath: String,
+      user: String,
+      setOwner: Boolean
+  ): Unit = getLineIndex.foreach { lineIndex =>
+    Utils.tryAndWarnMsg {
+      val indexPath = new FsPath(logPath + LogLineIndex.INDEX_FILE_SUFFIX)
+      if (fileSystem.exists(indexPath)) fileSystem.delete(indexPath)
+      if (setOwner) {
+        FileSystemUtils.createNewFileAndSetOwnerWithFileSystem(fileSystem, indexPath, user, false)
+      } else FileSystemUtils.createNewFileWithFileSystem(fileSystem, indexPath, user, false)
+      val out = fileSystem.write(indexPath, false)
+      Utils.tryFinally(lineIndex.write(out))(IOUtils.closeQuietly(out))
+    }(s"$toString error when persist the line index of log.")
+  }
+
   def write(msg: String): Unit = synchronized {
     val log =
       if (!firstWrite) "\n" + msg
@@ -46,8 +97,10 @@ abstract class LogWriter(charset: String) extends Closeable with Flushable with
         msg
       }
     Utils.tryAndWarnMsg {
-      outputStream.write(log.getBytes(charset))
+      val bytes = log.getBytes(charset)
+      outputStream.write(bytes)
       outputStream.flush()
+      getLineIndex.foreach(_.append(bytes))
     }(s"$toString error when write query log to outputStream.")
   }
 
@@ -91,6 +144,7 @@ abstract class AbstractLogWriter(logPath: String, user: String, charset: String)
 
   override def close(): Unit = {
     super.close()
+    if (fileSystem != null) persistLineIndex(fileSystem, logPath, user, false)
     if (fileSystem != null) Utils.tryAndWarnMsg {
       fileSystem.close()
       fileSystem = null
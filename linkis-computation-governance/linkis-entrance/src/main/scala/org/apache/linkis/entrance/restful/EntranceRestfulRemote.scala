@@ -45,7 +45,15 @@ trait EntranceRestfulRemote {
   def status(
       req: HttpServletRequest,
       @PathVariable("id") id: String,
-      @RequestParam(value = "taskID", required = false) taskID: String
+      @RequestParam(value = "taskID", required = false) taskID: String,
+      @RequestParam(value = "waitMills", required = false) waitMills: java.lang.Long
+  ): Message
+
+  @RequestMapping(value = Array("/entrance/{id}/batchStatus"), method = Array(RequestMethod.POST))
+  def batchStatus(
+      req: HttpServletRequest,
+      @RequestBody jsonNode: JsonNode,
+      @PathVariable("id") strongExecId: String
   ): Message
 
   @RequestMapping(value = Array("/entrance/{id}/progress"), method = Array(RequestMethod.GET))
@@ -49,6 +49,9 @@ public class UJESSQLDriver extends UJESSQLDriverMain implements Driver {
   static String PASSWORD = "password";
   static boolean TABLEAU_SERVER = false;
   static String FIXED_SESSION = "fixedSession";
+  static String STREAMING_RESULT = "streamingResult";
+  static String PREFETCH_PAGES = "prefetchPages";
+  static int DEFAULT_PREFETCH_PAGES = 1;
   static String VERSION = "version";
   static int DEFAULT_VERSION = 1;
   static String MAX_CONNECTION_SIZE = "maxConnectionSize";
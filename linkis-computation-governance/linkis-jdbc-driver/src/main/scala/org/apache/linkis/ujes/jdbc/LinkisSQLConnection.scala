@@ -111,6 +111,22 @@ class LinkisSQLConnection(private[jdbc] val ujesClient: UJESClient, props: Prope
       false
     }
 
+  /**
+   * Read the rows of result sets straight from the responses, result sets become forward only
+   * 结果集直接从响应中流式读取，结果集只能向前遍历
+   */
+  private[jdbc] val streamingResultEnabled =
+    "true".equalsIgnoreCase(props.getProperty(STREAMING_RESULT))
+
+  /**
+   * Pages of a result set requested ahead of the one being read, 0 fetches them one by one
+   * 读取结果集时提前请求的分页数，0表示逐页获取
+   */
+  private[jdbc] val prefetchPages =
+    if (StringUtils.isNotBlank(props.getProperty(PREFETCH_PAGES))) {
+      math.max(props.getProperty(PREFETCH_PAGES).trim.toInt, 0)
+    } else DEFAULT_PREFETCH_PAGES
+
   private val connectionId = JDBCUtils.getUniqId()
 
   private val labelMap: util.Map[String, AnyRef] = new util.HashMap[String, AnyRef]
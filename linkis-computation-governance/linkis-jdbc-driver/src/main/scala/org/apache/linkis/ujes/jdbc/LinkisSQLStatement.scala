@@ -40,7 +40,7 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
   private var resultSet: UJESSQLResultSet = _
   private var closed = false
   private var maxRows: Int = 0
-  private var fetchSize = 100
+  private var fetchSize = 0
   private var queryTimeout = 0
 
   private var logPath: String = null
@@ -134,16 +134,14 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
       logPath = jobInfo.getRequestPersistTask.getLogPath
       if (!ExecutionNodeStatus.isCompleted(ExecutionNodeStatus.valueOf(jobInfo.getJobStatus))) {
         Utils.tryThrow {
-          Utils.waitUntil(
+          waitForJobCompleted(
+            atMost,
             () => {
               jobInfo = ujesSQLConnection.ujesClient.getJobInfo(jobExecuteResult)
               ExecutionNodeStatus.isCompleted(
                 ExecutionNodeStatus.valueOf(jobInfo.getJobStatus)
               ) || closed
-            },
-            atMost,
-            100,
-            10000
+            }
           )
         } {
           case t: TimeoutException =>
@@ -184,6 +182,36 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
     }
   }
 
+  /**
+   * Wait until isCompleted is true. The status of the job is long polled, so the entrance answers
+   * as soon as the job completes instead of after a polling interval. When it answers at once
+   * while isCompleted is still false, such as an entrance not supporting long polling or a job
+   * history behind the status, the wait falls back to a growing interval as Utils.waitUntil does
+   */
+  private def waitForJobCompleted(atMost: Duration, isCompleted: () => Boolean): Unit = {
+    val deadline =
+      if (atMost.isFinite()) System.currentTimeMillis + atMost.toMillis else Long.MaxValue
+    var count = 0
+    while (!isCompleted()) {
+      val remaining = deadline - System.currentTimeMillis
+      if (remaining <= 0) throw new TimeoutException(s"Waiting for job timeout after $atMost")
+      val waitMills = math.min(remaining, LinkisSQLStatement.STATUS_WAIT_MILLS)
+      val startTime = System.currentTimeMillis
+      val statusCompleted = Utils.tryCatch {
+        ujesSQLConnection.ujesClient.status(jobExecuteResult, waitMills).isCompleted
+      } { t =>
+        logger.warn(s"Failed to long poll the status of ${jobExecuteResult.getExecID}", t)
+        false
+      }
+      val held = System.currentTimeMillis - startTime >= waitMills / 2
+      if (statusCompleted || !held) {
+        count += 1
+        val sleepMills = math.max(math.min(100L * count, 10000L), 100L)
+        Utils.sleepQuietly(math.min(sleepMills, math.max(remaining, 1L)))
+      }
+    }
+  }
+
   def getJobExcuteResult: JobExecuteResult = jobExecuteResult
 
   override def getResultSet: UJESSQLResultSet = resultSet
@@ -329,3 +357,10 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
   }
 
 }
+
+object LinkisSQLStatement {
+
+  // longest time a status request is held by the entrance until the job completes
+  private val STATUS_WAIT_MILLS = 10000L
+
+}
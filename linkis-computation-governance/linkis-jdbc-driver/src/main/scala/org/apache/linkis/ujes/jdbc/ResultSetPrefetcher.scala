@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.ujes.jdbc
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.ujes.client.UJESClient
+import org.apache.linkis.ujes.client.request.ResultSetAction
+import org.apache.linkis.ujes.client.response.ResultSetResult
+
+import java.io.Closeable
+import java.util
+import java.util.concurrent.{CompletableFuture, ExecutionException}
+import java.util.function.BiConsumer
+
+/**
+ * Fetches the pages of a result set in order while keeping the next prefetchPages pages in
+ * flight, so that draining a result set does not wait for one round trip per page. The pages
+ * after the first are only requested once the first is full, and a page with less than pageSize
+ * rows is the last one
+ * 按顺序获取结果集分页，同时保持后续prefetchPages个分页在途，避免逐页等待请求往返
+ */
+private[jdbc] class ResultSetPrefetcher(
+    ujesClient: UJESClient,
+    user: String,
+    path: String,
+    pageSize: Int,
+    prefetchPages: Int,
+    streaming: Boolean
+) extends Closeable
+    with Logging {
+
+  private val inFlight = new util.ArrayDeque[CompletableFuture[ResultSetResult]]
+  private var nextPageToFetch = 1
+  private var lastPageFetched = false
+  private var closed = false
+
+  private def resultSetAction(page: Int): ResultSetAction = ResultSetAction
+    .builder()
+    .setPath(path)
+    .setUser(user)
+    .setPage(page)
+    .setPageSize(pageSize)
+    .setStreaming(streaming)
+    .build()
+
+  private def fetchAsync(): Unit = {
+    inFlight.add(ujesClient.resultSetAsync(resultSetAction(nextPageToFetch)))
+    nextPageToFetch += 1
+  }
+
+  /** The next page of the result set, null once the last page has been returned */
+  def nextPage(): ResultSetResult = {
+    if (closed || lastPageFetched) return null
+    val page = if (prefetchPages <= 0) {
+      val result = ujesClient.resultSet(resultSetAction(nextPageToFetch))
+      nextPageToFetch += 1
+      result
+    } else {
+      if (inFlight.isEmpty) fetchAsync()
+      try inFlight.poll().get()
+      catch {
+        case e: ExecutionException if e.getCause != null =>
+          release()
+          throw e.getCause
+      }
+    }
+    if (page.totalLine < pageSize) {
+      lastPageFetched = true
+      release()
+    } else {
+      while (inFlight.size() < prefetchPages) fetchAsync()
+    }
+    page
+  }
+
+  /**
+   * Drop the pages in flight, the streamed ones are closed once they arrive so their connections
+   * go back to the pool
+   */
+  private def release(): Unit = if (!inFlight.isEmpty) {
+    logger.debug(s"Release ${inFlight.size()} prefetched pages of the resultset $path")
+    val closeOnArrival = new BiConsumer[ResultSetResult, Throwable] {
+      override def accept(result: ResultSetResult, t: Throwable): Unit =
+        if (result != null) Utils.tryQuietly(result.close())
+    }
+    while (!inFlight.isEmpty) inFlight.poll().whenComplete(closeOnArrival)
+  }
+
+  override def close(): Unit = if (!closed) {
+    closed = true
+    release()
+  }
+
+}
@@ -75,6 +75,12 @@ class UJESSQLDriverMain extends Driver with Logging {
             case Array(FIXED_SESSION, value) =>
               props.setProperty(FIXED_SESSION, value)
               false
+            case Array(STREAMING_RESULT, value) =>
+              props.setProperty(STREAMING_RESULT, value)
+              false
+            case Array(PREFETCH_PAGES, value) =>
+              props.setProperty(PREFETCH_PAGES, value)
+              false
             case Array(key, _) =>
               if (StringUtils.isBlank(key)) {
                 throw new LinkisSQLException(
@@ -138,6 +144,9 @@ object UJESSQLDriverMain {
   val PASSWORD = UJESSQLDriver.PASSWORD
   val TABLEAU_SERVER = UJESSQLDriver.TABLEAU_SERVER
   val FIXED_SESSION = UJESSQLDriver.FIXED_SESSION
+  val STREAMING_RESULT = UJESSQLDriver.STREAMING_RESULT
+  val PREFETCH_PAGES = UJESSQLDriver.PREFETCH_PAGES
+  val DEFAULT_PREFETCH_PAGES = UJESSQLDriver.DEFAULT_PREFETCH_PAGES
 
   val VERSION = UJESSQLDriver.VERSION
   val DEFAULT_VERSION = UJESSQLDriver.DEFAULT_VERSION
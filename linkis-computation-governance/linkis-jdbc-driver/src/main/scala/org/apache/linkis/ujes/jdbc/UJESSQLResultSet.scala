@@ -18,7 +18,6 @@
 package org.apache.linkis.ujes.jdbc
 
 import org.apache.linkis.common.utils.Logging
-import org.apache.linkis.ujes.client.request.ResultSetAction
 import org.apache.linkis.ujes.client.response.ResultSetResult
 
 import org.apache.commons.lang3.StringUtils
@@ -66,13 +65,15 @@ class UJESSQLResultSet(
   private var resultSetRow: util.ArrayList[util.ArrayList[String]] = _
   private var resultSetResult: ResultSetResult = _
   private var resultSetMetaData: UJESSQLResultSetMetaData = new UJESSQLResultSetMetaData
-  private var fetchSizeNum: Int = _
+  private var fetchSizeNum: Int = fetchSize
   private var currentRow: util.ArrayList[String] = _
   private var hasClosed: Boolean = false
   private var isCompleted: Boolean = false
   private var totalLine: Int = 0
   private var currentPage: Int = 1
-  private val pageSize: Int = 5000
+  // Rows of a page, the fetch size hint when set, fixed once the first page is fetched
+  private var pageSize: Int = UJESSQLResultSet.DEFAULT_PAGE_SIZE
+  private var prefetcher: ResultSetPrefetcher = _
   private var path: String = _
   private var metaData: util.List[util.Map[String, String]] = _
   private val statement: LinkisSQLStatement = ujesStatement
@@ -80,6 +81,10 @@ class UJESSQLResultSet(
   private val connection: LinkisSQLConnection =
     ujesStatement.getConnection.asInstanceOf[LinkisSQLConnection]
 
+  // Rows are read from the response of the page while iterating, only the current row is held
+  private val streaming: Boolean = connection.streamingResultEnabled
+  private var rowIterator: util.Iterator[Object] = _
+
   private var valueWasNull: Boolean = false
   private var warningChain: SQLWarning = _
 
@@ -112,9 +117,16 @@ class UJESSQLResultSet(
     if (path == null) path = getResultSetPath(resultSetList)
     val user = connection.getProps.getProperty("user")
     if (StringUtils.isNotBlank(path)) {
-      val resultAction =
-        ResultSetAction.builder().setUser(user).setPageSize(pageSize).setPath(path).build()
-      resultSetResult = connection.ujesClient.resultSet(resultAction)
+      if (fetchSizeNum > 0) pageSize = fetchSizeNum
+      prefetcher = new ResultSetPrefetcher(
+        connection.ujesClient,
+        user,
+        path,
+        pageSize,
+        connection.prefetchPages,
+        streaming
+      )
+      resultSetResult = prefetcher.nextPage()
       totalLine = resultSetResult.totalLine
       logger.info(
         s"Currently page is $currentPage, and already fetched $totalLine lines of the resultset"
@@ -126,27 +138,23 @@ class UJESSQLResultSet(
    * currentRowCursor应被更新为0，而非-1，因为需要马上updateCurrentRow
    */
   private def updateResultSet(): Unit = {
-    if (path == null) path = getResultSetPath(resultSetList)
-    val user = connection.getProps.getProperty("user")
     if (resultSetResult.totalLine > 0 && resultSetResult.totalLine <= pageSize) {
       currentPage = currentPage + 1
-      resultSetResult = connection.ujesClient.resultSet(
-        ResultSetAction
-          .builder()
-          .setPath(path)
-          .setUser(user)
-          .setPage(currentPage)
-          .setPageSize(pageSize)
-          .build()
-      )
-      if (resultSetResult.totalLine == 0) {
+      closeResultSetResult()
+      resultSetResult = prefetcher.nextPage()
+      if (resultSetResult == null || resultSetResult.totalLine == 0) {
+        closeResultSetResult()
         isCompleted = true
         return
       }
-      resultSetRow =
-        resultSetResult.getFileContent.asInstanceOf[util.ArrayList[util.ArrayList[String]]]
+      if (streaming) {
+        rowIterator = resultSetResult.getRowIterator
+      } else {
+        resultSetRow =
+          resultSetResult.getFileContent.asInstanceOf[util.ArrayList[util.ArrayList[String]]]
+        currentRowCursor = 0
+      }
       totalLine = totalLine + resultSetResult.totalLine
-      currentRowCursor = 0
       logger.info(
         s"Currently page is $currentPage, and already fetched $totalLine lines of the resultset"
       )
@@ -172,8 +180,16 @@ class UJESSQLResultSet(
     if (null == resultSetResult) {
       return
     }
-    resultSetRow =
-      resultSetResult.getFileContent.asInstanceOf[util.ArrayList[util.ArrayList[String]]]
+    if (streaming) {
+      rowIterator = resultSetResult.getRowIterator
+    } else {
+      resultSetRow =
+        resultSetResult.getFileContent.asInstanceOf[util.ArrayList[util.ArrayList[String]]]
+    }
+  }
+
+  private def closeResultSetResult(): Unit = if (streaming && resultSetResult != null) {
+    resultSetResult.close()
   }
 
   private def init(): Unit = {
@@ -191,6 +207,7 @@ class UJESSQLResultSet(
 
   override def next(): Boolean = {
     if (metaData == null) init()
+    if (streaming) return nextStreamingRow()
     currentRowCursor += 1
     if (null == resultSetRow || currentRowCursor > resultSetRow.size() - 1) {
       if (!isCompleted) {
@@ -209,13 +226,45 @@ class UJESSQLResultSet(
     }
   }
 
+  /**
+   * currentRowCursor counts the rows read across all pages, so that getRow stays the absolute row
+   * number of the result set
+   */
+  private def nextStreamingRow(): Boolean = {
+    if (rowIterator != null && rowIterator.hasNext) {
+      currentRowCursor += 1
+      currentRow = rowIterator.next().asInstanceOf[util.ArrayList[String]]
+      true
+    } else if (!isCompleted && resultSetResult != null) {
+      updateResultSet()
+      if (isCompleted) {
+        currentRow = null
+        false
+      } else nextStreamingRow()
+    } else {
+      currentRow = null
+      false
+    }
+  }
+
+  private def checkScrollable(): Unit = if (streaming) {
+    throw new LinkisSQLException(
+      LinkisSQLErrorCode.NOSUPPORT_RESULTSET,
+      "the result set is forward only when streamingResult is enabled"
+    )
+  }
+
   def realClose(connection: Connection): Unit = {
     connection.close()
   }
 
   override def close(): Unit = {
     if (!isClosed) {
+      closeResultSetResult()
+      if (prefetcher != null) prefetcher.close()
+      prefetcher = null
       resultSetResult = null
+      rowIterator = null
       metaData = null
       resultSetMetaData = null
       resultSetRow = null
@@ -569,30 +618,39 @@ class UJESSQLResultSet(
   }
 
   override def isBeforeFirst: Boolean = {
-    if (resultSetRow == null) {
+    if (streaming) {
+      currentRowCursor == -1
+    } else if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else currentRowCursor == -1
   }
 
   override def isAfterLast: Boolean = {
-    if (resultSetRow == null) {
+    if (streaming) {
+      currentRowCursor >= 0 && currentRow == null
+    } else if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else currentRowCursor > resultSetRow.size() - 1
   }
 
   override def isFirst: Boolean = {
-    if (resultSetRow == null) {
+    if (streaming) {
+      currentRowCursor == 0 && currentRow != null
+    } else if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else currentRowCursor == 0
   }
 
   override def isLast: Boolean = {
-    if (resultSetRow == null) {
+    if (streaming) {
+      currentRow != null && !rowIterator.hasNext
+    } else if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else currentRowCursor == resultSetRow.size() - 1
   }
 
   override def beforeFirst(): Unit = {
+    checkScrollable()
     if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else {
@@ -602,6 +660,7 @@ class UJESSQLResultSet(
   }
 
   override def afterLast(): Unit = {
+    checkScrollable()
     if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else {
@@ -611,6 +670,7 @@ class UJESSQLResultSet(
   }
 
   override def first(): Boolean = {
+    checkScrollable()
     if (resultSetRow == null) false
     else {
       currentRowCursor = 0
@@ -620,6 +680,7 @@ class UJESSQLResultSet(
   }
 
   override def last(): Boolean = {
+    checkScrollable()
     if (resultSetRow == null) false
     else {
       currentRowCursor = resultSetRow.size() - 1
@@ -629,7 +690,9 @@ class UJESSQLResultSet(
   }
 
   override def getRow: Int = {
-    if (resultSetRow == null) {
+    if (streaming) {
+      if (currentRow == null) 0 else currentRowCursor + 1
+    } else if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else {
       currentRowCursor + 1
@@ -637,6 +700,7 @@ class UJESSQLResultSet(
   }
 
   override def absolute(row: Int): Boolean = {
+    checkScrollable()
     if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else if (row > resultSetRow.size()) {
@@ -656,6 +720,7 @@ class UJESSQLResultSet(
   }
 
   override def relative(rows: Int): Boolean = {
+    checkScrollable()
     if (resultSetRow == null) {
       throw new LinkisSQLException(LinkisSQLErrorCode.RESULTSET_NULL)
     } else if (rows > resultSetRow.size()) {
@@ -675,6 +740,7 @@ class UJESSQLResultSet(
   }
 
   override def previous(): Boolean = {
+    checkScrollable()
     if (metaData == null) init()
     currentRowCursor -= 1
     updateCurrentRow(currentRowCursor)
@@ -698,7 +764,7 @@ class UJESSQLResultSet(
   }
 
   override def getType: Int = {
-    ResultSet.TYPE_SCROLL_INSENSITIVE
+    if (streaming) ResultSet.TYPE_FORWARD_ONLY else ResultSet.TYPE_SCROLL_INSENSITIVE
   }
 
   override def getConcurrency: Int = {
@@ -1238,3 +1304,9 @@ class UJESSQLResultSet(
   }
 
 }
+
+object UJESSQLResultSet {
+
+  val DEFAULT_PAGE_SIZE = 5000
+
+}
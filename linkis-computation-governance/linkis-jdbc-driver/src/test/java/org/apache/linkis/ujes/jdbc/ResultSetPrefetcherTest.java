@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.jdbc;
+
+import org.apache.linkis.ujes.client.UJESClient;
+import org.apache.linkis.ujes.client.request.ResultSetAction;
+import org.apache.linkis.ujes.client.response.ResultSetResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class ResultSetPrefetcherTest {
+
+  private static final int PAGE_SIZE = 10;
+
+  private static final String PATH = "hdfs:///tmp/linkis/_0.dolphin";
+
+  private UJESClient ujesClient;
+
+  /** Pages in the order they are requested from the client */
+  private final List<Integer> requestedPages = new ArrayList<>();
+
+  private final Map<Integer, CompletableFuture<ResultSetResult>> pages =
+      new ConcurrentHashMap<>();
+
+  @BeforeEach
+  public void mockClient() {
+    ujesClient = Mockito.mock(UJESClient.class);
+    Mockito.when(ujesClient.resultSetAsync(Mockito.any(ResultSetAction.class)))
+        .thenAnswer(
+            invocation -> {
+              int page = pageOf(invocation.getArgument(0));
+              requestedPages.add(page);
+              return future(page);
+            });
+  }
+
+  private static int pageOf(ResultSetAction action) {
+    return (Integer) action.getParameters().get("page");
+  }
+
+  private CompletableFuture<ResultSetResult> future(int page) {
+    return pages.computeIfAbsent(page, p -> new CompletableFuture<>());
+  }
+
+  private static ResultSetResult result(int page, int totalLine) {
+    ResultSetResult result = Mockito.spy(new ResultSetResult());
+    result.setPage(page);
+    result.setTotalLine(totalLine);
+    return result;
+  }
+
+  private ResultSetPrefetcher prefetcher(int prefetchPages) {
+    return new ResultSetPrefetcher(ujesClient, "hadoop", PATH, PAGE_SIZE, prefetchPages, true);
+  }
+
+  @Test
+  public void testPagesInOrder() {
+    ResultSetResult first = result(1, PAGE_SIZE);
+    ResultSetResult second = result(2, PAGE_SIZE);
+    ResultSetResult last = result(3, PAGE_SIZE - 3);
+    future(1).complete(first);
+    ResultSetPrefetcher prefetcher = prefetcher(2);
+    Assertions.assertSame(first, prefetcher.nextPage());
+    // the pages after a full first one are requested ahead
+    Assertions.assertEquals(Arrays.asList(1, 2, 3), requestedPages);
+    // pages arriving out of order are still returned in order
+    future(3).complete(last);
+    future(2).complete(second);
+    Assertions.assertSame(second, prefetcher.nextPage());
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), requestedPages);
+    // a short page is the last one, the page after it is closed once it arrives
+    Assertions.assertSame(last, prefetcher.nextPage());
+    Assertions.assertNull(prefetcher.nextPage());
+    ResultSetResult beyondLast = result(4, 0);
+    future(4).complete(beyondLast);
+    Mockito.verify(beyondLast).close();
+    Mockito.verify(first, Mockito.never()).close();
+    Mockito.verify(last, Mockito.never()).close();
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), requestedPages);
+  }
+
+  @Test
+  public void testShortFirstPage() {
+    ResultSetResult only = result(1, PAGE_SIZE - 1);
+    future(1).complete(only);
+    ResultSetPrefetcher prefetcher = prefetcher(2);
+    Assertions.assertSame(only, prefetcher.nextPage());
+    Assertions.assertNull(prefetcher.nextPage());
+    Assertions.assertEquals(Arrays.asList(1), requestedPages);
+  }
+
+  @Test
+  public void testErrorMidStream() {
+    future(1).complete(result(1, PAGE_SIZE));
+    ResultSetPrefetcher prefetcher = prefetcher(2);
+    prefetcher.nextPage();
+    IllegalStateException error = new IllegalStateException("resultset server is down");
+    future(2).completeExceptionally(error);
+    Assertions.assertSame(error, Assertions.assertThrows(Throwable.class, prefetcher::nextPage));
+    // the page still in flight behind the failed one is released once it arrives
+    ResultSetResult inFlight = result(3, PAGE_SIZE);
+    future(3).complete(inFlight);
+    Mockito.verify(inFlight).close();
+  }
+
+  @Test
+  public void testCloseReleasesPagesInFlight() {
+    future(1).complete(result(1, PAGE_SIZE));
+    ResultSetPrefetcher prefetcher = prefetcher(3);
+    prefetcher.nextPage();
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), requestedPages);
+    ResultSetResult arrived = result(2, PAGE_SIZE);
+    future(2).complete(arrived);
+    prefetcher.close();
+    Mockito.verify(arrived).close();
+    // the pages arriving after close are closed too
+    ResultSetResult third = result(3, PAGE_SIZE);
+    ResultSetResult fourth = result(4, PAGE_SIZE);
+    future(4).complete(fourth);
+    future(3).complete(third);
+    Mockito.verify(third).close();
+    Mockito.verify(fourth).close();
+    Assertions.assertNull(prefetcher.nextPage());
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), requestedPages);
+  }
+
+  @Test
+  public void testWithoutPrefetch() {
+    ResultSetResult first = result(1, PAGE_SIZE);
+    ResultSetResult last = result(2, 0);
+    Mockito.when(ujesClient.resultSet(Mockito.any(ResultSetAction.class)))
+        .thenAnswer(invocation -> pageOf(invocation.getArgument(0)) == 1 ? first : last);
+    ResultSetPrefetcher prefetcher = prefetcher(0);
+    Assertions.assertSame(first, prefetcher.nextPage());
+    Assertions.assertSame(last, prefetcher.nextPage());
+    Assertions.assertNull(prefetcher.nextPage());
+    Mockito.verify(ujesClient, Mockito.times(2)).resultSet(Mockito.any(ResultSetAction.class));
+    Mockito.verify(ujesClient, Mockito.never())
+        .resultSetAsync(Mockito.any(ResultSetAction.class));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Notice:
+ * if you want to test this module,you must rewrite default parameters and SQL we used for local test
+ *
+ * Drains a result set of 10 million rows with different prefetch depths and prints the rows per
+ * second, the SQL must return ROW_COUNT rows
+ * */
+
+public class UJESSQLResultSetBenchmark {
+
+  private static final String URL = "jdbc:linkis://hostname:port";
+
+  private static final String SQL = "select id from bench_table limit 10000000";
+
+  private static final long ROW_COUNT = 10000000L;
+
+  private static boolean connectable;
+
+  @BeforeAll
+  public static void checkConnection() {
+    try {
+      CreateConnection.getConnection().close();
+      connectable = true;
+    } catch (Exception e) {
+      connectable = false;
+    }
+  }
+
+  private long drain(String params) throws Exception {
+    Class.forName("org.apache.linkis.ujes.jdbc.UJESSQLDriver");
+    try (Connection conn = DriverManager.getConnection(URL + params, "username", "password");
+        Statement statement = conn.createStatement()) {
+      long startTime = System.currentTimeMillis();
+      long rows = 0;
+      try (ResultSet resultSet = statement.executeQuery(SQL)) {
+        while (resultSet.next()) {
+          resultSet.getString(1);
+          rows++;
+        }
+      }
+      long costMills = Math.max(System.currentTimeMillis() - startTime, 1);
+      System.out.println(
+          String.format(
+              "%s: drained %d rows in %dms, %d rows/s",
+              params, rows, costMills, rows * 1000 / costMills));
+      return rows;
+    }
+  }
+
+  @Test
+  public void drainWithoutPrefetch() throws Exception {
+    if (connectable) {
+      Assertions.assertEquals(ROW_COUNT, drain("?prefetchPages=0"));
+    }
+  }
+
+  @Test
+  public void drainWithPrefetch() throws Exception {
+    if (connectable) {
+      Assertions.assertEquals(ROW_COUNT, drain("?prefetchPages=4"));
+    }
+  }
+
+  @Test
+  public void drainStreamingWithPrefetch() throws Exception {
+    if (connectable) {
+      Assertions.assertEquals(ROW_COUNT, drain("?prefetchPages=4&streamingResult=true"));
+    }
+  }
+}
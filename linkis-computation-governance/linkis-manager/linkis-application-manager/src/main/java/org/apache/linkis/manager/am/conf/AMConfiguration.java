@@ -102,6 +102,17 @@ public class AMConfiguration {
   public static final Boolean NODE_SELECT_HOTSPOT_EXCLUSION_RULE =
       CommonVars.apply("linkis.node.select.hotspot.exclusion.rule.enable", true).getValue();
 
+  /** Run the node select rules as one pass over precomputed scores instead of sorting per rule */
+  public static final Boolean NODE_SELECT_PIPELINE_ENABLE =
+      CommonVars.apply("linkis.node.select.pipeline.enable", true).getValue();
+
+  /**
+   * How long the precomputed score of a node is reused when no heartbeat or resource change of the
+   * node is seen, 0 recomputes the score on every selection
+   */
+  public static final long NODE_SELECT_SCORE_TTL =
+      CommonVars.apply("linkis.node.select.score.ttl", new TimeType("10s")).getValue().toLong();
+
   public static String getDefaultMultiEngineUser() {
     String jvmUser = Utils.getJvmUser();
     return String.format(
@@ -42,4 +42,17 @@ public class ManagerMonitorConf {
 
   public static final CommonVars<TimeType> ECM_HEARTBEAT_MAX_UPDATE_TIME =
       CommonVars.apply("wds.linkis.manager.am.ecm.heartbeat", new TimeType("5m"));
+
+  /**
+   * Inspect only the nodes whose heartbeat deadline expired between two full scans, see {@link
+   * org.apache.linkis.manager.am.service.monitor.NodeHeartbeatTracker}(增量检查心跳过期的节点)
+   */
+  public static final CommonVars<Boolean> MONITOR_INCREMENTAL_ENABLE =
+      CommonVars.apply("wds.linkis.manager.am.monitor.incremental.enable", true);
+
+  public static final CommonVars<TimeType> MONITOR_FULL_SCAN_INTERVAL =
+      CommonVars.apply("wds.linkis.manager.am.monitor.full.scan.interval", new TimeType("10m"));
+
+  public static final CommonVars<Integer> MONITOR_TIMING_WHEEL_SIZE =
+      CommonVars.apply("wds.linkis.manager.am.monitor.timing.wheel.size", 1024);
 }
@@ -36,6 +36,7 @@ import org.apache.linkis.manager.common.protocol.node.NodeHeartbeatMsg;
 import org.apache.linkis.manager.label.builder.factory.LabelBuilderFactory;
 import org.apache.linkis.manager.label.builder.factory.LabelBuilderFactoryContext;
 import org.apache.linkis.manager.label.entity.engine.EngineInstanceLabel;
+import org.apache.linkis.manager.label.index.NodeLabelIndex;
 import org.apache.linkis.manager.persistence.LabelManagerPersistence;
 import org.apache.linkis.manager.persistence.NodeManagerPersistence;
 import org.apache.linkis.manager.persistence.NodeMetricManagerPersistence;
@@ -73,6 +74,8 @@ public class DefaultEngineNodeManager implements EngineNodeManager {
 
   @Autowired private LabelManagerPersistence labelManagerPersistence;
 
+  @Autowired private NodeLabelIndex nodeLabelIndex;
+
   private final LabelBuilderFactory labelBuilderFactory =
       LabelBuilderFactoryContext.getLabelBuilderFactory();
 
@@ -334,6 +337,8 @@ public class DefaultEngineNodeManager implements EngineNodeManager {
         labelBuilderFactory.convertLabel(engineLabel, PersistenceLabel.class);
     persistenceLabel.setLabelValueSize(persistenceLabel.getValue().size());
     labelManagerPersistence.updateLabel(label.getId(), persistenceLabel);
+    nodeLabelIndex.reindexLabel(label);
+    nodeLabelIndex.reindexNode(engineNode.getServiceInstance());
   }
 
   public EngineOperateResponse executeOperation(
@@ -17,15 +17,24 @@
 
 package org.apache.linkis.manager.am.selector;
 
+import org.apache.linkis.manager.am.conf.AMConfiguration;
 import org.apache.linkis.manager.am.selector.rule.NodeSelectRule;
+import org.apache.linkis.manager.am.selector.rule.PipelinedNodeSelectRule;
 import org.apache.linkis.manager.common.entity.node.Node;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,8 +42,53 @@ import org.slf4j.LoggerFactory;
 public class DefaultNodeSelector implements NodeSelector {
   private static final Logger logger = LoggerFactory.getLogger(DefaultNodeSelector.class);
 
+  private static final String SELECT_TIMER_NAME = "linkis.manager.node.select";
+
   @Autowired private List<NodeSelectRule> ruleList;
 
+  @Autowired private NodeScoreBoard nodeScoreBoard;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  private volatile NodeSelectPipeline pipeline;
+
+  private Timer pipelineTimer;
+
+  private Timer ruleTimer;
+
+  @PostConstruct
+  public void init() {
+    MeterRegistry registry = meterRegistry == null ? Metrics.globalRegistry : meterRegistry;
+    pipelineTimer = selectTimer(registry, "pipeline");
+    ruleTimer = selectTimer(registry, "rule");
+    pipeline = buildPipeline();
+  }
+
+  private static Timer selectTimer(MeterRegistry registry, String mode) {
+    return Timer.builder(SELECT_TIMER_NAME)
+        .description("Latency of selecting a node from the candidate nodes")
+        .tag("mode", mode)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  /** Pipeline of the rules, null if a rule can only filter the node array itself */
+  private NodeSelectPipeline buildPipeline() {
+    if (!AMConfiguration.NODE_SELECT_PIPELINE_ENABLE || ruleList == null) {
+      return null;
+    }
+    List<PipelinedNodeSelectRule> rules = new ArrayList<>(ruleList.size());
+    for (NodeSelectRule rule : ruleList) {
+      if (!(rule instanceof PipelinedNodeSelectRule)) {
+        logger.info("node select rule {} is not pipelined, run rules one by one", rule);
+        return null;
+      }
+      rules.add((PipelinedNodeSelectRule) rule);
+    }
+    return new NodeSelectPipeline(rules);
+  }
+
   /**
    * Select the most suitable node from a series of nodes through selection rules Rule processing
    * logic, defaults to the last priority
@@ -48,16 +102,32 @@ public class DefaultNodeSelector implements NodeSelector {
       return Optional.empty();
     } else if (ruleList == null) {
       return Optional.of(nodes[0]);
+    }
+    long startTime = System.nanoTime();
+    NodeSelectPipeline currentPipeline = pipeline;
+    Optional<Node> result;
+    if (currentPipeline != null) {
+      NodeCandidate[] head = currentPipeline.rank(nodes, nodeScoreBoard);
+      result = head.length == 0 ? Optional.empty() : Optional.of(head[0].getNode());
     } else {
-      Node[] resultNodes = nodes;
-      for (NodeSelectRule rule : ruleList) {
-        resultNodes = rule.ruleFiltering(resultNodes);
-      }
-      if (resultNodes.length == 0) {
-        return Optional.empty();
-      } else {
-        return Optional.of(resultNodes[0]);
-      }
+      result = choseNodeByRules(nodes);
+    }
+    Timer timer = currentPipeline != null ? pipelineTimer : ruleTimer;
+    if (timer != null) {
+      timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+    return result;
+  }
+
+  private Optional<Node> choseNodeByRules(Node[] nodes) {
+    Node[] resultNodes = nodes;
+    for (NodeSelectRule rule : ruleList) {
+      resultNodes = rule.ruleFiltering(resultNodes);
+    }
+    if (resultNodes.length == 0) {
+      return Optional.empty();
+    } else {
+      return Optional.of(resultNodes[0]);
     }
   }
 
@@ -70,6 +140,7 @@ public class DefaultNodeSelector implements NodeSelector {
   public void addNodeSelectRule(NodeSelectRule nodeSelectRule) {
     if (nodeSelectRule != null) {
       ruleList.add(nodeSelectRule);
+      pipeline = buildPipeline();
     }
   }
 }
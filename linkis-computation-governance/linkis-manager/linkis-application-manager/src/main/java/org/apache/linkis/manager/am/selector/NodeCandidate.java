@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.selector;
+
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.node.ScoreServiceInstance;
+
+/**
+ * A node taking part in one selection: the node itself, its precomputed {@link NodeScore}, the
+ * label score of the current ask and the position of the node in the asked array
+ * 单次节点选择中的候选节点，包含节点、预计算分数、本次请求的标签分数以及节点原始位置
+ */
+public class NodeCandidate {
+
+  private final Node node;
+
+  private final NodeScore score;
+
+  private final int index;
+
+  private final long selectTime;
+
+  private final boolean labelScored;
+
+  private final double labelScore;
+
+  public NodeCandidate(Node node, NodeScore score, int index, long selectTime) {
+    this.node = node;
+    this.score = score;
+    this.index = index;
+    this.selectTime = selectTime;
+    this.labelScored = node instanceof ScoreServiceInstance;
+    this.labelScore = labelScored ? ((ScoreServiceInstance) node).getScore() : 0d;
+  }
+
+  public Node getNode() {
+    return node;
+  }
+
+  public NodeScore getScore() {
+    return score;
+  }
+
+  /** @return position of the node in the asked array, the last tie breaker of the rules */
+  public int getIndex() {
+    return index;
+  }
+
+  /** @return the time the selection started, shared by all candidates of the selection */
+  public long getSelectTime() {
+    return selectTime;
+  }
+
+  public boolean isLabelScored() {
+    return labelScored;
+  }
+
+  /** @return the label score of the node for the current ask, 0 if the node is not scored */
+  public double getLabelScore() {
+    return labelScore;
+  }
+}
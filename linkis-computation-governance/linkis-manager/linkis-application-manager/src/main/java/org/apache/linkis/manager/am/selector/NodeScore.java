@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.selector;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.common.entity.metrics.NodeTaskInfo;
+import org.apache.linkis.manager.common.entity.node.AMNode;
+import org.apache.linkis.manager.common.entity.node.EMNode;
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.node.RMNode;
+import org.apache.linkis.manager.common.entity.resource.LoadInstanceResource;
+import org.apache.linkis.manager.common.entity.resource.NodeResource;
+import org.apache.linkis.manager.common.entity.resource.Resource;
+import org.apache.linkis.manager.common.utils.ResourceUtils;
+
+import java.util.Date;
+
+/**
+ * Values of a node read once for the node select rules, so the rules compare fields instead of
+ * walking the node metrics and resources on every comparison
+ * 节点选择规则使用的预计算节点数据，规则比较时直接读取字段，无需每次重新解析节点指标和资源
+ */
+public class NodeScore {
+
+  private final ServiceInstance serviceInstance;
+
+  private final boolean emNode;
+
+  private final boolean rmNode;
+
+  private final int tasks;
+
+  private final Resource leftResource;
+
+  /** Left memory, cores and instances of a LoadInstanceResource, compared without allocation */
+  private final long[] leftLoad;
+
+  private final float resourceRate;
+
+  private final long startTime;
+
+  private final long createTime;
+
+  private NodeScore(Node node, long createTime) {
+    this.serviceInstance = node.getServiceInstance();
+    this.emNode = node instanceof EMNode;
+    this.rmNode = node instanceof RMNode;
+    NodeTaskInfo taskInfo = node instanceof AMNode ? ((AMNode) node).getNodeTaskInfo() : null;
+    this.tasks = taskInfo == null ? 0 : taskInfo.getTasks();
+    NodeResource nodeResource = rmNode ? ((RMNode) node).getNodeResource() : null;
+    this.leftResource = nodeResource == null ? null : nodeResource.getLeftResource();
+    if (leftResource instanceof LoadInstanceResource) {
+      LoadInstanceResource load = (LoadInstanceResource) leftResource;
+      this.leftLoad = new long[] {load.getMemory(), load.getCores(), load.getInstances()};
+    } else {
+      this.leftLoad = null;
+    }
+    this.resourceRate =
+        leftResource == null
+            ? 0f
+            : ResourceUtils.getLoadInstanceResourceRate(
+                leftResource, nodeResource.getMaxResource());
+    Date start = node.getStartTime();
+    this.startTime = start == null ? -1L : start.getTime();
+    this.createTime = createTime;
+  }
+
+  public static NodeScore of(Node node) {
+    return new NodeScore(node, System.currentTimeMillis());
+  }
+
+  public ServiceInstance getServiceInstance() {
+    return serviceInstance;
+  }
+
+  public boolean isEmNode() {
+    return emNode;
+  }
+
+  public boolean isRmNode() {
+    return rmNode;
+  }
+
+  public int getTasks() {
+    return tasks;
+  }
+
+  public Resource getLeftResource() {
+    return leftResource;
+  }
+
+  public float getResourceRate() {
+    return resourceRate;
+  }
+
+  /** @return start time of the node in millis, -1 if unknown */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public boolean isExpired(long now, long ttl) {
+    return now - createTime >= ttl;
+  }
+
+  /**
+   * Compare the left resources of two nodes which both have one, the same order as {@link
+   * Resource#compare(Resource)} without building a new resource for every comparison
+   * 比较两个节点的剩余资源
+   *
+   * @param other
+   * @return
+   */
+  public int compareLeftResource(NodeScore other) {
+    if (leftLoad != null && other.leftLoad != null) {
+      for (int i = 0; i < leftLoad.length; i++) {
+        int result = Long.compare(leftLoad[i], other.leftLoad[i]);
+        if (result != 0) {
+          return result;
+        }
+      }
+      return 0;
+    } else if (leftResource.equalsTo(other.leftResource)) {
+      return 0;
+    } else if (leftResource.moreThan(other.leftResource)) {
+      return 1;
+    } else {
+      return leftResource.compare(other.leftResource);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.selector;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.common.utils.Utils;
+import org.apache.linkis.manager.am.conf.AMConfiguration;
+import org.apache.linkis.manager.common.entity.node.Node;
+
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link NodeScore} of every selected node. Heartbeats and resource changes of a node
+ * drop its score, so only the nodes which changed since the last selection are read again
+ * 维护节点的预计算分数，节点心跳或资源变化时失效，下次选择只重新计算发生变化的节点
+ *
+ * <p>The ttl bounds how long a score is trusted when the change was handled by another manager
+ * instance
+ */
+@Component
+public class NodeScoreBoard {
+
+  private final long ttl;
+
+  private final Map<ServiceInstance, NodeScore> scores = new ConcurrentHashMap<>();
+
+  public NodeScoreBoard() {
+    this(AMConfiguration.NODE_SELECT_SCORE_TTL);
+  }
+
+  public NodeScoreBoard(long ttl) {
+    this.ttl = ttl;
+  }
+
+  @PostConstruct
+  public void init() {
+    if (ttl > 0) {
+      Utils.defaultScheduler()
+          .scheduleAtFixedRate(this::purgeExpired, ttl, ttl, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Score of the node, reused while it is neither invalidated nor expired(获取节点的预计算分数)
+   *
+   * @param node
+   * @param now
+   * @return
+   */
+  public NodeScore scoreOf(Node node, long now) {
+    ServiceInstance serviceInstance = node.getServiceInstance();
+    if (ttl <= 0 || serviceInstance == null) {
+      return NodeScore.of(node);
+    }
+    NodeScore score = scores.get(serviceInstance);
+    if (score == null || score.isExpired(now, ttl)) {
+      score = NodeScore.of(node);
+      scores.put(serviceInstance, score);
+    }
+    return score;
+  }
+
+  /**
+   * The metrics or resource of the node changed(节点指标或资源发生变化)
+   *
+   * @param serviceInstance
+   */
+  public void invalidate(ServiceInstance serviceInstance) {
+    if (serviceInstance != null) {
+      scores.remove(serviceInstance);
+    }
+  }
+
+  public void clear() {
+    scores.clear();
+  }
+
+  public int size() {
+    return scores.size();
+  }
+
+  void purgeExpired() {
+    long now = System.currentTimeMillis();
+    scores.values().removeIf(score -> score.isExpired(now, ttl));
+  }
+}
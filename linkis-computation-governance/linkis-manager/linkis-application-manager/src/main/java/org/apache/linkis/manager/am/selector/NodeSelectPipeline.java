@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.selector;
+
+import org.apache.linkis.manager.am.selector.rule.PipelinedNodeSelectRule;
+import org.apache.linkis.manager.common.entity.node.Node;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Evaluates {@link PipelinedNodeSelectRule}s in one pass: every node is scored and filtered once,
+ * then only the leading nodes the rules need are kept in a bounded heap instead of sorting all the
+ * nodes once per rule
+ * 单次遍历执行选择规则：每个节点只计算和过滤一次，再用有界堆保留规则所需的头部节点，无需每个规则都对全部节点排序
+ */
+public class NodeSelectPipeline {
+
+  private final PipelinedNodeSelectRule[] rules;
+
+  private final Comparator<NodeCandidate> order;
+
+  public NodeSelectPipeline(List<PipelinedNodeSelectRule> rules) {
+    this.rules = rules.toArray(new PipelinedNodeSelectRule[0]);
+    Comparator<NodeCandidate> comparator = (a, b) -> 0;
+    // the rule sorting last decides, the earlier ones break its ties
+    for (int i = this.rules.length - 1; i >= 0; i--) {
+      comparator = comparator.thenComparing(this.rules[i]::compare);
+    }
+    this.order = comparator.thenComparingInt(NodeCandidate::getIndex);
+  }
+
+  /**
+   * Rank the nodes and return the leading ones, the first one is the selected node
+   * (对节点排序并返回头部节点，第一个即为选中节点)
+   *
+   * @param nodes
+   * @param scoreBoard
+   * @return the leading candidates, empty if no node is accepted
+   */
+  public NodeCandidate[] rank(Node[] nodes, NodeScoreBoard scoreBoard) {
+    long now = System.currentTimeMillis();
+    NodeCandidate[] accepted = new NodeCandidate[nodes.length];
+    int count = 0;
+    for (int i = 0; i < nodes.length; i++) {
+      Node node = nodes[i];
+      if (node == null) {
+        continue;
+      }
+      NodeCandidate candidate = new NodeCandidate(node, scoreBoard.scoreOf(node, now), i, now);
+      if (accept(candidate)) {
+        accepted[count++] = candidate;
+      }
+    }
+    if (count == 0) {
+      return new NodeCandidate[0];
+    }
+    int headSize = 1;
+    for (PipelinedNodeSelectRule rule : rules) {
+      headSize = Math.max(headSize, rule.headSize(count));
+    }
+    NodeCandidate[] head = top(accepted, count, Math.min(headSize, count));
+    for (PipelinedNodeSelectRule rule : rules) {
+      rule.reorder(head, count);
+    }
+    return head;
+  }
+
+  private boolean accept(NodeCandidate candidate) {
+    for (PipelinedNodeSelectRule rule : rules) {
+      if (!rule.accept(candidate)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private NodeCandidate[] top(NodeCandidate[] accepted, int count, int size) {
+    if (size == 1) {
+      NodeCandidate best = accepted[0];
+      for (int i = 1; i < count; i++) {
+        if (order.compare(accepted[i], best) < 0) {
+          best = accepted[i];
+        }
+      }
+      return new NodeCandidate[] {best};
+    }
+    // max heap of the best candidates seen so far, its root is the first to be replaced
+    PriorityQueue<NodeCandidate> heap = new PriorityQueue<>(size, order.reversed());
+    for (int i = 0; i < count; i++) {
+      if (heap.size() < size) {
+        heap.add(accepted[i]);
+      } else if (order.compare(accepted[i], heap.peek()) < 0) {
+        heap.poll();
+        heap.add(accepted[i]);
+      }
+    }
+    NodeCandidate[] head = heap.toArray(new NodeCandidate[0]);
+    Arrays.sort(head, order);
+    return head;
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.linkis.manager.am.selector.rule;
 
+import org.apache.linkis.manager.am.selector.NodeCandidate;
 import org.apache.linkis.manager.common.entity.enumeration.NodeHealthy;
 import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
 import org.apache.linkis.manager.common.entity.node.AMNode;
@@ -32,37 +33,41 @@ import org.slf4j.LoggerFactory;
 
 @Component
 @Order(2)
-public class AvailableNodeSelectRule implements NodeSelectRule {
+public class AvailableNodeSelectRule implements PipelinedNodeSelectRule {
 
   private Logger logger = LoggerFactory.getLogger(AvailableNodeSelectRule.class);
 
   @Override
   public Node[] ruleFiltering(Node[] nodes) {
     if (null != nodes) {
-      return Arrays.stream(nodes)
-          .filter(
-              node -> {
-                if (node instanceof AMNode) {
-                  AMNode amNode = (AMNode) node;
-                  if (!NodeStatus.isLocked(amNode.getNodeStatus())
-                      && NodeStatus.isAvailable(amNode.getNodeStatus())) {
-                    return null != amNode.getNodeHealthyInfo()
-                        && null != amNode.getNodeHealthyInfo().getNodeHealthy()
-                        && NodeHealthy.isAvailable(amNode.getNodeHealthyInfo().getNodeHealthy());
-                  } else {
-                    logger.info(
-                        String.format(
-                            "engineConn %s cannot be reuse status: %s",
-                            amNode.getServiceInstance(), amNode.getNodeStatus()));
-                    return false;
-                  }
-                } else {
-                  return NodeStatus.isAvailable(node.getNodeStatus());
-                }
-              })
-          .toArray(Node[]::new);
+      return Arrays.stream(nodes).filter(this::isAvailable).toArray(Node[]::new);
     } else {
       return nodes;
     }
   }
+
+  @Override
+  public boolean accept(NodeCandidate candidate) {
+    return isAvailable(candidate.getNode());
+  }
+
+  private boolean isAvailable(Node node) {
+    if (node instanceof AMNode) {
+      AMNode amNode = (AMNode) node;
+      if (!NodeStatus.isLocked(amNode.getNodeStatus())
+          && NodeStatus.isAvailable(amNode.getNodeStatus())) {
+        return null != amNode.getNodeHealthyInfo()
+            && null != amNode.getNodeHealthyInfo().getNodeHealthy()
+            && NodeHealthy.isAvailable(amNode.getNodeHealthyInfo().getNodeHealthy());
+      } else {
+        logger.info(
+            String.format(
+                "engineConn %s cannot be reuse status: %s",
+                amNode.getServiceInstance(), amNode.getNodeStatus()));
+        return false;
+      }
+    } else {
+      return NodeStatus.isAvailable(node.getNodeStatus());
+    }
+  }
 }
@@ -24,7 +24,7 @@ import org.springframework.stereotype.Component;
 
 @Component
 @Order(1)
-public class ConcurrencyNodeSelectRule implements NodeSelectRule {
+public class ConcurrencyNodeSelectRule implements PipelinedNodeSelectRule {
 
   @Override
   public Node[] ruleFiltering(Node[] nodes) {
@@ -18,6 +18,7 @@
 package org.apache.linkis.manager.am.selector.rule;
 
 import org.apache.linkis.manager.am.conf.AMConfiguration;
+import org.apache.linkis.manager.am.selector.NodeCandidate;
 import org.apache.linkis.manager.common.entity.node.Node;
 
 import org.springframework.core.annotation.Order;
@@ -28,7 +29,7 @@ import java.util.Random;
 /** Ten hotspot exclusion rules, random ordering of the previous elements */
 @Component
 @Order(Integer.MAX_VALUE)
-public class HotspotExclusionRule implements NodeSelectRule {
+public class HotspotExclusionRule implements PipelinedNodeSelectRule {
 
   @Override
   public Node[] ruleFiltering(Node[] nodes) {
@@ -38,6 +39,25 @@ public class HotspotExclusionRule implements NodeSelectRule {
     return nodes;
   }
 
+  @Override
+  public int headSize(int accepted) {
+    return AMConfiguration.NODE_SELECT_HOTSPOT_EXCLUSION_RULE ? shuffleSize(accepted) : 1;
+  }
+
+  @Override
+  public void reorder(NodeCandidate[] head, int accepted) {
+    if (AMConfiguration.NODE_SELECT_HOTSPOT_EXCLUSION_RULE) {
+      randomShuffle(head, Math.min(shuffleSize(accepted), head.length));
+    }
+  }
+
+  private static int shuffleSize(int length) {
+    if (length < 3) {
+      return 1;
+    }
+    return length <= 10 ? length / 2 : 5;
+  }
+
   /**
    * Random sorting if there are more than 10 sorting rules, the first 5 will be randomly sorted if
    * there are no more than 10, the first half will be sorted
@@ -49,14 +69,17 @@ public class HotspotExclusionRule implements NodeSelectRule {
     if (null == nodes || nodes.length < 3) {
       return nodes;
     }
-    int shuffleSize = nodes.length <= 10 ? nodes.length / 2 : 5;
+    randomShuffle(nodes, shuffleSize(nodes.length));
+    return nodes;
+  }
+
+  private static <T> void randomShuffle(T[] values, int shuffleSize) {
     Random random = new Random();
     for (int i = 0; i < shuffleSize; i++) {
       int nextIndex = random.nextInt(shuffleSize);
-      Node tmpValue = nodes[i];
-      nodes[i] = nodes[nextIndex];
-      nodes[nextIndex] = tmpValue;
+      T tmpValue = values[i];
+      values[i] = values[nextIndex];
+      values[nextIndex] = tmpValue;
     }
-    return nodes;
   }
 }
@@ -18,6 +18,7 @@
 package org.apache.linkis.manager.am.selector.rule;
 
 import org.apache.linkis.manager.am.conf.AMConfiguration;
+import org.apache.linkis.manager.am.selector.NodeCandidate;
 import org.apache.linkis.manager.common.entity.node.EMNode;
 import org.apache.linkis.manager.common.entity.node.Node;
 
@@ -34,7 +35,7 @@ import org.slf4j.LoggerFactory;
 /** new ecm node will be added to last */
 @Component
 @Order(7)
-public class NewECMStandbyRule implements NodeSelectRule {
+public class NewECMStandbyRule implements PipelinedNodeSelectRule {
 
   private static final Logger logger = LoggerFactory.getLogger(NewECMStandbyRule.class);
 
@@ -79,4 +80,31 @@ public class NewECMStandbyRule implements NodeSelectRule {
       return nodes;
     }
   }
+
+  /** Old ECMs first, then the new ones by start time, then the ones without start time */
+  @Override
+  public int compare(NodeCandidate a, NodeCandidate b) {
+    if (!a.getScore().isEmNode() || !b.getScore().isEmNode()) {
+      return 0;
+    }
+    int groupA = standbyGroup(a);
+    int groupB = standbyGroup(b);
+    if (groupA != groupB) {
+      return Integer.compare(groupA, groupB);
+    } else if (groupA == 1) {
+      return Long.compare(a.getScore().getStartTime(), b.getScore().getStartTime());
+    }
+    return 0;
+  }
+
+  private int standbyGroup(NodeCandidate candidate) {
+    long startTime = candidate.getScore().getStartTime();
+    if (startTime < 0) {
+      return 2;
+    } else if (candidate.getSelectTime() - startTime
+        < (long) AMConfiguration.EM_NEW_WAIT_MILLS.getValue()) {
+      return 1;
+    }
+    return 0;
+  }
 }
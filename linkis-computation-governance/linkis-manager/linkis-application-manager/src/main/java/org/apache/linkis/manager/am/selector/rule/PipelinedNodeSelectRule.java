@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.selector.rule;
+
+import org.apache.linkis.manager.am.selector.NodeCandidate;
+import org.apache.linkis.manager.am.selector.NodeSelectPipeline;
+
+/**
+ * A rule which can be evaluated by {@link NodeSelectPipeline} in one pass over precomputed node
+ * scores. Running the rules one after another sorts the nodes once per rule, the last sorting
+ * rule decides and the earlier ones only break its ties, the pipeline builds the same order from
+ * {@link #compare} of the rules in reverse order
+ * 可由流水线单次遍历执行的选择规则，流水线按规则逆序组合比较器，得到与逐个规则排序相同的顺序
+ */
+public interface PipelinedNodeSelectRule extends NodeSelectRule {
+
+  /**
+   * Whether the node can be selected(节点是否可被选择)
+   *
+   * @param candidate
+   * @return
+   */
+  default boolean accept(NodeCandidate candidate) {
+    return true;
+  }
+
+  /**
+   * Order of two accepted nodes, 0 leaves the order to the rules running before this one
+   * (两个候选节点的顺序，0表示交由之前的规则决定)
+   *
+   * @param a
+   * @param b
+   * @return a negative value if a should be selected before b
+   */
+  default int compare(NodeCandidate a, NodeCandidate b) {
+    return 0;
+  }
+
+  /**
+   * Number of leading nodes the rule needs to reorder once all nodes are ranked
+   * (排序完成后规则需要重排的头部节点数)
+   *
+   * @param accepted number of accepted nodes
+   * @return
+   */
+  default int headSize(int accepted) {
+    return 1;
+  }
+
+  /**
+   * Reorder the leading ranked nodes in place(原地重排排序后的头部节点)
+   *
+   * @param head
+   * @param accepted number of accepted nodes
+   */
+  default void reorder(NodeCandidate[] head, int accepted) {}
+}
@@ -17,6 +17,8 @@
 
 package org.apache.linkis.manager.am.selector.rule;
 
+import org.apache.linkis.manager.am.selector.NodeCandidate;
+import org.apache.linkis.manager.am.selector.NodeScore;
 import org.apache.linkis.manager.common.entity.node.EMNode;
 import org.apache.linkis.manager.common.entity.node.Node;
 import org.apache.linkis.manager.common.entity.node.RMNode;
@@ -33,7 +35,7 @@ import org.slf4j.LoggerFactory;
 
 @Component
 @Order(5)
-public class ResourceNodeSelectRule implements NodeSelectRule {
+public class ResourceNodeSelectRule implements PipelinedNodeSelectRule {
 
   private static final Logger logger = LoggerFactory.getLogger(ResourceNodeSelectRule.class);
 
@@ -45,6 +47,31 @@ public class ResourceNodeSelectRule implements NodeSelectRule {
     return nodes;
   }
 
+  /** Same order as sorting by resource then by resource rate, on the precomputed scores */
+  @Override
+  public int compare(NodeCandidate a, NodeCandidate b) {
+    NodeScore scoreA = a.getScore();
+    NodeScore scoreB = b.getScore();
+    if (!scoreA.isRmNode() || !scoreB.isRmNode()) {
+      return 0;
+    } else if (scoreA.getLeftResource() == null) {
+      return scoreB.getLeftResource() == null ? 0 : 1;
+    } else if (scoreB.getLeftResource() == null) {
+      return -1;
+    }
+    try {
+      // 从大到小排序 (Sort from large to small)
+      int result = scoreB.compareLeftResource(scoreA);
+      if (result != 0 || !scoreA.isEmNode() || !scoreB.isEmNode()) {
+        return result;
+      }
+      return Float.compare(scoreB.getResourceRate(), scoreA.getResourceRate());
+    } catch (Throwable t) {
+      logger.warn("Failed to Compare resource " + t.getMessage());
+      return 0;
+    }
+  }
+
   private Comparator<Node> sortByResource() {
     return (nodeA, nodeB) -> {
       if (nodeA instanceof RMNode && nodeB instanceof RMNode) {
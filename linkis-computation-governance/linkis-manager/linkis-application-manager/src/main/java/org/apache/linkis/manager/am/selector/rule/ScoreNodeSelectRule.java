@@ -17,6 +17,7 @@
 
 package org.apache.linkis.manager.am.selector.rule;
 
+import org.apache.linkis.manager.am.selector.NodeCandidate;
 import org.apache.linkis.manager.common.entity.node.Node;
 import org.apache.linkis.manager.common.entity.node.ScoreServiceInstance;
 
@@ -31,7 +32,7 @@ import org.slf4j.LoggerFactory;
 
 @Component
 @Order(0)
-public class ScoreNodeSelectRule implements NodeSelectRule {
+public class ScoreNodeSelectRule implements PipelinedNodeSelectRule {
 
   private static final Logger logger = LoggerFactory.getLogger(ScoreNodeSelectRule.class);
 
@@ -43,6 +44,14 @@ public class ScoreNodeSelectRule implements NodeSelectRule {
     return nodes;
   }
 
+  @Override
+  public int compare(NodeCandidate a, NodeCandidate b) {
+    if (a.isLabelScored() && b.isLabelScored()) {
+      return Double.compare(b.getLabelScore(), a.getLabelScore());
+    }
+    return 0;
+  }
+
   /**
    * sort by label score
    *
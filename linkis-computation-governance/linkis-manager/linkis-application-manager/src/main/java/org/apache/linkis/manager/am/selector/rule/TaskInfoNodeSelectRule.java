@@ -17,6 +17,7 @@
 
 package org.apache.linkis.manager.am.selector.rule;
 
+import org.apache.linkis.manager.am.selector.NodeCandidate;
 import org.apache.linkis.manager.common.entity.metrics.NodeTaskInfo;
 import org.apache.linkis.manager.common.entity.node.AMNode;
 import org.apache.linkis.manager.common.entity.node.Node;
@@ -31,7 +32,7 @@ import org.slf4j.LoggerFactory;
 
 @Component
 @Order(4)
-public class TaskInfoNodeSelectRule implements NodeSelectRule {
+public class TaskInfoNodeSelectRule implements PipelinedNodeSelectRule {
   private static final Logger logger = LoggerFactory.getLogger(TaskInfoNodeSelectRule.class);
 
   @Override
@@ -42,6 +43,14 @@ public class TaskInfoNodeSelectRule implements NodeSelectRule {
     return nodes;
   }
 
+  @Override
+  public int compare(NodeCandidate a, NodeCandidate b) {
+    if (a.getNode() instanceof AMNode && b.getNode() instanceof AMNode) {
+      return Integer.compare(b.getScore().getTasks(), a.getScore().getTasks());
+    }
+    return 0;
+  }
+
   /**
    * sort by label score
    *
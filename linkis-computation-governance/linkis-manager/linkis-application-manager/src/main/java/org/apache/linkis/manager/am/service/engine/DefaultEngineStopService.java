@@ -32,10 +32,10 @@ import org.apache.linkis.manager.common.exception.RMWarnException;
 import org.apache.linkis.manager.common.protocol.engine.EngineConnReleaseRequest;
 import org.apache.linkis.manager.common.protocol.engine.EngineStopRequest;
 import org.apache.linkis.manager.common.protocol.engine.EngineSuicideRequest;
-import org.apache.linkis.manager.dao.NodeMetricManagerMapper;
 import org.apache.linkis.manager.label.entity.engine.EngineTypeLabel;
 import org.apache.linkis.manager.label.service.NodeLabelService;
 import org.apache.linkis.manager.label.service.impl.DefaultNodeLabelRemoveService;
+import org.apache.linkis.manager.persistence.NodeMetricManagerPersistence;
 import org.apache.linkis.manager.rm.exception.RMErrorCode;
 import org.apache.linkis.manager.rm.service.impl.DefaultResourceManager;
 import org.apache.linkis.protocol.label.NodeLabelRemoveRequest;
@@ -68,7 +68,7 @@ public class DefaultEngineStopService extends AbstractEngineService implements E
 
   @Autowired private EngineStopService engineStopService;
 
-  @Autowired private NodeMetricManagerMapper nodeMetricManagerMapper;
+  @Autowired private NodeMetricManagerPersistence nodeMetricManagerPersistence;
 
   private ExecutorService EXECUTOR =
       LinkisUtils.newFixedThreadPool(
@@ -289,13 +289,15 @@ public class DefaultEngineStopService extends AbstractEngineService implements E
             logger.info(String.format("Start to async stop engine node:%s", engineStopRequest));
             // 1. set ec node Metrics status Unlock to ShuttingDown
             // 2. ec node metircs report ignore update Shutingdown node
-            String instance = engineStopRequest.getServiceInstance().getInstance();
+            ServiceInstance serviceInstance = engineStopRequest.getServiceInstance();
             logger.info(
                 String.format(
                     "Try to update ec node:%s status Unlock --> ShuttingDown", engineStopRequest));
             int ok =
-                nodeMetricManagerMapper.updateNodeStatus(
-                    instance, NodeStatus.ShuttingDown.ordinal(), NodeStatus.Unlock.ordinal());
+                nodeMetricManagerPersistence.updateNodeStatus(
+                    serviceInstance,
+                    NodeStatus.ShuttingDown.ordinal(),
+                    NodeStatus.Unlock.ordinal());
             if (ok > 0) {
               logger.info(String.format("Try to do stop ec node %s action", engineStopRequest));
               stopEngine(engineStopRequest, Sender.getSender(Sender.getThisServiceInstance()));
@@ -303,7 +305,7 @@ public class DefaultEngineStopService extends AbstractEngineService implements E
               logger.info(
                   String.format(
                       "ec node:%s status update failed! maybe the status is not unlock. will skip to kill this ec node",
-                      instance));
+                      serviceInstance.getInstance()));
             }
           } catch (Exception e) {
             logger.error(
@@ -19,7 +19,9 @@ package org.apache.linkis.manager.am.service.heartbeat;
 
 import org.apache.linkis.common.utils.Utils;
 import org.apache.linkis.manager.am.conf.ManagerMonitorConf;
+import org.apache.linkis.manager.am.selector.NodeScoreBoard;
 import org.apache.linkis.manager.am.service.HeartbeatService;
+import org.apache.linkis.manager.am.service.monitor.NodeHeartbeatTracker;
 import org.apache.linkis.manager.common.conf.RMConfiguration;
 import org.apache.linkis.manager.common.entity.metrics.AMNodeMetrics;
 import org.apache.linkis.manager.common.monitor.ManagerMonitor;
@@ -49,6 +51,10 @@ public class AMHeartbeatService implements HeartbeatService {
 
   @Autowired private MetricsConverter metricsConverter;
 
+  @Autowired private NodeHeartbeatTracker nodeHeartbeatTracker;
+
+  @Autowired private NodeScoreBoard nodeScoreBoard;
+
   @Autowired(required = false)
   private ManagerMonitor managerMonitor;
 
@@ -81,6 +87,9 @@ public class AMHeartbeatService implements HeartbeatService {
       nodeMetrics.setStatus(0);
     }
     nodeMetricManagerPersistence.addOrupdateNodeMetrics(nodeMetrics);
+    nodeHeartbeatTracker.heartbeat(
+        nodeHeartbeatMsg.getServiceInstance(), nodeHeartbeatMsg.getStatus());
+    nodeScoreBoard.invalidate(nodeHeartbeatMsg.getServiceInstance());
     logger.info("Finished to deal nodeHeartbeatMsg {}", nodeHeartbeatMsg);
   }
 }
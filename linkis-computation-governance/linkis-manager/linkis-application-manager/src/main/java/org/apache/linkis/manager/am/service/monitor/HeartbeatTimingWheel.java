@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.service.monitor;
+
+import java.util.*;
+
+/**
+ * Hashed timing wheel holding one heartbeat deadline per key. Scheduling and removing a key costs
+ * O(1) and polling only walks the buckets of the ticks passed since the last poll, so the monitor
+ * inspects the expired nodes instead of every node
+ * 哈希时间轮，每个key保存一个心跳截止时间，轮询时只遍历上次轮询后经过的槽位，只检查过期的节点
+ *
+ * <p>Deadlines further than one rotation stay in their bucket and are skipped until they are due.
+ * The wheel is synchronized, heartbeats and the monitor thread share it
+ *
+ * @param <K> the key, such as the ServiceInstance of a node
+ */
+public class HeartbeatTimingWheel<K> {
+
+  private static class Slot {
+    private final long deadline;
+    private final int bucket;
+
+    private Slot(long deadline, int bucket) {
+      this.deadline = deadline;
+      this.bucket = bucket;
+    }
+  }
+
+  private final long tickMillis;
+
+  private final Set<K>[] buckets;
+
+  private final Map<K, Slot> slots = new HashMap<>();
+
+  /** Last tick whose bucket was fully polled(最后一个完成轮询的tick) */
+  private long currentTick;
+
+  @SuppressWarnings("unchecked")
+  public HeartbeatTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+    if (tickMillis <= 0 || wheelSize <= 0) {
+      throw new IllegalArgumentException(
+          "tickMillis and wheelSize must be positive: " + tickMillis + ", " + wheelSize);
+    }
+    this.tickMillis = tickMillis;
+    this.buckets = new Set[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      buckets[i] = new HashSet<>();
+    }
+    this.currentTick = startMillis / tickMillis - 1;
+  }
+
+  /**
+   * Schedule the key to expire at the deadline, replacing its previous deadline. A passed deadline
+   * expires at the next poll(设置key的截止时间，覆盖之前的截止时间)
+   *
+   * @param key
+   * @param deadline epoch millis
+   */
+  public synchronized void schedule(K key, long deadline) {
+    removeSlot(key);
+    long tick = Math.max(deadline / tickMillis, currentTick + 1);
+    int bucket = (int) (tick % buckets.length);
+    buckets[bucket].add(key);
+    slots.put(key, new Slot(deadline, bucket));
+  }
+
+  public synchronized boolean remove(K key) {
+    return removeSlot(key);
+  }
+
+  private boolean removeSlot(K key) {
+    Slot slot = slots.remove(key);
+    if (slot == null) {
+      return false;
+    }
+    buckets[slot.bucket].remove(key);
+    return true;
+  }
+
+  /**
+   * Remove and return the keys whose deadline is not after now(取出截止时间不晚于now的key)
+   *
+   * @param now epoch millis
+   * @return
+   */
+  public synchronized List<K> pollExpired(long now) {
+    long nowTick = now / tickMillis;
+    List<K> expired = new ArrayList<>();
+    if (nowTick <= currentTick) {
+      return expired;
+    }
+    long lastTick = Math.min(nowTick, currentTick + buckets.length);
+    for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+      Iterator<K> iterator = buckets[(int) (tick % buckets.length)].iterator();
+      while (iterator.hasNext()) {
+        K key = iterator.next();
+        if (slots.get(key).deadline <= now) {
+          iterator.remove();
+          slots.remove(key);
+          expired.add(key);
+        }
+      }
+    }
+    // the bucket of nowTick may still hold deadlines later in this tick, visit it again next time
+    currentTick = nowTick - 1;
+    return expired;
+  }
+
+  public synchronized boolean contains(K key) {
+    return slots.containsKey(key);
+  }
+
+  public synchronized int size() {
+    return slots.size();
+  }
+
+  public synchronized void clear() {
+    for (Set<K> bucket : buckets) {
+      bucket.clear();
+    }
+    slots.clear();
+  }
+}
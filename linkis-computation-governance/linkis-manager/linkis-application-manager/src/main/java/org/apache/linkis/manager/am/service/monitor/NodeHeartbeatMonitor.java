@@ -28,6 +28,7 @@ import org.apache.linkis.manager.common.entity.enumeration.NodeHealthy;
 import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
 import org.apache.linkis.manager.common.entity.metrics.NodeHealthyInfo;
 import org.apache.linkis.manager.common.entity.metrics.NodeMetrics;
+import org.apache.linkis.manager.common.entity.node.EngineNode;
 import org.apache.linkis.manager.common.entity.node.Node;
 import org.apache.linkis.manager.common.monitor.ManagerMonitor;
 import org.apache.linkis.manager.common.protocol.em.StopEMRequest;
@@ -70,6 +71,8 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
 
   @Autowired private ManagerLabelService managerLabelService;
 
+  @Autowired private NodeHeartbeatTracker nodeHeartbeatTracker;
+
   private final ExecutorService fixedThreadPoll =
       LinkisUtils.newFixedThreadPool(
           (int) ManagerMonitorConf.MANAGER_MONITOR_ASYNC_POLL_SIZE.getValue(),
@@ -87,6 +90,11 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
   private final long ecmHeartBeatTime =
       ManagerMonitorConf.ECM_HEARTBEAT_MAX_UPDATE_TIME.getValue().toLong();
 
+  private final long fullScanInterval =
+      ManagerMonitorConf.MONITOR_FULL_SCAN_INTERVAL.getValue().toLong();
+
+  private long lastFullScanTime = 0L;
+
   /**
    * 1. Scan all nodes regularly for three minutes to determine the update time of Metrics, 2. If
    * the update time exceeds a period of time and has not been updated, initiate a Metrics update
@@ -94,65 +102,124 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
    * request 3. If send reports that the node does not exist, you need to remove the node to
    * determine whether the node is Engine or EM information 4. If send reports other abnormalities,
    * it will be marked as unhealthy 5. Update Metrics if normal
+   *
+   * <p>Between two full scans only the nodes expired in {@link NodeHeartbeatTracker} are checked
    */
   @Override
   public void run() {
     LinkisUtils.tryAndWarn(
         () -> {
-          logger.info("Start to check the health of the node");
-          // 1.get nodes
-          List<Node> nodes = nodeManagerPersistence.getAllNodes();
-          List<NodeMetrics> metricList = nodeMetricManagerPersistence.getNodeMetrics(nodes);
-          if (null != metricList) {
-            for (Node node : nodes) {
-              for (NodeMetrics metrics : metricList) {
-                if (metrics
-                    .getServiceInstance()
-                    .toString()
-                    .equals(node.getServiceInstance().toString())) {
-                  node.setNodeStatus(NodeStatus.values()[metrics.getStatus()]);
-                  node.setUpdateTime(metrics.getUpdateTime());
-                  break;
-                }
-              }
-            }
-          }
-          // EngineConn remove
-          List<Node> engineNodes = new ArrayList<>();
-          for (Node node : nodes) {
-            if (node.getServiceInstance().getApplicationName().equalsIgnoreCase(ecName)) {
-              engineNodes.add(node);
-            }
-          }
-          LinkisUtils.tryAndWarn(
-              () -> {
-                dealECNodes(engineNodes);
-              },
-              logger);
-
-          List<Node> ecmNodes = new ArrayList<>();
-          for (Node node : nodes) {
-            if (node.getServiceInstance().getApplicationName().equalsIgnoreCase(ecmName)) {
-              ecmNodes.add(node);
-            }
+          long now = System.currentTimeMillis();
+          if (!nodeHeartbeatTracker.isEnabled() || now - lastFullScanTime >= fullScanInterval) {
+            fullScan();
+            lastFullScanTime = now;
+          } else {
+            incrementalScan(now);
           }
-          dealECMNotExistsInRegistry(ecmNodes);
-
-          /* val engineMetricList = nodeMetricManagerPersistence.getNodeMetrics(engineNodes)
-          val healthyList = filterHealthyAndWarnList(engineMetricList)
-          dealHealthyList(healthyList)
-           val unHealthyList = filterUnHealthyList(engineMetricList)
-           dealUnHealthyList(unHealthyList)
-
-           val stockAvailableList = filterStockAvailableList(engineMetricList)
-           dealStockAvailableList(stockAvailableList)
-           val stockUnAvailableList = filterStockUnAvailableList(engineMetricList)
-           dealStockUnAvailableList(stockUnAvailableList) */
-          logger.info("Finished to check the health of the node");
         },
         logger);
   }
 
+  private void fullScan() {
+    logger.info("Start to check the health of the node");
+    // 1.get nodes
+    List<Node> nodes = nodeManagerPersistence.getAllNodes();
+    joinMetrics(nodes);
+    dealNodes(nodes);
+    if (nodeHeartbeatTracker.isEnabled()) {
+      nodeHeartbeatTracker.clear();
+      nodes.forEach(nodeHeartbeatTracker::track);
+    }
+
+    /* val engineMetricList = nodeMetricManagerPersistence.getNodeMetrics(engineNodes)
+    val healthyList = filterHealthyAndWarnList(engineMetricList)
+    dealHealthyList(healthyList)
+     val unHealthyList = filterUnHealthyList(engineMetricList)
+     dealUnHealthyList(unHealthyList)
+
+     val stockAvailableList = filterStockAvailableList(engineMetricList)
+     dealStockAvailableList(stockAvailableList)
+     val stockUnAvailableList = filterStockUnAvailableList(engineMetricList)
+     dealStockUnAvailableList(stockUnAvailableList) */
+    logger.info(
+        "Finished to check the health of the node, tracked {}", nodeHeartbeatTracker.size());
+  }
+
+  /**
+   * Check the nodes whose heartbeat deadline passed, the nodes no longer persisted are dropped and
+   * the others are tracked again with their latest metrics(只检查心跳截止时间已过的节点)
+   *
+   * @param now
+   */
+  private void incrementalScan(long now) {
+    List<ServiceInstance> expired = nodeHeartbeatTracker.pollExpired(now);
+    if (expired.isEmpty()) {
+      return;
+    }
+    logger.info("Start to check the health of {} expired nodes", expired.size());
+    List<Node> nodes = new ArrayList<>(expired.size());
+    for (EngineNode node : nodeManagerPersistence.getEngineNodeByServiceInstance(expired)) {
+      // instances missing from the database come back without a start time
+      if (node.getStartTime() != null) {
+        nodes.add(node);
+      }
+    }
+    joinMetrics(nodes);
+    dealNodes(nodes);
+    nodes.forEach(nodeHeartbeatTracker::track);
+    logger.info("Finished to check the health of {} expired nodes", nodes.size());
+  }
+
+  /**
+   * Set the status and update time of the nodes from their metrics, hash joined by instance
+   * (按实例哈希关联节点与指标)
+   *
+   * @param nodes
+   */
+  private void joinMetrics(List<Node> nodes) {
+    if (nodes.isEmpty()) {
+      return;
+    }
+    List<NodeMetrics> metricList = nodeMetricManagerPersistence.getNodeMetrics(nodes);
+    if (null != metricList) {
+      Map<String, NodeMetrics> metricsMap = new HashMap<>(metricList.size() * 2);
+      for (NodeMetrics metrics : metricList) {
+        metricsMap.putIfAbsent(metrics.getServiceInstance().toString(), metrics);
+      }
+      for (Node node : nodes) {
+        NodeMetrics metrics = metricsMap.get(node.getServiceInstance().toString());
+        if (metrics != null) {
+          node.setNodeStatus(NodeStatus.values()[metrics.getStatus()]);
+          node.setUpdateTime(metrics.getUpdateTime());
+        }
+      }
+    }
+  }
+
+  private void dealNodes(List<Node> nodes) {
+    List<Node> engineNodes = new ArrayList<>();
+    List<Node> ecmNodes = new ArrayList<>();
+    for (Node node : nodes) {
+      String applicationName = node.getServiceInstance().getApplicationName();
+      if (applicationName.equalsIgnoreCase(ecName)) {
+        engineNodes.add(node);
+      } else if (applicationName.equalsIgnoreCase(ecmName)) {
+        ecmNodes.add(node);
+      }
+    }
+    // EngineConn remove
+    if (!engineNodes.isEmpty()) {
+      LinkisUtils.tryAndWarn(
+          () -> {
+            dealECNodes(engineNodes);
+          },
+          logger);
+    }
+    if (!ecmNodes.isEmpty()) {
+      dealECMNotExistsInRegistry(ecmNodes);
+    }
+  }
+
   /**
    * 1. When the engine starts, the status is empty, and it needs to judge whether the startup
    * timeout, if the startup timeout, kill directly 2. After the engine is in the state, it is
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.service.monitor;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.governance.common.conf.GovernanceCommonConf;
+import org.apache.linkis.manager.am.conf.ManagerMonitorConf;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.node.Node;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the next heartbeat deadline of every EngineConn and ECM in a timing wheel. Heartbeats push
+ * the deadline forward, so {@link NodeHeartbeatMonitor} only loads the nodes whose deadline passed
+ * instead of joining every node with its metrics
+ * 在时间轮中维护EC和ECM的心跳截止时间，心跳到达时顺延，监控只需检查截止时间已过的节点
+ *
+ * <p>The deadlines only pick the nodes to inspect, the monitor still decides on the persisted node
+ * and metrics, so heartbeats received by another manager instance are caught by the recheck
+ */
+@Component
+public class NodeHeartbeatTracker {
+
+  private static final long TICK_MILLIS = 1000L;
+
+  private final boolean enabled = ManagerMonitorConf.MONITOR_INCREMENTAL_ENABLE.getValue();
+
+  private final String ecName = GovernanceCommonConf.ENGINE_CONN_SPRING_NAME().getValue();
+
+  private final String ecmName = GovernanceCommonConf.ENGINE_CONN_MANAGER_SPRING_NAME().getValue();
+
+  private final long maxCreateInterval =
+      ManagerMonitorConf.NODE_MAX_CREATE_TIME.getValue().toLong();
+
+  private final long maxUpdateInterval =
+      ManagerMonitorConf.NODE_HEARTBEAT_MAX_UPDATE_TIME.getValue().toLong();
+
+  private final long ecmHeartBeatTime =
+      ManagerMonitorConf.ECM_HEARTBEAT_MAX_UPDATE_TIME.getValue().toLong();
+
+  private final HeartbeatTimingWheel<ServiceInstance> wheel =
+      new HeartbeatTimingWheel<>(
+          TICK_MILLIS,
+          ManagerMonitorConf.MONITOR_TIMING_WHEEL_SIZE.getValue(),
+          System.currentTimeMillis());
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * A heartbeat was received from the node(收到节点心跳)
+   *
+   * @param serviceInstance
+   * @param status the reported status, may be null
+   */
+  public void heartbeat(ServiceInstance serviceInstance, NodeStatus status) {
+    if (!enabled || serviceInstance == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    String applicationName = serviceInstance.getApplicationName();
+    if (ecName.equalsIgnoreCase(applicationName)) {
+      wheel.schedule(
+          serviceInstance, NodeStatus.isCompleted(status) ? now : now + maxUpdateInterval);
+    } else if (ecmName.equalsIgnoreCase(applicationName)) {
+      wheel.schedule(serviceInstance, now + ecmHeartBeatTime);
+    }
+  }
+
+  /**
+   * A new EngineConn was requested and has not reported any heartbeat yet(新申请的EC，尚未上报心跳)
+   *
+   * @param serviceInstance
+   */
+  public void engineCreated(ServiceInstance serviceInstance) {
+    if (enabled && serviceInstance != null) {
+      wheel.schedule(serviceInstance, System.currentTimeMillis() + maxCreateInterval);
+    }
+  }
+
+  /**
+   * Schedule the node from its persisted status and update time, the way the monitor judges it
+   * (按节点持久化的状态和更新时间计算截止时间)
+   *
+   * @param node the node joined with its metrics
+   */
+  public void track(Node node) {
+    ServiceInstance serviceInstance = node.getServiceInstance();
+    if (!enabled || serviceInstance == null || node.getStartTime() == null) {
+      return;
+    }
+    long startTime = node.getStartTime().getTime();
+    long updateTime = node.getUpdateTime() == null ? startTime : node.getUpdateTime().getTime();
+    String applicationName = serviceInstance.getApplicationName();
+    if (ecName.equalsIgnoreCase(applicationName)) {
+      if (NodeStatus.isCompleted(node.getNodeStatus())) {
+        wheel.schedule(serviceInstance, System.currentTimeMillis());
+      } else if (node.getNodeStatus() == null) {
+        wheel.schedule(serviceInstance, startTime + maxCreateInterval);
+      } else {
+        wheel.schedule(serviceInstance, updateTime + maxUpdateInterval);
+      }
+    } else if (ecmName.equalsIgnoreCase(applicationName)) {
+      wheel.schedule(serviceInstance, updateTime + ecmHeartBeatTime);
+    }
+  }
+
+  public void untrack(ServiceInstance serviceInstance) {
+    wheel.remove(serviceInstance);
+  }
+
+  /**
+   * Remove and return the nodes whose heartbeat deadline passed(取出心跳截止时间已过的节点)
+   *
+   * @param now
+   * @return
+   */
+  public List<ServiceInstance> pollExpired(long now) {
+    return wheel.pollExpired(now);
+  }
+
+  public void clear() {
+    wheel.clear();
+  }
+
+  public int size() {
+    return wheel.size();
+  }
+}
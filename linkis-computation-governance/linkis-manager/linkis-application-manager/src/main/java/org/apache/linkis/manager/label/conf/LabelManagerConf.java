@@ -18,6 +18,7 @@
 package org.apache.linkis.manager.label.conf;
 
 import org.apache.linkis.common.conf.CommonVars;
+import org.apache.linkis.common.conf.TimeType;
 
 public class LabelManagerConf {
 
@@ -26,4 +27,20 @@ public class LabelManagerConf {
 
   public static final boolean COMBINED_WITHOUT_YARN_DEFAULT =
       CommonVars.apply("linkis.combined.without.yarn.default", true).getValue();
+
+  /**
+   * Serve the label to node lookups of engine reuse and node selection from the memory index. The
+   * index only sees the label writes of its own manager instance until the next refresh, so enable
+   * it when a single manager instance serves the engine asks
+   */
+  public static final boolean NODE_LABEL_INDEX_ENABLE =
+      CommonVars.apply("linkis.manager.label.node.index.enable", false).getValue();
+
+  public static final long NODE_LABEL_INDEX_REFRESH_INTERVAL =
+      CommonVars.apply("linkis.manager.label.node.index.refresh.interval", new TimeType("10m"))
+          .getValue()
+          .toLong();
+
+  public static final int NODE_LABEL_INDEX_LOAD_BATCH_SIZE =
+      CommonVars.apply("linkis.manager.label.node.index.load.batch.size", 200).getValue();
 }
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.label.index;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.am.util.LinkisUtils;
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLabel;
+import org.apache.linkis.manager.label.conf.LabelManagerConf;
+import org.apache.linkis.manager.persistence.LabelManagerPersistence;
+import org.apache.linkis.manager.persistence.NodeManagerPersistence;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory inverted index of the label to node relations, so that engine reuse and node selection
+ * intersect sets in memory instead of querying the relations on every ask. It is rebuilt from the
+ * database on startup and every refresh interval, and the label writes of {@link
+ * org.apache.linkis.manager.label.service.impl.DefaultNodeLabelService} are written through by
+ * reloading the labels of the written node. Nodes are keyed by instance like the relation table.
+ * 标签到节点的内存倒排索引，启动及定时从数据库重建，节点标签写入后同步刷新该节点
+ */
+@Component
+public class NodeLabelIndex implements InitializingBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(NodeLabelIndex.class);
+
+  @Autowired private LabelManagerPersistence labelManagerPersistence;
+
+  @Autowired private NodeManagerPersistence nodeManagerPersistence;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** Serializes the writers, so a stale reload never overwrites a newer one(串行化写入) */
+  private final Object writeMutex = new Object();
+
+  private IndexState state = new IndexState();
+
+  /** Nodes written while the index is rebuilt, reloaded before the swap(重建期间写入的节点) */
+  private Set<ServiceInstance> pendingNodes = null;
+
+  private volatile boolean ready = false;
+
+  private static class LabelNodes {
+    private final PersistenceLabel label;
+    private final Set<String> instances = new HashSet<>();
+
+    private LabelNodes(PersistenceLabel label) {
+      this.label = label;
+    }
+  }
+
+  private static class NodeLabels {
+    private final ServiceInstance serviceInstance;
+    private final List<PersistenceLabel> labels;
+
+    private NodeLabels(ServiceInstance serviceInstance, List<PersistenceLabel> labels) {
+      this.serviceInstance = serviceInstance;
+      this.labels = labels;
+    }
+  }
+
+  private static class IndexState {
+    private final Map<String, LabelNodes> nodesByLabel = new HashMap<>();
+    private final Map<String, NodeLabels> labelsByNode = new HashMap<>();
+
+    private void setNodeLabels(ServiceInstance serviceInstance, List<PersistenceLabel> labels) {
+      removeNode(serviceInstance.getInstance());
+      if (labels == null || labels.isEmpty()) {
+        return;
+      }
+      labelsByNode.put(
+          serviceInstance.getInstance(),
+          new NodeLabels(serviceInstance, Collections.unmodifiableList(new ArrayList<>(labels))));
+      for (PersistenceLabel label : labels) {
+        nodesByLabel
+            .computeIfAbsent(labelKey(label), key -> new LabelNodes(label))
+            .instances
+            .add(serviceInstance.getInstance());
+      }
+    }
+
+    private void removeNode(String instance) {
+      NodeLabels old = labelsByNode.remove(instance);
+      if (old == null) {
+        return;
+      }
+      for (PersistenceLabel label : old.labels) {
+        String key = labelKey(label);
+        LabelNodes labelNodes = nodesByLabel.get(key);
+        if (labelNodes != null) {
+          labelNodes.instances.remove(instance);
+          if (labelNodes.instances.isEmpty()) {
+            nodesByLabel.remove(key);
+          }
+        }
+      }
+    }
+  }
+
+  private static String labelKey(PersistenceLabel label) {
+    return label.getLabelKey() + "\u0001" + label.getStringValue();
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (LabelManagerConf.NODE_LABEL_INDEX_ENABLE) {
+      LinkisUtils.defaultScheduler.scheduleWithFixedDelay(
+          () -> LinkisUtils.tryAndWarn(this::rebuild, logger),
+          0,
+          LabelManagerConf.NODE_LABEL_INDEX_REFRESH_INTERVAL,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** Whether lookups can be served by the index(索引是否可用) */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /** Rebuild the index from the database(从数据库重建索引) */
+  public void rebuild() {
+    long startTime = System.currentTimeMillis();
+    synchronized (writeMutex) {
+      pendingNodes = new HashSet<>();
+    }
+    IndexState newState = new IndexState();
+    try {
+      List<ServiceInstance> instances = new ArrayList<>();
+      for (Node node : nodeManagerPersistence.getAllNodes()) {
+        instances.add(node.getServiceInstance());
+      }
+      int batchSize = Math.max(LabelManagerConf.NODE_LABEL_INDEX_LOAD_BATCH_SIZE, 1);
+      for (int from = 0; from < instances.size(); from += batchSize) {
+        List<ServiceInstance> batch =
+            instances.subList(from, Math.min(from + batchSize, instances.size()));
+        labelManagerPersistence
+            .getLabelRelationsByServiceInstance(new ArrayList<>(batch))
+            .forEach(newState::setNodeLabels);
+      }
+    } catch (RuntimeException e) {
+      synchronized (writeMutex) {
+        pendingNodes = null;
+      }
+      throw e;
+    }
+    synchronized (writeMutex) {
+      for (ServiceInstance instance : pendingNodes) {
+        newState.setNodeLabels(
+            instance, labelManagerPersistence.getLabelByServiceInstance(instance));
+      }
+      pendingNodes = null;
+      lock.writeLock().lock();
+      try {
+        state = newState;
+      } finally {
+        lock.writeLock().unlock();
+      }
+      ready = true;
+    }
+    logger.info(
+        "Rebuilt node label index of {} nodes and {} labels in {} ms",
+        newState.labelsByNode.size(),
+        newState.nodesByLabel.size(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Reload the labels of the node after they are written(节点标签写入后重新加载该节点)
+   *
+   * @param serviceInstance
+   */
+  public void reindexNode(ServiceInstance serviceInstance) {
+    if (serviceInstance == null) {
+      return;
+    }
+    synchronized (writeMutex) {
+      // nothing to keep before the index is built
+      if (!ready && pendingNodes == null) {
+        return;
+      }
+      List<PersistenceLabel> labels =
+          labelManagerPersistence.getLabelByServiceInstance(serviceInstance);
+      if (pendingNodes != null) {
+        pendingNodes.add(serviceInstance);
+      }
+      lock.writeLock().lock();
+      try {
+        state.setNodeLabels(serviceInstance, labels);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Reload the nodes related to the label after its value is updated(标签值更新后重新加载相关节点)
+   *
+   * @param oldLabel the label before the update
+   */
+  public void reindexLabel(PersistenceLabel oldLabel) {
+    if (!ready || oldLabel == null) {
+      return;
+    }
+    List<ServiceInstance> nodes = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      LabelNodes labelNodes = state.nodesByLabel.get(labelKey(oldLabel));
+      if (labelNodes != null) {
+        for (String instance : labelNodes.instances) {
+          nodes.add(state.labelsByNode.get(instance).serviceInstance);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    nodes.forEach(this::reindexNode);
+  }
+
+  /**
+   * Same as {@link LabelManagerPersistence#getNodeRelationsByLabels(List)}, the returned labels are
+   * shared by the index and must not be modified(与数据库查询结果一致，返回的标签不可修改)
+   *
+   * @param labels
+   * @return
+   */
+  public Map<PersistenceLabel, List<ServiceInstance>> getNodeRelationsByLabels(
+      List<PersistenceLabel> labels) {
+    Map<PersistenceLabel, List<ServiceInstance>> relations = new HashMap<>();
+    if (labels == null || labels.isEmpty()) {
+      return relations;
+    }
+    lock.readLock().lock();
+    try {
+      for (PersistenceLabel label : labels) {
+        LabelNodes labelNodes = state.nodesByLabel.get(labelKey(label));
+        if (labelNodes != null && !relations.containsKey(labelNodes.label)) {
+          List<ServiceInstance> nodes = new ArrayList<>(labelNodes.instances.size());
+          for (String instance : labelNodes.instances) {
+            nodes.add(state.labelsByNode.get(instance).serviceInstance);
+          }
+          relations.put(labelNodes.label, nodes);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return relations;
+  }
+
+  /**
+   * Same as {@link LabelManagerPersistence#getLabelRelationsByServiceInstance(List)}, the returned
+   * labels are shared by the index and must not be modified
+   * 与数据库查询结果一致，返回的标签不可修改
+   *
+   * @param serviceInstances
+   * @return
+   */
+  public Map<ServiceInstance, List<PersistenceLabel>> getLabelRelationsByServiceInstance(
+      List<ServiceInstance> serviceInstances) {
+    Map<ServiceInstance, List<PersistenceLabel>> relations = new HashMap<>();
+    if (serviceInstances == null || serviceInstances.isEmpty()) {
+      return relations;
+    }
+    lock.readLock().lock();
+    try {
+      for (ServiceInstance serviceInstance : serviceInstances) {
+        NodeLabels nodeLabels = state.labelsByNode.get(serviceInstance.getInstance());
+        if (nodeLabels != null) {
+          relations.put(serviceInstance, nodeLabels.labels);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return relations;
+  }
+
+  /**
+   * Same as {@link LabelManagerPersistence#getNodeByLabelKeyValue(String, String)}
+   *
+   * @param labelKey
+   * @param stringValue
+   * @return
+   */
+  public List<ServiceInstance> getNodesByLabelKeyValue(String labelKey, String stringValue) {
+    List<ServiceInstance> nodes = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      LabelNodes labelNodes = state.nodesByLabel.get(labelKey + "\u0001" + stringValue);
+      if (labelNodes != null) {
+        for (String instance : labelNodes.instances) {
+          nodes.add(state.labelsByNode.get(instance).serviceInstance);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return nodes;
+  }
+}
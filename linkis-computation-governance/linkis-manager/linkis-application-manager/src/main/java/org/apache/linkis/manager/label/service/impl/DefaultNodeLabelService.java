@@ -28,6 +28,7 @@ import org.apache.linkis.manager.label.conf.LabelManagerConf;
 import org.apache.linkis.manager.label.entity.Feature;
 import org.apache.linkis.manager.label.entity.InheritableLabel;
 import org.apache.linkis.manager.label.entity.Label;
+import org.apache.linkis.manager.label.index.NodeLabelIndex;
 import org.apache.linkis.manager.label.score.LabelScoreServiceInstance;
 import org.apache.linkis.manager.label.score.NodeLabelScorer;
 import org.apache.linkis.manager.label.service.NodeLabelService;
@@ -37,6 +38,8 @@ import org.apache.linkis.manager.persistence.LabelManagerPersistence;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 import java.util.*;
@@ -58,6 +61,45 @@ public class DefaultNodeLabelService implements NodeLabelService {
 
   @Autowired private NodeLabelScorer nodeLabelScorer;
 
+  @Autowired private NodeLabelIndex nodeLabelIndex;
+
+  /**
+   * Reload the written nodes into the label index once the transaction commits, or at once out of
+   * a transaction(事务提交后刷新标签索引中被写入的节点)
+   *
+   * @param instances written nodes
+   */
+  private void reindexNodes(ServiceInstance... instances) {
+    if (!LabelManagerConf.NODE_LABEL_INDEX_ENABLE) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      Arrays.stream(instances).forEach(nodeLabelIndex::reindexNode);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<ServiceInstance> written =
+        (Set<ServiceInstance>) TransactionSynchronizationManager.getResource(nodeLabelIndex);
+    if (written == null) {
+      Set<ServiceInstance> nodes = new LinkedHashSet<>();
+      TransactionSynchronizationManager.bindResource(nodeLabelIndex, nodes);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              nodes.forEach(nodeLabelIndex::reindexNode);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(nodeLabelIndex);
+            }
+          });
+      written = nodes;
+    }
+    written.addAll(Arrays.asList(instances));
+  }
+
   /**
    * Attach labels to node instance TODO 该方法需要优化,应该batch插入
    *
@@ -87,6 +129,7 @@ public class DefaultNodeLabelService implements NodeLabelService {
       if (!serviceRelationLabels.stream()
           .anyMatch(labelEntity -> labelEntity.getId().equals(labelId))) {
         labelManagerPersistence.addLabelToNode(instance, Collections.singletonList(labelId));
+        reindexNodes(instance);
       }
     }
   }
@@ -120,6 +163,9 @@ public class DefaultNodeLabelService implements NodeLabelService {
       labelIds.add(labelId);
       this.labelManagerPersistence.addLabelToNode(instance, labelIds);
     }
+    if (needUpdate || !needRemoveIds.isEmpty()) {
+      reindexNodes(instance);
+    }
   }
 
   @Override
@@ -194,6 +240,7 @@ public class DefaultNodeLabelService implements NodeLabelService {
                 }
               });
     }
+    reindexNodes(instance);
   }
 
   @Override
@@ -232,6 +279,7 @@ public class DefaultNodeLabelService implements NodeLabelService {
     List<Integer> oldLabelId =
         nodeLabels.stream().map(PersistenceLabel::getId).collect(Collectors.toList());
     labelManagerPersistence.removeNodeLabels(oldServiceInstance, oldLabelId);
+    reindexNodes(oldServiceInstance, newServiceInstance);
   }
 
   /**
@@ -257,6 +305,7 @@ public class DefaultNodeLabelService implements NodeLabelService {
             .map(label -> dbLabels.get(label.getLabelKey()).getId())
             .collect(Collectors.toList());
     labelManagerPersistence.removeNodeLabels(instance, labelIds);
+    reindexNodes(instance);
   }
 
   @Transactional(rollbackFor = {Exception.class})
@@ -273,6 +322,7 @@ public class DefaultNodeLabelService implements NodeLabelService {
 
     labelManagerPersistence.removeNodeLabels(
         instance, removeLabels.stream().map(PersistenceLabel::getId).collect(Collectors.toList()));
+    reindexNodes(instance);
   }
 
   /**
@@ -292,6 +342,10 @@ public class DefaultNodeLabelService implements NodeLabelService {
   @Override
   public List<ServiceInstance> getNodesByLabel(Label<?> label) {
     Label<?> persistenceLabel = LabelManagerUtils.convertPersistenceLabel(label);
+    if (nodeLabelIndex.isReady()) {
+      return nodeLabelIndex.getNodesByLabelKeyValue(
+          persistenceLabel.getLabelKey(), persistenceLabel.getStringValue());
+    }
     return labelManagerPersistence
         .getNodeByLabelKeyValue(persistenceLabel.getLabelKey(), persistenceLabel.getStringValue())
         .stream()
@@ -367,10 +421,13 @@ public class DefaultNodeLabelService implements NodeLabelService {
    */
   private Map<ScoreServiceInstance, List<Label<?>>> getScoredNodeMapsByLabels(
       List<PersistenceLabel> labels, List<PersistenceLabel> necessaryLabels) {
-    // Get the in-degree relations ( Label -> Nodes )
+    // Get the in-degree relations ( Label -> Nodes ), from the memory index when it is ready
+    boolean useIndex = nodeLabelIndex.isReady();
+    List<PersistenceLabel> searchLabels = necessaryLabels.isEmpty() ? labels : necessaryLabels;
     Map<PersistenceLabel, List<ServiceInstance>> inNodeDegree =
-        labelManagerPersistence.getNodeRelationsByLabels(
-            necessaryLabels.isEmpty() ? labels : necessaryLabels);
+        useIndex
+            ? nodeLabelIndex.getNodeRelationsByLabels(searchLabels)
+            : labelManagerPersistence.getNodeRelationsByLabels(searchLabels);
 
     if (inNodeDegree.isEmpty()) {
       return new HashMap<>();
@@ -405,8 +462,11 @@ public class DefaultNodeLabelService implements NodeLabelService {
     Map<ScoreServiceInstance, List<Label<?>>> matchInstancesAndLabels = new HashMap<>();
 
     // Get the out-degree relations ( Node -> Label )
+    List<ServiceInstance> instanceList = new ArrayList<>(instances);
     Map<ServiceInstance, List<PersistenceLabel>> outNodeDegree =
-        labelManagerPersistence.getLabelRelationsByServiceInstance(new ArrayList<>(instances));
+        useIndex
+            ? nodeLabelIndex.getLabelRelationsByServiceInstance(instanceList)
+            : labelManagerPersistence.getLabelRelationsByServiceInstance(instanceList);
     // outNodeDegree cannot be empty
     if (!outNodeDegree.isEmpty()) {
       Set<String> necessaryLabelKeys =
@@ -156,6 +156,11 @@ public class KubernetesResourceRequester implements ExternalResourceRequester {
     return ResourceType.Kubernetes;
   }
 
+  @Override
+  public void invalidateSnapshot(ExternalResourceProvider provider) {
+    // the kubernetes resources are not cached
+  }
+
   @Override
   public Boolean reloadExternalResourceAddress(ExternalResourceProvider provider) {
     if (null != provider) {
@@ -35,4 +35,12 @@ public interface ExternalResourceRequester {
   ResourceType getResourceType();
 
   Boolean reloadExternalResourceAddress(ExternalResourceProvider provider);
+
+  /**
+   * Drop the cached responses of the provider, or of all providers when it is null
+   * (使外部资源的缓存快照失效)
+   *
+   * @param provider
+   */
+  void invalidateSnapshot(ExternalResourceProvider provider);
 }
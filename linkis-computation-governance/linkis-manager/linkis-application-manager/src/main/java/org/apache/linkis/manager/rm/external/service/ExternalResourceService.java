@@ -52,4 +52,13 @@ public interface ExternalResourceService {
 
   ExternalResourceProvider chooseProvider(
       ResourceType resourceType, RMLabelContainer labelContainer) throws RMErrorException;
+
+  /**
+   * Drop the cached external resource of the cluster of the labels, called when an engine starts
+   * or stops(引擎启停时使外部资源快照失效)
+   *
+   * @param resourceType
+   * @param labelContainer
+   */
+  void invalidateSnapshot(ResourceType resourceType, RMLabelContainer labelContainer);
 }
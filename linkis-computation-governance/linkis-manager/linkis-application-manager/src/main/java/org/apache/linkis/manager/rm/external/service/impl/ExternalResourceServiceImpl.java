@@ -210,6 +210,21 @@ public class ExternalResourceServiceImpl implements ExternalResourceService, Ini
             NO_SUITABLE_CLUSTER.getErrorDesc(), realClusterLabel.getClusterName()));
   }
 
+  @Override
+  public void invalidateSnapshot(ResourceType resourceType, RMLabelContainer labelContainer) {
+    try {
+      ExternalResourceProvider provider = null;
+      try {
+        provider = chooseProvider(resourceType, labelContainer);
+      } catch (RMErrorException e) {
+        logger.debug("no provider found, invalidate all the {} snapshots", resourceType);
+      }
+      getRequester(resourceType).invalidateSnapshot(provider);
+    } catch (RMErrorException e) {
+      logger.warn("failed to invalidate the external resource snapshot of {}", resourceType, e);
+    }
+  }
+
   private ExternalResourceRequester getRequester(ResourceType resourceType)
       throws RMErrorException {
     for (ExternalResourceRequester externalResourceRequester : resourceRequesters) {
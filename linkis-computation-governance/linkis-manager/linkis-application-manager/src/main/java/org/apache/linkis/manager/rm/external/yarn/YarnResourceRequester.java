@@ -27,20 +27,25 @@ import org.apache.linkis.manager.rm.external.domain.ExternalResourceIdentifier;
 import org.apache.linkis.manager.rm.external.domain.ExternalResourceProvider;
 import org.apache.linkis.manager.rm.external.request.ExternalResourceRequester;
 import org.apache.linkis.manager.rm.utils.RequestKerberosUrlUtils;
+import org.apache.linkis.manager.rm.utils.SnapshotCache;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -58,6 +63,13 @@ public class YarnResourceRequester implements ExternalResourceRequester {
   private static final ObjectMapper objectMapper = new ObjectMapper();
   private final Map<String, String> rmAddressMap = new ConcurrentHashMap<>();
 
+  private static final String CLUSTER_REST_PATH = "/ws/v1/cluster/";
+
+  private final Map<String, CloseableHttpClient> httpClientMap = new ConcurrentHashMap<>();
+
+  private final SnapshotCache<String, JsonNode> snapshotCache =
+      new SnapshotCache<>(RMConfiguration.YARN_SNAPSHOT_TTL.getValue().toLong());
+
   private String getAuthorizationStr(ExternalResourceProvider provider) {
     String user = (String) provider.getConfigMap().getOrDefault("user", "");
     String pwd = (String) provider.getConfigMap().getOrDefault("pwd", "");
@@ -319,21 +331,31 @@ public class YarnResourceRequester implements ExternalResourceRequester {
     return ResourceType.Yarn;
   }
 
+  /**
+   * Responses are shared through the snapshot cache, so a burst of resource requests sends one
+   * request to yarn per snapshot ttl(响应通过快照缓存共享)
+   */
   private JsonNode getResponseByUrl(
       String url, String rmWebAddress, ExternalResourceProvider provider) {
+    return snapshotCache.get(
+        rmWebAddress + CLUSTER_REST_PATH + url, () -> requestByUrl(url, rmWebAddress, provider));
+  }
 
-    HttpGet httpGet = new HttpGet(rmWebAddress + "/ws/v1/cluster/" + url);
+  private JsonNode requestByUrl(
+      String url, String rmWebAddress, ExternalResourceProvider provider) {
+
+    HttpGet httpGet = new HttpGet(rmWebAddress + CLUSTER_REST_PATH + url);
     httpGet.addHeader("Accept", "application/json");
     Object authorEnable = provider.getConfigMap().get("authorEnable");
-    HttpResponse httpResponse = null;
     if (authorEnable instanceof Boolean) {
       if ((Boolean) authorEnable) {
         httpGet.addHeader(HttpHeaders.AUTHORIZATION, "Basic " + getAuthorizationStr(provider));
       }
     }
     Object kerberosEnable = provider.getConfigMap().get("kerberosEnable");
-    if (kerberosEnable instanceof Boolean) {
-      if ((Boolean) kerberosEnable) {
+    String entityString = "";
+    try {
+      if (kerberosEnable instanceof Boolean && (Boolean) kerberosEnable) {
         String principalName = (String) provider.getConfigMap().get("principalName");
         String keytabPath = (String) provider.getConfigMap().get("keytabPath");
         String krb5Path = (String) provider.getConfigMap().get("krb5Path");
@@ -345,36 +367,14 @@ public class YarnResourceRequester implements ExternalResourceRequester {
         RequestKerberosUrlUtils requestKuu =
             new RequestKerberosUrlUtils(principalName, keytabPath, false);
         HttpResponse response =
-            requestKuu.callRestUrl(rmWebAddress + "/ws/v1/cluster/" + url, principalName);
-        httpResponse = response;
+            requestKuu.callRestUrl(rmWebAddress + CLUSTER_REST_PATH + url, principalName);
+        entityString = EntityUtils.toString(response.getEntity());
       } else {
-        HttpResponse response = null;
-        try {
-          CloseableHttpClient httpClient = HttpClients.createDefault();
-          response = httpClient.execute(httpGet);
-        } catch (IOException e) {
-          logger.warn("getResponseByUrl failed", e);
-          throw new RMErrorException(
-              YARN_QUEUE_EXCEPTION.getErrorCode(), YARN_QUEUE_EXCEPTION.getErrorDesc(), e);
+        // the response must be closed to give the connection back to the pool
+        try (CloseableHttpResponse response = getHttpClient(provider).execute(httpGet)) {
+          entityString = EntityUtils.toString(response.getEntity());
         }
-        httpResponse = response;
       }
-    } else {
-      HttpResponse response = null;
-      try {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-        response = httpClient.execute(httpGet);
-      } catch (IOException e) {
-        logger.warn("getResponseByUrl failed", e);
-        throw new RMErrorException(
-            YARN_QUEUE_EXCEPTION.getErrorCode(), YARN_QUEUE_EXCEPTION.getErrorDesc(), e);
-      }
-      httpResponse = response;
-    }
-
-    String entityString = "";
-    try {
-      entityString = EntityUtils.toString(httpResponse.getEntity());
     } catch (IOException e) {
       logger.warn("getResponseByUrl failed", e);
       throw new RMErrorException(
@@ -392,6 +392,64 @@ public class YarnResourceRequester implements ExternalResourceRequester {
     return jsonNode;
   }
 
+  /**
+   * Keep-alive pooled http client of the provider, shared by all the requests to its
+   * resourcemanagers(每个yarn集群共享一个连接池化的http客户端)
+   */
+  private CloseableHttpClient getHttpClient(ExternalResourceProvider provider) {
+    String haAddress = (String) provider.getConfigMap().get("rmWebAddress");
+    return httpClientMap.computeIfAbsent(haAddress, address -> createHttpClient());
+  }
+
+  private static CloseableHttpClient createHttpClient() {
+    int maxConnections = RMConfiguration.YARN_HTTP_MAX_CONNECTIONS.getValue();
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+    int connectTimeout = (int) RMConfiguration.YARN_HTTP_CONNECT_TIMEOUT.getValue().toLong();
+    RequestConfig requestConfig =
+        RequestConfig.custom()
+            .setConnectTimeout(connectTimeout)
+            .setConnectionRequestTimeout(connectTimeout)
+            .setSocketTimeout((int) RMConfiguration.YARN_HTTP_SOCKET_TIMEOUT.getValue().toLong())
+            .build();
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictExpiredConnections()
+        .evictIdleConnections(60, TimeUnit.SECONDS)
+        .build();
+  }
+
+  private void closeHttpClient(String haAddress) {
+    CloseableHttpClient httpClient = httpClientMap.remove(haAddress);
+    if (httpClient != null) {
+      try {
+        httpClient.close();
+      } catch (IOException e) {
+        logger.warn("close yarn http client of " + haAddress + " failed", e);
+      }
+    }
+  }
+
+  /**
+   * Drop the shared responses, called when an engine starts or stops so the next resource request
+   * sees the new usage of the queues(引擎启停时使快照失效)
+   */
+  @Override
+  public void invalidateSnapshot(ExternalResourceProvider provider) {
+    if (provider == null) {
+      snapshotCache.invalidateAll();
+    } else {
+      String haAddress = (String) provider.getConfigMap().get("rmWebAddress");
+      String activeAddress = rmAddressMap.get(haAddress);
+      if (activeAddress != null) {
+        snapshotCache.invalidate(key -> key.startsWith(activeAddress + CLUSTER_REST_PATH));
+      }
+    }
+  }
+
   public String getAndUpdateActiveRmWebAddress(ExternalResourceProvider provider) {
     // todo check if it will stuck for many requests
     String haAddress = (String) provider.getConfigMap().get("rmWebAddress");
@@ -411,7 +469,7 @@ public class YarnResourceRequester implements ExternalResourceRequester {
                 haAddress.split(RMConfiguration.DEFAULT_YARN_RM_WEB_ADDRESS_DELIMITER.getValue());
             for (String address : addresses) {
               try {
-                JsonNode response = getResponseByUrl("info", address, provider);
+                JsonNode response = requestByUrl("info", address, provider);
                 JsonNode haStateValue = response.path("clusterInfo").path("haState");
                 if (!haStateValue.isMissingNode() && haStateValue.isTextual()) {
                   String haState = haStateValue.asText();
@@ -449,6 +507,8 @@ public class YarnResourceRequester implements ExternalResourceRequester {
   public Boolean reloadExternalResourceAddress(ExternalResourceProvider provider) {
     if (null != provider) {
       String rmWebHaAddress = (String) provider.getConfigMap().get("rmWebAddress");
+      invalidateSnapshot(provider);
+      closeHttpClient(rmWebHaAddress);
       rmAddressMap.remove(rmWebHaAddress);
       getAndUpdateActiveRmWebAddress(provider);
     }
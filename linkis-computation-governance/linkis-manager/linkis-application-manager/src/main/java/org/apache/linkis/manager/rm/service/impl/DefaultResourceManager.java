@@ -19,7 +19,9 @@ package org.apache.linkis.manager.rm.service.impl;
 
 import org.apache.linkis.common.ServiceInstance;
 import org.apache.linkis.governance.common.conf.GovernanceCommonConf;
+import org.apache.linkis.manager.am.selector.NodeScoreBoard;
 import org.apache.linkis.manager.am.service.engine.EngineStopService;
+import org.apache.linkis.manager.am.service.monitor.NodeHeartbeatTracker;
 import org.apache.linkis.manager.am.util.LinkisUtils;
 import org.apache.linkis.manager.common.conf.RMConfiguration;
 import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
@@ -105,6 +107,10 @@ public class DefaultResourceManager extends ResourceManager implements Initializ
 
   @Autowired private EngineStopService engineStopService;
 
+  @Autowired private NodeHeartbeatTracker nodeHeartbeatTracker;
+
+  @Autowired private NodeScoreBoard nodeScoreBoard;
+
   private RequestResourceService[] requestResourceServices;
 
   @Override
@@ -314,6 +320,8 @@ public class DefaultResourceManager extends ResourceManager implements Initializ
     engineNode.setTicketId(tickedId);
 
     nodeManagerPersistence.addEngineNode(engineNode);
+    nodeHeartbeatTracker.engineCreated(engineNode.getServiceInstance());
+    invalidateNodeScores(labelContainer);
 
     // Add labels
     EngineInstanceLabel engineInstanceLabel =
@@ -504,6 +512,29 @@ public class DefaultResourceManager extends ResourceManager implements Initializ
               labelContainer.getEngineInstanceLabel().getStringValue(), lockedResource),
           exception);
     }
+    invalidateExternalSnapshot(lockedResource.getResourceType(), labelContainer);
+    invalidateNodeScores(labelContainer);
+  }
+
+  /**
+   * The queue usage seen by yarn changes when an engine starts or stops, so the shared yarn
+   * snapshot is dropped for the following requests(引擎启停后使yarn快照失效)
+   */
+  /** The left resource of the ECM changed, its precomputed select score is dropped */
+  private void invalidateNodeScores(RMLabelContainer labelContainer) {
+    if (labelContainer.getEMInstanceLabel() != null) {
+      nodeScoreBoard.invalidate(labelContainer.getEMInstanceLabel().getServiceInstance());
+    }
+    if (labelContainer.getEngineInstanceLabel() != null) {
+      nodeScoreBoard.invalidate(labelContainer.getEngineInstanceLabel().getServiceInstance());
+    }
+  }
+
+  private void invalidateExternalSnapshot(
+      ResourceType resourceType, RMLabelContainer labelContainer) {
+    if (resourceType == ResourceType.DriverAndYarn) {
+      externalResourceService.invalidateSnapshot(ResourceType.Yarn, labelContainer);
+    }
   }
 
   public void resourceCheck(Label<?> label, NodeResource labelResource) {
@@ -742,6 +773,8 @@ public class DefaultResourceManager extends ResourceManager implements Initializ
                 exception);
             throw exception;
           }
+          invalidateExternalSnapshot(usedResource.getResourceType(), labelContainer);
+          invalidateNodeScores(labelContainer);
         },
         () -> resourceLockService.unLock(instanceLock));
   }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.rm.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Short lived snapshots shared by concurrent callers. A missing or expired snapshot is loaded by
+ * the first caller only, the callers arriving meanwhile wait for the same load instead of sending
+ * their own request(单飞快照缓存：并发请求只触发一次加载，其余请求等待并共享结果)
+ *
+ * <p>A failed load is not cached, its waiters get the same exception and the next caller loads
+ * again
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class SnapshotCache<K, V> {
+
+  private static class Snapshot<V> {
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    private volatile long loadedTime;
+  }
+
+  private final long ttlMillis;
+
+  private final Map<K, Snapshot<V>> snapshots = new ConcurrentHashMap<>();
+
+  /** @param ttlMillis how long a snapshot is shared, not positive to disable the cache */
+  public SnapshotCache(long ttlMillis) {
+    this.ttlMillis = ttlMillis;
+  }
+
+  public V get(K key, Supplier<V> loader) {
+    if (ttlMillis <= 0) {
+      return loader.get();
+    }
+    while (true) {
+      Snapshot<V> snapshot = snapshots.get(key);
+      if (snapshot != null && !isExpired(snapshot)) {
+        return await(snapshot);
+      }
+      Snapshot<V> loading = new Snapshot<>();
+      boolean owner =
+          snapshot == null
+              ? snapshots.putIfAbsent(key, loading) == null
+              : snapshots.replace(key, snapshot, loading);
+      if (!owner) {
+        continue;
+      }
+      try {
+        V value = loader.get();
+        loading.loadedTime = System.currentTimeMillis();
+        loading.future.complete(value);
+        return value;
+      } catch (Throwable t) {
+        snapshots.remove(key, loading);
+        loading.future.completeExceptionally(t);
+        throw t;
+      }
+    }
+  }
+
+  private boolean isExpired(Snapshot<V> snapshot) {
+    if (!snapshot.future.isDone()) {
+      return false;
+    }
+    return snapshot.future.isCompletedExceptionally()
+        || System.currentTimeMillis() - snapshot.loadedTime >= ttlMillis;
+  }
+
+  private V await(Snapshot<V> snapshot) {
+    try {
+      return snapshot.future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Drop the snapshots of the matched keys, the loads in flight still complete for their waiters
+   * (使匹配的快照失效)
+   *
+   * @param keyPredicate
+   */
+  public void invalidate(Predicate<K> keyPredicate) {
+    snapshots.keySet().removeIf(keyPredicate);
+  }
+
+  public void invalidateAll() {
+    snapshots.clear();
+  }
+
+  public int size() {
+    return snapshots.size();
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.benchmark;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.am.service.monitor.HeartbeatTimingWheel;
+import org.apache.linkis.manager.common.entity.metrics.AMNodeMetrics;
+import org.apache.linkis.manager.common.entity.metrics.NodeMetrics;
+import org.apache.linkis.manager.common.entity.node.AMEngineNode;
+import org.apache.linkis.manager.common.entity.node.Node;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Simulates one monitor round over a cluster of nodes: joining the nodes with their metrics by
+ * nested loops or by hash, and finding the overdue nodes by a full scan or by polling the timing
+ * wheel fed with the heartbeats of the round. The database access is left out
+ * 模拟一轮节点监控：嵌套循环与哈希关联指标的对比，以及全量扫描与时间轮找出心跳过期节点的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HeartbeatMonitorBenchmark {
+
+  private static final long HEARTBEAT_TIMEOUT = TimeUnit.MINUTES.toMillis(12);
+
+  private static final long SCAN_INTERVAL = TimeUnit.MINUTES.toMillis(2);
+
+  @Param({"10000"})
+  public int nodeNum;
+
+  /** One node out of deadEvery stops sending heartbeats(每deadEvery个节点中有一个停止心跳) */
+  @Param({"100"})
+  public int deadEvery;
+
+  private List<Node> nodes;
+
+  private List<NodeMetrics> metricList;
+
+  private HeartbeatTimingWheel<ServiceInstance> wheel;
+
+  private long now;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    now = System.currentTimeMillis();
+    nodes = new ArrayList<>(nodeNum);
+    metricList = new ArrayList<>(nodeNum);
+    wheel = new HeartbeatTimingWheel<>(1000L, 1024, now);
+    Random random = new Random(nodeNum);
+    for (int i = 0; i < nodeNum; i++) {
+      ServiceInstance instance = ServiceInstance.apply("linkis-cg-engineconn", "10.0.0.1:" + i);
+      AMEngineNode node = new AMEngineNode();
+      node.setServiceInstance(instance);
+      node.setStartTime(new Date(now - HEARTBEAT_TIMEOUT));
+      nodes.add(node);
+      AMNodeMetrics metrics = new AMNodeMetrics();
+      metrics.setServiceInstance(instance);
+      metrics.setStatus(2);
+      long updateTime = now - random.nextInt((int) SCAN_INTERVAL);
+      metrics.setUpdateTime(new Date(updateTime));
+      metricList.add(metrics);
+      wheel.schedule(instance, updateTime + HEARTBEAT_TIMEOUT);
+    }
+    // the database returns the metrics in another order than the nodes
+    Collections.shuffle(metricList, random);
+  }
+
+  @Benchmark
+  public void nestedLoopJoin(Blackhole blackhole) {
+    for (Node node : nodes) {
+      for (NodeMetrics metrics : metricList) {
+        if (metrics.getServiceInstance().toString().equals(node.getServiceInstance().toString())) {
+          blackhole.consume(metrics.getUpdateTime());
+          break;
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void hashJoin(Blackhole blackhole) {
+    Map<String, NodeMetrics> metricsMap = new HashMap<>(metricList.size() * 2);
+    for (NodeMetrics metrics : metricList) {
+      metricsMap.putIfAbsent(metrics.getServiceInstance().toString(), metrics);
+    }
+    for (Node node : nodes) {
+      NodeMetrics metrics = metricsMap.get(node.getServiceInstance().toString());
+      if (metrics != null) {
+        blackhole.consume(metrics.getUpdateTime());
+      }
+    }
+  }
+
+  /** Every node is judged in every round, as the monitor did before(每轮判断所有节点) */
+  @Benchmark
+  public int fullScanRound() {
+    now += SCAN_INTERVAL;
+    int overdue = 0;
+    for (int i = 0; i < nodeNum; i++) {
+      NodeMetrics metrics = metricList.get(i);
+      if (i % deadEvery != 0) {
+        metrics.getUpdateTime().setTime(now);
+      }
+      if (now - metrics.getUpdateTime().getTime() > HEARTBEAT_TIMEOUT) {
+        overdue++;
+      }
+    }
+    return overdue;
+  }
+
+  /** Heartbeats move the deadlines, the round polls only the expired ones(只轮询过期节点) */
+  @Benchmark
+  public int timingWheelRound() {
+    now += SCAN_INTERVAL;
+    for (int i = 0; i < nodeNum; i++) {
+      if (i % deadEvery != 0) {
+        wheel.schedule(metricList.get(i).getServiceInstance(), now + HEARTBEAT_TIMEOUT);
+      }
+    }
+    return wheel.pollExpired(now).size();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(HeartbeatMonitorBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
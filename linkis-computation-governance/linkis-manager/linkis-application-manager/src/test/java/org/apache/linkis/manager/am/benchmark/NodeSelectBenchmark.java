@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.benchmark;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.am.selector.NodeCandidate;
+import org.apache.linkis.manager.am.selector.NodeScoreBoard;
+import org.apache.linkis.manager.am.selector.NodeSelectPipeline;
+import org.apache.linkis.manager.am.selector.rule.*;
+import org.apache.linkis.manager.common.entity.enumeration.NodeHealthy;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.metrics.NodeHealthyInfo;
+import org.apache.linkis.manager.common.entity.metrics.NodeTaskInfo;
+import org.apache.linkis.manager.common.entity.node.AMEMNode;
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.resource.CommonNodeResource;
+import org.apache.linkis.manager.common.entity.resource.LoadInstanceResource;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Selects one node out of thousands of candidates with the default rules, once by running the
+ * rules one after another and once by the pipeline, with scores computed per selection or reused
+ * from the score board
+ * 在数千个候选节点中选择节点：逐个规则排序与流水线单次遍历的对比，以及分数每次计算与复用的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NodeSelectBenchmark {
+
+  @Param({"1000", "5000"})
+  public int nodeNum;
+
+  /** One node out of unavailableEvery is unhealthy(每unavailableEvery个节点中有一个不健康) */
+  @Param({"20"})
+  public int unavailableEvery;
+
+  private List<NodeSelectRule> rules;
+
+  private NodeSelectPipeline pipeline;
+
+  private NodeScoreBoard coldScoreBoard;
+
+  private NodeScoreBoard warmScoreBoard;
+
+  private Node[] nodes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    List<PipelinedNodeSelectRule> pipelinedRules =
+        Arrays.asList(
+            new ScoreNodeSelectRule(),
+            new ConcurrencyNodeSelectRule(),
+            new AvailableNodeSelectRule(),
+            new TaskInfoNodeSelectRule(),
+            new ResourceNodeSelectRule(),
+            new NewECMStandbyRule(),
+            new HotspotExclusionRule());
+    rules = Arrays.asList(pipelinedRules.toArray(new NodeSelectRule[0]));
+    pipeline = new NodeSelectPipeline(pipelinedRules);
+    coldScoreBoard = new NodeScoreBoard(0);
+    warmScoreBoard = new NodeScoreBoard(TimeUnit.HOURS.toMillis(1));
+    Random random = new Random(nodeNum);
+    nodes = new Node[nodeNum];
+    for (int i = 0; i < nodeNum; i++) {
+      AMEMNode node = new AMEMNode();
+      node.setServiceInstance(ServiceInstance.apply("linkis-cg-engineconnmanager", "ecm:" + i));
+      node.setNodeStatus(NodeStatus.Running);
+      NodeHealthyInfo healthyInfo = new NodeHealthyInfo();
+      healthyInfo.setNodeHealthy(
+          i % unavailableEvery == 0 ? NodeHealthy.UnHealthy : NodeHealthy.Healthy);
+      node.setNodeHealthyInfo(healthyInfo);
+      CommonNodeResource nodeResource = new CommonNodeResource();
+      nodeResource.setMaxResource(new LoadInstanceResource(128L << 30, 64, 100));
+      nodeResource.setUsedResource(
+          new LoadInstanceResource(
+              (long) random.nextInt(128) << 30, random.nextInt(64), random.nextInt(100)));
+      node.setNodeResource(nodeResource);
+      NodeTaskInfo taskInfo = new NodeTaskInfo();
+      taskInfo.setRunningTasks(i);
+      node.setNodeTaskInfo(taskInfo);
+      node.setScore(random.nextDouble());
+      node.setStartTime(new Date(0L));
+      nodes[i] = node;
+    }
+  }
+
+  /** Every rule sorts or filters the whole node array(每个规则对全部节点排序或过滤) */
+  @Benchmark
+  public Node ruleByRule() {
+    Node[] resultNodes = nodes.clone();
+    for (NodeSelectRule rule : rules) {
+      resultNodes = rule.ruleFiltering(resultNodes);
+    }
+    return resultNodes.length == 0 ? null : resultNodes[0];
+  }
+
+  /** Scores are read from every node on every selection(每次选择都重新计算分数) */
+  @Benchmark
+  public Node pipelineColdScores() {
+    NodeCandidate[] head = pipeline.rank(nodes.clone(), coldScoreBoard);
+    return head.length == 0 ? null : head[0].getNode();
+  }
+
+  /** No heartbeat arrived since the last selection, all scores are reused(复用全部分数) */
+  @Benchmark
+  public Node pipelineWarmScores() {
+    NodeCandidate[] head = pipeline.rank(nodes.clone(), warmScoreBoard);
+    return head.length == 0 ? null : head[0].getNode();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(NodeSelectBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
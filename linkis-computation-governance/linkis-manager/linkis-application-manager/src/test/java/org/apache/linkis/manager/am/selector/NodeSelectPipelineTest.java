@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.selector;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.am.selector.rule.*;
+import org.apache.linkis.manager.common.entity.enumeration.NodeHealthy;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.metrics.NodeHealthyInfo;
+import org.apache.linkis.manager.common.entity.metrics.NodeTaskInfo;
+import org.apache.linkis.manager.common.entity.node.AMEMNode;
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.resource.CommonNodeResource;
+import org.apache.linkis.manager.common.entity.resource.LoadInstanceResource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NodeSelectPipelineTest {
+
+  private static List<PipelinedNodeSelectRule> orderedRules() {
+    return Arrays.asList(
+        new ScoreNodeSelectRule(),
+        new ConcurrencyNodeSelectRule(),
+        new AvailableNodeSelectRule(),
+        new TaskInfoNodeSelectRule(),
+        new ResourceNodeSelectRule(),
+        new NewECMStandbyRule());
+  }
+
+  private static AMEMNode emNode(int i, long memory, int cores, double score, boolean healthy) {
+    AMEMNode node = new AMEMNode();
+    node.setServiceInstance(ServiceInstance.apply("ecm", "ecm:" + i));
+    node.setNodeStatus(NodeStatus.Running);
+    NodeHealthyInfo healthyInfo = new NodeHealthyInfo();
+    healthyInfo.setNodeHealthy(healthy ? NodeHealthy.Healthy : NodeHealthy.UnHealthy);
+    node.setNodeHealthyInfo(healthyInfo);
+    CommonNodeResource nodeResource = new CommonNodeResource();
+    nodeResource.setMaxResource(new LoadInstanceResource(1024L * 100, 100, 100));
+    nodeResource.setLeftResource(new LoadInstanceResource(memory, cores, 10));
+    node.setNodeResource(nodeResource);
+    node.setScore(score);
+    node.setStartTime(new Date(0L));
+    NodeTaskInfo taskInfo = new NodeTaskInfo();
+    taskInfo.setRunningTasks(i);
+    node.setNodeTaskInfo(taskInfo);
+    return node;
+  }
+
+  private static Node choseByRules(Node[] nodes) {
+    Node[] result = nodes.clone();
+    for (NodeSelectRule rule : orderedRules()) {
+      result = rule.ruleFiltering(result);
+    }
+    return result.length == 0 ? null : result[0];
+  }
+
+  @Test
+  public void testSameChoiceAsRules() {
+    NodeSelectPipeline pipeline = new NodeSelectPipeline(orderedRules());
+    Random random = new Random(7);
+    for (int round = 0; round < 50; round++) {
+      Node[] nodes = new Node[200];
+      for (int i = 0; i < nodes.length; i++) {
+        // distinct resources, scores and tasks, the rule comparators do not agree on ties
+        nodes[i] = emNode(i, 1024L * i, random.nextInt(100), i * 0.5, random.nextInt(5) != 0);
+      }
+      Collections.shuffle(Arrays.asList(nodes), random);
+      NodeCandidate[] head = pipeline.rank(nodes, new NodeScoreBoard(0));
+      Assertions.assertEquals(1, head.length);
+      Assertions.assertSame(choseByRules(nodes), head[0].getNode());
+    }
+  }
+
+  @Test
+  public void testUnavailableNodesAreFiltered() {
+    NodeSelectPipeline pipeline = new NodeSelectPipeline(orderedRules());
+    Node[] nodes = {emNode(1, 2048, 10, 1, false), emNode(2, 1024, 10, 1, true)};
+    NodeCandidate[] head = pipeline.rank(nodes, new NodeScoreBoard(0));
+    Assertions.assertEquals("ecm:2", head[0].getNode().getServiceInstance().getInstance());
+
+    Node[] unhealthy = {emNode(1, 2048, 10, 1, false)};
+    Assertions.assertEquals(0, pipeline.rank(unhealthy, new NodeScoreBoard(0)).length);
+  }
+
+  @Test
+  public void testNewNodeStandby() {
+    NodeSelectPipeline pipeline = new NodeSelectPipeline(orderedRules());
+    AMEMNode newNode = emNode(1, 4096, 10, 1, true);
+    newNode.setStartTime(new Date());
+    Node[] nodes = {newNode, emNode(2, 1024, 10, 1, true)};
+    NodeCandidate[] head = pipeline.rank(nodes, new NodeScoreBoard(0));
+    Assertions.assertEquals("ecm:2", head[0].getNode().getServiceInstance().getInstance());
+  }
+
+  @Test
+  public void testHotspotHeadIsTopRanked() {
+    List<PipelinedNodeSelectRule> rules = new ArrayList<>(orderedRules());
+    rules.add(new HotspotExclusionRule());
+    NodeSelectPipeline pipeline = new NodeSelectPipeline(rules);
+    Node[] nodes = new Node[30];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = emNode(i, 1024L * i, 10, 1, true);
+    }
+    NodeCandidate[] head = pipeline.rank(nodes, new NodeScoreBoard(0));
+    Assertions.assertEquals(5, head.length);
+    for (NodeCandidate candidate : head) {
+      int index = candidate.getIndex();
+      Assertions.assertTrue(index >= 25, "not a top ranked node: " + index);
+    }
+  }
+
+  @Test
+  public void testScoreBoardReuseAndInvalidate() {
+    NodeScoreBoard scoreBoard = new NodeScoreBoard(60000);
+    AMEMNode node = emNode(1, 1024, 10, 1, true);
+    long now = System.currentTimeMillis();
+    NodeScore score = scoreBoard.scoreOf(node, now);
+    Assertions.assertSame(score, scoreBoard.scoreOf(node, now));
+
+    scoreBoard.invalidate(node.getServiceInstance());
+    NodeScore refreshed = scoreBoard.scoreOf(node, now);
+    Assertions.assertNotSame(score, refreshed);
+    Assertions.assertNotSame(refreshed, scoreBoard.scoreOf(node, now + 60000));
+  }
+}
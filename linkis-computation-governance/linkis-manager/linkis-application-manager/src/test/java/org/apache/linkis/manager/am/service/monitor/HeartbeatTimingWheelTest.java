@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.service.monitor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HeartbeatTimingWheelTest {
+
+  private static final long START = 1_000_000L;
+
+  @Test
+  public void testPollExpired() {
+    HeartbeatTimingWheel<String> wheel = new HeartbeatTimingWheel<>(1000L, 16, START);
+    wheel.schedule("a", START + 1500);
+    wheel.schedule("b", START + 3000);
+    wheel.schedule("c", START + 5000);
+    Assertions.assertTrue(wheel.pollExpired(START + 1000).isEmpty());
+    Assertions.assertEquals(Collections.singletonList("a"), wheel.pollExpired(START + 2000));
+    Assertions.assertEquals(
+        new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(wheel.pollExpired(START + 6000)));
+    Assertions.assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testDeadlineLaterInTheCurrentTick() {
+    HeartbeatTimingWheel<String> wheel = new HeartbeatTimingWheel<>(1000L, 16, START);
+    wheel.schedule("a", START + 1800);
+    Assertions.assertTrue(wheel.pollExpired(START + 1200).isEmpty());
+    Assertions.assertEquals(Collections.singletonList("a"), wheel.pollExpired(START + 1900));
+  }
+
+  @Test
+  public void testRescheduleMovesDeadline() {
+    HeartbeatTimingWheel<String> wheel = new HeartbeatTimingWheel<>(1000L, 16, START);
+    wheel.schedule("a", START + 2000);
+    wheel.schedule("a", START + 9000);
+    Assertions.assertEquals(1, wheel.size());
+    Assertions.assertTrue(wheel.pollExpired(START + 5000).isEmpty());
+    Assertions.assertEquals(Collections.singletonList("a"), wheel.pollExpired(START + 9000));
+    Assertions.assertFalse(wheel.remove("b"));
+  }
+
+  @Test
+  public void testPassedDeadlineExpiresAtNextPoll() {
+    HeartbeatTimingWheel<String> wheel = new HeartbeatTimingWheel<>(1000L, 16, START);
+    wheel.pollExpired(START + 5000);
+    wheel.schedule("a", START);
+    Assertions.assertEquals(Collections.singletonList("a"), wheel.pollExpired(START + 5000));
+  }
+
+  @Test
+  public void testDeadlineBeyondOneRotation() {
+    HeartbeatTimingWheel<String> wheel = new HeartbeatTimingWheel<>(1000L, 4, START);
+    wheel.schedule("a", START + 10_000);
+    wheel.schedule("b", START + 2000);
+    Assertions.assertEquals(Collections.singletonList("b"), wheel.pollExpired(START + 3000));
+    Assertions.assertTrue(wheel.pollExpired(START + 7000).isEmpty());
+    Assertions.assertTrue(wheel.contains("a"));
+    List<String> expired = wheel.pollExpired(START + 30_000);
+    Assertions.assertEquals(Collections.singletonList("a"), expired);
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.label.index;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLabel;
+import org.apache.linkis.manager.persistence.LabelManagerPersistence;
+import org.apache.linkis.manager.persistence.NodeManagerPersistence;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeLabelIndexTest {
+
+  /** instance -> labels, the relation table of the stub persistence */
+  private final Map<String, List<PersistenceLabel>> relations = new LinkedHashMap<>();
+
+  private final Map<String, ServiceInstance> nodes = new LinkedHashMap<>();
+
+  private int labelQueries = 0;
+
+  private NodeLabelIndex nodeLabelIndex;
+
+  private static PersistenceLabel label(int id, String key, String value) {
+    PersistenceLabel label = new PersistenceLabel();
+    label.setId(id);
+    label.setLabelKey(key);
+    label.setStringValue(value);
+    return label;
+  }
+
+  private ServiceInstance addNode(String instance, PersistenceLabel... labels) {
+    ServiceInstance serviceInstance = ServiceInstance.apply("linkis-cg-engineconn", instance);
+    nodes.put(instance, serviceInstance);
+    relations.put(instance, new ArrayList<>(Arrays.asList(labels)));
+    return serviceInstance;
+  }
+
+  private static void setField(Object target, String name, Object value) throws Exception {
+    Field field = target.getClass().getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(target, value);
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    LabelManagerPersistence labelManagerPersistence =
+        (LabelManagerPersistence)
+            Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {LabelManagerPersistence.class},
+                (proxy, method, args) -> {
+                  labelQueries++;
+                  switch (method.getName()) {
+                    case "getLabelByServiceInstance":
+                      return new ArrayList<>(
+                          relations.getOrDefault(
+                              ((ServiceInstance) args[0]).getInstance(), Collections.emptyList()));
+                    case "getLabelRelationsByServiceInstance":
+                      Map<ServiceInstance, List<PersistenceLabel>> result = new HashMap<>();
+                      for (Object instance : (List<?>) args[0]) {
+                        ServiceInstance serviceInstance = (ServiceInstance) instance;
+                        List<PersistenceLabel> labels = relations.get(serviceInstance.getInstance());
+                        if (labels != null && !labels.isEmpty()) {
+                          result.put(serviceInstance, new ArrayList<>(labels));
+                        }
+                      }
+                      return result;
+                    default:
+                      throw new UnsupportedOperationException(method.getName());
+                  }
+                });
+    NodeManagerPersistence nodeManagerPersistence =
+        (NodeManagerPersistence)
+            Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {NodeManagerPersistence.class},
+                (proxy, method, args) -> {
+                  if (!"getAllNodes".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                  }
+                  return nodes.values().stream()
+                      .map(
+                          serviceInstance ->
+                              (Node)
+                                  Proxy.newProxyInstance(
+                                      getClass().getClassLoader(),
+                                      new Class<?>[] {Node.class},
+                                      (p, m, a) -> serviceInstance))
+                      .collect(Collectors.toList());
+                });
+    nodeLabelIndex = new NodeLabelIndex();
+    setField(nodeLabelIndex, "labelManagerPersistence", labelManagerPersistence);
+    setField(nodeLabelIndex, "nodeManagerPersistence", nodeManagerPersistence);
+  }
+
+  @Test
+  void lookupsAfterRebuild() {
+    PersistenceLabel userCreator = label(1, "userCreator", "hadoop-IDE");
+    PersistenceLabel spark = label(2, "engineType", "spark-3.2.1");
+    PersistenceLabel hive = label(3, "engineType", "hive-3.1.3");
+    ServiceInstance ec1 = addNode("ec1:9101", userCreator, spark);
+    ServiceInstance ec2 = addNode("ec2:9101", userCreator, hive);
+    addNode("ec3:9101");
+
+    assertFalse(nodeLabelIndex.isReady());
+    nodeLabelIndex.rebuild();
+    assertTrue(nodeLabelIndex.isReady());
+
+    Map<PersistenceLabel, List<ServiceInstance>> inDegree =
+        nodeLabelIndex.getNodeRelationsByLabels(
+            Arrays.asList(
+                label(0, "userCreator", "hadoop-IDE"), label(0, "engineType", "spark-3.2.1")));
+    assertEquals(2, inDegree.size());
+    assertEquals(new HashSet<>(Arrays.asList(ec1, ec2)), new HashSet<>(inDegree.get(userCreator)));
+    assertEquals(Collections.singletonList(ec1), inDegree.get(spark));
+
+    Map<ServiceInstance, List<PersistenceLabel>> outDegree =
+        nodeLabelIndex.getLabelRelationsByServiceInstance(
+            Arrays.asList(ec1, ServiceInstance.apply("linkis-cg-engineconn", "ec3:9101")));
+    assertEquals(1, outDegree.size());
+    assertEquals(Arrays.asList(userCreator, spark), outDegree.get(ec1));
+
+    assertEquals(
+        Collections.singletonList(ec2),
+        nodeLabelIndex.getNodesByLabelKeyValue("engineType", "hive-3.1.3"));
+  }
+
+  @Test
+  void reindexNodeAfterWrite() {
+    PersistenceLabel userCreator = label(1, "userCreator", "hadoop-IDE");
+    PersistenceLabel spark = label(2, "engineType", "spark-3.2.1");
+    ServiceInstance ec1 = addNode("ec1:9101", userCreator, spark);
+
+    // writes before the index is built do not query the labels
+    nodeLabelIndex.reindexNode(ec1);
+    assertEquals(0, labelQueries);
+    nodeLabelIndex.rebuild();
+
+    ServiceInstance ec2 = addNode("ec2:9101", userCreator);
+    nodeLabelIndex.reindexNode(ec2);
+    relations.get("ec1:9101").remove(userCreator);
+    nodeLabelIndex.reindexNode(ec1);
+
+    assertEquals(
+        Collections.singletonList(ec2),
+        nodeLabelIndex.getNodesByLabelKeyValue("userCreator", "hadoop-IDE"));
+
+    relations.remove("ec1:9101");
+    nodeLabelIndex.reindexLabel(spark);
+    assertTrue(nodeLabelIndex.getNodesByLabelKeyValue("engineType", "spark-3.2.1").isEmpty());
+    assertTrue(nodeLabelIndex.getLabelRelationsByServiceInstance(Arrays.asList(ec1)).isEmpty());
+  }
+}
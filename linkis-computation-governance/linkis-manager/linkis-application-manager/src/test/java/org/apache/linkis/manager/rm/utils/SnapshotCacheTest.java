@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.rm.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotCacheTest {
+
+  @Test
+  public void testConcurrentCallersShareOneLoad() throws Exception {
+    SnapshotCache<String, Integer> cache = new SnapshotCache<>(60000L);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(
+            executor.submit(
+                () ->
+                    cache.get(
+                        "scheduler",
+                        () -> {
+                          loads.incrementAndGet();
+                          try {
+                            release.await(5, TimeUnit.SECONDS);
+                          } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                          }
+                          return 42;
+                        })));
+      }
+      Thread.sleep(200);
+      release.countDown();
+      for (Future<Integer> future : futures) {
+        Assertions.assertEquals(42, future.get(5, TimeUnit.SECONDS).intValue());
+      }
+      Assertions.assertEquals(1, loads.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testExpireAndInvalidate() throws Exception {
+    SnapshotCache<String, Integer> cache = new SnapshotCache<>(50L);
+    AtomicInteger loads = new AtomicInteger();
+    Assertions.assertEquals(1, cache.get("apps", loads::incrementAndGet).intValue());
+    Assertions.assertEquals(1, cache.get("apps", loads::incrementAndGet).intValue());
+    Thread.sleep(100);
+    Assertions.assertEquals(2, cache.get("apps", loads::incrementAndGet).intValue());
+    cache.invalidate(key -> key.startsWith("app"));
+    Assertions.assertEquals(3, cache.get("apps", loads::incrementAndGet).intValue());
+    cache.invalidateAll();
+    Assertions.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testFailedLoadIsNotCached() {
+    SnapshotCache<String, Integer> cache = new SnapshotCache<>(60000L);
+    Assertions.assertThrows(
+        IllegalStateException.class,
+        () ->
+            cache.get(
+                "metrics",
+                () -> {
+                  throw new IllegalStateException("standby");
+                }));
+    Assertions.assertEquals(7, cache.get("metrics", () -> 7).intValue());
+  }
+
+  @Test
+  public void testDisabled() {
+    SnapshotCache<String, Integer> cache = new SnapshotCache<>(0L);
+    AtomicInteger loads = new AtomicInteger();
+    cache.get("apps", loads::incrementAndGet);
+    cache.get("apps", loads::incrementAndGet);
+    Assertions.assertEquals(2, loads.get());
+  }
+}
@@ -122,4 +122,20 @@ public class RMConfiguration {
 
   public static final CommonVars<String> DEFAULT_YARN_RM_WEB_ADDRESS_DELIMITER =
       CommonVars.apply("wds.linkis.rm.default.yarn.webaddress.delimiter", ";");
+
+  /**
+   * How long a response of the yarn resourcemanager rest api is shared by the concurrent resource
+   * requests, 0 to always request yarn
+   */
+  public static final CommonVars<TimeType> YARN_SNAPSHOT_TTL =
+      CommonVars.apply("wds.linkis.rm.yarn.snapshot.ttl", new TimeType("3s"));
+
+  public static final CommonVars<Integer> YARN_HTTP_MAX_CONNECTIONS =
+      CommonVars.apply("wds.linkis.rm.yarn.http.max.connections", 20);
+
+  public static final CommonVars<TimeType> YARN_HTTP_CONNECT_TIMEOUT =
+      CommonVars.apply("wds.linkis.rm.yarn.http.connect.timeout", new TimeType("10s"));
+
+  public static final CommonVars<TimeType> YARN_HTTP_SOCKET_TIMEOUT =
+      CommonVars.apply("wds.linkis.rm.yarn.http.socket.timeout", new TimeType("60s"));
 }
@@ -20,6 +20,7 @@ package org.apache.linkis.manager;
 import org.apache.linkis.manager.dao.*;
 import org.apache.linkis.manager.persistence.*;
 import org.apache.linkis.manager.persistence.impl.*;
+import org.apache.linkis.manager.util.PersistenceManagerConf;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
@@ -73,6 +74,9 @@ public class PersistenceSpringConfiguration {
   @ConditionalOnMissingBean
   public LockManagerPersistence getDefaultLockManagerPersistence(
       LockManagerMapper lockManagerMapper) {
+    if ("memory".equalsIgnoreCase(PersistenceManagerConf.Distributed_lock_persistence_type)) {
+      return new InMemoryLockManagerPersistence();
+    }
     DefaultLockManagerPersistence defaultLockManagerPersistence =
         new DefaultLockManagerPersistence();
     defaultLockManagerPersistence.setLockManagerMapper(lockManagerMapper);
@@ -98,7 +102,9 @@ public class PersistenceSpringConfiguration {
   public NodeMetricManagerPersistence getDefaultNodeMetricManagerPersistence(
       NodeManagerMapper nodeManagerMapper, NodeMetricManagerMapper nodeMetricManagerMapper) {
     DefaultNodeMetricManagerPersistence defaultNodeMetricManagerPersistence =
-        new DefaultNodeMetricManagerPersistence();
+        "writebehind".equalsIgnoreCase(PersistenceManagerConf.Node_metrics_persistence_type)
+            ? new WriteBehindNodeMetricManagerPersistence()
+            : new DefaultNodeMetricManagerPersistence();
     defaultNodeMetricManagerPersistence.setNodeManagerMapper(nodeManagerMapper);
     defaultNodeMetricManagerPersistence.setNodeMetricManagerMapper(nodeMetricManagerMapper);
     return defaultNodeMetricManagerPersistence;
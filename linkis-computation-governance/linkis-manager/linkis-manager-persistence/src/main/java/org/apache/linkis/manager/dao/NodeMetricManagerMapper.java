@@ -28,6 +28,13 @@ public interface NodeMetricManagerMapper {
 
   void addNodeMetrics(@Param("nodeMetrics") PersistenceNodeMetrics nodeMetrics);
 
+  /**
+   * Insert the metrics of several nodes in one statement(批量插入节点指标)
+   *
+   * @param nodeMetricsList
+   */
+  void batchAddNodeMetrics(@Param("nodeMetricsList") List<PersistenceNodeMetrics> nodeMetricsList);
+
   Integer checkInstanceExist(@Param("instance") String instance);
 
   List<PersistenceNodeMetrics> getNodeMetricsByInstances(
@@ -38,6 +45,15 @@ public interface NodeMetricManagerMapper {
   void updateNodeMetrics(
       @Param("nodeMetrics") PersistenceNodeMetrics nodeMetrics, @Param("instance") String instance);
 
+  /**
+   * Update the metrics of several nodes in one statement, null fields keep the stored value
+   * (批量更新节点指标，为空的字段保持原值)
+   *
+   * @param nodeMetricsList
+   */
+  void batchUpdateNodeMetrics(
+      @Param("nodeMetricsList") List<PersistenceNodeMetrics> nodeMetricsList);
+
   void deleteNodeMetrics(@Param("instance") String instance);
 
   void deleteNodeMetricsByInstance(@Param("instance") String instance);
@@ -17,6 +17,7 @@
 
 package org.apache.linkis.manager.persistence;
 
+import org.apache.linkis.common.ServiceInstance;
 import org.apache.linkis.manager.common.entity.metrics.NodeMetrics;
 import org.apache.linkis.manager.common.entity.node.Node;
 import org.apache.linkis.manager.exception.PersistenceErrorException;
@@ -68,4 +69,14 @@ public interface NodeMetricManagerPersistence {
   void deleteNodeMetrics(Node node);
 
   List<NodeMetrics> getAllNodeMetrics();
+
+  /**
+   * 仅当节点状态仍为oldStatus时更新为newStatus(compare and set the status of the node)
+   *
+   * @param serviceInstance
+   * @param newStatus
+   * @param oldStatus
+   * @return the updated row count, 0 if the status was not oldStatus
+   */
+  int updateNodeStatus(ServiceInstance serviceInstance, int newStatus, int oldStatus);
 }
@@ -196,4 +196,10 @@ public class DefaultNodeMetricManagerPersistence implements NodeMetricManagerPer
     }
     return persistenceNodeMetricsList;
   }
+
+  @Override
+  public int updateNodeStatus(ServiceInstance serviceInstance, int newStatus, int oldStatus) {
+    return nodeMetricManagerMapper.updateNodeStatus(
+        serviceInstance.getInstance(), newStatus, oldStatus);
+  }
 }
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.persistence.impl;
+
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLock;
+import org.apache.linkis.manager.persistence.LockManagerPersistence;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lock persistence kept in the memory of the manager, for deployments where a single manager
+ * instance serves the resource requests. Every lock object has a fair FIFO queue whose head holds
+ * the lock, so a waiter is woken up once when the lock is handed over instead of polling the
+ * database. The id of a lock is a fencing token growing with every request: a lock force released
+ * after its lease, see {@link #getTimeOutLocks(Date)}, can not release the lock of the next holder.
+ * 基于内存公平队列的锁，仅适用于单个manager实例处理资源请求的部署；
+ * 锁id作为递增的fencing token，租约超时被强制释放的锁无法误释放后续持有者的锁
+ */
+public class InMemoryLockManagerPersistence implements LockManagerPersistence {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(InMemoryLockManagerPersistence.class);
+
+  private final AtomicInteger tokenGenerator = new AtomicInteger(0);
+
+  private final ConcurrentHashMap<String, LockQueue> lockTable = new ConcurrentHashMap<>();
+
+  private static class Waiter {
+    private final PersistenceLock lock;
+    private final Condition granted;
+
+    private Waiter(PersistenceLock lock, Condition granted) {
+      this.lock = lock;
+      this.granted = granted;
+    }
+  }
+
+  /** Requests of a lock object, the head holds the lock(锁对象的请求队列，队首持有锁) */
+  private static class LockQueue {
+    private final ReentrantLock mutex = new ReentrantLock();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    /** Set once the queue is dropped from the lock table(队列已从锁表中移除) */
+    private boolean removed = false;
+  }
+
+  @Override
+  public Boolean lock(PersistenceLock persistenceLock, Long timeOut) {
+    if (StringUtils.isBlank(persistenceLock.getLockObject())) {
+      return true;
+    }
+    long startTime = System.currentTimeMillis();
+    persistenceLock.setTimeOut(timeOut);
+    persistenceLock.setCreateTime(new Date(startTime));
+    while (true) {
+      LockQueue queue =
+          lockTable.computeIfAbsent(persistenceLock.getLockObject(), key -> new LockQueue());
+      queue.mutex.lock();
+      try {
+        if (queue.removed) {
+          continue;
+        }
+        return await(queue, persistenceLock, timeOut, startTime);
+      } finally {
+        queue.mutex.unlock();
+      }
+    }
+  }
+
+  private boolean await(
+      LockQueue queue, PersistenceLock persistenceLock, long timeOut, long startTime) {
+    persistenceLock.setId(tokenGenerator.incrementAndGet());
+    Waiter waiter = new Waiter(persistenceLock, queue.mutex.newCondition());
+    queue.waiters.addLast(waiter);
+    long remaining = TimeUnit.MILLISECONDS.toNanos(timeOut);
+    try {
+      while (queue.waiters.peekFirst() != waiter) {
+        if (remaining <= 0) {
+          logger.error(
+              "Failed to get lock {} by time out {} s",
+              persistenceLock.getLockObject(),
+              (System.currentTimeMillis() - startTime) / 1000);
+          removeWaiter(queue, waiter);
+          return false;
+        }
+        remaining = waiter.granted.awaitNanos(remaining);
+      }
+    } catch (InterruptedException e) {
+      logger.warn("lock waiting of {} is interrupted", persistenceLock.getLockObject());
+      removeWaiter(queue, waiter);
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    persistenceLock.setUpdateTime(new Date());
+    return true;
+  }
+
+  /** Called with the queue mutex held(需持有队列锁调用) */
+  private void removeWaiter(LockQueue queue, Waiter waiter) {
+    boolean isHolder = queue.waiters.peekFirst() == waiter;
+    queue.waiters.remove(waiter);
+    if (queue.waiters.isEmpty()) {
+      queue.removed = true;
+      lockTable.remove(waiter.lock.getLockObject(), queue);
+    } else if (isHolder) {
+      queue.waiters.peekFirst().granted.signal();
+    }
+  }
+
+  @Override
+  public void unlock(PersistenceLock persistenceLock) {
+    LockQueue queue =
+        persistenceLock.getLockObject() == null
+            ? null
+            : lockTable.get(persistenceLock.getLockObject());
+    if (queue != null) {
+      queue.mutex.lock();
+      try {
+        for (Waiter waiter : queue.waiters) {
+          if (waiter.lock.getId().equals(persistenceLock.getId())) {
+            removeWaiter(queue, waiter);
+            return;
+          }
+        }
+      } finally {
+        queue.mutex.unlock();
+      }
+    }
+    logger.warn(
+        "Lock {} with token {} is not held, it may be released after the lease",
+        persistenceLock.getLockObject(),
+        persistenceLock.getId());
+  }
+
+  @Override
+  public List<PersistenceLock> getAll() {
+    List<PersistenceLock> locks = new ArrayList<>();
+    for (LockQueue queue : lockTable.values()) {
+      queue.mutex.lock();
+      try {
+        for (Waiter waiter : queue.waiters) {
+          locks.add(waiter.lock);
+        }
+      } finally {
+        queue.mutex.unlock();
+      }
+    }
+    return locks;
+  }
+
+  /**
+   * The locks held since before the end date, the lease of the lock starts when it is acquired and
+   * waiters give up by their own time out(获取在截止时间前已持有的锁)
+   */
+  @Override
+  public List<PersistenceLock> getTimeOutLocks(Date endDate) {
+    List<PersistenceLock> locks = new ArrayList<>();
+    for (LockQueue queue : lockTable.values()) {
+      queue.mutex.lock();
+      try {
+        Waiter holder = queue.waiters.peekFirst();
+        if (holder != null
+            && holder.lock.getUpdateTime() != null
+            && holder.lock.getUpdateTime().before(endDate)) {
+          locks.add(holder.lock);
+        }
+      } finally {
+        queue.mutex.unlock();
+      }
+    }
+    return locks;
+  }
+}
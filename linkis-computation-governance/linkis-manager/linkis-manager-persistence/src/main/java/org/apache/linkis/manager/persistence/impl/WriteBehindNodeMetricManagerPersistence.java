@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.persistence.impl;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.common.utils.Utils;
+import org.apache.linkis.governance.common.conf.GovernanceCommonConf;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.metrics.NodeMetrics;
+import org.apache.linkis.manager.common.entity.node.Node;
+import org.apache.linkis.manager.common.entity.persistence.PersistenceNode;
+import org.apache.linkis.manager.common.entity.persistence.PersistenceNodeMetrics;
+import org.apache.linkis.manager.util.PersistenceManagerConf;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind node metrics persistence: the updates of a node are coalesced in memory and flushed
+ * as multi-row inserts and updates every flush interval, so a heartbeat no longer costs several
+ * database round trips. Reads are served from memory, the metrics are reloaded from the database
+ * once older than the read ttl so the updates received by other managers are seen
+ * 节点指标的延迟写入：同一节点的更新在内存中合并，按周期批量写入数据库，读取优先走内存
+ *
+ * <p>The checks of the write-through persistence are kept at flush time: the metrics of a node
+ * not registered are dropped, and the status of a ShuttingDown engine is not overwritten. A batch
+ * failing to flush is written row by row, and a row still failing is retried at most
+ * flush.max.retries times before being dropped
+ */
+public class WriteBehindNodeMetricManagerPersistence extends DefaultNodeMetricManagerPersistence
+    implements InitializingBean, DisposableBean {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(WriteBehindNodeMetricManagerPersistence.class);
+
+  private static class CachedMetrics {
+    private final PersistenceNodeMetrics metrics;
+    private final long syncTime;
+
+    private CachedMetrics(PersistenceNodeMetrics metrics, long syncTime) {
+      this.metrics = metrics;
+      this.syncTime = syncTime;
+    }
+  }
+
+  private final String ecmName = GovernanceCommonConf.ENGINE_CONN_MANAGER_SPRING_NAME().getValue();
+
+  private final long flushInterval = PersistenceManagerConf.Node_metrics_flush_interval;
+
+  private final int flushBatchSize =
+      Math.max(1, PersistenceManagerConf.Node_metrics_flush_batch_size);
+
+  private long readTtl = PersistenceManagerConf.Node_metrics_read_ttl;
+
+  private final int flushMaxRetries = PersistenceManagerConf.Node_metrics_flush_max_retries;
+
+  /** Latest known metrics of each instance(每个实例最新的指标) */
+  private final Map<String, CachedMetrics> cache = new ConcurrentHashMap<>();
+
+  /** Updates not flushed yet, coalesced by instance(尚未写入数据库的更新，按实例合并) */
+  private final Map<String, PersistenceNodeMetrics> pending = new ConcurrentHashMap<>();
+
+  /** Failed flushes of the instances not written yet(写入失败的实例及其失败次数) */
+  private final Map<String, Integer> flushFailures = new ConcurrentHashMap<>();
+
+  private final Object flushLock = new Object();
+
+  private ScheduledExecutorService flushScheduler;
+
+  void setReadTtl(long readTtl) {
+    this.readTtl = readTtl;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    logger.info(
+        "Start write-behind node metrics persistence, flush interval {}ms, batch size {}",
+        flushInterval,
+        flushBatchSize);
+    // the flush blocks on the database, keep it off the shared scheduler
+    flushScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            Utils.threadFactory("Linkis-Node-Metrics-Flush-Thread-", true));
+    flushScheduler.scheduleWithFixedDelay(
+        () -> {
+          try {
+            flush();
+          } catch (Throwable t) {
+            logger.warn("Failed to flush node metrics", t);
+          }
+        },
+        flushInterval,
+        flushInterval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    if (flushScheduler != null) {
+      flushScheduler.shutdown();
+    }
+    flush();
+  }
+
+  @Override
+  public void addNodeMetrics(NodeMetrics nodeMetrics) {
+    super.addNodeMetrics(nodeMetrics);
+    cache.remove(nodeMetrics.getServiceInstance().getInstance());
+  }
+
+  @Override
+  public void addOrupdateNodeMetrics(NodeMetrics nodeMetrics) {
+    if (null == nodeMetrics.getServiceInstance()) {
+      logger.warn(
+          "The request of update node metrics was ignored, because the node metrics service instance is null");
+      return;
+    }
+    PersistenceNodeMetrics update = toPersistenceNodeMetrics(nodeMetrics);
+    update.setUpdateTime(new Date());
+    String instance = update.getInstance();
+    cache.compute(
+        instance,
+        (key, cached) -> {
+          if (cached == null) {
+            return null;
+          }
+          if (isStatusLocked(update.getServiceInstance(), cached.metrics.getStatus())) {
+            update.setStatus(cached.metrics.getStatus());
+          }
+          // keep the time of the last load, so a node heartbeating here is still reloaded
+          // after the ttl and the changes written by other managers are seen
+          return new CachedMetrics(merge(cached.metrics, update), cached.syncTime);
+        });
+    pending.merge(instance, update, WriteBehindNodeMetricManagerPersistence::merge);
+  }
+
+  @Override
+  public List<NodeMetrics> getNodeMetrics(List<? extends Node> nodes) {
+    if (nodes == null || nodes.isEmpty()) return Collections.emptyList();
+    long now = System.currentTimeMillis();
+    List<NodeMetrics> nodeMetricsList = new ArrayList<>(nodes.size());
+    List<String> missing = new ArrayList<>();
+    for (Node node : nodes) {
+      String instance = node.getServiceInstance().getInstance();
+      CachedMetrics cached = cache.get(instance);
+      if (cached != null && now - cached.syncTime < readTtl) {
+        nodeMetricsList.add(copyOf(cached.metrics, node.getServiceInstance()));
+      } else {
+        missing.add(instance);
+      }
+    }
+    if (!missing.isEmpty()) {
+      Map<String, PersistenceNodeMetrics> loaded = load(missing, now);
+      for (Node node : nodes) {
+        PersistenceNodeMetrics metrics = loaded.get(node.getServiceInstance().getInstance());
+        if (metrics != null) {
+          nodeMetricsList.add(copyOf(metrics, node.getServiceInstance()));
+        }
+      }
+    }
+    return nodeMetricsList;
+  }
+
+  @Override
+  public NodeMetrics getNodeMetrics(Node node) {
+    long now = System.currentTimeMillis();
+    String instance = node.getServiceInstance().getInstance();
+    CachedMetrics cached = cache.get(instance);
+    PersistenceNodeMetrics metrics;
+    if (cached != null && now - cached.syncTime < readTtl) {
+      metrics = cached.metrics;
+    } else {
+      metrics = load(Collections.singletonList(instance), now).get(instance);
+    }
+    return metrics == null ? null : copyOf(metrics, node.getServiceInstance());
+  }
+
+  /**
+   * Load the metrics from the database, overlaid with the updates not flushed yet
+   * (从数据库加载指标，并叠加尚未写入的更新)
+   */
+  private Map<String, PersistenceNodeMetrics> load(List<String> instances, long now) {
+    Map<String, PersistenceNodeMetrics> loaded = new HashMap<>(instances.size() * 2);
+    for (List<String> partition : Lists.partition(instances, flushBatchSize)) {
+      for (PersistenceNodeMetrics metrics :
+          getNodeMetricManagerMapper().getNodeMetricsByInstances(partition)) {
+        loaded.put(metrics.getInstance(), metrics);
+      }
+    }
+    for (String instance : instances) {
+      PersistenceNodeMetrics metrics = loaded.get(instance);
+      PersistenceNodeMetrics update = pending.get(instance);
+      if (update != null) {
+        if (metrics != null
+            && update.getStatus() != null
+            && isStatusLocked(update.getServiceInstance(), metrics.getStatus())) {
+          // the flush keeps the stored ShuttingDown status, so do the reads
+          update = copyOf(update, update.getServiceInstance());
+          update.setStatus(metrics.getStatus());
+        }
+        metrics = metrics == null ? update : merge(metrics, update);
+        loaded.put(instance, metrics);
+      }
+      if (metrics != null) {
+        cache.put(instance, new CachedMetrics(metrics, now));
+      }
+    }
+    return loaded;
+  }
+
+  @Override
+  public void deleteNodeMetrics(Node node) {
+    String instance = node.getServiceInstance().getInstance();
+    pending.remove(instance);
+    cache.remove(instance);
+    super.deleteNodeMetrics(node);
+  }
+
+  @Override
+  public List<NodeMetrics> getAllNodeMetrics() {
+    flush();
+    return super.getAllNodeMetrics();
+  }
+
+  /**
+   * The pending update of the instance is flushed first, so the status compared is the latest one
+   * (先写入该实例未落库的更新，保证比较的是最新状态)
+   */
+  @Override
+  public int updateNodeStatus(ServiceInstance serviceInstance, int newStatus, int oldStatus) {
+    String instance = serviceInstance.getInstance();
+    synchronized (flushLock) {
+      PersistenceNodeMetrics update = pending.remove(instance);
+      if (update != null) {
+        flushBatch(Collections.singletonList(update));
+      }
+      try {
+        return super.updateNodeStatus(serviceInstance, newStatus, oldStatus);
+      } finally {
+        cache.remove(instance);
+      }
+    }
+  }
+
+  /** Write the pending updates to the database in batches(将合并后的更新批量写入数据库) */
+  public void flush() {
+    synchronized (flushLock) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      List<PersistenceNodeMetrics> updates = new ArrayList<>(pending.size());
+      for (String instance : new ArrayList<>(pending.keySet())) {
+        PersistenceNodeMetrics update = pending.remove(instance);
+        if (update != null) {
+          updates.add(update);
+        }
+      }
+      for (List<PersistenceNodeMetrics> batch : Lists.partition(updates, flushBatchSize)) {
+        flushBatch(batch);
+      }
+    }
+  }
+
+  private void flushBatch(List<PersistenceNodeMetrics> batch) {
+    try {
+      writeBatch(batch);
+      batch.forEach(update -> flushFailures.remove(update.getInstance()));
+    } catch (Exception e) {
+      if (batch.size() > 1) {
+        logger.warn(
+            "Failed to flush the metrics of {} nodes, write them one by one", batch.size(), e);
+        batch.forEach(update -> flushBatch(Collections.singletonList(update)));
+      } else {
+        retryLater(batch.get(0), e);
+      }
+    }
+  }
+
+  private void retryLater(PersistenceNodeMetrics update, Exception e) {
+    String instance = update.getInstance();
+    int failures = flushFailures.merge(instance, 1, Integer::sum);
+    if (failures > flushMaxRetries) {
+      logger.warn(
+          "Failed to flush the metrics of node {} {} times, drop them", instance, failures, e);
+      flushFailures.remove(instance);
+      cache.remove(instance);
+      return;
+    }
+    logger.warn("Failed to flush the metrics of node {}, will retry", instance, e);
+    // put it back under any newer update received meanwhile
+    pending.merge(instance, update, (newer, failed) -> merge(failed, newer));
+  }
+
+  private void writeBatch(List<PersistenceNodeMetrics> batch) {
+    List<String> instances = new ArrayList<>(batch.size());
+    batch.forEach(update -> instances.add(update.getInstance()));
+    Set<String> registered = new HashSet<>();
+    for (PersistenceNode node : getNodeManagerMapper().getNodesByInstances(instances)) {
+      registered.add(node.getInstance());
+    }
+    Map<String, PersistenceNodeMetrics> stored = new HashMap<>();
+    for (PersistenceNodeMetrics metrics :
+        getNodeMetricManagerMapper().getNodeMetricsByInstances(instances)) {
+      stored.put(metrics.getInstance(), metrics);
+    }
+    List<PersistenceNodeMetrics> inserts = new ArrayList<>();
+    List<PersistenceNodeMetrics> updates = new ArrayList<>();
+    for (PersistenceNodeMetrics update : batch) {
+      if (!registered.contains(update.getInstance())) {
+        logger.warn(
+            "The request of update node metrics was ignored, because the node {} is not exist.",
+            update.getInstance());
+        cache.remove(update.getInstance());
+        continue;
+      }
+      PersistenceNodeMetrics oldMetrics = stored.get(update.getInstance());
+      if (oldMetrics == null) {
+        update.setCreateTime(update.getUpdateTime());
+        inserts.add(update);
+      } else {
+        // ec node metircs report ignore update Shutingdown node (for case: asyn stop engine)
+        if (update.getStatus() != null
+            && isStatusLocked(update.getServiceInstance(), oldMetrics.getStatus())) {
+          logger.info(
+              "ignore update ShuttingDown status node:{} to status:{}",
+              update.getInstance(),
+              update.getStatus());
+          update.setStatus(oldMetrics.getStatus());
+        }
+        updates.add(update);
+      }
+    }
+    if (!inserts.isEmpty()) {
+      getNodeMetricManagerMapper().batchAddNodeMetrics(inserts);
+    }
+    if (!updates.isEmpty()) {
+      getNodeMetricManagerMapper().batchUpdateNodeMetrics(updates);
+    }
+    logger.debug("Flushed node metrics, {} inserted, {} updated", inserts.size(), updates.size());
+  }
+
+  private boolean isStatusLocked(ServiceInstance serviceInstance, Integer oldStatus) {
+    boolean isECM =
+        serviceInstance != null && ecmName.equalsIgnoreCase(serviceInstance.getApplicationName());
+    return !isECM && oldStatus != null && NodeStatus.ShuttingDown.ordinal() <= oldStatus;
+  }
+
+  /** Fields set in the update override the base, as the sql update skips the null ones */
+  private static PersistenceNodeMetrics merge(
+      PersistenceNodeMetrics base, PersistenceNodeMetrics update) {
+    PersistenceNodeMetrics merged = copyOf(base, base.getServiceInstance());
+    if (update.getServiceInstance() != null) merged.setServiceInstance(update.getServiceInstance());
+    if (update.getStatus() != null) merged.setStatus(update.getStatus());
+    if (update.getOverLoad() != null) merged.setOverLoad(update.getOverLoad());
+    if (update.getHeartBeatMsg() != null) merged.setHeartBeatMsg(update.getHeartBeatMsg());
+    if (update.getHealthy() != null) merged.setHealthy(update.getHealthy());
+    if (update.getUpdateTime() != null) merged.setUpdateTime(update.getUpdateTime());
+    return merged;
+  }
+
+  private static PersistenceNodeMetrics toPersistenceNodeMetrics(NodeMetrics nodeMetrics) {
+    PersistenceNodeMetrics metrics = new PersistenceNodeMetrics();
+    metrics.setServiceInstance(nodeMetrics.getServiceInstance());
+    metrics.setInstance(nodeMetrics.getServiceInstance().getInstance());
+    metrics.setStatus(nodeMetrics.getStatus());
+    metrics.setOverLoad(nodeMetrics.getOverLoad());
+    metrics.setHeartBeatMsg(nodeMetrics.getHeartBeatMsg());
+    metrics.setHealthy(nodeMetrics.getHealthy());
+    return metrics;
+  }
+
+  private static PersistenceNodeMetrics copyOf(
+      PersistenceNodeMetrics metrics, ServiceInstance serviceInstance) {
+    PersistenceNodeMetrics copy = new PersistenceNodeMetrics();
+    copy.setServiceInstance(serviceInstance);
+    copy.setInstance(metrics.getInstance());
+    copy.setStatus(metrics.getStatus());
+    copy.setOverLoad(metrics.getOverLoad());
+    copy.setHeartBeatMsg(metrics.getHeartBeatMsg());
+    copy.setHealthy(metrics.getHealthy());
+    copy.setUpdateTime(metrics.getUpdateTime());
+    copy.setCreateTime(metrics.getCreateTime());
+    return copy;
+  }
+}
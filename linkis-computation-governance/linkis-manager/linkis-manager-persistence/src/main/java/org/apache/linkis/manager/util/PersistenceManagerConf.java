@@ -28,4 +28,35 @@ public class PersistenceManagerConf {
       CommonVars$.MODULE$
           .apply("linkis.master.distributed.lock.request.sync.enabled", true)
           .getValue();
+
+  /**
+   * db queues the locks in the database, memory queues them in the memory of the manager, which
+   * is only valid when a single manager instance serves the resource requests
+   */
+  public static final String Distributed_lock_persistence_type =
+      CommonVars$.MODULE$.apply("linkis.manager.lock.persistence.type", "db").getValue();
+
+  /**
+   * db writes every node metrics update through, writebehind coalesces the updates of each node in
+   * memory and flushes them in batches, reads are served from memory within the read ttl
+   */
+  public static final String Node_metrics_persistence_type =
+      CommonVars$.MODULE$.apply("linkis.manager.metrics.persistence.type", "db").getValue();
+
+  public static final Integer Node_metrics_flush_interval =
+      CommonVars$.MODULE$.apply("linkis.manager.metrics.flush.interval", 1000).getValue();
+
+  public static final Integer Node_metrics_flush_batch_size =
+      CommonVars$.MODULE$.apply("linkis.manager.metrics.flush.batch.size", 200).getValue();
+
+  /** Failed flushes of a node metrics update before it is dropped, the next heartbeat resends it */
+  public static final Integer Node_metrics_flush_max_retries =
+      CommonVars$.MODULE$.apply("linkis.manager.metrics.flush.max.retries", 3).getValue();
+
+  /**
+   * How long the metrics cached in memory are trusted before reloading them from the database,
+   * bounds the staleness when several managers receive heartbeats
+   */
+  public static final Integer Node_metrics_read_ttl =
+      CommonVars$.MODULE$.apply("linkis.manager.metrics.read.ttl", 30000).getValue();
 }
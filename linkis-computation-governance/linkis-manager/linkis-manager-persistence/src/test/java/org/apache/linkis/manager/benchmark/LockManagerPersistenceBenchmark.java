@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.benchmark;
+
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLock;
+import org.apache.linkis.manager.dao.BaseDaoTest;
+import org.apache.linkis.manager.dao.LockManagerMapper;
+import org.apache.linkis.manager.persistence.LockManagerPersistence;
+import org.apache.linkis.manager.persistence.impl.DefaultLockManagerPersistence;
+import org.apache.linkis.manager.persistence.impl.InMemoryLockManagerPersistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark of the lock persistences: threads lock a few label objects like the
+ * resource requests of the RM, the database queue lock is backed by H2. Run it on demand, the
+ * surefire tests of this module are skipped by default
+ */
+class LockManagerPersistenceBenchmark extends BaseDaoTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(LockManagerPersistenceBenchmark.class);
+
+  private static final int THREADS = 16;
+
+  private static final int LOCK_OBJECTS = 4;
+
+  private static final int ROUNDS = 5;
+
+  @Autowired LockManagerMapper lockManagerMapper;
+
+  private static class Result {
+    private long elapsedMillis;
+    private long maxWaitMillis;
+  }
+
+  private Result contend(LockManagerPersistence lockPersistence, String name) throws Exception {
+    long[] counters = new long[LOCK_OBJECTS];
+    AtomicLong maxWait = new AtomicLong(0L);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    long startTime;
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        int thread = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int round = 0; round < ROUNDS; round++) {
+                    int index = (thread + round) % LOCK_OBJECTS;
+                    PersistenceLock lock = new PersistenceLock();
+                    lock.setLockObject(name + "-label-" + index);
+                    lock.setCreator("hadoop");
+                    long waitStart = System.currentTimeMillis();
+                    assertTrue(lockPersistence.lock(lock, 60000L));
+                    long wait = System.currentTimeMillis() - waitStart;
+                    maxWait.accumulateAndGet(wait, Math::max);
+                    try {
+                      // not atomic on purpose, the lock must serialize the increments
+                      counters[index] = counters[index] + 1;
+                    } finally {
+                      lockPersistence.unlock(lock);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      startTime = System.currentTimeMillis();
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Result result = new Result();
+    result.elapsedMillis = System.currentTimeMillis() - startTime;
+    result.maxWaitMillis = maxWait.get();
+    long total = 0;
+    for (long counter : counters) {
+      total += counter;
+    }
+    assertEquals((long) THREADS * ROUNDS, total);
+    logger.info(
+        "{} lock persistence: {} locks by {} threads on {} objects in {} ms, max wait {} ms",
+        name,
+        THREADS * ROUNDS,
+        THREADS,
+        LOCK_OBJECTS,
+        result.elapsedMillis,
+        result.maxWaitMillis);
+    return result;
+  }
+
+  @Test
+  void compareUnderContention() throws Exception {
+    DefaultLockManagerPersistence dbLockPersistence = new DefaultLockManagerPersistence();
+    dbLockPersistence.setLockManagerMapper(lockManagerMapper);
+    Result db = contend(dbLockPersistence, "db");
+    Result memory = contend(new InMemoryLockManagerPersistence(), "memory");
+    assertTrue(memory.elapsedMillis <= db.elapsedMillis);
+  }
+}
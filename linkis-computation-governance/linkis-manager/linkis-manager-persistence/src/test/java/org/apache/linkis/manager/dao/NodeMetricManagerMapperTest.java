@@ -23,6 +23,8 @@ import org.apache.linkis.manager.common.entity.persistence.PersistenceNodeMetric
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -47,6 +49,24 @@ class NodeMetricManagerMapperTest extends BaseDaoTest {
     assertTrue(persistenceNodeMetrics != null);
   }
 
+  @Test
+  void batchAddNodeMetrics() {
+    List<PersistenceNodeMetrics> list = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      PersistenceNodeMetrics nodeMetrics = new PersistenceNodeMetrics();
+      nodeMetrics.setInstance("batchInstance" + i);
+      nodeMetrics.setStatus(1);
+      nodeMetrics.setHeartBeatMsg("testheartbeat_msg");
+      nodeMetrics.setUpdateTime(new Date());
+      nodeMetrics.setCreateTime(new Date());
+      list.add(nodeMetrics);
+    }
+    nodeMetricManagerMapper.batchAddNodeMetrics(list);
+    List<String> instances = new ArrayList<>();
+    list.forEach(nodeMetrics -> instances.add(nodeMetrics.getInstance()));
+    assertEquals(3, nodeMetricManagerMapper.getNodeMetricsByInstances(instances).size());
+  }
+
   @Test
   void checkInstanceExist() {
     addNodeMetrics();
@@ -86,6 +106,23 @@ class NodeMetricManagerMapperTest extends BaseDaoTest {
     assertTrue(persistenceNodeMetrics.getOverLoad().equals("testoverloads"));
   }
 
+  @Test
+  void batchUpdateNodeMetrics() {
+    addNodeMetrics();
+    PersistenceNodeMetrics nodeMetrics = new PersistenceNodeMetrics();
+    nodeMetrics.setInstance("instance1");
+    nodeMetrics.setStatus(3);
+    nodeMetrics.setHeartBeatMsg("testheartbeat_msgs");
+    nodeMetrics.setUpdateTime(new Date());
+    nodeMetricManagerMapper.batchUpdateNodeMetrics(Collections.singletonList(nodeMetrics));
+    PersistenceNodeMetrics persistenceNodeMetrics =
+        nodeMetricManagerMapper.getNodeMetricsByInstance("instance1");
+    assertEquals(3, persistenceNodeMetrics.getStatus().intValue());
+    assertEquals("testheartbeat_msgs", persistenceNodeMetrics.getHeartBeatMsg());
+    // null fields keep the stored value
+    assertEquals("testoverload", persistenceNodeMetrics.getOverLoad());
+  }
+
   @Test
   void deleteNodeMetrics() {
     addNodeMetrics();
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.persistence.impl;
+
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLockManagerPersistenceTest {
+
+  private final InMemoryLockManagerPersistence lockPersistence =
+      new InMemoryLockManagerPersistence();
+
+  private static PersistenceLock newLock(String lockObject) {
+    PersistenceLock persistenceLock = new PersistenceLock();
+    persistenceLock.setLockObject(lockObject);
+    persistenceLock.setCreator("hadoop");
+    return persistenceLock;
+  }
+
+  @Test
+  void lockAndTimeOut() {
+    PersistenceLock first = newLock("label");
+    assertTrue(lockPersistence.lock(first, 1000L));
+    PersistenceLock second = newLock("label");
+    assertFalse(lockPersistence.lock(second, 50L));
+    // the timed out waiter leaves the queue
+    assertEquals(1, lockPersistence.getAll().size());
+    assertTrue(lockPersistence.lock(newLock("other"), 50L));
+    lockPersistence.unlock(first);
+    assertTrue(lockPersistence.lock(second, 50L));
+    assertTrue(second.getId() > first.getId());
+  }
+
+  @Test
+  void fairHandOver() throws Exception {
+    PersistenceLock holder = newLock("label");
+    assertTrue(lockPersistence.lock(holder, 1000L));
+    int waiters = 5;
+    List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+    ExecutorService executor = Executors.newFixedThreadPool(waiters);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int i = 0; i < waiters; i++) {
+        int index = i;
+        CountDownLatch queued = new CountDownLatch(1);
+        futures.add(
+            executor.submit(
+                () -> {
+                  PersistenceLock lock = newLock("label");
+                  queued.countDown();
+                  boolean locked = lockPersistence.lock(lock, 10000L);
+                  order.add(index);
+                  lockPersistence.unlock(lock);
+                  return locked;
+                }));
+        queued.await();
+        // wait until the waiter is queued to keep the order of requests
+        while (lockPersistence.getAll().size() < i + 2) {
+          Thread.sleep(1);
+        }
+      }
+      lockPersistence.unlock(holder);
+      for (Future<Boolean> future : futures) {
+        assertTrue(future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), order);
+    assertTrue(lockPersistence.getAll().isEmpty());
+  }
+
+  @Test
+  void fencedUnlockAfterLease() throws Exception {
+    PersistenceLock expired = newLock("label");
+    assertTrue(lockPersistence.lock(expired, 1000L));
+    Thread.sleep(5);
+    List<PersistenceLock> timeOutLocks = lockPersistence.getTimeOutLocks(new Date());
+    assertEquals(1, timeOutLocks.size());
+    // force release like ResourceLockService.clearTimeoutLock
+    lockPersistence.unlock(timeOutLocks.get(0));
+    PersistenceLock next = newLock("label");
+    assertTrue(lockPersistence.lock(next, 1000L));
+    // the stale holder must not release the lock of the next holder
+    lockPersistence.unlock(expired);
+    assertFalse(lockPersistence.lock(newLock("label"), 50L));
+    lockPersistence.unlock(next);
+    assertTrue(lockPersistence.getAll().isEmpty());
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.persistence.impl;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.metrics.AMNodeMetrics;
+import org.apache.linkis.manager.common.entity.metrics.NodeMetrics;
+import org.apache.linkis.manager.common.entity.node.AMEngineNode;
+import org.apache.linkis.manager.common.entity.persistence.PersistenceNode;
+import org.apache.linkis.manager.common.entity.persistence.PersistenceNodeMetrics;
+import org.apache.linkis.manager.dao.BaseDaoTest;
+import org.apache.linkis.manager.dao.NodeManagerMapper;
+import org.apache.linkis.manager.dao.NodeMetricManagerMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindNodeMetricManagerPersistenceTest extends BaseDaoTest {
+
+  @Autowired NodeManagerMapper nodeManagerMapper;
+
+  @Autowired NodeMetricManagerMapper nodeMetricManagerMapper;
+
+  private WriteBehindNodeMetricManagerPersistence persistence;
+
+  private final ServiceInstance engine =
+      ServiceInstance.apply("linkis-cg-engineconn", "writeBehindEngine");
+
+  @BeforeEach
+  void setup() {
+    persistence = new WriteBehindNodeMetricManagerPersistence();
+    persistence.setNodeManagerMapper(nodeManagerMapper);
+    persistence.setNodeMetricManagerMapper(nodeMetricManagerMapper);
+    PersistenceNode node = new PersistenceNode();
+    node.setInstance(engine.getInstance());
+    node.setName(engine.getApplicationName());
+    nodeManagerMapper.addNodeInstance(node);
+  }
+
+  private NodeMetrics heartbeat(ServiceInstance serviceInstance, NodeStatus status, String msg) {
+    AMNodeMetrics nodeMetrics = new AMNodeMetrics();
+    nodeMetrics.setServiceInstance(serviceInstance);
+    nodeMetrics.setStatus(status.ordinal());
+    nodeMetrics.setHeartBeatMsg(msg);
+    return nodeMetrics;
+  }
+
+  private AMEngineNode node(ServiceInstance serviceInstance) {
+    AMEngineNode node = new AMEngineNode();
+    node.setServiceInstance(serviceInstance);
+    return node;
+  }
+
+  @Test
+  void coalesceUpdatesUntilFlush() {
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Starting, "first"));
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Unlock, "second"));
+    assertNull(nodeMetricManagerMapper.getNodeMetricsByInstance(engine.getInstance()));
+    // pending updates are visible to the reads
+    NodeMetrics pending = persistence.getNodeMetrics(node(engine));
+    assertEquals(NodeStatus.Unlock.ordinal(), pending.getStatus().intValue());
+
+    persistence.flush();
+    PersistenceNodeMetrics stored =
+        nodeMetricManagerMapper.getNodeMetricsByInstance(engine.getInstance());
+    assertEquals(NodeStatus.Unlock.ordinal(), stored.getStatus().intValue());
+    assertEquals("second", stored.getHeartBeatMsg());
+
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Busy, "third"));
+    persistence.flush();
+    stored = nodeMetricManagerMapper.getNodeMetricsByInstance(engine.getInstance());
+    assertEquals(NodeStatus.Busy.ordinal(), stored.getStatus().intValue());
+    assertEquals("third", stored.getHeartBeatMsg());
+  }
+
+  @Test
+  void dropMetricsOfUnregisteredNode() {
+    ServiceInstance unknown = ServiceInstance.apply("linkis-cg-engineconn", "unknownEngine");
+    persistence.addOrupdateNodeMetrics(heartbeat(unknown, NodeStatus.Unlock, "msg"));
+    persistence.flush();
+    assertNull(nodeMetricManagerMapper.getNodeMetricsByInstance(unknown.getInstance()));
+  }
+
+  @Test
+  void keepShuttingDownStatus() {
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Unlock, "msg"));
+    assertEquals(
+        1,
+        persistence.updateNodeStatus(
+            engine, NodeStatus.ShuttingDown.ordinal(), NodeStatus.Unlock.ordinal()));
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Unlock, "late"));
+    persistence.flush();
+    PersistenceNodeMetrics stored =
+        nodeMetricManagerMapper.getNodeMetricsByInstance(engine.getInstance());
+    assertEquals(NodeStatus.ShuttingDown.ordinal(), stored.getStatus().intValue());
+    assertEquals("late", stored.getHeartBeatMsg());
+  }
+
+  @Test
+  void readFromMemory() {
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Unlock, "msg"));
+    persistence.flush();
+    List<NodeMetrics> metrics = persistence.getNodeMetrics(Arrays.asList(node(engine)));
+    assertEquals(1, metrics.size());
+    // served from memory, the database is not read again
+    nodeMetricManagerMapper.deleteNodeMetricsByInstance(engine.getInstance());
+    assertNotNull(persistence.getNodeMetrics(node(engine)));
+    persistence.deleteNodeMetrics(node(engine));
+    assertNull(persistence.getNodeMetrics(node(engine)));
+  }
+
+  @Test
+  void reloadAfterTtlWhileHeartbeating() throws InterruptedException {
+    persistence.setReadTtl(200);
+    persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Unlock, "msg"));
+    persistence.flush();
+    NodeMetrics cached = persistence.getNodeMetrics(node(engine));
+    assertEquals(NodeStatus.Unlock.ordinal(), cached.getStatus().intValue());
+    // another manager stops the engine
+    nodeMetricManagerMapper.updateNodeStatus(
+        engine.getInstance(), NodeStatus.ShuttingDown.ordinal(), NodeStatus.Unlock.ordinal());
+    long deadline = System.currentTimeMillis() + 400;
+    while (System.currentTimeMillis() < deadline) {
+      persistence.addOrupdateNodeMetrics(heartbeat(engine, NodeStatus.Unlock, "heartbeat"));
+      Thread.sleep(50);
+    }
+    NodeMetrics metrics = persistence.getNodeMetrics(node(engine));
+    assertEquals(NodeStatus.ShuttingDown.ordinal(), metrics.getStatus().intValue());
+    assertEquals("heartbeat", metrics.getHeartBeatMsg());
+  }
+}
@@ -144,6 +144,19 @@ object SparkConfiguration extends Logging {
   val SQL_EXTENSION_TIMEOUT = CommonVars("wds.linkis.dws.ujes.spark.extension.timeout", 3000L)
   val SPARK_NF_FRACTION_LENGTH = CommonVars[Int]("wds.linkis.engine.spark.fraction.length", 30)
   val SHOW_DF_MAX_RES = CommonVars("wds.linkis.show.df.max.res", Int.MaxValue)
+
+  /**
+   * Collect the results of showDF as arrow batches and write them column by column, the values
+   * are only formatted to strings on read when the result set is columnar. Falls back to rows for
+   * the types arrow results do not cover
+   */
+  val SPARK_ARROW_RESULT_ENABLE = CommonVars("linkis.spark.arrow.result.enable", false)
+
+  /**
+   * Number of partitions showDF fetches concurrently while keeping the partition order, 1 keeps the
+   * serial toLocalIterator. Each prefetched partition is held on the driver until it is consumed
+   */
+  val SHOW_DF_PREFETCH_PARTITIONS = CommonVars("linkis.spark.show.df.prefetch.partitions", 1)
   val MDQ_APPLICATION_NAME = CommonVars("wds.linkis.mdq.application.name", "linkis-ps-datasource")
   val DOLPHIN_LIMIT_LEN = CommonVars("wds.linkis.dolphin.limit.len", 5000)
 
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.spark.executor
+
+import org.apache.linkis.common.io.{MetaData, Record}
+import org.apache.linkis.common.utils.Utils
+import org.apache.linkis.engineplugin.spark.config.SparkConfiguration
+import org.apache.linkis.engineplugin.spark.utils.PartitionPrefetchIterator
+import org.apache.linkis.storage.resultset.StorageResultSetWriter
+import org.apache.linkis.storage.resultset.columnar.TypedColumn
+
+import org.apache.arrow.memory.RootAllocator
+import org.apache.arrow.vector._
+import org.apache.arrow.vector.ipc.ReadChannel
+import org.apache.arrow.vector.ipc.message.MessageSerializer
+import org.apache.arrow.vector.types.{DateUnit, FloatingPointPrecision, TimeUnit}
+import org.apache.arrow.vector.types.pojo.{ArrowType, Field, FieldType, Schema}
+import org.apache.spark.sql.{DataFrame, MethodInvokeHelper}
+import org.apache.spark.sql.types._
+
+import java.io.ByteArrayInputStream
+import java.nio.channels.Channels
+import java.nio.charset.StandardCharsets
+import java.time.{Instant, ZoneId}
+import java.util.Collections
+
+import scala.collection.JavaConverters._
+
+/**
+ * Write the results of a data frame from arrow record batches instead of rows: the batches are
+ * fetched partition by partition like toLocalIterator, or prefetched in partition order, loaded
+ * into arrow vectors and handed to the result set writer column by column, so no Row is built and
+ * no cell is formatted on the driver when the result set is columnar
+ */
+object ArrowResultWriter {
+
+  def isEnabled(schema: StructType): Boolean =
+    SparkConfiguration.SPARK_ARROW_RESULT_ENABLE.getValue && isSupported(schema)
+
+  def isSupported(schema: StructType): Boolean =
+    schema.nonEmpty && schema.fields.forall(field => toArrowType(field.dataType, null).isDefined)
+
+  /**
+   * Write at most maxResult rows of the data frame
+   *
+   * @return
+   *   the number of rows written
+   */
+  def write(
+      dataFrame: DataFrame,
+      writer: StorageResultSetWriter[_ <: MetaData, _ <: Record],
+      maxResult: Int
+  ): Int = {
+    // batches are written in the session time zone, which is also the one the rows print in
+    val zoneId = SQLSession.sessionZoneId(dataFrame.sparkSession)
+    val allocator = new RootAllocator(Long.MaxValue)
+    val root = VectorSchemaRoot.create(toArrowSchema(dataFrame.schema, zoneId.getId), allocator)
+    val batches = PartitionPrefetchIterator.toLocalIterator(
+      MethodInvokeHelper.toArrowBatchRdd(dataFrame),
+      SparkConfiguration.SHOW_DF_PREFETCH_PARTITIONS.getValue
+    )
+    var index = 0
+    Utils.tryFinally {
+      val loader = new VectorLoader(root)
+      val columns: Array[TypedColumn] =
+        root.getFieldVectors.asScala.map(toTypedColumn(_, zoneId)).toArray
+      while (index < maxResult && batches.hasNext) {
+        val channel = new ReadChannel(Channels.newChannel(new ByteArrayInputStream(batches.next())))
+        val batch = MessageSerializer.deserializeRecordBatch(channel, allocator)
+        Utils.tryFinally(loader.load(batch))(batch.close())
+        val rows = math.min(root.getRowCount, maxResult - index)
+        writer.addColumns(columns, rows)
+        index += rows
+      }
+      index
+    } {
+      PartitionPrefetchIterator.close(batches)
+      root.close()
+      allocator.close()
+    }
+  }
+
+  /** Same arrow types as spark uses to write the batches of these types */
+  private def toArrowType(dataType: DataType, timeZoneId: String): Option[ArrowType] =
+    dataType match {
+      case ByteType => Some(new ArrowType.Int(8, true))
+      case ShortType => Some(new ArrowType.Int(16, true))
+      case IntegerType => Some(new ArrowType.Int(32, true))
+      case LongType => Some(new ArrowType.Int(64, true))
+      case FloatType => Some(new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE))
+      case DoubleType => Some(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE))
+      case BooleanType => Some(ArrowType.Bool.INSTANCE)
+      case DateType => Some(new ArrowType.Date(DateUnit.DAY))
+      case TimestampType => Some(new ArrowType.Timestamp(TimeUnit.MICROSECOND, timeZoneId))
+      // larger decimals do not fit the unscaled long of typed columns
+      case decimal: DecimalType if decimal.precision <= 18 && decimal.scale >= 0 =>
+        Some(new ArrowType.Decimal(decimal.precision, decimal.scale))
+      case StringType => Some(ArrowType.Utf8.INSTANCE)
+      case _ => None
+    }
+
+  private def toArrowSchema(schema: StructType, timeZoneId: String): Schema = {
+    val fields = schema.fields.zipWithIndex.map { case (field, i) =>
+      val fieldType = new FieldType(true, toArrowType(field.dataType, timeZoneId).get, null)
+      new Field("c" + i, fieldType, Collections.emptyList[Field]())
+    }
+    new Schema(fields.toSeq.asJava)
+  }
+
+  private def toTypedColumn(vector: FieldVector, zoneId: ZoneId): TypedColumn = vector match {
+    case v: TinyIntVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_LONG) {
+        override def getLong(row: Int): Long = v.get(row)
+      }
+    case v: SmallIntVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_LONG) {
+        override def getLong(row: Int): Long = v.get(row)
+      }
+    case v: IntVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_LONG) {
+        override def getLong(row: Int): Long = v.get(row)
+      }
+    case v: BigIntVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_LONG) {
+        override def getLong(row: Int): Long = v.get(row)
+      }
+    case v: Float4Vector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_FLOAT) {
+        override def getDouble(row: Int): Double = v.get(row)
+      }
+    case v: Float8Vector =>
+      new ArrowTypedColumn(
+        v,
+        TypedColumn.KIND_DOUBLE,
+        SparkConfiguration.SPARK_NF_FRACTION_LENGTH.getValue
+      ) {
+        override def getDouble(row: Int): Double = v.get(row)
+      }
+    case v: BitVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_BOOLEAN) {
+        override def getLong(row: Int): Long = v.get(row)
+      }
+    case v: DateDayVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_DATE) {
+        override def getLong(row: Int): Long = v.get(row)
+      }
+    case v: TimeStampMicroTZVector =>
+      new TimestampColumn(v, zoneId)
+    case v: DecimalVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_DECIMAL, v.getScale) {
+        // the low 8 bytes of the little endian 16 bytes value hold the unscaled long
+        override def getLong(row: Int): Long =
+          v.getDataBuffer.getLong(row * DecimalVector.TYPE_WIDTH)
+      }
+    case v: VarCharVector =>
+      new ArrowTypedColumn(v, TypedColumn.KIND_STRING) {
+        override def getString(row: Int): String = new String(v.get(row), StandardCharsets.UTF_8)
+      }
+  }
+
+  private abstract class ArrowTypedColumn(vector: FieldVector, kind: Int, scale: Int = 0)
+      extends TypedColumn {
+
+    override def getKind: Int = kind
+
+    override def getScale: Int = scale
+
+    override def isNull(row: Int): Boolean = vector.isNull(row)
+
+    override def getLong(row: Int): Long = throw unsupported("getLong")
+
+    override def getDouble(row: Int): Double = throw unsupported("getDouble")
+
+    override def getString(row: Int): String = throw unsupported("getString")
+
+    /** Only the accessor of its kind is overridden, see the kinds of TypedColumn */
+    private def unsupported(accessor: String): IllegalStateException =
+      new IllegalStateException(
+        s"$accessor is not supported by column ${vector.getField.getName} of kind $kind " +
+          s"(${vector.getClass.getSimpleName})"
+      )
+
+  }
+
+  /** Timestamps are written as the wall clock time of the session time zone, as rows print */
+  private class TimestampColumn(vector: TimeStampMicroTZVector, zoneId: ZoneId)
+      extends ArrowTypedColumn(vector, TypedColumn.KIND_TIMESTAMP) {
+
+    private val zoneRules = zoneId.getRules
+
+    private val fixedOffset = zoneRules.isFixedOffset
+
+    private val fixedOffsetMicros = zoneRules.getOffset(Instant.EPOCH).getTotalSeconds * 1000000L
+
+    override def getLong(row: Int): Long = {
+      val micros = vector.get(row)
+      if (fixedOffset) {
+        micros + fixedOffsetMicros
+      } else {
+        val instant = Instant.ofEpochSecond(Math.floorDiv(micros, 1000000L))
+        micros + zoneRules.getOffset(instant).getTotalSeconds * 1000000L
+      }
+    }
+
+  }
+
+}
@@ -17,21 +17,23 @@
 
 package org.apache.linkis.engineplugin.spark.executor
 
+import org.apache.linkis.common.io.{MetaData, Record}
+import org.apache.linkis.common.io.resultset.ResultSetWriter
 import org.apache.linkis.common.utils.{ByteTimeUtils, Logging, Utils}
 import org.apache.linkis.engineconn.computation.executor.execute.EngineExecutionContext
 import org.apache.linkis.engineplugin.spark.config.SparkConfiguration
 import org.apache.linkis.engineplugin.spark.errorcode.SparkErrorCodeSummary._
 import org.apache.linkis.engineplugin.spark.exception.SparkEngineException
-import org.apache.linkis.engineplugin.spark.utils.EngineUtils
+import org.apache.linkis.engineplugin.spark.utils.{EngineUtils, PartitionPrefetchIterator}
 import org.apache.linkis.governance.common.exception.LinkisJobRetryException
 import org.apache.linkis.storage.{LineMetaData, LineRecord}
 import org.apache.linkis.storage.domain.{Column, DataType}
-import org.apache.linkis.storage.resultset.ResultSetFactory
+import org.apache.linkis.storage.resultset.{ResultSetFactory, StorageResultSetWriter}
 import org.apache.linkis.storage.resultset.table.{TableMetaData, TableRecord}
 
 import org.apache.commons.lang3.StringUtils
 import org.apache.spark.SparkContext
-import org.apache.spark.sql.DataFrame
+import org.apache.spark.sql.{DataFrame, MethodInvokeHelper, SparkSession}
 import org.apache.spark.sql.Row
 import org.apache.spark.sql.types.{BinaryType, DateType, DecimalType, TimestampType, _}
 import org.apache.spark.sql.types.{StructField, StructType}
@@ -44,7 +46,9 @@ import org.apache.spark.sql.types.LongType
 import org.apache.spark.sql.types.ShortType
 import org.apache.spark.sql.types.StringType
 
+import java.sql.Timestamp
 import java.text.NumberFormat
+import java.time.{LocalDateTime, ZoneId}
 import java.util.Locale
 
 import scala.collection.mutable.ArrayBuffer
@@ -73,13 +77,8 @@ object SQLSession extends Logging {
     val startTime = System.currentTimeMillis()
     //    sc.setJobGroup(jobGroup, "Get IDE-SQL Results.", false)
 
-    val iterator = Utils.tryThrow(dataFrame.toLocalIterator) { t =>
-      throw new SparkEngineException(
-        DATAFRAME_EXCEPTION.getErrorCode,
-        DATAFRAME_EXCEPTION.getErrorDesc,
-        t
-      )
-    }
+    val arrowResult = ArrowResultWriter.isEnabled(dataFrame.schema)
+    val iterator = if (arrowResult) null else toLocalIterator(dataFrame)
     // var columns: List[Attribute] = null
     // get field names
     // logger.info("SCHEMA BEGIN")
@@ -129,17 +128,19 @@ object SQLSession extends Logging {
         engineExecutionContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE, alias)
       } else engineExecutionContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE)
     writer.addMetaData(metaData)
-    var index = 0
-    Utils.tryThrow({
-      while (index < maxResult && iterator.hasNext) {
-        val row = iterator.next()
-        val r: Array[Any] = columns.indices.map { i =>
-          toHiveString((row(i), columnsSet.fields(i).dataType))
-        }.toArray
-        writer.addRecord(new TableRecord(r.asInstanceOf[Array[AnyRef]]))
-        index += 1
+    val index = Utils.tryThrow {
+      writer match {
+        case storageWriter: StorageResultSetWriter[_ <: MetaData, _ <: Record] if arrowResult =>
+          ArrowResultWriter.write(dataFrame, storageWriter, maxResult)
+        case _ =>
+          val rows = if (iterator != null) iterator else toLocalIterator(dataFrame)
+          // cancel the partitions still prefetching once maxResult rows are written
+          val zoneId = rowZoneId(dataFrame.sparkSession)
+          Utils.tryFinally(writeRows(rows, columnsSet, writer, maxResult, zoneId))(
+            PartitionPrefetchIterator.close(rows)
+          )
       }
-    }) { t =>
+    } { t =>
       throw new SparkEngineException(
         READ_RECORD_EXCEPTION.getErrorCode,
         READ_RECORD_EXCEPTION.getErrorDesc,
@@ -156,10 +157,72 @@ object SQLSession extends Logging {
     engineExecutionContext.sendResultSet(writer)
   }
 
+  private def toLocalIterator(dataFrame: DataFrame): java.util.Iterator[Row] =
+    Utils.tryThrow {
+      val prefetchPartitions = SparkConfiguration.SHOW_DF_PREFETCH_PARTITIONS.getValue
+      if (prefetchPartitions > 1) {
+        new PartitionPrefetchIterator(dataFrame.rdd, prefetchPartitions)
+      } else dataFrame.toLocalIterator
+    } { t =>
+      throw new SparkEngineException(
+        DATAFRAME_EXCEPTION.getErrorCode,
+        DATAFRAME_EXCEPTION.getErrorDesc,
+        t
+      )
+    }
+
+  /**
+   * Zone of spark.sql.session.timeZone, timestamps of the results are written as its wall clock
+   * time like spark sql prints them
+   */
+  def sessionZoneId(sparkSession: SparkSession): ZoneId =
+    ZoneId.of(MethodInvokeHelper.sessionLocalTimeZone(sparkSession), ZoneId.SHORT_IDS)
+
+  /**
+   * Zone the row path formats timestamps in. Only with arrow results enabled, so rows falling
+   * back from arrow print the same as the arrow ones, else null to keep Timestamp#toString
+   */
+  private def rowZoneId(sparkSession: SparkSession): ZoneId =
+    if (SparkConfiguration.SPARK_ARROW_RESULT_ENABLE.getValue) sessionZoneId(sparkSession)
+    else null
+
+  /**
+   * Write at most maxResult rows formatted by toHiveString, timestamps in the wall clock time of
+   * zoneId, or by Timestamp#toString when it is null
+   *
+   * @return
+   *   the number of rows written
+   */
+  def writeRows(
+      iterator: java.util.Iterator[Row],
+      columnsSet: StructType,
+      writer: ResultSetWriter[_ <: MetaData, _ <: Record],
+      maxResult: Int,
+      zoneId: ZoneId
+  ): Int = {
+    var index = 0
+    while (index < maxResult && iterator.hasNext) {
+      val row = iterator.next()
+      val r: Array[Any] = columnsSet.fields.indices.map { i =>
+        toHiveString((row(i), columnsSet.fields(i).dataType), zoneId)
+      }.toArray
+      writer.addRecord(new TableRecord(r.asInstanceOf[Array[AnyRef]]))
+      index += 1
+    }
+    index
+  }
+
   /** also see org.apache.spark.sql.execution.QueryExecution#toHiveString */
 
   /** Formats a datum (based on the given data type) and returns the string representation. */
-  private def toHiveString(a: (Any, org.apache.spark.sql.types.DataType)): String = {
+  private def toHiveString(
+      a: (Any, org.apache.spark.sql.types.DataType),
+      zoneId: ZoneId
+  ): String = {
+
+    // the same form as Timestamp#toString, of the wall clock time in the session time zone
+    def formatTimestamp(timestamp: Timestamp): String =
+      Timestamp.valueOf(LocalDateTime.ofInstant(timestamp.toInstant, zoneId)).toString
 
     def formatDecimal(d: java.math.BigDecimal): String = {
       if (d.compareTo(java.math.BigDecimal.ZERO) == 0) {
@@ -192,6 +255,8 @@ object SQLSession extends Logging {
       // case (str: String, StringType) => str.replaceAll("\n|\t", " ")
       case (double: Double, DoubleType) => nf.format(double)
       case (decimal: java.math.BigDecimal, DecimalType()) => formatDecimal(decimal)
+      case (timestamp: Timestamp, TimestampType) if zoneId != null =>
+        formatTimestamp(timestamp)
       case (other: Any, tpe) => other.toString
       case _ => null
     }
@@ -222,6 +287,8 @@ object SQLSession extends Logging {
           nf.format(double)
         }
       case (decimal: java.math.BigDecimal, DecimalType()) => formatDecimal(decimal)
+      case (timestamp: Timestamp, TimestampType) if zoneId != null =>
+        formatTimestamp(timestamp)
       case (other: Any, tpe) => other.toString
       case _ => null
 
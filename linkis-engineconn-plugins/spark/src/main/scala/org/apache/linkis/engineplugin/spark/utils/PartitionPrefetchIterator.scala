@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.spark.utils
+
+import org.apache.linkis.common.utils.Logging
+
+import org.apache.spark.FutureAction
+import org.apache.spark.rdd.RDD
+
+import java.io.Closeable
+import java.util.NoSuchElementException
+import java.util.concurrent.ConcurrentHashMap
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+import scala.concurrent.Await
+import scala.concurrent.duration.Duration
+import scala.reflect.ClassTag
+
+/**
+ * Iterate the rows of an rdd in partition order like RDD#toLocalIterator, but with up to
+ * prefetchPartitions partition jobs running at the same time. A partition is only fetched when it
+ * is within prefetchPartitions of the partition being consumed, so at most that many partitions
+ * are held on the driver. Closing the iterator cancels the jobs still running, callers stopping
+ * early, such as on a result limit, must close it
+ */
+class PartitionPrefetchIterator[T: ClassTag](rdd: RDD[T], prefetchPartitions: Int)
+    extends java.util.Iterator[T]
+    with Closeable
+    with Logging {
+
+  private val numPartitions = rdd.partitions.length
+
+  private val fetched = new ConcurrentHashMap[Int, Array[T]]()
+
+  private val jobs = new mutable.HashMap[Int, FutureAction[Unit]]()
+
+  private var nextToSubmit = 0
+
+  private var nextToConsume = 0
+
+  private var current: Iterator[T] = Iterator.empty
+
+  @volatile private var closed = false
+
+  private def submitJobs(): Unit = {
+    val collect = PartitionPrefetchIterator.collectPartition[T]
+    while (
+        !closed && nextToSubmit < numPartitions &&
+        nextToSubmit < nextToConsume + prefetchPartitions
+    ) {
+      val partition = nextToSubmit
+      val job = rdd.sparkContext.submitJob[T, Array[T], Unit](
+        rdd,
+        collect,
+        Seq(partition),
+        (_: Int, data: Array[T]) => if (!closed) fetched.put(partition, data),
+        ()
+      )
+      jobs.put(partition, job)
+      nextToSubmit += 1
+    }
+  }
+
+  private def take(partition: Int): Array[T] = {
+    submitJobs()
+    val job = jobs.remove(partition).get
+    Await.ready(job, Duration.Inf)
+    // rethrow the failure of the partition job
+    job.value.get.get
+    val data = fetched.remove(partition)
+    if (data == null) Array.empty[T] else data
+  }
+
+  override def hasNext: Boolean = {
+    while (!current.hasNext && nextToConsume < numPartitions && !closed) {
+      current = take(nextToConsume).iterator
+      nextToConsume += 1
+    }
+    current.hasNext
+  }
+
+  override def next(): T = {
+    if (!hasNext) throw new NoSuchElementException("No more rows in the rdd")
+    current.next()
+  }
+
+  override def close(): Unit = if (!closed) {
+    closed = true
+    if (jobs.nonEmpty) {
+      logger.info(s"Cancel ${jobs.size} partition jobs of rdd ${rdd.id} not consumed")
+      jobs.values.foreach(_.cancel())
+      jobs.clear()
+    }
+    fetched.clear()
+    current = Iterator.empty
+  }
+
+}
+
+object PartitionPrefetchIterator {
+
+  /** Kept out of the class so that the closure sent to executors does not capture the iterator */
+  private def collectPartition[T: ClassTag]: Iterator[T] => Array[T] =
+    (iterator: Iterator[T]) => iterator.toArray
+
+  /**
+   * Iterator of the rows of the rdd, prefetching partitions when prefetchPartitions is above 1
+   */
+  def toLocalIterator[T: ClassTag](rdd: RDD[T], prefetchPartitions: Int): java.util.Iterator[T] =
+    if (prefetchPartitions > 1) {
+      new PartitionPrefetchIterator(rdd, prefetchPartitions)
+    } else {
+      rdd.toLocalIterator.asJava
+    }
+
+  /** Cancel the prefetching of the iterator if it is a prefetching one */
+  def close(iterator: java.util.Iterator[_]): Unit = iterator match {
+    case closeable: Closeable => closeable.close()
+    case _ =>
+  }
+
+}
@@ -17,6 +17,7 @@
 
 package org.apache.spark.sql
 
+import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.internal.SQLConf
 
 /**
@@ -28,4 +29,14 @@ object MethodInvokeHelper {
     context.conf
   }
 
+  /** Arrow record batches of the data frame, each one a serialized arrow record batch message */
+  def toArrowBatchRdd(dataFrame: DataFrame): RDD[Array[Byte]] = {
+    dataFrame.toArrowBatchRdd
+  }
+
+  /** spark.sql.session.timeZone of the session, or the jvm time zone when not set */
+  def sessionLocalTimeZone(sparkSession: SparkSession): String = {
+    sparkSession.sessionState.conf.sessionLocalTimeZone
+  }
+
 }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.spark.benchmark;
+
+import org.apache.linkis.engineplugin.spark.executor.ArrowResultWriter;
+import org.apache.linkis.engineplugin.spark.executor.SQLSession;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.resultset.StorageResultSetWriter;
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSet;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.types.StructField;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the row path of showDF, toLocalIterator plus toHiveString per cell, with the arrow
+ * batch path on a cached data frame of mixed column types. Each invocation writes the whole data
+ * frame into an in-memory table or columnar result set, run it with the main method
+ * 对比showDF逐行格式化与arrow批次按列写入结果集的性能
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class ShowDFResultBenchmark {
+
+  private static final String[] COLUMN_EXPRS = {
+    "id",
+    "cast(id % 1000 as int)",
+    "id * 1.25d",
+    "concat('user-', cast(id % 5000 as string))",
+    "cast(id % 100000 as decimal(12, 2))",
+    "date_add(to_date('2020-01-01'), cast(id % 1000 as int))",
+    "cast(id as timestamp)",
+    "id % 2 = 0"
+  };
+
+  @Param({"1000000"})
+  public int rowCount;
+
+  @Param({"50"})
+  public int columnCount;
+
+  @Param({"table", "columnar"})
+  public String resultSet;
+
+  private SparkSession sparkSession;
+
+  private Dataset<Row> dataFrame;
+
+  private TableMetaData metaData;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    sparkSession =
+        SparkSession.builder()
+            .master("local[4]")
+            .appName("ShowDFResultBenchmark")
+            .config("spark.ui.enabled", "false")
+            .getOrCreate();
+    String[] exprs = new String[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      exprs[i] = COLUMN_EXPRS[i % COLUMN_EXPRS.length] + " as c" + i;
+    }
+    dataFrame = sparkSession.range(rowCount).selectExpr(exprs).cache();
+    dataFrame.count();
+    StructField[] fields = dataFrame.schema().fields();
+    Column[] columns = new Column[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      String typeName = fields[i].dataType().typeName().toLowerCase(Locale.getDefault());
+      columns[i] = new Column(fields[i].name(), DataType.toDataType(typeName), "");
+    }
+    metaData = new TableMetaData(columns);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dataFrame.unpersist();
+    sparkSession.stop();
+  }
+
+  private StorageResultSetWriter<TableMetaData, TableRecord> newWriter() throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        "columnar".equals(resultSet)
+            ? new StorageResultSetWriter<>(new ColumnarResultSet(), Long.MAX_VALUE, null)
+            : new StorageResultSetWriter<>(new TableResultSet(), Long.MAX_VALUE, null);
+    writer.addMetaData(metaData);
+    return writer;
+  }
+
+  @Benchmark
+  public int rows() throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> writer = newWriter();
+    int rows =
+        SQLSession.writeRows(
+            dataFrame.toLocalIterator(),
+            dataFrame.schema(),
+            writer,
+            rowCount,
+            SQLSession.sessionZoneId(sparkSession));
+    writer.close();
+    return rows;
+  }
+
+  @Benchmark
+  public int arrowBatches() throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> writer = newWriter();
+    int rows = ArrowResultWriter.write(dataFrame, writer, rowCount);
+    writer.close();
+    return rows;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(ShowDFResultBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
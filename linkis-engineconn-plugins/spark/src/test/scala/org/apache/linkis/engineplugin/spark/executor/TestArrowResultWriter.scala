@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.linkis.engineplugin.spark.executor
+
+import org.apache.linkis.common.utils.Utils
+import org.apache.linkis.storage.domain.{Column, DataType}
+import org.apache.linkis.storage.resultset.{ResultSetReaderFactory, StorageResultSetWriter}
+import org.apache.linkis.storage.resultset.columnar.ColumnarResultSet
+import org.apache.linkis.storage.resultset.table.{TableMetaData, TableRecord, TableResultSet}
+
+import org.apache.spark.sql.{DataFrame, SparkSession}
+
+import java.sql.Timestamp
+import java.time.{LocalDateTime, ZoneId}
+
+import org.junit.jupiter.api.{Assertions, Test}
+
+class TestArrowResultWriter {
+
+  private val metaData = new TableMetaData(
+    Array(new Column("ts", DataType.toDataType("timestamp"), ""))
+  )
+
+  private def readFirst(content: String): String = {
+    val reader = ResultSetReaderFactory.getResultSetReader(content)
+    Utils.tryFinally {
+      Assertions.assertTrue(reader.hasNext)
+      String.valueOf(reader.getRecord.asInstanceOf[TableRecord].row(0))
+    }(reader.close())
+  }
+
+  private def writeArrow(dataFrame: DataFrame): String = {
+    val writer = new StorageResultSetWriter[TableMetaData, TableRecord](
+      new ColumnarResultSet,
+      Long.MaxValue,
+      null
+    )
+    writer.addMetaData(metaData)
+    ArrowResultWriter.write(dataFrame, writer, 10)
+    writer.close()
+    readFirst(writer.toString)
+  }
+
+  private def writeRows(dataFrame: DataFrame, zoneId: ZoneId): String = {
+    val writer = new StorageResultSetWriter[TableMetaData, TableRecord](
+      new TableResultSet,
+      Long.MaxValue,
+      null
+    )
+    writer.addMetaData(metaData)
+    SQLSession.writeRows(dataFrame.toLocalIterator, dataFrame.schema, writer, 10, zoneId)
+    writer.close()
+    readFirst(writer.toString)
+  }
+
+  @Test
+  def testSessionTimeZone: Unit = {
+    // a session time zone whose offset differs from the jvm one
+    val wallClock = LocalDateTime.of(2020, 1, 1, 12, 34, 56, 789000000)
+    val jvmOffset = ZoneId.systemDefault().getRules.getOffset(wallClock)
+    val sessionZone = Seq("Asia/Shanghai", "America/Los_Angeles")
+      .find(zone => ZoneId.of(zone).getRules.getOffset(wallClock) != jvmOffset)
+      .get
+    val sparkSession = SparkSession
+      .builder()
+      .master("local[1]")
+      .appName("testArrowResultWriter")
+      .config("spark.ui.enabled", "false")
+      .getOrCreate()
+    sparkSession.conf.set("spark.sql.session.timeZone", sessionZone)
+    val zoneId = SQLSession.sessionZoneId(sparkSession)
+    Assertions.assertEquals(ZoneId.of(sessionZone), zoneId)
+    // the literal is parsed as the wall clock time of the session time zone
+    val dataFrame = sparkSession.sql("select cast('2020-01-01 12:34:56.789' as timestamp) as ts")
+    Assertions.assertEquals("2020-01-01 12:34:56.789", writeArrow(dataFrame))
+    Assertions.assertEquals("2020-01-01 12:34:56.789", writeRows(dataFrame, zoneId))
+    // without arrow results the rows keep Timestamp#toString of the jvm time zone
+    val legacy = Timestamp.from(wallClock.atZone(zoneId).toInstant).toString
+    Assertions.assertEquals(legacy, writeRows(dataFrame, null))
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.spark.utils
+
+import org.apache.spark.SparkException
+import org.apache.spark.sql.SparkSession
+
+import scala.collection.JavaConverters._
+
+import org.junit.jupiter.api.{Assertions, Test}
+
+class TestPartitionPrefetchIterator {
+
+  private lazy val sparkSession = SparkSession
+    .builder()
+    .master("local[2]")
+    .appName("test")
+    .getOrCreate()
+
+  @Test
+  def testPartitionOrder: Unit = {
+    val rdd = sparkSession.sparkContext.parallelize(1 to 1000, 17)
+    val iterator = new PartitionPrefetchIterator(rdd, 4)
+    Assertions.assertEquals((1 to 1000).toList, iterator.asScala.toList)
+    Assertions.assertFalse(iterator.hasNext)
+  }
+
+  @Test
+  def testEmptyPartitions: Unit = {
+    val rdd = sparkSession.sparkContext.parallelize(1 to 3, 8)
+    val iterator = new PartitionPrefetchIterator(rdd, 3)
+    Assertions.assertEquals(List(1, 2, 3), iterator.asScala.toList)
+  }
+
+  @Test
+  def testCloseEarly: Unit = {
+    val rdd = sparkSession.sparkContext.parallelize(1 to 1000, 10)
+    val iterator = new PartitionPrefetchIterator(rdd, 4)
+    Assertions.assertEquals((1 to 10).toList, iterator.asScala.take(10).toList)
+    iterator.close()
+    Assertions.assertFalse(iterator.hasNext)
+  }
+
+  @Test
+  def testPartitionFailure: Unit = {
+    val rdd = sparkSession.sparkContext
+      .parallelize(1 to 100, 4)
+      .map(i => if (i == 80) throw new IllegalStateException("bad row") else i)
+    val iterator = new PartitionPrefetchIterator(rdd, 2)
+    Assertions.assertThrows(classOf[SparkException], () => iterator.asScala.toList)
+    iterator.close()
+  }
+
+  @Test
+  def testSerialFallback: Unit = {
+    val rdd = sparkSession.sparkContext.parallelize(1 to 10, 3)
+    val iterator = PartitionPrefetchIterator.toLocalIterator(rdd, 1)
+    Assertions.assertFalse(iterator.isInstanceOf[PartitionPrefetchIterator[_]])
+    Assertions.assertEquals((1 to 10).toList, iterator.asScala.toList)
+  }
+
+}
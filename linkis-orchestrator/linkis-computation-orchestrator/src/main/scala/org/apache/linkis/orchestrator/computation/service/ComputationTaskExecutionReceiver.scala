@@ -20,6 +20,7 @@ package org.apache.linkis.orchestrator.computation.service
 import org.apache.linkis.common.utils.Logging
 import org.apache.linkis.governance.common.entity.ExecutionNodeStatus
 import org.apache.linkis.governance.common.protocol.task._
+import org.apache.linkis.governance.common.utils.LogRecordCodec
 import org.apache.linkis.manager.common.protocol.resource.ResponseTaskRunningInfo
 import org.apache.linkis.orchestrator.computation.conf.ComputationOrchestratorConf
 import org.apache.linkis.orchestrator.computation.execute.CodeExecTaskExecutorManager
@@ -62,6 +63,19 @@ class ComputationTaskExecutionReceiver extends TaskExecutionReceiver with Loggin
       }
   }
 
+  @Receiver
+  override def taskLogBatchReceiver(taskLogBatch: ResponseTaskLogBatch, sender: Sender): Unit = {
+    val serviceInstance = RPCUtils.getServiceInstanceFromSender(sender)
+    codeExecTaskExecutorManager
+      .getByEngineConnAndTaskId(serviceInstance, taskLogBatch.execId)
+      .foreach { codeExecutor =>
+        val log = LogRecordCodec.toLogString(taskLogBatch.records, taskLogBatch.dropped)
+        val event = TaskLogEvent(codeExecutor.getExecTask, log)
+        codeExecutor.getExecTask.getPhysicalContext.pushLog(event)
+        codeExecutor.getEngineConnExecutor.updateLastUpdateTime()
+      }
+  }
+
   @Receiver
   override def taskProgressReceiver(
       taskProgressWithResource: ResponseTaskRunningInfo,
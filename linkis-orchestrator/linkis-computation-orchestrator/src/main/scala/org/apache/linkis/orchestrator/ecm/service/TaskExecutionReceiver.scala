@@ -28,6 +28,8 @@ trait TaskExecutionReceiver {
 
   def taskLogReceiver(taskLog: ResponseTaskLog, sender: Sender): Unit
 
+  def taskLogBatchReceiver(taskLogBatch: ResponseTaskLogBatch, sender: Sender): Unit
+
   def taskProgressReceiver(taskProgress: ResponseTaskRunningInfo, sender: Sender): Unit
 
   def taskStatusReceiver(taskStatus: ResponseTaskStatus, sender: Sender): Unit
@@ -18,6 +18,7 @@
 package org.apache.linkis.instance.label.service;
 
 import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.instance.label.entity.InstanceInfo;
 import org.apache.linkis.manager.label.entity.Label;
 
 import org.springframework.cache.annotation.CacheConfig;
@@ -96,6 +97,13 @@ public interface InsLabelService {
   @Cacheable({"appInstance"})
   List<ServiceInstance> getInstancesByNames(String appName);
 
+  /**
+   * List all the instances with their labels, not cached since it is used to build snapshots
+   *
+   * @return
+   */
+  List<InstanceInfo> listAllInstanceWithLabel();
+
   @CacheEvict(
       cacheNames = {"instance", "label", "appInstance"},
       allEntries = true)
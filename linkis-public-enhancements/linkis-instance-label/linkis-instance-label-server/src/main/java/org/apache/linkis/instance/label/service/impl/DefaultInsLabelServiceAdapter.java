@@ -18,6 +18,7 @@
 package org.apache.linkis.instance.label.service.impl;
 
 import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.instance.label.entity.InstanceInfo;
 import org.apache.linkis.instance.label.exception.InstanceErrorException;
 import org.apache.linkis.instance.label.service.InsLabelAccessService;
 import org.apache.linkis.instance.label.service.InsLabelServiceAdapter;
@@ -176,6 +177,15 @@ public class DefaultInsLabelServiceAdapter implements InsLabelServiceAdapter {
         false);
   }
 
+  @Override
+  public List<InstanceInfo> listAllInstanceWithLabel() {
+    return execOnServiceChain(
+        "listAllInstanceWithLabel",
+        InsLabelAccessService::listAllInstanceWithLabel,
+        false,
+        false);
+  }
+
   @Override
   public void evictCache() {
     // Empty
@@ -38,6 +38,10 @@ import org.apache.linkis.storage.excel.ExcelFsWriter;
 import org.apache.linkis.storage.excel.ExcelStorageReader;
 import org.apache.linkis.storage.excel.StorageMultiExcelWriter;
 import org.apache.linkis.storage.fs.FileSystem;
+import org.apache.linkis.storage.log.LogLevelClassifier;
+import org.apache.linkis.storage.log.LogLineIndex;
+import org.apache.linkis.storage.log.LogSearcher;
+import org.apache.linkis.storage.resultset.ResultSetRowIndex;
 import org.apache.linkis.storage.script.*;
 import org.apache.linkis.storage.source.FileSource;
 import org.apache.linkis.storage.utils.StorageUtils;
@@ -61,6 +65,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.xiaoymin.knife4j.annotations.ApiOperationSupport;
@@ -126,6 +131,20 @@ public class FsRestfulApi {
     return checkIsUsersDirectory(requestPath, userName, true);
   }
 
+  /**
+   * Only read the requested columns and rows of result sets, columnar result sets skip the other
+   * chunks(只读取结果集的指定列和行，列式结果集会跳过其余数据块)
+   */
+  private FileSource projectAndFilter(FileSource fileSource, String columns, String filter) {
+    if (StringUtils.hasText(columns)) {
+      fileSource = fileSource.project(StringUtils.tokenizeToStringArray(columns, ","));
+    }
+    if (StringUtils.hasText(filter)) {
+      fileSource = fileSource.filter(filter);
+    }
+    return fileSource;
+  }
+
   @ApiOperation(value = "getUserRootPath", notes = "get user root path", response = Message.class)
   @ApiImplicitParams({
     @ApiImplicitParam(name = "pathType", required = false, dataType = "String", value = "path type")
@@ -404,6 +423,10 @@ public class FsRestfulApi {
     FsPathListWithError fsPathListWithError = fileSystem.listPathWithError(fsPath);
     if (fsPathListWithError != null) {
       for (FsPath children : fsPathListWithError.getFsPaths()) {
+        // row index sidecars of result sets are not shown to users
+        if (ResultSetRowIndex.isIndexPath(children.getPath())) {
+          continue;
+        }
         DirFileTree dirFileTreeChildren = new DirFileTree();
         dirFileTreeChildren.setName(new File(children.getPath()).getName());
         dirFileTreeChildren.setPath(children.getSchemaPath());
@@ -561,7 +584,9 @@ public class FsRestfulApi {
         name = "charset",
         required = true,
         dataType = "String",
-        defaultValue = "utf-8")
+        defaultValue = "utf-8"),
+    @ApiImplicitParam(name = "columns", dataType = "String", value = "Comma separated columns"),
+    @ApiImplicitParam(name = "filter", dataType = "String", value = "Row filter, e.g. age >= 18")
   })
   @RequestMapping(path = "/openFile", method = RequestMethod.GET)
   public Message openFile(
@@ -572,7 +597,9 @@ public class FsRestfulApi {
       @RequestParam(value = "charset", defaultValue = "utf-8") String charset,
       @RequestParam(value = "nullValue", defaultValue = "") String nullValue,
       @RequestParam(value = "limitBytes", defaultValue = "0") Long limitBytes,
-      @RequestParam(value = "limitColumnLength", defaultValue = "0") Integer limitColumnLength)
+      @RequestParam(value = "limitColumnLength", defaultValue = "0") Integer limitColumnLength,
+      @RequestParam(value = "columns", required = false) String columns,
+      @RequestParam(value = "filter", required = false) String filter)
       throws IOException, WorkSpaceException {
 
     Message message = Message.ok();
@@ -599,7 +626,7 @@ public class FsRestfulApi {
         if (!StringUtils.isEmpty(nullValue)) {
           fileSource.addParams("nullValue", nullValue);
         }
-        fileSource = fileSource.page(page, pageSize);
+        fileSource = projectAndFilter(fileSource, columns, filter).page(page, pageSize);
       }
       if (limitBytes > 0) {
         fileSource = fileSource.limitBytes(Math.min(limitBytes, FILESYSTEM_LIMIT_BYTES.getValue()));
@@ -611,10 +638,14 @@ public class FsRestfulApi {
       }
       Pair<Object, List<String[]>> result = fileSource.collect()[0];
       IOUtils.closeQuietly(fileSource);
-      message.data("metadata", result.getFirst()).data("fileContent", result.getSecond());
+      // keep the insertion order and put fileContent last, so that streaming clients know the
+      // other fields before reading the rows(保证fileContent最后输出，便于客户端流式读取)
+      message.setData(new LinkedHashMap<>());
+      message.data("metadata", result.getFirst());
       message.data("type", fileSource.getFileSplits()[0].getType());
       message.data("totalLine", fileSource.getTotalLine());
-      return message.data("page", page).data("totalPage", 0);
+      message.data("page", page).data("totalPage", 0);
+      return message.data("fileContent", result.getSecond());
     } finally {
       IOUtils.closeQuietly(fileSource);
     }
@@ -710,7 +741,9 @@ public class FsRestfulApi {
         dataType = "String",
         defaultValue = "NULL"),
     @ApiImplicitParam(name = "limit", required = true, dataType = "Integer", defaultValue = "0"),
-    @ApiImplicitParam(name = "autoFormat", dataType = "Boolean")
+    @ApiImplicitParam(name = "autoFormat", dataType = "Boolean"),
+    @ApiImplicitParam(name = "columns", dataType = "String", value = "Comma separated columns"),
+    @ApiImplicitParam(name = "filter", dataType = "String", value = "Row filter, e.g. age >= 18")
   })
   @RequestMapping(path = "resultsetToExcel", method = RequestMethod.GET)
   public void resultsetToExcel(
@@ -727,7 +760,9 @@ public class FsRestfulApi {
       @RequestParam(value = "sheetName", defaultValue = "result") String sheetName,
       @RequestParam(value = "nullValue", defaultValue = "NULL") String nullValue,
       @RequestParam(value = "limit", defaultValue = "0") Integer limit,
-      @RequestParam(value = "autoFormat", defaultValue = "false") Boolean autoFormat)
+      @RequestParam(value = "autoFormat", defaultValue = "false") Boolean autoFormat,
+      @RequestParam(value = "columns", required = false) String columns,
+      @RequestParam(value = "filter", required = false) String filter)
       throws WorkSpaceException, IOException {
     ServletOutputStream outputStream = null;
     FsWriter fsWriter = null;
@@ -771,6 +806,9 @@ public class FsRestfulApi {
       // 前台传""会自动转为null
       if (nullValue != null && BLANK.equalsIgnoreCase(nullValue)) nullValue = "";
       fileSource = FileSource.create(fsPath, fileSystem).addParams("nullValue", nullValue);
+      if (FileSource.isTableResultSet(fileSource)) {
+        fileSource = projectAndFilter(fileSource, columns, filter);
+      }
       switch (outputFileType) {
         case "csv":
           if (FileSource.isTableResultSet(fileSource)) {
@@ -837,7 +875,9 @@ public class FsRestfulApi {
         dataType = "String",
         defaultValue = "NULL"),
     @ApiImplicitParam(name = "limit", required = true, dataType = "Integer", defaultValue = "0"),
-    @ApiImplicitParam(name = "autoFormat", dataType = "Boolean")
+    @ApiImplicitParam(name = "autoFormat", dataType = "Boolean"),
+    @ApiImplicitParam(name = "columns", dataType = "String", value = "Comma separated columns"),
+    @ApiImplicitParam(name = "filter", dataType = "String", value = "Row filter, e.g. age >= 18")
   })
   @RequestMapping(path = "resultsetsToExcel", method = RequestMethod.GET)
   public void resultsetsToExcel(
@@ -848,7 +888,9 @@ public class FsRestfulApi {
           String outputFileName,
       @RequestParam(value = "nullValue", defaultValue = "NULL") String nullValue,
       @RequestParam(value = "limit", defaultValue = "0") Integer limit,
-      @RequestParam(value = "autoFormat", defaultValue = "false") Boolean autoFormat)
+      @RequestParam(value = "autoFormat", defaultValue = "false") Boolean autoFormat,
+      @RequestParam(value = "columns", required = false) String columns,
+      @RequestParam(value = "filter", required = false) String filter)
       throws WorkSpaceException, IOException {
     ServletOutputStream outputStream = null;
     FsWriter fsWriter = null;
@@ -895,6 +937,7 @@ public class FsRestfulApi {
       if (!FileSource.isTableResultSet(fileSource)) {
         throw WorkspaceExceptionManager.createException(80024);
       }
+      fileSource = projectAndFilter(fileSource, columns, filter);
       fsWriter = new StorageMultiExcelWriter(outputStream, autoFormat);
       response.addHeader("Content-Type", XLSX_RESPONSE_CONTENT_TYPE);
       if (isLimitDownloadSize) {
@@ -1055,6 +1098,113 @@ public class FsRestfulApi {
     }
   }
 
+  @ApiOperation(
+      value = "searchLog",
+      notes = "search log by regex or keyword, level and line range",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "path", required = true, dataType = "String", value = "path"),
+    @ApiImplicitParam(name = "regex", dataType = "String", value = "regex of the lines"),
+    @ApiImplicitParam(name = "keyword", dataType = "String", value = "keyword of the lines"),
+    @ApiImplicitParam(name = "levels", dataType = "String", value = "such as ERROR,WARN"),
+    @ApiImplicitParam(name = "fromLine", dataType = "Integer", value = "first line to search"),
+    @ApiImplicitParam(name = "toLine", dataType = "Integer", value = "exclusive end line"),
+    @ApiImplicitParam(name = "size", dataType = "Integer", value = "max matched lines"),
+    @ApiImplicitParam(name = "proxyUser", dataType = "String")
+  })
+  @RequestMapping(path = "/searchLog", method = RequestMethod.GET)
+  public Message searchLog(
+      HttpServletRequest req,
+      @RequestParam(value = "path", required = false) String path,
+      @RequestParam(value = "regex", required = false) String regex,
+      @RequestParam(value = "keyword", required = false) String keyword,
+      @RequestParam(value = "levels", required = false) String levels,
+      @RequestParam(value = "fromLine", defaultValue = "0") Integer fromLine,
+      @RequestParam(value = "toLine", defaultValue = "-1") Integer toLine,
+      @RequestParam(value = "size", defaultValue = "1000") Integer size,
+      @RequestParam(value = "proxyUser", required = false) String proxyUser)
+      throws IOException, WorkSpaceException {
+    if (StringUtils.isEmpty(path)) {
+      throw WorkspaceExceptionManager.createException(80004, path);
+    }
+    String userName = ModuleUserUtils.getOperationUser(req, "searchLog " + path);
+    if (proxyUser != null && Configuration.isJobHistoryAdmin(userName)) {
+      userName = proxyUser;
+    }
+    if (!checkIsUsersDirectory(path, userName)) {
+      throw WorkspaceExceptionManager.createException(80010, userName, path);
+    }
+    Pattern pattern = null;
+    int levelMask;
+    try {
+      if (!StringUtils.isEmpty(regex)) {
+        pattern = Pattern.compile(regex);
+      } else if (!StringUtils.isEmpty(keyword)) {
+        pattern = Pattern.compile(Pattern.quote(keyword));
+      }
+      levelMask = LogLineIndex.parseLevelMask(levels);
+    } catch (IllegalArgumentException e) {
+      return Message.error("Illegal search condition(搜索条件不合法): " + e.getMessage());
+    }
+    FsPath fsPath = new FsPath(path);
+    FileSystem fileSystem = fsService.getFileSystem(userName, fsPath);
+    if (!fileSystem.canRead(fsPath)) {
+      throw WorkspaceExceptionManager.createException(80018);
+    }
+    LogLineIndex lineIndex = readLogLineIndex(fileSystem, path);
+    List<Map<String, Object>> matches = new ArrayList<>();
+    int[] nextLine = {Math.max(fromLine, 0)};
+    new LogSearcher(
+            position -> fileSystem.read(fsPath, position),
+            Configuration.BDP_ENCODING().getValue(),
+            lineIndex,
+            LogLevelClassifier.INSTANCE)
+        .search(
+            pattern,
+            levelMask,
+            fromLine,
+            toLine,
+            size,
+            (line, level, log) -> {
+              Map<String, Object> match = new HashMap<>(4);
+              match.put("line", line);
+              match.put("level", LogLineIndex.getLevelName(level));
+              match.put("log", log);
+              matches.add(match);
+              nextLine[0] = line + 1;
+            });
+    // when the matches are cut by size, the next search goes on from the line after the last match
+    if (size < 0 || matches.size() < size) {
+      nextLine[0] = toLine >= 0 ? toLine : -1;
+    }
+    return Message.ok().data("matches", matches).data("fromLine", nextLine[0]);
+  }
+
+  /**
+   * Read the line index written along with the log, a stale index of a log still being written is
+   * ignored(读取日志的行索引，日志仍在写入导致索引过期时忽略)
+   */
+  private LogLineIndex readLogLineIndex(FileSystem fileSystem, String path) {
+    FsPath indexPath = new FsPath(path + LogLineIndex.INDEX_FILE_SUFFIX);
+    try {
+      if (!fileSystem.exists(indexPath)) {
+        return null;
+      }
+      LogLineIndex lineIndex;
+      try (InputStream inputStream = fileSystem.read(indexPath)) {
+        lineIndex =
+            LogLineIndex.read(
+                inputStream, Configuration.BDP_ENCODING().getValue(), LogLevelClassifier.INSTANCE);
+      }
+      if (lineIndex != null && lineIndex.getLength() == fileSystem.get(path).getLength()) {
+        return lineIndex;
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read the line index of log {}", path, e);
+    }
+    return null;
+  }
+
   private static void deleteAllFiles(FileSystem fileSystem, FsPath fsPath) throws IOException {
     fileSystem.delete(fsPath);
     List<FsPath> list = null;
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.parser;
+
+import org.apache.linkis.server.BDPJettyServerHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Picks some top level fields out of a json object request body while its bytes arrive, so the
+ * gateway can route by them without holding the whole body or parsing it into a map. Only the
+ * bytes of the wanted keys and values are kept: a value longer than maxValueLength is dropped,
+ * and the scan gives up after maxScanLength bytes, both reported by {@link #isTruncated()} so the
+ * caller can parse the whole body instead.
+ * (在请求体到达时增量扫描顶层字段，无需缓存整个请求体；字段被截断时由调用方改为完整解析)
+ */
+public class RequestBodyFieldScanner {
+  private static final Logger logger = LoggerFactory.getLogger(RequestBodyFieldScanner.class);
+
+  private final Set<String> keys;
+  private final int maxValueLength;
+  private final long maxScanLength;
+
+  private final Map<String, Object> fields = new HashMap<>();
+  private final ByteArrayOutputStream token = new ByteArrayOutputStream();
+  private boolean tokenOverflow = false;
+
+  private long scanned = 0;
+  private int depth = 0;
+  private boolean inString = false;
+  private boolean escaped = false;
+  private boolean expectKey = false;
+  private boolean readingKey = false;
+  private String currentKey;
+  private String capturingKey;
+  private boolean finished;
+  private boolean truncated = false;
+
+  public RequestBodyFieldScanner(String[] keys, int maxValueLength, long maxScanLength) {
+    this.keys = new HashSet<>(Arrays.asList(keys));
+    this.maxValueLength = maxValueLength;
+    this.maxScanLength = maxScanLength;
+    this.finished = this.keys.isEmpty();
+  }
+
+  /**
+   * Scan the readable bytes of the buffer, its position is moved to where the scan stopped
+   *
+   * @param buffer next part of the body
+   * @return true if no more bytes need to be scanned
+   */
+  public boolean scan(ByteBuffer buffer) {
+    while (!finished && buffer.hasRemaining()) {
+      onByte(buffer.get());
+      scanned++;
+      if (fields.size() == keys.size()) {
+        finished = true;
+      } else if (!finished && scanned >= maxScanLength) {
+        finished = true;
+        truncated = true;
+        logger.warn(
+            "Stop scanning the request body after {} bytes, the fields found are {} of {}.",
+            scanned,
+            fields.keySet(),
+            keys);
+      }
+    }
+    return finished;
+  }
+
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Whether some wanted fields may be missed, because the scan gave up after maxScanLength bytes
+   * or a value was longer than maxValueLength(是否可能遗漏字段，此时需完整解析请求体)
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  public long getScannedLength() {
+    return scanned;
+  }
+
+  /** Fields found so far, the values are decoded as jackson does for a Map(已扫描到的字段) */
+  public Map<String, Object> getFields() {
+    return fields;
+  }
+
+  private void onByte(byte b) {
+    if (inString) {
+      if (escaped) {
+        escaped = false;
+      } else if (b == '\\') {
+        escaped = true;
+      } else if (b == '"') {
+        inString = false;
+      }
+      if (readingKey) {
+        if (inString) {
+          append(b);
+        } else {
+          readingKey = false;
+          currentKey =
+              tokenOverflow ? null : new String(token.toByteArray(), StandardCharsets.UTF_8);
+        }
+      } else if (capturingKey != null) {
+        append(b);
+      }
+      return;
+    }
+    switch (b) {
+      case '"':
+        inString = true;
+        if (capturingKey != null) {
+          append(b);
+        } else if (depth == 1 && expectKey) {
+          readingKey = true;
+          resetToken();
+        }
+        break;
+      case '{':
+      case '[':
+        if (capturingKey != null) {
+          append(b);
+        }
+        depth++;
+        if (depth == 1) {
+          expectKey = b == '{';
+        }
+        break;
+      case '}':
+      case ']':
+        if (depth == 1) {
+          finishValue();
+        } else if (capturingKey != null) {
+          append(b);
+        }
+        depth--;
+        if (depth == 0) {
+          finished = true;
+        }
+        break;
+      case ':':
+        if (depth == 1) {
+          expectKey = false;
+          if (currentKey != null && keys.contains(currentKey) && !fields.containsKey(currentKey)) {
+            capturingKey = currentKey;
+            resetToken();
+          }
+          currentKey = null;
+        } else if (capturingKey != null) {
+          append(b);
+        }
+        break;
+      case ',':
+        if (depth == 1) {
+          finishValue();
+          expectKey = true;
+        } else if (capturingKey != null) {
+          append(b);
+        }
+        break;
+      default:
+        if (capturingKey != null) {
+          append(b);
+        }
+    }
+  }
+
+  private void append(byte b) {
+    if (token.size() < maxValueLength) {
+      token.write(b);
+    } else {
+      tokenOverflow = true;
+    }
+  }
+
+  private void resetToken() {
+    token.reset();
+    tokenOverflow = false;
+  }
+
+  private void finishValue() {
+    if (capturingKey == null) {
+      return;
+    }
+    String key = capturingKey;
+    capturingKey = null;
+    if (tokenOverflow) {
+      truncated = true;
+      logger.warn("Ignore the request body field {} longer than {} bytes.", key, maxValueLength);
+      return;
+    }
+    try {
+      fields.put(
+          key, BDPJettyServerHelper.jacksonJson().readValue(token.toByteArray(), Object.class));
+    } catch (Exception e) {
+      logger.warn("Ignore the request body field " + key + " which is not a valid json value.", e);
+    }
+  }
+}
@@ -17,7 +17,7 @@
 
 package org.apache.linkis.gateway.config
 
-import org.apache.linkis.common.conf.CommonVars
+import org.apache.linkis.common.conf.{CommonVars, TimeType}
 
 object GatewayConfiguration {
 
@@ -118,4 +118,13 @@ object GatewayConfiguration {
 
   val ACCESS_CONTROL_USER_ENABLED = CommonVars("linkis.client.access.control.user.enable", false)
 
+  /**
+   * Route requests from snapshots of the registered service ids and of the instance labels
+   * refreshed in background, instead of listing the registry and querying the labels per request
+   */
+  val ROUTE_SNAPSHOT_ENABLED = CommonVars("linkis.gateway.route.snapshot.enable", false)
+
+  val ROUTE_SNAPSHOT_REFRESH_INTERVAL =
+    CommonVars("linkis.gateway.route.snapshot.refresh.interval", new TimeType("10s"))
+
 }
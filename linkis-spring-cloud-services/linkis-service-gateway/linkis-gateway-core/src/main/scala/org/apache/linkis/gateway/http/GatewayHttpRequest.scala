@@ -24,6 +24,7 @@ import org.springframework.http.server.reactive.AbstractServerHttpRequest
 import javax.servlet.http.Cookie
 
 import java.net.{InetSocketAddress, URI}
+import java.util
 
 trait GatewayHttpRequest {
 
@@ -49,4 +50,10 @@ trait GatewayHttpRequest {
 
   def getRequestBody: String
 
+  /**
+   * Fields scanned from a streamed json body, null if the body is read as [[getRequestBody]]
+   * (流式读取请求体时扫描到的字段)
+   */
+  def getRequestBodyFields: util.Map[String, Object]
+
 }
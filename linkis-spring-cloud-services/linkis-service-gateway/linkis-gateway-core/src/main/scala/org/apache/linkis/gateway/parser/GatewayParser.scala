@@ -21,6 +21,7 @@ import org.apache.linkis.DataWorkCloudApplication
 import org.apache.linkis.common.ServiceInstance
 import org.apache.linkis.common.utils.Logging
 import org.apache.linkis.gateway.http.{GatewayContext, GatewayRoute}
+import org.apache.linkis.protocol.constants.TaskConstant
 import org.apache.linkis.rpc.conf.RPCConfiguration
 import org.apache.linkis.rpc.interceptor.ServiceInstanceUtils
 import org.apache.linkis.server.Message
@@ -34,6 +35,13 @@ trait GatewayParser {
 
   def shouldContainRequestBody(gatewayContext: GatewayContext): Boolean
 
+  /**
+   * Top level json fields of the request body this parser needs, so the body can be scanned for
+   * them instead of being buffered. null means the whole body is needed, see
+   * [[org.apache.linkis.gateway.http.GatewayHttpRequest.getRequestBodyFields]]
+   */
+  def requestBodyKeys(gatewayContext: GatewayContext): Array[String] = null
+
   def parse(gatewayContext: GatewayContext): Unit
 
 }
@@ -101,6 +109,21 @@ class DefaultGatewayParser(gatewayParsers: Array[GatewayParser]) extends Abstrac
         case _ => gatewayParsers.exists(_.shouldContainRequestBody(gatewayContext))
       })
 
+  override def requestBodyKeys(gatewayContext: GatewayContext): Array[String] =
+    if (
+        gatewayContext.getRequest.getRequestURI.startsWith(
+          ServerConfiguration.BDP_SERVER_USER_URI.getValue
+        )
+    ) {
+      null
+    } else {
+      val keys = gatewayParsers
+        .filter(_.shouldContainRequestBody(gatewayContext))
+        .map(_.requestBodyKeys(gatewayContext))
+      // route labels of the body are read by the RouteLabelParsers while routing
+      if (keys.contains(null)) null else (keys.flatten :+ TaskConstant.LABELS).distinct
+    }
+
   override def parse(gatewayContext: GatewayContext): Unit = {
     val path = gatewayContext.getRequest.getRequestURI
     if (gatewayContext.getGatewayRoute == null) {
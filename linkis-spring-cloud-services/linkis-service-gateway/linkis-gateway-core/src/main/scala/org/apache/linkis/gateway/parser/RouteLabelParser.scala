@@ -42,27 +42,29 @@ trait RouteLabelParser {
 class GenericRoueLabelParser extends RouteLabelParser with Logging {
 
   override def parse(gatewayContext: GatewayContext): util.List[RouteLabel] = {
+    val requestBodyFields = gatewayContext.getRequest.getRequestBodyFields
     val requestBody = Option(gatewayContext.getRequest.getRequestBody)
-    requestBody match {
-      case Some(body) =>
-        val labelBuilderFactory = LabelBuilderFactoryContext.getLabelBuilderFactory
-        val json = Utils.tryCatch {
-          BDPJettyServerHelper.gson.fromJson(body, classOf[java.util.Map[String, Object]])
-        } { case e: Exception =>
-          logger.warn("Parse error. " + e.getMessage)
-          new util.HashMap[String, Object]()
-        }
-        val labels: util.List[Label[_]] = json.get(TaskConstant.LABELS) match {
-          case map: util.Map[String, Object] => labelBuilderFactory.getLabels(map)
-          case map: util.Map[String, Any] => labelBuilderFactory.getLabels(map.asInstanceOf)
-          case _ => new util.ArrayList[Label[_]]()
-        }
-        labels.asScala
-          .filter(label => label.isInstanceOf[RouteLabel])
-          .map(_.asInstanceOf[RouteLabel])
-          .asJava
-      case _ => null
+    if (requestBodyFields == null && requestBody.isEmpty) return null
+    val labelBuilderFactory = LabelBuilderFactoryContext.getLabelBuilderFactory
+    val json = if (requestBodyFields != null) {
+      requestBodyFields
+    } else {
+      Utils.tryCatch {
+        BDPJettyServerHelper.gson.fromJson(requestBody.get, classOf[java.util.Map[String, Object]])
+      } { case e: Exception =>
+        logger.warn("Parse error. " + e.getMessage)
+        new util.HashMap[String, Object]()
+      }
     }
+    val labels: util.List[Label[_]] = json.get(TaskConstant.LABELS) match {
+      case map: util.Map[String, Object] => labelBuilderFactory.getLabels(map)
+      case map: util.Map[String, Any] => labelBuilderFactory.getLabels(map.asInstanceOf)
+      case _ => new util.ArrayList[Label[_]]()
+    }
+    labels.asScala
+      .filter(label => label.isInstanceOf[RouteLabel])
+      .map(_.asInstanceOf[RouteLabel])
+      .asJava
   }
 
 }
@@ -90,15 +90,35 @@ abstract class AbstractGatewayRouter extends GatewayRouter with Logging {
       parsedServiceId: String,
       tooManyDeal: List[String] => Option[String]
   ): Option[String] = {
-    val services = SpringCloudFeignConfigurationCache.getDiscoveryClient.getServices.asScala
+    val services = if (RouteSnapshot.isEnabled) {
+      findServiceInSnapshot(parsedServiceId)
+    } else findServiceInRegistry(parsedServiceId)
+    if (services.length == 1) Some(services.head)
+    else if (services.length > 1) tooManyDeal(services)
+    else None
+  }
+
+  private def findServiceInRegistry(parsedServiceId: String): List[String] =
+    SpringCloudFeignConfigurationCache.getDiscoveryClient.getServices.asScala
       .filter(
         _.toLowerCase(Locale.getDefault())
           .contains(parsedServiceId.toLowerCase(Locale.getDefault()))
       )
       .toList
-    if (services.length == 1) Some(services.head)
-    else if (services.length > 1) tooManyDeal(services)
-    else None
+
+  /**
+   * A service registered after the last refresh is not in the snapshot yet, so a miss falls back
+   * to the registry and refreshes the snapshot in background
+   */
+  private def findServiceInSnapshot(parsedServiceId: String): List[String] = {
+    val services = RouteSnapshot.serviceIds.get.map(_.find(parsedServiceId)).getOrElse(Nil)
+    if (services.nonEmpty) {
+      services
+    } else {
+      val registryServices = findServiceInRegistry(parsedServiceId)
+      if (registryServices.nonEmpty) RouteSnapshot.serviceIds.refreshAsync()
+      registryServices
+    }
   }
 
   protected def retainAllInRegistry(
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.route
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.gateway.config.GatewayConfiguration
+import org.apache.linkis.rpc.sender.SpringCloudFeignConfigurationCache
+
+import java.util.Locale
+import java.util.concurrent.{ConcurrentHashMap, TimeUnit}
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong, AtomicReference}
+
+import scala.collection.JavaConverters._
+
+/**
+ * A routing table loaded in background and swapped as a whole, so the routers read it without
+ * blocking. Each load gets a new version, a failed load keeps the previous version
+ *
+ * @param name
+ *   used in logs
+ * @param load
+ *   builds the table from the registry or the label service
+ */
+class RouteSnapshot[T](name: String, load: () => T) extends Logging {
+
+  private val current = new AtomicReference[RouteSnapshot.Versioned[T]]()
+
+  private val versions = new AtomicLong(0)
+
+  private val refreshing = new AtomicBoolean(false)
+
+  /** None until the first load succeeds */
+  def get: Option[T] = Option(current.get()).map(_.value)
+
+  def getVersion: Long = Option(current.get()).map(_.version).getOrElse(0L)
+
+  def refresh(): Unit = Utils.tryCatch {
+    val value = load()
+    val version = versions.incrementAndGet()
+    current.set(RouteSnapshot.Versioned(version, value))
+    logger.debug(s"Refreshed the $name route snapshot to version $version")
+  } { t =>
+    logger.warn(s"Failed to refresh the $name route snapshot, keep version $getVersion", t)
+  }
+
+  /** Refresh in background, calls during a running refresh are merged into it */
+  def refreshAsync(): Unit = if (refreshing.compareAndSet(false, true)) {
+    Utils.defaultScheduler.execute(new Runnable {
+      override def run(): Unit = Utils.tryFinally(refresh())(refreshing.set(false))
+    })
+  }
+
+  def start(intervalMs: Long): RouteSnapshot[T] = {
+    Utils.defaultScheduler.scheduleWithFixedDelay(
+      new Runnable {
+        override def run(): Unit = refreshAsync()
+      },
+      0,
+      intervalMs,
+      TimeUnit.MILLISECONDS
+    )
+    this
+  }
+
+}
+
+object RouteSnapshot {
+
+  case class Versioned[T](version: Long, value: T)
+
+  def isEnabled: Boolean = GatewayConfiguration.ROUTE_SNAPSHOT_ENABLED.getValue
+
+  def refreshInterval: Long = GatewayConfiguration.ROUTE_SNAPSHOT_REFRESH_INTERVAL.getValue.toLong
+
+  /** Service ids of the discovery client, only started when the route snapshot is enabled */
+  lazy val serviceIds: RouteSnapshot[ServiceIdSnapshot] = new RouteSnapshot[ServiceIdSnapshot](
+    "service id",
+    () => {
+      val services = SpringCloudFeignConfigurationCache.getDiscoveryClient.getServices
+      new ServiceIdSnapshot(services.asScala)
+    }
+  ).start(refreshInterval)
+
+}
+
+/**
+ * Service ids lower cased once per refresh, the ids matching a parsed service id are kept so the
+ * same request path is matched only once per snapshot. At most MAX_MATCHED parsed ids are kept,
+ * since they come from the request paths
+ */
+class ServiceIdSnapshot(services: Seq[String]) {
+
+  private val lowerCaseServices: Array[(String, String)] =
+    services.map(service => (service.toLowerCase(Locale.getDefault()), service)).toArray
+
+  private val matchedServices = new ConcurrentHashMap[String, List[String]]()
+
+  def find(parsedServiceId: String): List[String] = {
+    val matched = matchedServices.get(parsedServiceId)
+    if (matched != null) {
+      matched
+    } else {
+      val lowerCaseId = parsedServiceId.toLowerCase(Locale.getDefault())
+      val services = lowerCaseServices.collect {
+        case (lowerCaseService, service) if lowerCaseService.contains(lowerCaseId) => service
+      }.toList
+      if (matchedServices.size() < ServiceIdSnapshot.MAX_MATCHED) {
+        matchedServices.putIfAbsent(parsedServiceId, services)
+      }
+      services
+    }
+  }
+
+}
+
+object ServiceIdSnapshot {
+
+  val MAX_MATCHED = 1024
+
+}
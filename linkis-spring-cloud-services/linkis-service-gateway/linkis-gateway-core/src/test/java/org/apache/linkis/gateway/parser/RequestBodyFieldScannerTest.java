@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestBodyFieldScannerTest {
+
+  private static boolean scanInChunks(RequestBodyFieldScanner scanner, String body, int chunk) {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    boolean finished = false;
+    for (int i = 0; i < bytes.length && !finished; i += chunk) {
+      finished = scanner.scan(ByteBuffer.wrap(bytes, i, Math.min(chunk, bytes.length - i)));
+    }
+    return finished;
+  }
+
+  @Test
+  void testScanTopLevelFields() {
+    String body =
+        "{\"executionContent\": {\"code\": \"select \\\"instance\\\", '{' from t\"},"
+            + " \"params\": {\"instance\": \"nested\"}, \"instance\" : \"host:9104\","
+            + " \"labels\": {\"route\": \"dev\"}, \"pageSize\": 5000, \"serviceName\": \"中文\"}";
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(
+            new String[] {"instance", "labels", "pageSize", "serviceName"}, 1024, 1024 * 1024);
+    assertTrue(scanInChunks(scanner, body, 3));
+    Map<String, Object> fields = scanner.getFields();
+    assertEquals("host:9104", fields.get("instance"));
+    assertEquals("dev", ((Map<?, ?>) fields.get("labels")).get("route"));
+    assertEquals(5000, fields.get("pageSize"));
+    assertEquals("中文", fields.get("serviceName"));
+    assertFalse(scanner.isTruncated());
+  }
+
+  @Test
+  void testStopWhenAllFieldsFound() {
+    String body = "{\"instance\": \"host:9104\", \"executionContent\": {\"code\": \"select 1\"}}";
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(new String[] {"instance"}, 1024, 1024 * 1024);
+    assertTrue(scanInChunks(scanner, body, 1));
+    assertEquals(body.indexOf(','), scanner.getScannedLength() - 1);
+  }
+
+  @Test
+  void testBoundedLookahead() {
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(new String[] {"instance", "labels"}, 8, 32);
+    String body = "{\"labels\": {\"route\": \"dev\"}, \"code\": \"0123456789012345678901\"}";
+    assertTrue(scanInChunks(scanner, body, 4));
+    assertEquals(32, scanner.getScannedLength());
+    assertFalse(scanner.getFields().containsKey("labels"));
+    assertFalse(scanner.getFields().containsKey("instance"));
+    assertTrue(scanner.isTruncated());
+  }
+
+  @Test
+  void testTruncatedBeforeFields() {
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(new String[] {"labels"}, 1024, 32);
+    String body = "{\"code\": \"0123456789012345678901\", \"labels\": {\"route\": \"dev\"}}";
+    assertTrue(scanInChunks(scanner, body, 4));
+    assertTrue(scanner.getFields().isEmpty());
+    assertTrue(scanner.isTruncated());
+  }
+
+  @Test
+  void testBodyWithoutFields() {
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(new String[] {"labels"}, 1024, 1024);
+    assertTrue(scanInChunks(scanner, "{\"code\": \"select 1\"}", 3));
+    assertTrue(scanner.getFields().isEmpty());
+    assertFalse(scanner.isTruncated());
+  }
+
+  @Test
+  void testNotObjectBody() {
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(new String[] {"instance"}, 1024, 1024);
+    assertTrue(scanInChunks(scanner, "[{\"instance\": \"host:9104\"}]", 2));
+    assertTrue(scanner.getFields().isEmpty());
+  }
+}
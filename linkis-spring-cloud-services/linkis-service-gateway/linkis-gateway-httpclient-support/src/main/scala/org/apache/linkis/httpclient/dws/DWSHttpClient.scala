@@ -27,7 +27,8 @@ import org.apache.linkis.httpclient.dws.request.DWSHttpAction
 import org.apache.linkis.httpclient.dws.response.{
   DWSHttpMessageFactory,
   DWSHttpMessageResultInfo,
-  DWSResult
+  DWSResult,
+  DWSStreamingResult
 }
 import org.apache.linkis.httpclient.request.HttpAction
 import org.apache.linkis.httpclient.response.{HttpResult, ListResult, Result}
@@ -37,6 +38,7 @@ import org.apache.commons.beanutils.BeanUtils
 import org.apache.commons.lang3.{ClassUtils, StringUtils}
 import org.apache.http.{HttpException, HttpResponse}
 
+import java.io.Closeable
 import java.util
 
 import scala.collection.JavaConverters._
@@ -112,6 +114,34 @@ class DWSHttpClient(clientConfig: DWSClientConfig, clientName: String)
       .orElse(nonDWSResponseToResult(response, requestAction, responseBody))
   }
 
+  /**
+   * Stream the response into a [[DWSStreamingResult]], other results fall back to the buffered body
+   * 将响应流式解析为DWSStreamingResult，其他结果仍读取整个响应体
+   */
+  override protected def httpResponseToStreamingResult(
+      response: HttpResponse,
+      requestAction: HttpAction
+  ): Option[Result] = {
+    val url: String = requestAction.getURL
+    DWSHttpMessageFactory
+      .getDWSHttpMessageResult(url)
+      .filter(info => ClassUtils.isAssignable(info.clazz, classOf[DWSStreamingResult]))
+      .map { case DWSHttpMessageResultInfo(_, clazz) =>
+        val entity = response.getEntity
+        val contentType =
+          if (entity.getContentType != null) entity.getContentType.getValue else null
+        val inputStream = entity.getContent
+        val closeable: Closeable = response match {
+          case c: Closeable => c
+          case _ => inputStream
+        }
+        val result = clazz.getConstructor().newInstance().asInstanceOf[DWSStreamingResult]
+        val statusCode = response.getStatusLine.getStatusCode
+        result.setStream(inputStream, closeable, statusCode, url, contentType)
+        result
+      }
+  }
+
   protected def deserializeResponseBody(responseBody: String): Any = {
     if (responseBody.startsWith("{") && responseBody.endsWith("}")) {
       DWSHttpClient.jacksonJson.readValue(responseBody, classOf[util.Map[String, Object]])
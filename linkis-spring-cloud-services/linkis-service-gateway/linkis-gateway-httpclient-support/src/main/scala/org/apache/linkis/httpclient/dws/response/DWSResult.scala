@@ -61,17 +61,39 @@ trait DWSResult extends Logging with HttpResult {
       contentType: String
   ): Unit = {
 //    if(statusCode != 200) throw new HttpClientResultException(s"URL $url request failed! ResponseBody is $responseBody." )
-    var newStatusCode = statusCode
     Utils.tryCatch {
-      resultMap =
+      val resultMap =
         DWSHttpClient.jacksonJson.readValue(responseBody, classOf[util.Map[String, Object]])
+      init(resultMap, responseBody, statusCode, url, contentType)
+    } {
+      case e: HttpClientResultException => throw e
+      case e: Exception =>
+        throw new HttpClientResultException(
+          s"URL $url request failed! ResponseBody is $responseBody. ${e.getMessage}"
+        )
+    }
+  }
+
+  /**
+   * Init from the parsed response, responseBody is null when the response is streamed
+   * 根据解析后的响应初始化，流式读取时responseBody为null
+   */
+  protected def init(
+      resultMap: util.Map[String, Object],
+      responseBody: String,
+      statusCode: Int,
+      url: String,
+      contentType: String
+  ): Unit = {
+    var newStatusCode = statusCode
+    val body = if (responseBody != null) responseBody else String.valueOf(resultMap)
+    Utils.tryCatch {
+      this.resultMap = resultMap
       status = resultMap.get("status").asInstanceOf[Int]
       message = getResultMap.get("message").asInstanceOf[String]
       if (status != 0) {
         if (StringUtils.isBlank(message) || !message.contains(LOGGEDIN_STR)) {
-          throw new HttpClientResultException(
-            s"URL $url request failed! ResponseBody is $responseBody."
-          )
+          throw new HttpClientResultException(s"URL $url request failed! ResponseBody is $body.")
         }
         this.status = 0
         newStatusCode = 200
@@ -83,10 +105,9 @@ trait DWSResult extends Logging with HttpResult {
       this.contentType = contentType
     } { case e: Exception =>
       throw new HttpClientResultException(
-        s"URL $url request failed! ResponseBody is $responseBody. ${e.getMessage}"
+        s"URL $url request failed! ResponseBody is $body. ${e.getMessage}"
       )
     }
-
   }
 
   override def getResponseBody: String = responseBody
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.httpclient.dws.response
+
+import org.apache.linkis.common.utils.Utils
+import org.apache.linkis.httpclient.dws.DWSHttpClient
+import org.apache.linkis.httpclient.exception.HttpClientResultException
+
+import org.apache.commons.beanutils.BeanUtils
+import org.apache.commons.io.IOUtils
+
+import java.io.{Closeable, InputStream}
+import java.util
+
+import com.fasterxml.jackson.core.{JsonParser, JsonToken}
+
+/**
+ * A DWSResult able to parse its response while it is read. The envelope and the data fields are
+ * read as usual, and the array of the streaming field is exposed as a row iterator read straight
+ * from the response, so no copy of the whole body is ever held. Data fields sent after the rows
+ * are filled in once the rows are exhausted. When a header field is only sent after the rows, the
+ * rows are buffered as a plain DWSResult would do.
+ * 支持边读边解析的DWSResult，流式字段的数组以迭代器方式直接从响应中读取，不缓存整个响应体
+ */
+trait DWSStreamingResult extends DWSResult with Closeable {
+
+  @transient private var parser: JsonParser = _
+  @transient private var response: Closeable = _
+  @transient private var rowIterator: util.Iterator[Object] = _
+  @transient private var envelope: util.Map[String, Object] = _
+  @transient private var streamData: util.Map[String, Object] = _
+  @transient private var inData = false
+  @transient private var streamStatusCode: Int = _
+  @transient private var streamUrl: String = _
+  @transient private var streamContentType: String = _
+
+  /** Field of data whose array is streamed as rows, such as fileContent */
+  protected def streamingField: String
+
+  /** Fields of data which must be known before the rows are read */
+  protected def headerFields: Array[String] = Array.empty
+
+  /**
+   * Start parsing the response, returns once the rows are reached or the response is fully read.
+   * The response is closed on failure, after the last row or by [[close]]
+   */
+  def setStream(
+      inputStream: InputStream,
+      response: Closeable,
+      statusCode: Int,
+      url: String,
+      contentType: String
+  ): Unit = {
+    this.response = response
+    this.streamStatusCode = statusCode
+    this.streamUrl = url
+    this.streamContentType = contentType
+    Utils.tryCatch {
+      parser = DWSHttpClient.jacksonJson.getFactory.createParser(inputStream)
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new HttpClientResultException(s"URL $url request failed! Response is not an object.")
+      }
+      envelope = new util.LinkedHashMap[String, Object]
+      streamData = new util.LinkedHashMap[String, Object]
+      if (readUntilRows()) {
+        populate()
+        rowIterator = new StreamingRowIterator
+      } else {
+        finish()
+      }
+    } { t =>
+      close()
+      t match {
+        case e: HttpClientResultException => throw e
+        case _ =>
+          throw new HttpClientResultException(
+            s"URL $url request failed! Parse response failed, ${t.getMessage}"
+          )
+      }
+    }
+  }
+
+  /** Whether the rows are read from the response instead of a buffered list */
+  def isStreamed: Boolean = rowIterator.isInstanceOf[StreamingRowIterator]
+
+  /**
+   * Rows of the streaming field. For a streamed result they can only be iterated once, for a
+   * buffered one they are read from the data
+   */
+  def getRowIterator: util.Iterator[Object] = {
+    if (rowIterator != null) return rowIterator
+    if (getData == null) return null
+    getData.get(streamingField) match {
+      case rows: util.List[Object] => rows.iterator()
+      case _ => null
+    }
+  }
+
+  /**
+   * Read the envelope until the array of the streaming field is reached, false if the response
+   * ends first
+   */
+  private def readUntilRows(): Boolean = {
+    var token = parser.nextToken()
+    while (token != null) {
+      if (token == JsonToken.FIELD_NAME) {
+        val name = parser.getCurrentName
+        parser.nextToken()
+        if (inData) {
+          if (
+              name == streamingField && parser.currentToken() == JsonToken.START_ARRAY &&
+              headerFields.forall(streamData.containsKey)
+          ) {
+            return true
+          }
+          streamData.put(name, readValue())
+        } else if (name == "data" && parser.currentToken() == JsonToken.START_OBJECT) {
+          inData = true
+          envelope.put(name, streamData)
+        } else {
+          envelope.put(name, readValue())
+        }
+      } else if (token == JsonToken.END_OBJECT && inData) {
+        inData = false
+      }
+      token = parser.nextToken()
+    }
+    false
+  }
+
+  private def readValue(): Object = DWSHttpClient.jacksonJson.readValue(parser, classOf[Object])
+
+  private def populate(): Unit = {
+    init(envelope, null, streamStatusCode, streamUrl, streamContentType)
+    BeanUtils.populate(this, streamData)
+  }
+
+  private def finish(): Unit = Utils.tryFinally {
+    readUntilRows()
+    populate()
+  }(close())
+
+  override def close(): Unit = {
+    if (parser != null) IOUtils.closeQuietly(parser)
+    if (response != null) IOUtils.closeQuietly(response)
+  }
+
+  private class StreamingRowIterator extends util.Iterator[Object] {
+
+    private var nextRow: Object = _
+    private var hasNextRow = false
+    private var finished = false
+
+    override def hasNext: Boolean = {
+      if (!hasNextRow && !finished) {
+        Utils.tryCatch {
+          val token = parser.nextToken()
+          if (token != null && token != JsonToken.END_ARRAY) {
+            nextRow = readValue()
+            hasNextRow = true
+          } else {
+            finished = true
+            finish()
+          }
+        } { t =>
+          finished = true
+          close()
+          t match {
+            case e: HttpClientResultException => throw e
+            case _ =>
+              throw new HttpClientResultException(
+                s"URL $streamUrl request failed! Read rows failed, ${t.getMessage}"
+              )
+          }
+        }
+      }
+      hasNextRow
+    }
+
+    override def next(): Object = {
+      if (!hasNext) throw new NoSuchElementException("no more rows")
+      hasNextRow = false
+      val row = nextRow
+      nextRow = null
+      row
+    }
+
+  }
+
+}
@@ -49,6 +49,9 @@ class EntranceExecutionGatewayParser extends AbstractGatewayParser {
       case _ => false
     }
 
+  /** Only the route labels of the body are needed, which every body is scanned for */
+  override def requestBodyKeys(gatewayContext: GatewayContext): Array[String] = Array.empty
+
   override def parse(gatewayContext: GatewayContext): Unit =
     gatewayContext.getRequest.getRequestURI match {
       case EntranceExecutionGatewayParser.ENTRANCE_EXECUTION_REGEX(version, _) =>
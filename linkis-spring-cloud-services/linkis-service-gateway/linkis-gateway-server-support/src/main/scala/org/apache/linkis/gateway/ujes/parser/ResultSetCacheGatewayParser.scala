@@ -51,6 +51,9 @@ class ResultSetCacheGatewayParser extends AbstractGatewayParser {
       case _ => false
     }
 
+  override def requestBodyKeys(gatewayContext: GatewayContext): Array[String] =
+    Array(SERVICE_NAME_KEY, INSTANCE_KEY, FS_PATH_KEY, PAGE_SIZE_KEY)
+
   private def getServiceInstance(
       gatewayContext: GatewayContext,
       requestBody: util.Map[String, Object]
@@ -81,7 +84,9 @@ class ResultSetCacheGatewayParser extends AbstractGatewayParser {
       case RESULT_SET_CACHE_URI_REGEX(version, _) =>
         if (sendResponseWhenNotMatchVersion(gatewayContext, version)) return
         val requestBody =
-          if (StringUtils.isEmpty(gatewayContext.getRequest.getRequestBody)) {
+          if (gatewayContext.getRequest.getRequestBodyFields != null) {
+            gatewayContext.getRequest.getRequestBodyFields
+          } else if (StringUtils.isEmpty(gatewayContext.getRequest.getRequestBody)) {
             new util.HashMap[String, Object]
           } else {
             BDPJettyServerHelper.jacksonJson.readValue(
@@ -23,7 +23,7 @@ import org.apache.linkis.gateway.config.GatewayConfiguration
 import org.apache.linkis.gateway.errorcode.LinkisGatewayCoreErrorCodeSummary._
 import org.apache.linkis.gateway.exception.GatewayErrorException
 import org.apache.linkis.gateway.http.GatewayContext
-import org.apache.linkis.gateway.route.AbstractGatewayRouter
+import org.apache.linkis.gateway.route.{AbstractGatewayRouter, RouteSnapshot}
 import org.apache.linkis.instance.label.service.InsLabelService
 import org.apache.linkis.manager.label.entity.route.RouteLabel
 import org.apache.linkis.manager.label.utils.LabelUtils
@@ -43,6 +43,11 @@ abstract class AbstractLabelGatewayRouter extends AbstractGatewayRouter with Log
   @Resource
   private var insLabelService: InsLabelService = _
 
+  private lazy val labelRouteSnapshot = new RouteSnapshot[LabelRouteSnapshot](
+    "instance label",
+    () => new LabelRouteSnapshot(insLabelService.listAllInstanceWithLabel())
+  ).start(RouteSnapshot.refreshInterval)
+
   /**
    * Add to the last of router chain
    *
@@ -70,7 +75,7 @@ abstract class AbstractLabelGatewayRouter extends AbstractGatewayRouter with Log
     val canSelectInstances = if (null == routeLabels || routeLabels.isEmpty) {
       getDefaultInstances(applicationName)
     } else {
-      val candidateServices = insLabelService.searchInstancesByLabels(routeLabels)
+      val candidateServices = searchInstancesByLabels(routeLabels)
       if (null == candidateServices || candidateServices.isEmpty) {
         throw new GatewayErrorException(
           CANNOT_ROETE_SERVICE.getErrorCode,
@@ -103,11 +108,33 @@ abstract class AbstractLabelGatewayRouter extends AbstractGatewayRouter with Log
     val instances = ServiceInstanceUtils.getRPCServerLoader.getServiceInstances(applicationName)
     val allInstances = new util.ArrayList[ServiceInstance]()
     if (null != instances && instances.nonEmpty) allInstances.addAll(instances.toList.asJava)
-    val labelInstances = insLabelService.getInstancesByNames(applicationName)
+    val labelInstances = if (RouteSnapshot.isEnabled) {
+      labelRouteSnapshot.get
+        .map(_.getInstancesByName(applicationName))
+        .getOrElse(insLabelService.getInstancesByNames(applicationName))
+    } else insLabelService.getInstancesByNames(applicationName)
     allInstances.removeAll(labelInstances)
     allInstances
   }
 
+  /**
+   * Labels attached after the last refresh are not in the snapshot yet, so a miss falls back to
+   * the label service and refreshes the snapshot in background
+   */
+  private def searchInstancesByLabels(
+      routeLabels: util.List[RouteLabel]
+  ): util.List[ServiceInstance] = if (RouteSnapshot.isEnabled) {
+    val instances = labelRouteSnapshot.get
+      .map(_.searchInstancesByLabels(routeLabels))
+      .getOrElse(util.Collections.emptyList[ServiceInstance]())
+    if (!instances.isEmpty) {
+      instances
+    } else {
+      labelRouteSnapshot.refreshAsync()
+      insLabelService.searchInstancesByLabels(routeLabels)
+    }
+  } else insLabelService.searchInstancesByLabels(routeLabels)
+
   /**
    * Parse to route labels
    * @param gatewayContext
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.ujes.route
+
+import org.apache.linkis.common.ServiceInstance
+import org.apache.linkis.instance.label.entity.InstanceInfo
+import org.apache.linkis.manager.label.entity.Label
+
+import java.util
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/**
+ * Label to instance table built from all the labeled instances, answers the same lookups as
+ * InsLabelService#searchInstancesByLabels and InsLabelService#getInstancesByNames without a query
+ */
+class LabelRouteSnapshot(instances: util.List[InstanceInfo]) {
+
+  private val labelInstances =
+    new mutable.HashMap[(String, String), mutable.LinkedHashSet[ServiceInstance]]()
+
+  private val applicationInstances = new mutable.HashMap[String, util.List[ServiceInstance]]()
+
+  if (instances != null) instances.asScala.foreach { instance =>
+    if (instance.getLabels != null && !instance.getLabels.isEmpty) {
+      instance.getLabels.asScala.foreach { label =>
+        labelInstances
+          .getOrElseUpdate(
+            (label.getLabelKey, label.getStringValue),
+            new mutable.LinkedHashSet[ServiceInstance]()
+          ) += instance
+      }
+      applicationInstances
+        .getOrElseUpdate(instance.getApplicationName, new util.ArrayList[ServiceInstance]())
+        .add(instance)
+    }
+  }
+
+  /** Instances with any of the labels */
+  def searchInstancesByLabels(labels: util.List[_ <: Label[_]]): util.List[ServiceInstance] = {
+    val instances = new mutable.LinkedHashSet[ServiceInstance]()
+    labels.asScala.foreach { label =>
+      labelInstances.get((label.getLabelKey, label.getStringValue)).foreach(instances ++= _)
+    }
+    new util.ArrayList[ServiceInstance](instances.asJava)
+  }
+
+  /** Instances of the application with at least one label */
+  def getInstancesByName(applicationName: String): util.List[ServiceInstance] =
+    applicationInstances.get(applicationName) match {
+      case Some(serviceInstances) => util.Collections.unmodifiableList(serviceInstances)
+      case None => util.Collections.emptyList()
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.benchmark;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.gateway.route.ServiceIdSnapshot;
+import org.apache.linkis.gateway.ujes.route.LabelRouteSnapshot;
+import org.apache.linkis.instance.label.entity.InsPersistenceLabel;
+import org.apache.linkis.instance.label.entity.InstanceInfo;
+import org.apache.linkis.manager.label.entity.route.RouteLabel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import scala.collection.JavaConverters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Latency of routing one request by a route label from concurrent gateway threads: the per request
+ * lookups list and lower case every registered service id and search the labeled instances, the
+ * snapshot lookups read the precompiled tables. The label service is a database query in the
+ * gateway, its round trip is modelled by remoteMicros. Run with sample time mode to compare the
+ * p99 of both
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class GatewayRouteBenchmark {
+
+  private static final String[] APPLICATIONS = {
+    "linkis-cg-entrance", "linkis-cg-linkismanager", "linkis-ps-publicservice", "linkis-mg-gateway"
+  };
+
+  @Param({"50", "500"})
+  private int services;
+
+  @Param({"200"})
+  private int instances;
+
+  @Param({"0", "500"})
+  private int remoteMicros;
+
+  private List<String> serviceIds;
+
+  private List<InstanceInfo> instanceInfos;
+
+  private List<List<RouteLabel>> routeLabels;
+
+  private ServiceIdSnapshot serviceIdSnapshot;
+
+  private LabelRouteSnapshot labelRouteSnapshot;
+
+  @Setup
+  public void setup() {
+    serviceIds = new ArrayList<>();
+    Collections.addAll(serviceIds, APPLICATIONS);
+    for (int i = serviceIds.size(); i < services; i++) {
+      serviceIds.add("app-service-" + i);
+    }
+    instanceInfos = new ArrayList<>();
+    routeLabels = new ArrayList<>();
+    for (int i = 0; i < instances; i++) {
+      InstanceInfo instance = new InstanceInfo();
+      instance.setApplicationName(APPLICATIONS[0]);
+      instance.setInstance("host-" + i + ":9104");
+      InsPersistenceLabel label = new InsPersistenceLabel();
+      label.setLabelKey("route");
+      label.setStringValue("tenant-" + (i % 20));
+      instance.setLabels(Collections.singletonList(label));
+      instanceInfos.add(instance);
+    }
+    for (int i = 0; i < 20; i++) {
+      RouteLabel routeLabel = new RouteLabel();
+      routeLabel.setRoutePath("tenant-" + i);
+      routeLabels.add(Collections.singletonList(routeLabel));
+    }
+    serviceIdSnapshot =
+        new ServiceIdSnapshot(JavaConverters.asScalaBufferConverter(serviceIds).asScala());
+    labelRouteSnapshot = new LabelRouteSnapshot(instanceInfos);
+  }
+
+  private List<RouteLabel> nextLabels() {
+    return routeLabels.get(ThreadLocalRandom.current().nextInt(routeLabels.size()));
+  }
+
+  /** Same matching as AbstractGatewayRouter#findService without the snapshot */
+  private List<String> findServiceInRegistry(String parsedServiceId) {
+    List<String> matched = new ArrayList<>();
+    for (String service : serviceIds) {
+      if (service
+          .toLowerCase(Locale.getDefault())
+          .contains(parsedServiceId.toLowerCase(Locale.getDefault()))) {
+        matched.add(service);
+      }
+    }
+    return matched;
+  }
+
+  /** What the query of InsLabelService#searchInstancesByLabels selects */
+  private List<ServiceInstance> searchInstancesByLabels(List<RouteLabel> labels) {
+    if (remoteMicros > 0) {
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(remoteMicros));
+    }
+    Set<ServiceInstance> matched = new LinkedHashSet<>();
+    for (InstanceInfo instance : instanceInfos) {
+      for (InsPersistenceLabel label : instance.getLabels()) {
+        for (RouteLabel routeLabel : labels) {
+          if (routeLabel.getLabelKey().equals(label.getLabelKey())
+              && routeLabel.getStringValue().equals(label.getStringValue())) {
+            matched.add(instance);
+          }
+        }
+      }
+    }
+    return new ArrayList<>(matched);
+  }
+
+  @Benchmark
+  public ServiceInstance perRequestLookup() {
+    List<String> matched = findServiceInRegistry("entrance");
+    List<ServiceInstance> candidates = searchInstancesByLabels(nextLabels());
+    return candidates.isEmpty() || matched.isEmpty() ? null : candidates.get(0);
+  }
+
+  @Benchmark
+  public ServiceInstance snapshotLookup() {
+    scala.collection.immutable.List<String> matched = serviceIdSnapshot.find("entrance");
+    List<ServiceInstance> candidates = labelRouteSnapshot.searchInstancesByLabels(nextLabels());
+    return candidates.isEmpty() || matched.isEmpty() ? null : candidates.get(0);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(GatewayRouteBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
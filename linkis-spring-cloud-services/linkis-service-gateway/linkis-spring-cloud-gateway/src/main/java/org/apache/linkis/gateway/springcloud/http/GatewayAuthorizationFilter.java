@@ -22,6 +22,7 @@ import org.apache.linkis.common.conf.CommonVars;
 import org.apache.linkis.gateway.exception.GatewayWarnException;
 import org.apache.linkis.gateway.http.BaseGatewayContext;
 import org.apache.linkis.gateway.parser.GatewayParser;
+import org.apache.linkis.gateway.parser.RequestBodyFieldScanner;
 import org.apache.linkis.gateway.route.GatewayRouter;
 import org.apache.linkis.gateway.security.LinkisPreFilter;
 import org.apache.linkis.gateway.security.LinkisPreFilter$;
@@ -42,6 +43,7 @@ import org.springframework.core.Ordered;
 import org.springframework.core.codec.AbstractDataBufferDecoder;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.DecoderHttpMessageReader;
 import org.springframework.http.server.reactive.AbstractServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -69,6 +71,20 @@ public class GatewayAuthorizationFilter implements GlobalFilter, Ordered {
   private final Integer MAX_BUFFER_SIZE =
       CommonVars.apply("wds.linkis.gateway.max.buffer.size", 128 * 1024 * 1024).getValue();
 
+  /**
+   * Scan the json body only for the fields the parsers declare and forward the original body
+   * buffers, instead of decoding the whole body into a String
+   */
+  private final Boolean REQUEST_BODY_STREAMING_ENABLED =
+      CommonVars.apply("linkis.gateway.request.body.streaming.enable", false).getValue();
+
+  /** Bytes of the body scanned for the fields, the request is routed without the missing ones */
+  private final Integer REQUEST_BODY_SCAN_MAX =
+      CommonVars.apply("linkis.gateway.request.body.scan.max", 4 * 1024 * 1024).getValue();
+
+  private final Integer REQUEST_BODY_FIELD_MAX_LENGTH =
+      CommonVars.apply("linkis.gateway.request.body.field.max.length", 64 * 1024).getValue();
+
   private List<LinkisPreFilter> linkisPreFilters = LinkisPreFilter$.MODULE$.getLinkisPreFilters();
 
   public GatewayAuthorizationFilter(
@@ -240,12 +256,102 @@ public class GatewayAuthorizationFilter implements GlobalFilter, Ordered {
     return chain.filter(exchange.mutate().request(builder.build()).build());
   }
 
+  /**
+   * Route by the fields scanned from the head of the body, the scanned buffers are held only until
+   * the fields are found and then forwarded untouched followed by the rest of the body. When the
+   * scan is truncated before finding them, the whole body is parsed as without streaming
+   * (只扫描请求体头部的路由字段，原始数据块原样转发；扫描被截断时改为完整解析请求体)
+   */
+  private Mono<Void> streamingGatewayDeal(
+      ServerWebExchange exchange,
+      GatewayFilterChain chain,
+      BaseGatewayContext gatewayContext,
+      String[] requestBodyKeys) {
+    ServerHttpRequest request = exchange.getRequest();
+    SpringCloudGatewayHttpRequest gatewayHttpRequest =
+        (SpringCloudGatewayHttpRequest) gatewayContext.getRequest();
+    RequestBodyFieldScanner scanner =
+        new RequestBodyFieldScanner(
+            requestBodyKeys, REQUEST_BODY_FIELD_MAX_LENGTH, REQUEST_BODY_SCAN_MAX);
+    return request
+        .getBody()
+        // once the scan is finished every buffer is a chunk of its own
+        .bufferUntil(buffer -> scanner.isFinished() || scanner.scan(buffer.asByteBuffer()))
+        .switchOnFirst(
+            (signal, chunks) -> {
+              if (signal.isOnError()) {
+                return chunks.then();
+              }
+              if (scanner.isTruncated()) {
+                // never route without the fields, they may be further in the body
+                return DataBufferUtils.join(
+                        chunks.concatMapIterable(buffers -> buffers), MAX_BUFFER_SIZE)
+                    .flatMap(
+                        joined -> {
+                          String requestBody = joined.toString(StandardCharsets.UTF_8);
+                          DataBufferUtils.release(joined);
+                          return bufferedGatewayDeal(exchange, chain, gatewayContext, requestBody);
+                        });
+              }
+              gatewayHttpRequest.setRequestBodyFields(scanner.getFields());
+              Flux<DataBuffer> body =
+                  chunks
+                      .concatMapIterable(buffers -> buffers)
+                      .doOnDiscard(Object.class, GatewayAuthorizationFilter::releaseBuffers);
+              ServerHttpRequestDecorator decorator =
+                  new ServerHttpRequestDecorator(request) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                      return body;
+                    }
+                  };
+              return gatewayDeal(
+                  exchange.mutate().request(decorator).build(), chain, gatewayContext);
+            })
+        // buffers held when the request is answered without forwarding the body
+        .doOnDiscard(Object.class, GatewayAuthorizationFilter::releaseBuffers)
+        .then();
+  }
+
+  /** Route by the whole body read as a string, which is forwarded in place of the original one */
+  private Mono<Void> bufferedGatewayDeal(
+      ServerWebExchange exchange,
+      GatewayFilterChain chain,
+      BaseGatewayContext gatewayContext,
+      String requestBody) {
+    ((SpringCloudGatewayHttpRequest) gatewayContext.getRequest()).setRequestBody(requestBody);
+    ServerHttpRequestDecorator decorator =
+        new ServerHttpRequestDecorator(exchange.getRequest()) {
+          @Override
+          public Flux<DataBuffer> getBody() {
+            if (StringUtils.isBlank(requestBody)) {
+              return Flux.empty();
+            }
+            DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+            return Flux.just(bufferFactory.wrap(requestBody.getBytes(StandardCharsets.UTF_8)));
+          }
+        };
+    return gatewayDeal(exchange.mutate().request(decorator).build(), chain, gatewayContext);
+  }
+
+  private static void releaseBuffers(Object discarded) {
+    if (discarded instanceof DataBuffer) {
+      DataBufferUtils.release((DataBuffer) discarded);
+    } else if (discarded instanceof List) {
+      ((List<?>) discarded).forEach(GatewayAuthorizationFilter::releaseBuffers);
+    }
+  }
+
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-    AbstractServerHttpRequest request = (AbstractServerHttpRequest) exchange.getRequest();
     Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
     BaseGatewayContext gatewayContext = getBaseGatewayContext(exchange, route);
     if (!gatewayContext.isWebSocketRequest() && parser.shouldContainRequestBody(gatewayContext)) {
+      String[] requestBodyKeys =
+          REQUEST_BODY_STREAMING_ENABLED ? parser.requestBodyKeys(gatewayContext) : null;
+      if (requestBodyKeys != null) {
+        return streamingGatewayDeal(exchange, chain, gatewayContext, requestBodyKeys);
+      }
       DefaultServerRequest defaultServerRequest = new DefaultServerRequest(exchange);
       defaultServerRequest.messageReaders().stream()
           .filter(reader -> reader instanceof DecoderHttpMessageReader)
@@ -261,24 +367,7 @@ public class GatewayAuthorizationFilter implements GlobalFilter, Ordered {
       return defaultServerRequest
           .bodyToMono(String.class)
           .flatMap(
-              requestBody -> {
-                ((SpringCloudGatewayHttpRequest) gatewayContext.getRequest())
-                    .setRequestBody(requestBody);
-                ServerHttpRequestDecorator decorator =
-                    new ServerHttpRequestDecorator(request) {
-                      @Override
-                      public Flux<DataBuffer> getBody() {
-                        if (StringUtils.isBlank(requestBody)) {
-                          return Flux.empty();
-                        }
-                        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
-                        return Flux.just(
-                            bufferFactory.wrap(requestBody.getBytes(StandardCharsets.UTF_8)));
-                      }
-                    };
-                return gatewayDeal(
-                    exchange.mutate().request(decorator).build(), chain, gatewayContext);
-              });
+              requestBody -> bufferedGatewayDeal(exchange, chain, gatewayContext, requestBody));
     } else {
       return gatewayDeal(exchange, chain, gatewayContext);
     }
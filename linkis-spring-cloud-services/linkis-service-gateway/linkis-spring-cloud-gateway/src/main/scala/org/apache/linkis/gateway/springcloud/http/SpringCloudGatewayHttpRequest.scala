@@ -72,6 +72,7 @@ class SpringCloudGatewayHttpRequest(request: AbstractServerHttpRequest) extends
   private val addHeaders = new JMap[String, Array[String]]
 
   private var requestBody: String = _
+  private var requestBodyFields: util.Map[String, Object] = _
   private var requestURI: String = _
   private var requestAutowired = false
 
@@ -147,5 +148,12 @@ class SpringCloudGatewayHttpRequest(request: AbstractServerHttpRequest) extends
 
   override def getRequestBody: String = requestBody
 
+  def setRequestBodyFields(requestBodyFields: util.Map[String, Object]): Unit = {
+    this.requestBodyFields = requestBodyFields
+    requestAutowired = true
+  }
+
+  override def getRequestBodyFields: util.Map[String, Object] = requestBodyFields
+
   def isRequestBodyAutowired: Boolean = requestAutowired
 }